@@ -1,13 +1,23 @@
 package co.com.crediya;
 
+import co.com.crediya.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
 @ConfigurationPropertiesScan
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class MainApplication {
+
+    /** Startup steps kept for the actuator startup endpoint; later steps are dropped */
+    private static final int STARTUP_STEPS_CAPACITY = 8192;
+
     public static void main(String[] args) {
-        SpringApplication.run(MainApplication.class, args);
+        SpringApplication application = new SpringApplication(MainApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+        application.run(args);
     }
 }
@@ -0,0 +1,76 @@
+package co.com.crediya.config;
+
+import co.com.crediya.api.dto.ApiResponse;
+import co.com.crediya.api.dto.ErrorResponse;
+import co.com.crediya.api.dto.LoginRequestDTO;
+import co.com.crediya.api.dto.LoginResponseDTO;
+import co.com.crediya.api.dto.LogoutRequestDTO;
+import co.com.crediya.api.dto.RefreshTokenRequestDTO;
+import co.com.crediya.api.dto.SalaryBucketDTO;
+import co.com.crediya.api.dto.TokenValidationRequestDTO;
+import co.com.crediya.api.dto.TokenValidationResponseDTO;
+import co.com.crediya.api.dto.UserActivityDTO;
+import co.com.crediya.api.dto.UserAuthDTO;
+import co.com.crediya.api.dto.UserChangeDTO;
+import co.com.crediya.api.dto.UserDTO;
+import co.com.crediya.api.dto.UserRequestDTO;
+import co.com.crediya.api.dto.UserSearchHitDTO;
+import co.com.crediya.api.dto.UserSearchPageDTO;
+import co.com.crediya.api.dto.UserStatisticsDTO;
+import co.com.crediya.api.dto.ValidationError;
+import co.com.crediya.model.user.User;
+import co.com.crediya.r2dbc.UserReactiveRepositoryAdapter;
+import co.com.crediya.r2dbc.entity.UserEntity;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for what Spring AOT cannot infer, needed by the native image:
+ * <ul>
+ *     <li>JSON bodies of the functional endpoints, which unlike controllers declare no return types</li>
+ *     <li>JJWT, which finds its implementation and serializer classes by name</li>
+ *     <li>the reactivecommons {@code ObjectMapperImp} mappings and the generic type lookup of
+ *     {@code ReactiveAdapterOperations}</li>
+ *     <li>the R2DBC driver service file and the springdoc UI resources</li>
+ * </ul>
+ * Libraries covered by the GraalVM reachability metadata repository are not repeated here.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> JSON_TYPES = List.of(
+            ApiResponse.class, ErrorResponse.class, ValidationError.class,
+            LoginRequestDTO.class, LoginResponseDTO.class, LogoutRequestDTO.class, RefreshTokenRequestDTO.class,
+            TokenValidationRequestDTO.class, TokenValidationResponseDTO.class,
+            UserActivityDTO.class, UserAuthDTO.class, UserChangeDTO.class, UserDTO.class, UserRequestDTO.class,
+            UserSearchHitDTO.class, UserSearchPageDTO.class, UserStatisticsDTO.class, SalaryBucketDTO.class);
+
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.impl.io.RuntimeClasspathSerializerLocator",
+            "io.jsonwebtoken.impl.io.RuntimeClasspathDeserializerLocator",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(), JSON_TYPES.toArray(Class<?>[]::new));
+        bindings.registerReflectionHints(hints.reflection(), User.class, UserEntity.class);
+
+        JJWT_TYPES.forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+        hints.reflection().registerType(UserReactiveRepositoryAdapter.class);
+
+        hints.resources().registerPattern("META-INF/services/io.r2dbc.spi.ConnectionFactoryProvider");
+        hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/*");
+        hints.resources().registerPattern("db/*.sql");
+    }
+}
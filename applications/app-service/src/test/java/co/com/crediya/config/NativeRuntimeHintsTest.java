@@ -0,0 +1,40 @@
+package co.com.crediya.config;
+
+import co.com.crediya.api.dto.UserDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void responseBodiesCanBeSerialized() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserDTO.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        NativeRuntimeHints.JSON_TYPES.forEach(type ->
+                assertThat(RuntimeHintsPredicates.reflection().onType(type)).accepts(hints));
+    }
+
+    @Test
+    void jjwtImplementationsCanBeInstantiated() {
+        NativeRuntimeHints.JJWT_TYPES.forEach(type ->
+                assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                        .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints));
+    }
+
+    @Test
+    void driverServiceFileIsIncluded() {
+        assertThat(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.r2dbc.spi.ConnectionFactoryProvider")).accepts(hints);
+    }
+}
@@ -0,0 +1,22 @@
+#!/usr/bin/env sh
+# CRAC_MODE=checkpoint starts the service, warms it up and writes the checkpoint, then exits.
+# CRAC_MODE=restore restores the service from that checkpoint.
+set -eu
+
+checkpoint_dir=/application/checkpoint
+
+case "${CRAC_MODE:-checkpoint}" in
+    checkpoint)
+        # epoll descriptors opened by Netty's native transport cannot be checkpointed
+        exec java $JAVA_OPTS -XX:CRaCCheckpointTo="$checkpoint_dir" \
+            -Dcrac.checkpoint-on-ready=true -Dnetty-server.native-transport=false \
+            -jar application.jar
+        ;;
+    restore)
+        exec java -XX:CRaCRestoreFrom="$checkpoint_dir"
+        ;;
+    *)
+        echo "Unknown CRAC_MODE ${CRAC_MODE}, expected checkpoint or restore" >&2
+        exit 1
+        ;;
+esac
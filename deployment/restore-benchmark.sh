@@ -0,0 +1,44 @@
+#!/usr/bin/env sh
+# Measures how long a CRaC-restored service takes to serve traffic, to compare with startup-benchmark.sh.
+# Each run starts the given command, polls the readiness probe until it answers 200, samples VmRSS
+# and stops the process. restore_ms is what Spring reports for restarting its lifecycle beans;
+# ready_ms is wall time from launch to the first successful probe, which is what callers see.
+#
+#   deployment/restore-benchmark.sh crac 5 java -XX:CRaCRestoreFrom=checkpoint
+#   deployment/restore-benchmark.sh cds  5 java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar application.jar
+set -eu
+
+label=$1
+runs=$2
+shift 2
+probe=${READINESS_URL:-http://localhost:8080/actuator/health/readiness}
+
+log=$(mktemp)
+trap 'rm -f "$log"' EXIT
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+i=1
+while [ "$i" -le "$runs" ]; do
+    launched=$(now_ms)
+    "$@" >"$log" 2>&1 &
+    pid=$!
+    until curl -fs -o /dev/null "$probe"; do
+        if ! kill -0 "$pid" 2>/dev/null || [ $(($(now_ms) - launched)) -ge 60000 ]; then
+            echo "run $i of $label did not become ready, see output below" >&2
+            cat "$log" >&2
+            kill "$pid" 2>/dev/null || true
+            exit 1
+        fi
+        sleep 0.01
+    done
+    ready=$(($(now_ms) - launched))
+    restore=$(grep -o "restored JVM running for [0-9]* ms" "$log" | grep -o "[0-9]*" || echo "-")
+    rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+    printf '%s\trun=%s\tready_ms=%s\trestore_ms=%s\trss_mb=%s\n' "$label" "$i" "$ready" "$restore" "$((rss / 1024))"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    i=$((i + 1))
+done
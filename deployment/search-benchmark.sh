@@ -0,0 +1,76 @@
+#!/usr/bin/env sh
+# Measures GET /api/users/search latency per query shape against a running service.
+# With SEED_USERS set, first fills the users table through psql (PG* variables, as for psql) with that
+# many synthetic users, applies db/user_search.sql and refreshes the planner statistics.
+# Fails when the p95 of any shape is above the target.
+#
+#   TOKEN=... deployment/search-benchmark.sh http://localhost:8080 200 50
+#   SEED_USERS=1000000 TOKEN=... deployment/search-benchmark.sh http://localhost:8080 200 50
+set -eu
+
+base_url=$1
+runs=$2
+target_p95_ms=$3
+
+script_dir=$(dirname "$0")
+indexes="$script_dir/../infrastructure/driven-adapters/r2dbc-postgresql/src/main/resources/db/user_search.sql"
+
+if [ -n "${SEED_USERS:-}" ]; then
+    psql -v ON_ERROR_STOP=1 -q <<SQL
+INSERT INTO users (id, first_name, last_name, email, base_salary, password_hash, role, document_type, document_id)
+SELECT gen_random_uuid(),
+       (ARRAY['Ana', 'Juan', 'Maria', 'Carlos', 'Laura', 'Andres', 'Sofia', 'Diego'])[1 + i % 8] || i % 997,
+       (ARRAY['Gomez', 'Rodriguez', 'Martinez', 'Lopez', 'Garcia', 'Hernandez'])[1 + i % 6] || i % 991,
+       'user' || i || '@bench.example.com',
+       1000000 + (i % 14000000),
+       '\$2a\$10\$benchmark',
+       (ARRAY['USER', 'USER', 'USER', 'ADVISOR', 'ADMIN'])[1 + i % 5],
+       (ARRAY['CC', 'CE', 'PP'])[1 + i % 3],
+       lpad(i::text, 10, '0')
+FROM generate_series(1, $SEED_USERS) AS i
+ON CONFLICT DO NOTHING;
+SQL
+    # CREATE INDEX CONCURRENTLY cannot run inside the implicit transaction of a multi-statement -c
+    grep -v '^--' "$indexes" | tr '\n' ' ' | tr ';' '\n' | while read -r statement; do
+        if [ -n "$statement" ]; then
+            psql -v ON_ERROR_STOP=1 -q -c "$statement"
+        fi
+    done
+    psql -v ON_ERROR_STOP=1 -q -c "ANALYZE users"
+fi
+
+samples=$(mktemp)
+trap 'rm -f "$samples"' EXIT
+failed=0
+
+measure() {
+    shape=$1
+    query=$2
+    : >"$samples"
+    i=1
+    while [ "$i" -le "$runs" ]; do
+        curl -s -o /dev/null -w '%{time_total}\n' \
+            -H "Authorization: Bearer $TOKEN" \
+            -H 'Accept: application/json' \
+            "$base_url/api/users/search?$query" >>"$samples"
+        i=$((i + 1))
+    done
+    sort -n "$samples" | awk -v shape="$shape" -v target="$target_p95_ms" '
+        { ms[NR] = $1 * 1000 }
+        END {
+            p50 = ms[int(NR * 0.50 + 0.5)]; p95 = ms[int(NR * 0.95 + 0.5)]; p99 = ms[int(NR * 0.99 + 0.5)]
+            printf "%s\tp50_ms=%.1f\tp95_ms=%.1f\tp99_ms=%.1f\n", shape, p50, p95, p99
+            exit (p95 > target) ? 1 : 0
+        }' || failed=1
+}
+
+measure name           'name=mari&limit=20'
+measure email-prefix   'emailPrefix=user12&limit=20'
+measure document       'documentIdPrefix=00001&limit=20'
+measure role           'role=ADVISOR&limit=50'
+measure name-and-role  'name=carlos%20gom&role=USER&limit=20'
+
+if [ "$failed" -ne 0 ]; then
+    echo "p95 above ${target_p95_ms} ms for at least one query shape" >&2
+    exit 1
+fi
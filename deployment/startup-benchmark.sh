@@ -0,0 +1,39 @@
+#!/usr/bin/env sh
+# Compares startup time and resident memory of the service builds.
+# Each run starts the given command, waits for Spring Boot's "Started ... in" log line,
+# samples VmRSS of the process and stops it. Needs a reachable database, as in production.
+#
+#   deployment/startup-benchmark.sh jvm    5 java -jar app.jar
+#   deployment/startup-benchmark.sh cds    5 java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar application.jar
+#   deployment/startup-benchmark.sh native 5 ./crediya-auth-ms
+set -eu
+
+label=$1
+runs=$2
+shift 2
+
+log=$(mktemp)
+trap 'rm -f "$log"' EXIT
+
+i=1
+while [ "$i" -le "$runs" ]; do
+    "$@" >"$log" 2>&1 &
+    pid=$!
+    waited=0
+    until grep -q "Started MainApplication in" "$log"; do
+        if ! kill -0 "$pid" 2>/dev/null || [ "$waited" -ge 600 ]; then
+            echo "run $i of $label did not start, see output below" >&2
+            cat "$log" >&2
+            kill "$pid" 2>/dev/null || true
+            exit 1
+        fi
+        sleep 0.1
+        waited=$((waited + 1))
+    done
+    started=$(grep -o "Started MainApplication in [0-9.]* seconds" "$log" | grep -o "[0-9.]*")
+    rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+    printf '%s\trun=%s\tstartup_s=%s\trss_mb=%s\n' "$label" "$i" "$started" "$((rss / 1024))"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    i=$((i + 1))
+done
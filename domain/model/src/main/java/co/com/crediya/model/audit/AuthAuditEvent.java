@@ -0,0 +1,37 @@
+package co.com.crediya.model.audit;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@Builder(toBuilder = true)
+public class AuthAuditEvent {
+    private final AuthAuditEventType type;
+    /** ID of the user involved, null when it could not be resolved */
+    private final String userId;
+    /** Identity presented by the caller, e.g. the login email */
+    private final String principal;
+    private final String detail;
+    private final Instant occurredAt;
+
+    public static AuthAuditEvent of(AuthAuditEventType type, String userId, String principal, String detail) {
+        return AuthAuditEvent.builder()
+                .type(type)
+                .userId(userId)
+                .principal(principal)
+                .detail(detail)
+                .occurredAt(Instant.now())
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "AuthAuditEvent{" +
+                "type=" + type +
+                ", userId='" + userId + '\'' +
+                ", occurredAt=" + occurredAt +
+                '}';
+    }
+}
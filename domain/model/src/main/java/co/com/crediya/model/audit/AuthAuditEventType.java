@@ -0,0 +1,10 @@
+package co.com.crediya.model.audit;
+
+public enum AuthAuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    TOKEN_VALIDATION_SUCCESS,
+    TOKEN_VALIDATION_FAILURE,
+    /** A login succeeded but its hash could not be upgraded to the current parameters */
+    PASSWORD_REHASH_FAILURE
+}
@@ -0,0 +1,13 @@
+package co.com.crediya.model.audit.gateways;
+
+import co.com.crediya.model.audit.AuthAuditEvent;
+
+public interface AuthAuditGateway {
+
+    /**
+     * Records an authentication event. Implementations must not block nor fail the caller;
+     * events are persisted asynchronously.
+     * @param event Event to record
+     */
+    void record(AuthAuditEvent event);
+}
@@ -0,0 +1,53 @@
+package co.com.crediya.model.common;
+
+import co.com.crediya.model.common.exception.DeadlineExceededException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Point in time after which nobody is waiting for the result of the current request.
+ * Entry points store it in the Reactor context; expensive steps check it before starting.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class Deadline {
+
+    /** Reactor context key under which entry points store the deadline of the current request */
+    public static final String CONTEXT_KEY = "co.com.crediya.deadline";
+
+    private final Instant expiresAt;
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(Instant.now().plus(timeout));
+    }
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+
+    /**
+     * @return Time left, zero once expired
+     */
+    public Duration remaining() {
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    /**
+     * Fails with {@link DeadlineExceededException} if the deadline in the subscriber context has passed.
+     * Completes empty when there is no deadline
+     * @param stage Step about to start, reported in the exception
+     * @return Mono that completes empty or fails
+     */
+    public static Mono<Void> ensureNotExpired(DeadlineStage stage) {
+        return Mono.deferContextual(context -> context.<Deadline>getOrEmpty(CONTEXT_KEY)
+                .filter(Deadline::isExpired)
+                .<Mono<Void>>map(deadline -> Mono.error(new DeadlineExceededException(stage)))
+                .orElseGet(Mono::empty));
+    }
+}
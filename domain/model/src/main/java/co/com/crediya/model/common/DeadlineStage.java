@@ -0,0 +1,23 @@
+package co.com.crediya.model.common;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Step a request was about to start when its deadline passed.
+ * {@link #tag()} is the value of the {@code stage} tag of the {@code deadline.exceeded} metric.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DeadlineStage {
+    CONNECTION("connection acquisition"),
+    PASSWORD_HASHING("password hashing"),
+    /** The whole request ran past its deadline before responding */
+    RESPONSE("response");
+
+    private final String description;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,17 @@
+package co.com.crediya.model.common;
+
+/**
+ * Priority class of a request. Each class gets its own concurrency limits and database
+ * connections, so lower classes degrade first under overload.
+ */
+public enum RequestPriority {
+    /** Login and token validation */
+    AUTH_CRITICAL,
+    /** Single user lookups and existence checks */
+    LOOKUP,
+    /** Listings, feeds, admin operations and background work */
+    BULK;
+
+    /** Reactor context key under which entry points store the priority of the current request */
+    public static final String CONTEXT_KEY = "co.com.crediya.request-priority";
+}
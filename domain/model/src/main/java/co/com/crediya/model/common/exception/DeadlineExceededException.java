@@ -0,0 +1,18 @@
+package co.com.crediya.model.common.exception;
+
+import co.com.crediya.model.common.DeadlineStage;
+import lombok.Getter;
+
+/**
+ * Exception thrown when a step is skipped because the request deadline has passed
+ */
+@Getter
+public class DeadlineExceededException extends DomainException {
+
+    private final DeadlineStage stage;
+
+    public DeadlineExceededException(DeadlineStage stage) {
+        super("Request deadline exceeded before " + stage.getDescription());
+        this.stage = stage;
+    }
+}
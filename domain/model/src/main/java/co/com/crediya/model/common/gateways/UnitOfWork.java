@@ -0,0 +1,45 @@
+package co.com.crediya.model.common.gateways;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Explicit transaction boundaries for use cases.
+ * Single-statement reads must not be wrapped; only multi-statement
+ * writes use {@link #inTransaction} and scatter reads that need a
+ * consistent snapshot use {@link #readOnly}.
+ */
+public interface UnitOfWork {
+
+    /**
+     * Runs the given pipeline inside a read-write transaction,
+     * joining an already active one if present
+     * @param work Pipeline to run
+     * @return Mono with the pipeline result
+     */
+    <T> Mono<T> inTransaction(Mono<T> work);
+
+    /**
+     * Runs the given pipeline inside a read-write transaction,
+     * joining an already active one if present
+     * @param work Pipeline to run
+     * @return Flux with the pipeline results
+     */
+    <T> Flux<T> inTransaction(Flux<T> work);
+
+    /**
+     * Runs the given pipeline inside a read-only transaction,
+     * so every statement in it reads the same snapshot
+     * @param work Pipeline to run
+     * @return Mono with the pipeline result
+     */
+    <T> Mono<T> readOnly(Mono<T> work);
+
+    /**
+     * Runs the given pipeline inside a read-only transaction,
+     * so every statement in it reads the same snapshot
+     * @param work Pipeline to run
+     * @return Flux with the pipeline results
+     */
+    <T> Flux<T> readOnly(Flux<T> work);
+}
@@ -0,0 +1,32 @@
+package co.com.crediya.model.idempotency;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Outcome stored for an idempotency key, replayed when the same request is sent again.
+ * A record without a response status is still being executed.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class IdempotencyRecord {
+    private final String key;
+    private final String requestHash;
+    private final Integer responseStatus;
+    private final String contentType;
+    private final byte[] responseBody;
+    private final Instant expiresAt;
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+
+    /**
+     * @return true if the record was created by a request with the same hash
+     */
+    public boolean matches(String otherRequestHash) {
+        return requestHash.equals(otherRequestHash);
+    }
+}
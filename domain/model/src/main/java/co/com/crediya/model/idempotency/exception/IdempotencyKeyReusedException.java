@@ -0,0 +1,13 @@
+package co.com.crediya.model.idempotency.exception;
+
+import co.com.crediya.model.common.exception.BusinessRuleException;
+
+/**
+ * Exception thrown when an idempotency key is sent again with a different request
+ */
+public class IdempotencyKeyReusedException extends BusinessRuleException {
+
+    public IdempotencyKeyReusedException() {
+        super("Idempotency key was already used for a different request");
+    }
+}
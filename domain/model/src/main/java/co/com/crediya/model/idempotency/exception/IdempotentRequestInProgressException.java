@@ -0,0 +1,13 @@
+package co.com.crediya.model.idempotency.exception;
+
+import co.com.crediya.model.common.exception.BusinessRuleException;
+
+/**
+ * Exception thrown when the request of an idempotency key is still running elsewhere
+ */
+public class IdempotentRequestInProgressException extends BusinessRuleException {
+
+    public IdempotentRequestInProgressException() {
+        super("A request with the same idempotency key is still in progress");
+    }
+}
@@ -0,0 +1,39 @@
+package co.com.crediya.model.idempotency.gateways;
+
+import co.com.crediya.model.idempotency.IdempotencyRecord;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+public interface IdempotencyRepository {
+
+    /**
+     * Reserves a key for a request about to run. An expired record with the same key is replaced
+     * @param key Idempotency key
+     * @param requestHash Hash of the request the key is reserved for
+     * @param lockedUntil When the reservation lapses if the request never completes
+     * @return Mono with true if the key was reserved, false if another request holds it
+     */
+    Mono<Boolean> tryClaim(String key, String requestHash, Instant lockedUntil);
+
+    /**
+     * Finds the unexpired record of a key
+     * @param key Idempotency key
+     * @return Mono with the record or empty if there is none
+     */
+    Mono<IdempotencyRecord> findByKey(String key);
+
+    /**
+     * Stores the response of a reserved key, keeping it until {@link IdempotencyRecord#getExpiresAt()}
+     * @param completed Record with the response
+     * @return Mono that completes when stored
+     */
+    Mono<Void> complete(IdempotencyRecord completed);
+
+    /**
+     * Drops the reservation of a key whose request failed, so a retry can run it again
+     * @param key Idempotency key
+     * @return Mono that completes when released
+     */
+    Mono<Void> release(String key);
+}
@@ -0,0 +1,18 @@
+package co.com.crediya.model.user;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Users whose base salary falls in [lowerBound, upperBound)
+ */
+@Getter
+@Builder(toBuilder = true)
+public class SalaryBucket {
+    private final BigDecimal lowerBound;
+    /** Null for the last bucket, which has no upper bound */
+    private final BigDecimal upperBound;
+    private final long users;
+}
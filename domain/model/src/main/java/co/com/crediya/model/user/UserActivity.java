@@ -0,0 +1,38 @@
+package co.com.crediya.model.user;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@Builder(toBuilder = true)
+public class UserActivity {
+    private final String userId;
+    private final Instant lastLoginAt;
+    private final long loginCount;
+    private final String lastLoginIp;
+
+    public static UserActivity none(String userId) {
+        return UserActivity.builder()
+                .userId(userId)
+                .loginCount(0)
+                .build();
+    }
+
+    /**
+     * Combines two activity records of the same user, keeping the most recent login
+     * @param other Activity to add to this one
+     * @return Merged activity
+     */
+    public UserActivity merge(UserActivity other) {
+        boolean otherIsNewer = other.lastLoginAt != null
+                && (lastLoginAt == null || other.lastLoginAt.isAfter(lastLoginAt));
+        return UserActivity.builder()
+                .userId(userId)
+                .loginCount(loginCount + other.loginCount)
+                .lastLoginAt(otherIsNewer ? other.lastLoginAt : lastLoginAt)
+                .lastLoginIp(otherIsNewer ? other.lastLoginIp : lastLoginIp)
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package co.com.crediya.model.user;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Entry of the user change feed. The position is increasing in commit order and
+ * lets consumers resume from the last change they applied.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class UserChange {
+    private final UserChangePosition position;
+    private final String userId;
+    private final UserChangeType type;
+    private final Instant occurredAt;
+    /** Current state of the user, null for {@link UserChangeType#DELETE} */
+    private final User user;
+
+    /**
+     * @param horizon Position the snapshot was taken at
+     * @param user Current state of the user
+     */
+    public static UserChange snapshot(UserChangePosition horizon, User user) {
+        return UserChange.builder()
+                .position(horizon.inSnapshot(user.getId()))
+                .userId(user.getId())
+                .type(UserChangeType.SNAPSHOT)
+                .user(user)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "UserChange{" +
+                "position=" + position +
+                ", userId='" + userId + '\'' +
+                ", type=" + type +
+                ", occurredAt=" + occurredAt +
+                '}';
+    }
+}
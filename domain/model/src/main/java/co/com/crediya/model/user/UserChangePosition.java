@@ -0,0 +1,84 @@
+package co.com.crediya.model.user;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Resumable position in the user change feed, ordered by commit rather than by insert.
+ * Changes are ordered by the ID of the transaction that wrote them and then by their outbox ID,
+ * and the feed only hands out changes of transactions that have already finished, so a
+ * transaction that commits late can never land behind a position a consumer already holds.
+ * While a snapshot is streamed the position also carries the last user emitted, so a consumer
+ * that reconnects mid-snapshot continues after that user instead of losing the rest.
+ */
+@Getter
+@EqualsAndHashCode
+public final class UserChangePosition implements Comparable<UserChangePosition> {
+
+    /** Position before every change */
+    public static final UserChangePosition START = new UserChangePosition(0, 0, null);
+
+    private final long transactionId;
+    private final long changeId;
+    /** Last user emitted by the snapshot in progress, null once the feed is tailing */
+    private final String snapshotUserId;
+
+    private UserChangePosition(long transactionId, long changeId, String snapshotUserId) {
+        if (transactionId < 0 || changeId < 0) {
+            throw new IllegalArgumentException("Change positions cannot be negative");
+        }
+        this.transactionId = transactionId;
+        this.changeId = changeId;
+        this.snapshotUserId = snapshotUserId;
+    }
+
+    /**
+     * Position right after a change
+     * @param transactionId ID of the transaction that recorded the change
+     * @param changeId Outbox ID of the change
+     */
+    public static UserChangePosition of(long transactionId, long changeId) {
+        return new UserChangePosition(transactionId, changeId, null);
+    }
+
+    /**
+     * Position before every change of the transactions still running or not started yet
+     * @param horizon Oldest transaction ID still running when the horizon was read
+     */
+    public static UserChangePosition horizon(long horizon) {
+        return new UserChangePosition(horizon, 0, null);
+    }
+
+    /**
+     * Position of a user emitted by a snapshot taken at this horizon
+     * @param userId User just emitted
+     */
+    public UserChangePosition inSnapshot(String userId) {
+        return new UserChangePosition(transactionId, changeId, userId);
+    }
+
+    /**
+     * Position where the tail starts once the snapshot is complete
+     */
+    public UserChangePosition afterSnapshot() {
+        return new UserChangePosition(transactionId, changeId, null);
+    }
+
+    public boolean isSnapshot() {
+        return snapshotUserId != null;
+    }
+
+    /**
+     * Orders positions by transaction and change; snapshot progress is not compared
+     */
+    @Override
+    public int compareTo(UserChangePosition other) {
+        int byTransaction = Long.compare(transactionId, other.transactionId);
+        return byTransaction != 0 ? byTransaction : Long.compare(changeId, other.changeId);
+    }
+
+    @Override
+    public String toString() {
+        return transactionId + ":" + changeId + (snapshotUserId != null ? ":" + snapshotUserId : "");
+    }
+}
@@ -0,0 +1,10 @@
+package co.com.crediya.model.user;
+
+public enum UserChangeType {
+    /** Current state of a user emitted while bootstrapping a replica */
+    SNAPSHOT,
+    /** User was created or updated */
+    UPSERT,
+    /** User was removed */
+    DELETE
+}
@@ -0,0 +1,31 @@
+package co.com.crediya.model.user;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Filters of a user search; every criterion given must match. Results are ranked by relevance
+ * and paginated with a keyset: pass the score and ID of the last hit of a page to get the next one.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class UserSearchCriteria {
+    /** Fuzzy match on first and last name, tolerant of typos and partial words */
+    private final String name;
+    private final String emailPrefix;
+    private final String documentIdPrefix;
+    private final Role role;
+    private final int limit;
+    /** Score of the last hit of the previous page, null for the first page */
+    private final Double afterScore;
+    /** ID of the last hit of the previous page, null for the first page */
+    private final String afterId;
+
+    public boolean hasRankedCriteria() {
+        return name != null || emailPrefix != null || documentIdPrefix != null;
+    }
+
+    public boolean isFirstPage() {
+        return afterId == null;
+    }
+}
@@ -0,0 +1,15 @@
+package co.com.crediya.model.user;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A user matching a search, with the relevance it was ranked by
+ */
+@Getter
+@Builder(toBuilder = true)
+public class UserSearchHit {
+    private final User user;
+    /** Higher is more relevant; 0 when only unranked criteria, such as the role, were given */
+    private final double score;
+}
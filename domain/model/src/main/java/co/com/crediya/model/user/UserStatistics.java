@@ -0,0 +1,54 @@
+package co.com.crediya.model.user;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * User counts per role, document type and salary bucket, as of {@code refreshedAt}.
+ * Maps hold every known role and document type, with zero for the ones without users.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class UserStatistics {
+    private final long totalUsers;
+    private final Map<Role, Long> usersByRole;
+    private final Map<DocumentType, Long> usersByDocumentType;
+    /** Ordered by lower bound, without gaps */
+    private final List<SalaryBucket> salaryHistogram;
+    private final Instant refreshedAt;
+    /** False until users created before the counters existed have been recounted; counts may be low until then */
+    private final boolean reconciled;
+
+    public long countByRole(Role role) {
+        return usersByRole.getOrDefault(role, 0L);
+    }
+
+    /**
+     * Counts users with a base salary in [minSalary, maxSalary) from the histogram
+     * @param minSalary Lower bound, included
+     * @param maxSalary Upper bound, excluded
+     * @return The count, or empty when the bounds are not bucket bounds and the histogram cannot answer exactly
+     */
+    public Optional<Long> countBySalaryRange(BigDecimal minSalary, BigDecimal maxSalary) {
+        long users = 0;
+        boolean started = false;
+        for (SalaryBucket bucket : salaryHistogram) {
+            if (!started && bucket.getLowerBound().compareTo(minSalary) == 0) {
+                started = true;
+            }
+            if (started) {
+                users += bucket.getUsers();
+                if (bucket.getUpperBound() != null && bucket.getUpperBound().compareTo(maxSalary) == 0) {
+                    return Optional.of(users);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -3,4 +3,9 @@ package co.com.crediya.model.user.gateways;
 public interface PasswordEncoderService {
     String encode(String rawPassword);
     boolean matches(String rawPassword, String encodedPassword);
-}
\ No newline at end of file
+
+    /**
+     * @return true if the hash was made with another algorithm or weaker parameters than new hashes
+     */
+    boolean needsRehash(String encodedPassword);
+}
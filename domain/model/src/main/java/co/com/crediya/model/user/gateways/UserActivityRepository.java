@@ -0,0 +1,25 @@
+package co.com.crediya.model.user.gateways;
+
+import co.com.crediya.model.user.UserActivity;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+public interface UserActivityRepository {
+
+    /**
+     * Records a successful login. Implementations must not block the caller;
+     * activity is persisted asynchronously
+     * @param userId ID of the user that logged in
+     * @param clientIp Address the login came from, may be null
+     * @param loginAt Login time
+     */
+    void recordLogin(String userId, String clientIp, Instant loginAt);
+
+    /**
+     * Finds the activity of a user, including logins not persisted yet
+     * @param userId User ID
+     * @return Mono with the activity or empty if the user never logged in
+     */
+    Mono<UserActivity> findByUserId(String userId);
+}
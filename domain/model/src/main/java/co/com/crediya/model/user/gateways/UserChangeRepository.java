@@ -0,0 +1,25 @@
+package co.com.crediya.model.user.gateways;
+
+import co.com.crediya.model.user.UserChange;
+import co.com.crediya.model.user.UserChangePosition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface UserChangeRepository {
+
+    /**
+     * Finds the changes after the given position, in commit order.
+     * Only changes of finished transactions are returned, so no change can show up later before them.
+     * @param position Last position already seen by the consumer
+     * @param limit Maximum number of changes to return
+     * @return Flux with the changes and the current state of each changed user
+     */
+    Flux<UserChange> findChangesAfter(UserChangePosition position, int limit);
+
+    /**
+     * Finds the current visibility horizon: every change before it belongs to a finished transaction
+     * and every change after it will be returned by {@link #findChangesAfter} once committed
+     * @return Mono with the horizon position
+     */
+    Mono<UserChangePosition> findVisibilityHorizon();
+}
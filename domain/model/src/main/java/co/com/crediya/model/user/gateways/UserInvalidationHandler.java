@@ -0,0 +1,20 @@
+package co.com.crediya.model.user.gateways;
+
+/**
+ * Local cache that must drop its copy of a user when the user changes on any node.
+ * Implementations are called from the notification listener and must not block.
+ */
+public interface UserInvalidationHandler {
+
+    /**
+     * Called when a user was created, updated or deleted
+     * @param userId ID of the changed user
+     */
+    void onUserChanged(String userId);
+
+    /**
+     * Called when changes may have been missed, e.g. after a long disconnect;
+     * every cached user must be considered stale
+     */
+    void onInvalidateAll();
+}
@@ -7,6 +7,9 @@ import co.com.crediya.model.valueobject.Email;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 public interface UserRepository {
     
     
@@ -24,6 +27,13 @@ public interface UserRepository {
      */
     Mono<User> findById(String id);
     
+    /**
+     * Finds several users by ID with a single query
+     * @param ids User IDs
+     * @return Flux with the users found, in no particular order; unknown IDs are skipped
+     */
+    Flux<User> findAllByIds(List<String> ids);
+    
     /**
      * Finds a user by email
      * @param email Email to search
@@ -51,6 +61,13 @@ public interface UserRepository {
      */
     Flux<User> findAll();
     
+    /**
+     * Finds all users ordered by ID, streaming them without paging
+     * @param afterId Last user ID already read, null to start from the first user
+     * @return Flux with the users after the given ID
+     */
+    Flux<User> findAllOrderedById(String afterId);
+    
     /**
      * Checks if a user exists by email
      * @param email Email to check
@@ -77,4 +94,22 @@ public interface UserRepository {
      * @return Mono with the count
      */
     Mono<Long> countUsersByRole(Role role);
+
+    /**
+     * Counts users with a base salary in [minSalary, maxSalary)
+     * @param minSalary Lower bound, included
+     * @param maxSalary Upper bound, excluded
+     * @return Mono with the count
+     */
+    Mono<Long> countUsersBySalaryRange(BigDecimal minSalary, BigDecimal maxSalary);
+
+    /**
+     * Replaces the password hash of a user, only if it is still the expected one,
+     * so a rehash never overwrites a password changed in the meantime
+     * @param userId User ID
+     * @param expectedHash Hash the rehash was computed from
+     * @param newHash New hash of the same password
+     * @return Mono with true if the hash was replaced
+     */
+    Mono<Boolean> updatePasswordHash(String userId, String expectedHash, String newHash);
 }
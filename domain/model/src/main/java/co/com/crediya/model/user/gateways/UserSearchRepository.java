@@ -0,0 +1,15 @@
+package co.com.crediya.model.user.gateways;
+
+import co.com.crediya.model.user.UserSearchCriteria;
+import co.com.crediya.model.user.UserSearchHit;
+import reactor.core.publisher.Flux;
+
+public interface UserSearchRepository {
+
+    /**
+     * Finds the users matching every given criterion, most relevant first and, at equal relevance, by ID
+     * @param criteria Validated search criteria
+     * @return Flux with at most {@code criteria.limit} hits following the criteria's keyset
+     */
+    Flux<UserSearchHit> search(UserSearchCriteria criteria);
+}
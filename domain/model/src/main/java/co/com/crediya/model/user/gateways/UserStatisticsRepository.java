@@ -0,0 +1,13 @@
+package co.com.crediya.model.user.gateways;
+
+import co.com.crediya.model.user.UserStatistics;
+import reactor.core.publisher.Mono;
+
+public interface UserStatisticsRepository {
+
+    /**
+     * Gets the user counts without scanning users; they may trail the latest writes by a few seconds
+     * @return Mono with the current statistics
+     */
+    Mono<UserStatistics> getStatistics();
+}
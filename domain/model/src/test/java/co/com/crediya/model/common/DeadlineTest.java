@@ -0,0 +1,53 @@
+package co.com.crediya.model.common;
+
+import co.com.crediya.model.common.exception.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineTest {
+
+    @Test
+    void remainingTimeCountsDownToZero() {
+        Deadline live = Deadline.after(Duration.ofMinutes(1));
+        Deadline expired = Deadline.after(Duration.ofMillis(-5));
+
+        assertFalse(live.isExpired());
+        assertTrue(live.remaining().compareTo(Duration.ZERO) > 0);
+        assertTrue(live.remaining().compareTo(Duration.ofMinutes(1)) <= 0);
+        assertTrue(expired.isExpired());
+        assertEquals(Duration.ZERO, expired.remaining());
+    }
+
+    @Test
+    void expiredDeadlineInTheContextFailsWithTheStage() {
+        StepVerifier.create(Deadline.ensureNotExpired(DeadlineStage.PASSWORD_HASHING)
+                        .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ZERO))))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(DeadlineStage.PASSWORD_HASHING, ((DeadlineExceededException) error).getStage());
+                    assertEquals("Request deadline exceeded before password hashing", error.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    void liveOrMissingDeadlineLetsTheStepRun() {
+        StepVerifier.create(Deadline.ensureNotExpired(DeadlineStage.CONNECTION)
+                        .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ofMinutes(1)))))
+                .verifyComplete();
+        StepVerifier.create(Deadline.ensureNotExpired(DeadlineStage.CONNECTION))
+                .verifyComplete();
+    }
+
+    @Test
+    void stagesShareOneTagVocabulary() {
+        assertEquals("connection", DeadlineStage.CONNECTION.tag());
+        assertEquals("password_hashing", DeadlineStage.PASSWORD_HASHING.tag());
+        assertEquals("response", DeadlineStage.RESPONSE.tag());
+    }
+}
@@ -0,0 +1,122 @@
+package co.com.crediya.usecase.idempotency;
+
+import co.com.crediya.model.idempotency.IdempotencyRecord;
+import co.com.crediya.model.idempotency.exception.IdempotencyKeyReusedException;
+import co.com.crediya.model.idempotency.exception.IdempotentRequestInProgressException;
+import co.com.crediya.model.idempotency.gateways.IdempotencyRepository;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+@RequiredArgsConstructor
+public class IdempotencyUseCase {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    /** Longer scopes are replaced by their SHA-256, so a scoped key always fits the 320-character column */
+    private static final int MAX_SCOPE_LENGTH = 64;
+
+    private final IdempotencyRepository idempotencyRepository;
+
+    /**
+     * Scopes the key sent by a client to the caller, so different callers never share a key.
+     * Only the client key is validated; the caller's name does not eat into its length
+     * @param scope Name of the caller
+     * @param key Idempotency key as sent by the client
+     * @return Mono with the key to pass to {@link #begin}
+     * @throws InvalidUserDataException if the client key is blank or too long
+     */
+    public Mono<String> scopedKey(String scope, String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return Mono.error(new InvalidUserDataException(
+                    "Idempotency key must have between 1 and " + MAX_KEY_LENGTH + " characters"));
+        }
+
+        String boundedScope = scope.length() > MAX_SCOPE_LENGTH ? sha256(scope) : scope;
+        return Mono.just(boundedScope + ":" + key);
+    }
+
+    /**
+     * Starts a request carrying an idempotency key.
+     * Completes empty when the key was reserved and the request must run; emits the stored
+     * record when the same request already completed
+     * @param key Idempotency key, scoped with {@link #scopedKey}
+     * @param requestHash Hash of the request
+     * @param lockTimeout How long the reservation holds if this node dies mid-request
+     * @return Mono with the record to replay, or empty if the request must run
+     * @throws IdempotencyKeyReusedException if the key belongs to a different request
+     * @throws IdempotentRequestInProgressException if the same request is still running elsewhere
+     */
+    public Mono<IdempotencyRecord> begin(String key, String requestHash, Duration lockTimeout) {
+        return idempotencyRepository.tryClaim(key, requestHash, Instant.now().plus(lockTimeout))
+                .flatMap(claimed -> claimed
+                        ? Mono.<IdempotencyRecord>empty()
+                        : idempotencyRepository.findByKey(key)
+                                // Expired between both queries; the client may simply retry
+                                .switchIfEmpty(Mono.error(IdempotentRequestInProgressException::new))
+                                .flatMap(existing -> replayable(existing, requestHash)));
+    }
+
+    /**
+     * Stores the response of a request started with {@link #begin}
+     * @param key Idempotency key
+     * @param requestHash Hash of the request
+     * @param status HTTP status of the response
+     * @param contentType Content type of the response, may be null
+     * @param body Encoded response body
+     * @param retention How long the response is replayed
+     * @return Mono with the stored record
+     */
+    public Mono<IdempotencyRecord> complete(String key, String requestHash, int status,
+                                            String contentType, byte[] body, Duration retention) {
+        IdempotencyRecord completed = IdempotencyRecord.builder()
+                .key(key)
+                .requestHash(requestHash)
+                .responseStatus(status)
+                .contentType(contentType)
+                .responseBody(body)
+                .expiresAt(Instant.now().plus(retention))
+                .build();
+        return idempotencyRepository.complete(completed).thenReturn(completed);
+    }
+
+    /**
+     * Releases a key whose request failed without a response worth replaying
+     * @param key Idempotency key
+     * @return Mono that completes when released
+     */
+    public Mono<Void> abandon(String key) {
+        return idempotencyRepository.release(key);
+    }
+
+    /**
+     * Checks a stored record can answer the given request
+     * @param existing Record found for the key
+     * @param requestHash Hash of the request being checked
+     * @return Mono with the record when completed by the same request
+     */
+    public Mono<IdempotencyRecord> replayable(IdempotencyRecord existing, String requestHash) {
+        if (!existing.matches(requestHash)) {
+            return Mono.error(new IdempotencyKeyReusedException());
+        }
+        if (!existing.isCompleted()) {
+            return Mono.error(new IdempotentRequestInProgressException());
+        }
+        return Mono.just(existing);
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package co.com.crediya.usecase.user;
+
+import co.com.crediya.model.user.UserChange;
+import co.com.crediya.model.user.UserChangePosition;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import co.com.crediya.model.user.gateways.UserChangeRepository;
+import co.com.crediya.model.user.gateways.UserRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RequiredArgsConstructor
+public class UserChangeFeedUseCase {
+
+    private final UserChangeRepository userChangeRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Streams the user changes after the given position and keeps tailing new ones.
+     * Changes are read in batches; the feed only waits for the poll interval once it has caught up.
+     * A position taken from a snapshot event resumes the snapshot after that user and then tails.
+     * @param from Last position already applied by the consumer
+     * @param batchSize Maximum number of changes read per query
+     * @param pollInterval Wait time between queries once the feed has caught up
+     * @return Infinite Flux with the changes in commit order
+     */
+    public Flux<UserChange> streamChanges(UserChangePosition from, int batchSize, Duration pollInterval) {
+        if (from == null) {
+            return Flux.error(new InvalidUserDataException("Position is required"));
+        }
+        if (batchSize <= 0) {
+            return Flux.error(new InvalidUserDataException("Batch size must be positive"));
+        }
+
+        return from.isSnapshot()
+                ? snapshotFrom(from, from.getSnapshotUserId(), batchSize, pollInterval)
+                : tail(from, batchSize, pollInterval);
+    }
+
+    /**
+     * Streams every current user followed by the changes committed after the snapshot started.
+     * Users are streamed in ID order straight from the repository without being collected, and each
+     * one carries its own position, so a consumer can resume an interrupted snapshot. Changes
+     * committed while the snapshot runs are delivered again by the tail, so applying the feed as
+     * upserts converges to the source state.
+     * @param batchSize Maximum number of changes read per query once tailing
+     * @param pollInterval Wait time between queries once the feed has caught up
+     * @return Infinite Flux with the snapshot followed by the changes
+     */
+    public Flux<UserChange> snapshotAndStreamChanges(int batchSize, Duration pollInterval) {
+        if (batchSize <= 0) {
+            return Flux.error(new InvalidUserDataException("Batch size must be positive"));
+        }
+
+        return userChangeRepository.findVisibilityHorizon()
+                .flatMapMany(horizon -> snapshotFrom(horizon, null, batchSize, pollInterval));
+    }
+
+    private Flux<UserChange> snapshotFrom(UserChangePosition horizon, String afterUserId, int batchSize,
+                                          Duration pollInterval) {
+        return userRepository.findAllOrderedById(afterUserId)
+                .map(user -> UserChange.snapshot(horizon, user))
+                .concatWith(tail(horizon.afterSnapshot(), batchSize, pollInterval));
+    }
+
+    private Flux<UserChange> tail(UserChangePosition from, int batchSize, Duration pollInterval) {
+        return Flux.defer(() -> {
+            AtomicReference<UserChangePosition> cursor = new AtomicReference<>(from);
+
+            return Mono.defer(() -> userChangeRepository.findChangesAfter(cursor.get(), batchSize).collectList())
+                    .flatMapMany(batch -> {
+                        if (batch.isEmpty()) {
+                            return Mono.delay(pollInterval).thenMany(Flux.<UserChange>empty());
+                        }
+                        cursor.set(batch.get(batch.size() - 1).getPosition());
+                        return Flux.fromIterable(batch);
+                    })
+                    .repeat();
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package co.com.crediya.usecase.user;
+
+import co.com.crediya.model.user.UserSearchCriteria;
+import co.com.crediya.model.user.UserSearchHit;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import co.com.crediya.model.user.gateways.UserSearchRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@RequiredArgsConstructor
+public class UserSearchUseCase {
+
+    /** Shorter terms have too few trigrams to use the name index */
+    public static final int MIN_NAME_LENGTH = 3;
+    public static final int MIN_PREFIX_LENGTH = 2;
+    public static final int MAX_LIMIT = 500;
+
+    private final UserSearchRepository userSearchRepository;
+
+    /**
+     * Searches users by name, email prefix, document ID prefix and role
+     * @param criteria Search criteria, at least one of them given
+     * @return Flux with the hits of the requested page, most relevant first
+     * @throws InvalidUserDataException if the criteria are not valid, see {@link #validate}
+     */
+    public Flux<UserSearchHit> searchUsers(UserSearchCriteria criteria) {
+        return Flux.defer(() -> {
+            validate(criteria);
+            return userSearchRepository.search(criteria);
+        });
+    }
+
+    /**
+     * Lets streaming callers reject a search before they commit to a response
+     * @param criteria Search criteria
+     * @throws InvalidUserDataException if no criterion is given, a term is too short or the limit is out of range
+     */
+    public void validate(UserSearchCriteria criteria) {
+        if (criteria == null || (!criteria.hasRankedCriteria() && criteria.getRole() == null)) {
+            throw new InvalidUserDataException("At least one search criterion is required");
+        }
+        if (criteria.getName() != null && criteria.getName().strip().length() < MIN_NAME_LENGTH) {
+            throw new InvalidUserDataException("name", "must have at least " + MIN_NAME_LENGTH + " characters");
+        }
+        if (tooShort(criteria.getEmailPrefix()) || tooShort(criteria.getDocumentIdPrefix())) {
+            throw new InvalidUserDataException("prefix", "must have at least " + MIN_PREFIX_LENGTH + " characters");
+        }
+        if (criteria.getLimit() < 1 || criteria.getLimit() > MAX_LIMIT) {
+            throw new InvalidUserDataException("limit", "must be between 1 and " + MAX_LIMIT);
+        }
+        if ((criteria.getAfterId() == null) != (criteria.getAfterScore() == null)) {
+            throw new InvalidUserDataException("cursor", "needs both the score and the ID of the last hit");
+        }
+    }
+
+    private static boolean tooShort(String prefix) {
+        return prefix != null && prefix.strip().length() < MIN_PREFIX_LENGTH;
+    }
+}
@@ -0,0 +1,20 @@
+package co.com.crediya.usecase.user;
+
+import co.com.crediya.model.user.UserStatistics;
+import co.com.crediya.model.user.gateways.UserStatisticsRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class UserStatisticsUseCase {
+
+    private final UserStatisticsRepository userStatisticsRepository;
+
+    /**
+     * Gets every user aggregate at once, for dashboards
+     * @return Mono with the counts per role, document type and salary bucket
+     */
+    public Mono<UserStatistics> getStatistics() {
+        return userStatisticsRepository.getStatistics();
+    }
+}
@@ -1,7 +1,16 @@
 package co.com.crediya.usecase.user;
 
+import co.com.crediya.model.audit.AuthAuditEvent;
+import co.com.crediya.model.audit.AuthAuditEventType;
+import co.com.crediya.model.audit.gateways.AuthAuditGateway;
+import co.com.crediya.model.common.Deadline;
+import co.com.crediya.model.common.DeadlineStage;
+import co.com.crediya.model.common.RequestPriority;
+import co.com.crediya.model.common.gateways.UnitOfWork;
 import co.com.crediya.model.user.User;
+import co.com.crediya.model.user.UserActivity;
 import co.com.crediya.model.user.gateways.PasswordEncoderService;
+import co.com.crediya.model.user.gateways.UserActivityRepository;
 import co.com.crediya.model.user.gateways.UserRepository;
 import co.com.crediya.model.user.exception.UserAlreadyExistsException;
 import co.com.crediya.model.user.exception.UserNotFoundException;
@@ -14,15 +23,30 @@ import co.com.crediya.model.valueobject.DocumentId;
 import co.com.crediya.model.user.Role;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.context.Context;
+
+import java.math.BigDecimal;
+import java.time.Instant;
 
 @RequiredArgsConstructor
 public class UserUseCase {
+
+    private static final Logger log = Loggers.getLogger(UserUseCase.class);
     
     private final UserRepository userRepository;
     private final PasswordEncoderService passwordEncoder;
+    private final UnitOfWork unitOfWork;
+    private final AuthAuditGateway authAuditGateway;
+    private final UserActivityRepository userActivityRepository;
 
     /**
-     * Creates a new user with authentication fields
+     * Creates a new user with authentication fields.
+     * The password is hashed on a worker thread before the transaction starts,
+     * so neither the event loop nor a connection is held while hashing; the
+     * uniqueness checks and the insert run in a single transaction.
      * @param user User to be created
      * @return Mono with the created user
      * @throws UserAlreadyExistsException if user with email already exists
@@ -33,25 +57,13 @@ public class UserUseCase {
             return Mono.error(new InvalidUserDataException("User cannot be null"));
         }
         
-        return userRepository.existsByEmail(user.getEmail())
-                .flatMap(emailExists -> {
-                    if (emailExists) {
-                        return Mono.error(new UserAlreadyExistsException("User with email already exists: " + user.getEmail().getValue()));
-                    }
-                    
-                    if (user.getDocumentId() != null) {
-                        return userRepository.existsByDocumentId(user.getDocumentId());
-                    }
-                    return Mono.just(false);
-                })
-                .flatMap(documentExists -> {
-                    if (documentExists) {
-                        return Mono.error(new UserAlreadyExistsException("User with document ID already exists: " + user.getDocumentId().getMaskedValue()));
-                    }
-                    
-                    User userWithHashedPassword = hashPasswordForUser(user);
-                    return userRepository.save(userWithHashedPassword);
-                });
+        // Duplicates and retries are turned away before paying for the hash;
+        // the check is repeated in the transaction for concurrent creates
+        return ensureUserIsUnique(user)
+                .then(Deadline.ensureNotExpired(DeadlineStage.PASSWORD_HASHING))
+                .then(Mono.fromCallable(() -> hashPasswordForUser(user)).subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(userWithHashedPassword -> unitOfWork.inTransaction(
+                        ensureUserIsUnique(user).then(userRepository.save(userWithHashedPassword))));
     }
 
     /**
@@ -69,6 +81,21 @@ public class UserUseCase {
                 .switchIfEmpty(Mono.error(new UserNotFoundException("User not found with ID: " + id)));
     }
 
+    /**
+     * Finds several users by ID, querying the repository one chunk of IDs at a time.
+     * IDs are pulled from the source only as the previous chunk is consumed, so
+     * downstream demand bounds how many users are loaded
+     * @param ids User IDs
+     * @param chunkSize Number of IDs per query
+     * @return Flux with the users found; unknown IDs are skipped
+     */
+    public Flux<User> findUsersByIds(Flux<String> ids, int chunkSize) {
+        // One read-only transaction, so every chunk sees the same snapshot of users
+        return unitOfWork.readOnly(ids.filter(id -> id != null && !id.isBlank())
+                .buffer(chunkSize)
+                .concatMap(userRepository::findAllByIds));
+    }
+
     /**
      * Finds a user by their email
      * @param email Email address to search
@@ -133,6 +160,18 @@ public class UserUseCase {
      * @throws AuthenticationException if authentication fails
      */
     public Mono<User> authenticateUser(Email email, String password) {
+        return authenticateUser(email, password, null);
+    }
+
+    /**
+     * Authenticates a user with email and password and tracks the login activity
+     * @param email User email
+     * @param password Plain text password
+     * @param clientIp Address the login came from, may be null
+     * @return Mono with the authenticated user
+     * @throws AuthenticationException if authentication fails
+     */
+    public Mono<User> authenticateUser(Email email, String password, String clientIp) {
         if (email == null) {
             return Mono.error(new InvalidUserDataException("Email cannot be null"));
         }
@@ -142,21 +181,47 @@ public class UserUseCase {
         }
         
         return userRepository.findByEmail(email)
-                .switchIfEmpty(Mono.error(new AuthenticationException("Invalid email or password")))
-                .flatMap(user -> {
-                    if (user.getPassword() == null) {
-                        return Mono.error(new AuthenticationException("User has no password set"));
-                    }
-                    
-                    // Verify password
-                    boolean passwordMatches = passwordEncoder.matches(password, user.getPassword().getValue());
-                    
-                    if (passwordMatches) {
-                        return Mono.just(user);
-                    } else {
-                        return Mono.error(new AuthenticationException("Invalid email or password"));
-                    }
-                });
+                .switchIfEmpty(Mono.defer(() -> {
+                    authAuditGateway.record(AuthAuditEvent.of(AuthAuditEventType.LOGIN_FAILURE,
+                            null, email.getValue(), "Unknown email"));
+                    return Mono.error(new AuthenticationException("Invalid email or password"));
+                }))
+                .flatMap(user -> Deadline.ensureNotExpired(DeadlineStage.PASSWORD_HASHING)
+                        .then(Mono.defer(() -> verifyPassword(user, email, password, clientIp))));
+    }
+
+    /**
+     * Finds the login activity of a user
+     * @param id User ID
+     * @return Mono with the activity, with no logins if the user never logged in
+     * @throws UserNotFoundException if user is not found
+     */
+    public Mono<UserActivity> findUserActivity(String id) {
+        return findUserById(id)
+                .then(userActivityRepository.findByUserId(id))
+                .defaultIfEmpty(UserActivity.none(id));
+    }
+
+    /**
+     * Resolves the user referenced by an already verified token and audits the validation
+     * @param userId Subject of the token
+     * @return Mono with the user the token belongs to
+     * @throws UserNotFoundException if the user no longer exists
+     */
+    public Mono<User> validateTokenSubject(String userId) {
+        return findUserById(userId)
+                .doOnNext(user -> authAuditGateway.record(AuthAuditEvent.of(
+                        AuthAuditEventType.TOKEN_VALIDATION_SUCCESS, user.getId(), userId, null)))
+                .doOnError(error -> authAuditGateway.record(AuthAuditEvent.of(
+                        AuthAuditEventType.TOKEN_VALIDATION_FAILURE, null, userId, error.getMessage())));
+    }
+
+    /**
+     * Audits a token that was rejected before its subject could be resolved
+     * @param reason Why the token was rejected
+     */
+    public void recordTokenValidationFailure(String reason) {
+        authAuditGateway.record(AuthAuditEvent.of(AuthAuditEventType.TOKEN_VALIDATION_FAILURE, null, null, reason));
     }
 
     /**
@@ -228,6 +293,99 @@ public class UserUseCase {
         }
     }
 
+    /**
+     * Counts users by base salary
+     * @param minSalary Lower bound, included
+     * @param maxSalary Upper bound, excluded
+     * @return Mono with the count
+     */
+    public Mono<Long> countUsersBySalaryRange(BigDecimal minSalary, BigDecimal maxSalary) {
+        if (minSalary == null || maxSalary == null) {
+            return Mono.error(new InvalidUserDataException("Salary range bounds cannot be null"));
+        }
+        if (minSalary.compareTo(maxSalary) >= 0) {
+            return Mono.error(new InvalidUserDataException("Minimum salary must be lower than the maximum"));
+        }
+
+        return userRepository.countUsersBySalaryRange(minSalary, maxSalary);
+    }
+
+    /**
+     * Helper method to verify that no other user has the same email or document ID
+     * @param user User to be created
+     * @return Empty Mono when the user is unique
+     */
+    private Mono<Void> ensureUserIsUnique(User user) {
+        return userRepository.existsByEmail(user.getEmail())
+                .flatMap(emailExists -> {
+                    if (emailExists) {
+                        return Mono.error(new UserAlreadyExistsException("User with email already exists: " + user.getEmail().getValue()));
+                    }
+                    
+                    if (user.getDocumentId() != null) {
+                        return userRepository.existsByDocumentId(user.getDocumentId());
+                    }
+                    return Mono.just(false);
+                })
+                .flatMap(documentExists -> {
+                    if (documentExists) {
+                        return Mono.error(new UserAlreadyExistsException("User with document ID already exists: " + user.getDocumentId().getMaskedValue()));
+                    }
+                    return Mono.<Void>empty();
+                });
+    }
+
+    /**
+     * Checks the password and records the outcome. CPU-heavy, so it runs on a worker thread
+     * and callers check the deadline first
+     */
+    private Mono<User> verifyPassword(User user, Email email, String password, String clientIp) {
+        if (user.getPassword() == null) {
+            authAuditGateway.record(AuthAuditEvent.of(AuthAuditEventType.LOGIN_FAILURE,
+                    user.getId(), email.getValue(), "User has no password set"));
+            return Mono.error(new AuthenticationException("User has no password set"));
+        }
+        
+        return Mono.fromCallable(() -> passwordEncoder.matches(password, user.getPassword().getValue()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(passwordMatches -> {
+                    if (passwordMatches) {
+                        authAuditGateway.record(AuthAuditEvent.of(AuthAuditEventType.LOGIN_SUCCESS,
+                                user.getId(), email.getValue(), null));
+                        userActivityRepository.recordLogin(user.getId(), clientIp, Instant.now());
+                        rehashIfNeeded(user, password);
+                        return Mono.just(user);
+                    }
+                    authAuditGateway.record(AuthAuditEvent.of(AuthAuditEventType.LOGIN_FAILURE,
+                            user.getId(), email.getValue(), "Invalid password"));
+                    return Mono.error(new AuthenticationException("Invalid email or password"));
+                });
+    }
+
+    /**
+     * Replaces a hash made with outdated parameters, now that the plain password is known.
+     * Runs detached from the login, which never waits for it; a failed rehash is logged and audited,
+     * and retried on the next login
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPassword().getValue();
+        if (!passwordEncoder.needsRehash(currentHash)) {
+            return;
+        }
+
+        Mono.fromCallable(() -> passwordEncoder.encode(rawPassword))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(newHash -> userRepository.updatePasswordHash(user.getId(), currentHash, newHash))
+                .contextWrite(Context.of(RequestPriority.CONTEXT_KEY, RequestPriority.BULK))
+                .onErrorResume(error -> {
+                    log.warn("Could not rehash the password of user {}: {}", user.getId(), error.toString());
+                    authAuditGateway.record(AuthAuditEvent.of(AuthAuditEventType.PASSWORD_REHASH_FAILURE,
+                            user.getId(), null, error.getMessage()));
+                    return Mono.empty();
+                })
+                .subscribe();
+    }
+
     /**
      * Helper method to hash password for a user
      * @param user User with plain text password
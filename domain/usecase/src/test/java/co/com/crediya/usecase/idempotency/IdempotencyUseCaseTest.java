@@ -0,0 +1,116 @@
+package co.com.crediya.usecase.idempotency;
+
+import co.com.crediya.model.idempotency.IdempotencyRecord;
+import co.com.crediya.model.idempotency.exception.IdempotencyKeyReusedException;
+import co.com.crediya.model.idempotency.exception.IdempotentRequestInProgressException;
+import co.com.crediya.model.idempotency.gateways.IdempotencyRepository;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyUseCaseTest {
+
+    private static final String KEY = "user-1:key-1";
+    private static final Duration LOCK = Duration.ofMinutes(1);
+
+    private IdempotencyRepository repository;
+    private IdempotencyUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRepository.class);
+        useCase = new IdempotencyUseCase(repository);
+    }
+
+    @Test
+    void runsTheRequestWhenTheKeyIsClaimed() {
+        when(repository.tryClaim(eq(KEY), eq("hash"), any(Instant.class))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(useCase.begin(KEY, "hash", LOCK)).verifyComplete();
+        verify(repository, never()).findByKey(anyString());
+    }
+
+    @Test
+    void replaysTheStoredResponseOfTheSameRequest() {
+        IdempotencyRecord stored = record("hash", 201);
+        when(repository.tryClaim(eq(KEY), eq("hash"), any(Instant.class))).thenReturn(Mono.just(false));
+        when(repository.findByKey(KEY)).thenReturn(Mono.just(stored));
+
+        StepVerifier.create(useCase.begin(KEY, "hash", LOCK))
+                .expectNext(stored)
+                .verifyComplete();
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() {
+        when(repository.tryClaim(eq(KEY), eq("other"), any(Instant.class))).thenReturn(Mono.just(false));
+        when(repository.findByKey(KEY)).thenReturn(Mono.just(record("hash", 201)));
+
+        StepVerifier.create(useCase.begin(KEY, "other", LOCK))
+                .verifyError(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void reportsARequestStillRunningElsewhere() {
+        when(repository.tryClaim(eq(KEY), eq("hash"), any(Instant.class))).thenReturn(Mono.just(false));
+        when(repository.findByKey(KEY)).thenReturn(Mono.just(record("hash", null)));
+
+        StepVerifier.create(useCase.begin(KEY, "hash", LOCK))
+                .verifyError(IdempotentRequestInProgressException.class);
+    }
+
+    @Test
+    void rejectsBlankKeys() {
+        StepVerifier.create(useCase.scopedKey("user-1", ""))
+                .verifyError(InvalidUserDataException.class);
+        StepVerifier.create(useCase.scopedKey("user-1", " "))
+                .verifyError(InvalidUserDataException.class);
+    }
+
+    @Test
+    void onlyTheClientKeyCountsTowardsItsLength() {
+        String longestKey = "k".repeat(255);
+
+        StepVerifier.create(useCase.scopedKey("user-1", longestKey))
+                .expectNext("user-1:" + longestKey)
+                .verifyComplete();
+        StepVerifier.create(useCase.scopedKey("user-1", longestKey + "k"))
+                .verifyError(InvalidUserDataException.class);
+    }
+
+    @Test
+    void longScopesAreHashedSoScopedKeysFitTheStore() {
+        String longestKey = "k".repeat(255);
+
+        StepVerifier.create(useCase.scopedKey("p".repeat(500), longestKey))
+                .assertNext(scoped -> {
+                    assertTrue(scoped.endsWith(":" + longestKey));
+                    assertTrue(scoped.length() <= 320, "scoped key length " + scoped.length());
+                })
+                .verifyComplete();
+    }
+
+    private static IdempotencyRecord record(String requestHash, Integer status) {
+        return IdempotencyRecord.builder()
+                .key(KEY)
+                .requestHash(requestHash)
+                .responseStatus(status)
+                .responseBody(new byte[0])
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package co.com.crediya.usecase.user;
+
+import co.com.crediya.model.user.User;
+import co.com.crediya.model.user.UserChange;
+import co.com.crediya.model.user.UserChangePosition;
+import co.com.crediya.model.user.UserChangeType;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import co.com.crediya.model.user.gateways.UserChangeRepository;
+import co.com.crediya.model.user.gateways.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserChangeFeedUseCaseTest {
+
+    private static final int BATCH = 2;
+    private static final Duration POLL = Duration.ofMillis(10);
+    private static final String FIRST_USER = "1b7e4a4c-0000-4000-8000-000000000001";
+    private static final String SECOND_USER = "1b7e4a4c-0000-4000-8000-000000000002";
+
+    private UserChangeRepository userChangeRepository;
+    private UserRepository userRepository;
+    private UserChangeFeedUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        userChangeRepository = mock(UserChangeRepository.class);
+        userRepository = mock(UserRepository.class);
+        useCase = new UserChangeFeedUseCase(userChangeRepository, userRepository);
+        when(userChangeRepository.findChangesAfter(any(UserChangePosition.class), anyInt())).thenReturn(Flux.empty());
+    }
+
+    @Test
+    void tailResumesFromTheLastCommitPosition() {
+        // Change 9 was inserted before 10 and 11 but its transaction committed after theirs
+        UserChange first = change(5, 10);
+        UserChange second = change(5, 11);
+        UserChange lateCommit = change(7, 9);
+        when(userChangeRepository.findChangesAfter(UserChangePosition.START, BATCH)).thenReturn(Flux.just(first, second));
+        when(userChangeRepository.findChangesAfter(UserChangePosition.of(5, 11), BATCH)).thenReturn(Flux.just(lateCommit));
+
+        StepVerifier.create(useCase.streamChanges(UserChangePosition.START, BATCH, POLL).take(3))
+                .expectNext(first, second, lateCommit)
+                .verifyComplete();
+    }
+
+    @Test
+    void tailPollsAgainOnceCaughtUp() {
+        UserChange change = change(8, 1);
+        when(userChangeRepository.findChangesAfter(UserChangePosition.START, BATCH))
+                .thenReturn(Flux.empty())
+                .thenReturn(Flux.just(change));
+
+        StepVerifier.withVirtualTime(() -> useCase.streamChanges(UserChangePosition.START, BATCH, POLL).take(1))
+                .expectSubscription()
+                .expectNoEvent(POLL)
+                .expectNext(change)
+                .verifyComplete();
+    }
+
+    @Test
+    void snapshotEventsCarryTheirOwnPositionsAndTheTailStartsAtTheHorizon() {
+        UserChangePosition horizon = UserChangePosition.horizon(40);
+        UserChange committedDuringSnapshot = change(41, 3);
+        when(userChangeRepository.findVisibilityHorizon()).thenReturn(Mono.just(horizon));
+        when(userRepository.findAllOrderedById(null)).thenReturn(Flux.just(user(FIRST_USER), user(SECOND_USER)));
+        when(userChangeRepository.findChangesAfter(eq(horizon), eq(BATCH))).thenReturn(Flux.just(committedDuringSnapshot));
+
+        StepVerifier.create(useCase.snapshotAndStreamChanges(BATCH, POLL).take(3).collectList())
+                .assertNext(changes -> {
+                    assertEquals(UserChangeType.SNAPSHOT, changes.get(0).getType());
+                    assertEquals(horizon.inSnapshot(FIRST_USER), changes.get(0).getPosition());
+                    assertEquals(horizon.inSnapshot(SECOND_USER), changes.get(1).getPosition());
+                    assertNotEquals(changes.get(0).getPosition(), changes.get(1).getPosition());
+                    assertEquals(committedDuringSnapshot, changes.get(2));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void interruptedSnapshotResumesAfterTheLastUserThenTails() {
+        UserChangePosition horizon = UserChangePosition.horizon(40);
+        UserChange committedDuringSnapshot = change(41, 3);
+        when(userRepository.findAllOrderedById(FIRST_USER)).thenReturn(Flux.just(user(SECOND_USER)));
+        when(userChangeRepository.findChangesAfter(eq(horizon), eq(BATCH))).thenReturn(Flux.just(committedDuringSnapshot));
+
+        StepVerifier.create(useCase.streamChanges(horizon.inSnapshot(FIRST_USER), BATCH, POLL).take(2).collectList())
+                .assertNext(changes -> {
+                    assertEquals(horizon.inSnapshot(SECOND_USER), changes.get(0).getPosition());
+                    assertEquals(committedDuringSnapshot, changes.get(1));
+                })
+                .verifyComplete();
+
+        verify(userRepository).findAllOrderedById(FIRST_USER);
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        StepVerifier.create(useCase.streamChanges(null, BATCH, POLL))
+                .expectError(InvalidUserDataException.class)
+                .verify();
+        StepVerifier.create(useCase.streamChanges(UserChangePosition.START, 0, POLL))
+                .expectError(InvalidUserDataException.class)
+                .verify();
+        StepVerifier.create(useCase.snapshotAndStreamChanges(0, POLL))
+                .expectError(InvalidUserDataException.class)
+                .verify();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    private static UserChange change(long transactionId, long changeId) {
+        return UserChange.builder()
+                .position(UserChangePosition.of(transactionId, changeId))
+                .userId(FIRST_USER)
+                .type(UserChangeType.UPSERT)
+                .build();
+    }
+
+    private static User user(String id) {
+        return User.builder().id(id).build();
+    }
+}
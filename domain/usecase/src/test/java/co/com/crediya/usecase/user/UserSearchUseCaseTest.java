@@ -0,0 +1,77 @@
+package co.com.crediya.usecase.user;
+
+import co.com.crediya.model.user.Role;
+import co.com.crediya.model.user.UserSearchCriteria;
+import co.com.crediya.model.user.UserSearchHit;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import co.com.crediya.model.user.gateways.UserSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserSearchUseCaseTest {
+
+    private UserSearchRepository userSearchRepository;
+    private UserSearchUseCase userSearchUseCase;
+
+    @BeforeEach
+    void setUp() {
+        userSearchRepository = mock(UserSearchRepository.class);
+        userSearchUseCase = new UserSearchUseCase(userSearchRepository);
+    }
+
+    @Test
+    void searchWithoutCriteriaIsRejected() {
+        assertRejected(UserSearchCriteria.builder().limit(20).build());
+    }
+
+    @Test
+    void nameTooShortForTheTrigramIndexIsRejected() {
+        assertRejected(UserSearchCriteria.builder().name(" an ").limit(20).build());
+    }
+
+    @Test
+    void limitOutOfRangeIsRejected() {
+        assertRejected(UserSearchCriteria.builder().role(Role.USER).limit(0).build());
+        assertRejected(UserSearchCriteria.builder().role(Role.USER).limit(UserSearchUseCase.MAX_LIMIT + 1).build());
+    }
+
+    @Test
+    void halfACursorIsRejected() {
+        assertRejected(UserSearchCriteria.builder().emailPrefix("ana").limit(20).afterScore(0.5).build());
+    }
+
+    @Test
+    void validCriteriaAreSearched() {
+        UserSearchCriteria criteria = UserSearchCriteria.builder()
+                .name("mari")
+                .role(Role.ADVISOR)
+                .limit(20)
+                .afterScore(0.75)
+                .afterId("3f1c2a64-7d2e-4b7a-9a51-6f0f3c1d2e4b")
+                .build();
+        UserSearchHit hit = UserSearchHit.builder().score(0.7).build();
+        when(userSearchRepository.search(any(UserSearchCriteria.class))).thenReturn(Flux.just(hit));
+
+        StepVerifier.create(userSearchUseCase.searchUsers(criteria))
+                .expectNext(hit)
+                .verifyComplete();
+
+        verify(userSearchRepository).search(criteria);
+    }
+
+    private void assertRejected(UserSearchCriteria criteria) {
+        StepVerifier.create(userSearchUseCase.searchUsers(criteria))
+                .expectError(InvalidUserDataException.class)
+                .verify();
+
+        verifyNoInteractions(userSearchRepository);
+    }
+}
@@ -0,0 +1,49 @@
+package co.com.crediya.usecase.user;
+
+import co.com.crediya.model.user.UserStatistics;
+import co.com.crediya.model.user.gateways.UserStatisticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserStatisticsUseCaseTest {
+
+    private UserStatisticsRepository userStatisticsRepository;
+    private UserStatisticsUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        userStatisticsRepository = mock(UserStatisticsRepository.class);
+        useCase = new UserStatisticsUseCase(userStatisticsRepository);
+    }
+
+    @Test
+    void statisticsComeFromTheRepository() {
+        UserStatistics statistics = UserStatistics.builder()
+                .totalUsers(3)
+                .refreshedAt(Instant.EPOCH)
+                .reconciled(true)
+                .build();
+        when(userStatisticsRepository.getStatistics()).thenReturn(Mono.just(statistics));
+
+        StepVerifier.create(useCase.getStatistics())
+                .expectNext(statistics)
+                .verifyComplete();
+    }
+
+    @Test
+    void repositoryErrorsArePropagated() {
+        when(userStatisticsRepository.getStatistics())
+                .thenReturn(Mono.error(new RuntimeException("Failed to read user statistics")));
+
+        StepVerifier.create(useCase.getStatistics())
+                .expectErrorMessage("Failed to read user statistics")
+                .verify();
+    }
+}
@@ -0,0 +1,164 @@
+package co.com.crediya.usecase.user;
+
+import co.com.crediya.model.audit.AuthAuditEventType;
+import co.com.crediya.model.audit.gateways.AuthAuditGateway;
+import co.com.crediya.model.common.gateways.UnitOfWork;
+import co.com.crediya.model.user.User;
+import co.com.crediya.model.user.exception.AuthenticationException;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import co.com.crediya.model.user.exception.UserAlreadyExistsException;
+import co.com.crediya.model.user.gateways.PasswordEncoderService;
+import co.com.crediya.model.user.gateways.UserActivityRepository;
+import co.com.crediya.model.user.gateways.UserRepository;
+import co.com.crediya.model.valueobject.Email;
+import co.com.crediya.model.valueobject.Password;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserUseCaseTest {
+
+    private static final String USER_ID = "1b7e4a4c-0000-4000-8000-000000000001";
+    private static final String STORED_HASH = "{bcrypt}$2a$10$stored";
+    private static final Email EMAIL = new Email("ana@example.com");
+
+    private UserRepository userRepository;
+    private PasswordEncoderService passwordEncoder;
+    private AuthAuditGateway authAuditGateway;
+    private UnitOfWork unitOfWork;
+    private UserUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        passwordEncoder = mock(PasswordEncoderService.class);
+        authAuditGateway = mock(AuthAuditGateway.class);
+        unitOfWork = mock(UnitOfWork.class);
+        when(unitOfWork.readOnly(any(Flux.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        useCase = new UserUseCase(userRepository, passwordEncoder, unitOfWork, authAuditGateway,
+                mock(UserActivityRepository.class));
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Mono.just(User.builder()
+                .id(USER_ID)
+                .password(Password.fromHash(STORED_HASH))
+                .build()));
+    }
+
+    @Test
+    void passwordIsVerifiedOffTheCallingThread() {
+        AtomicReference<String> hashingThread = new AtomicReference<>();
+        when(passwordEncoder.matches("Secret-123", STORED_HASH)).thenAnswer(invocation -> {
+            hashingThread.set(Thread.currentThread().getName());
+            return true;
+        });
+
+        StepVerifier.create(useCase.authenticateUser(EMAIL, "Secret-123", null))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertTrue(hashingThread.get().startsWith("boundedElastic"), hashingThread.get());
+    }
+
+    @Test
+    void wrongPasswordIsRejectedAndAudited() {
+        when(passwordEncoder.matches("Wrong-123", STORED_HASH)).thenReturn(false);
+
+        StepVerifier.create(useCase.authenticateUser(EMAIL, "Wrong-123", null))
+                .expectError(AuthenticationException.class)
+                .verify();
+
+        verify(authAuditGateway).record(argThat(event -> event.getType() == AuthAuditEventType.LOGIN_FAILURE));
+    }
+
+    @Test
+    void failedRehashIsAuditedWithoutFailingTheLogin() {
+        when(passwordEncoder.matches("Secret-123", STORED_HASH)).thenReturn(true);
+        when(passwordEncoder.needsRehash(STORED_HASH)).thenReturn(true);
+        when(passwordEncoder.encode("Secret-123")).thenReturn("{argon2}new");
+        when(userRepository.updatePasswordHash(anyString(), any(), any()))
+                .thenReturn(Mono.error(new IllegalStateException("connection lost")));
+
+        StepVerifier.create(useCase.authenticateUser(EMAIL, "Secret-123", null))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(authAuditGateway, timeout(1_000)).record(argThat(event ->
+                event.getType() == AuthAuditEventType.PASSWORD_REHASH_FAILURE && USER_ID.equals(event.getUserId())));
+    }
+
+    @Test
+    void salaryRangeNeedsBothBounds() {
+        StepVerifier.create(useCase.countUsersBySalaryRange(null, BigDecimal.TEN))
+                .expectError(InvalidUserDataException.class)
+                .verify();
+        StepVerifier.create(useCase.countUsersBySalaryRange(BigDecimal.ONE, null))
+                .expectError(InvalidUserDataException.class)
+                .verify();
+
+        verify(userRepository, never()).countUsersBySalaryRange(any(), any());
+    }
+
+    @Test
+    void salaryRangeMinimumMustBeLowerThanTheMaximum() {
+        StepVerifier.create(useCase.countUsersBySalaryRange(BigDecimal.TEN, new BigDecimal("10.00")))
+                .expectError(InvalidUserDataException.class)
+                .verify();
+        StepVerifier.create(useCase.countUsersBySalaryRange(BigDecimal.TEN, BigDecimal.ONE))
+                .expectError(InvalidUserDataException.class)
+                .verify();
+
+        verify(userRepository, never()).countUsersBySalaryRange(any(), any());
+    }
+
+    @Test
+    void validSalaryRangeIsCountedByTheRepository() {
+        when(userRepository.countUsersBySalaryRange(BigDecimal.ONE, BigDecimal.TEN)).thenReturn(Mono.just(4L));
+
+        StepVerifier.create(useCase.countUsersBySalaryRange(BigDecimal.ONE, BigDecimal.TEN))
+                .expectNext(4L)
+                .verifyComplete();
+    }
+
+    @Test
+    void usersByIdAreReadInOneReadOnlyTransaction() {
+        User other = User.builder().id("1b7e4a4c-0000-4000-8000-000000000002").build();
+        when(userRepository.findAllByIds(List.of(USER_ID))).thenReturn(Flux.just(User.builder().id(USER_ID).build()));
+        when(userRepository.findAllByIds(List.of(other.getId()))).thenReturn(Flux.just(other));
+
+        StepVerifier.create(useCase.findUsersByIds(Flux.just(USER_ID, " ", other.getId()), 1))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        verify(unitOfWork).readOnly(any(Flux.class));
+    }
+
+    @Test
+    void duplicateEmailIsRejectedBeforeHashingThePassword() {
+        when(userRepository.existsByEmail(EMAIL)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(useCase.createUser(User.builder()
+                        .email(EMAIL)
+                        .password(new Password("Secret123!"))
+                        .build()))
+                .expectError(UserAlreadyExistsException.class)
+                .verify();
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(unitOfWork, never()).inTransaction(any(Mono.class));
+    }
+}
@@ -0,0 +1,47 @@
+package co.com.crediya.r2dbc;
+
+import co.com.crediya.model.common.gateways.UnitOfWork;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+public class R2dbcUnitOfWork implements UnitOfWork {
+
+    private final TransactionalOperator readWriteOperator;
+    private final TransactionalOperator readOnlyOperator;
+
+    public R2dbcUnitOfWork(ReactiveTransactionManager transactionManager) {
+        this.readWriteOperator = TransactionalOperator.create(transactionManager);
+
+        // The driver opens it with BEGIN READ ONLY, so Postgres can skip write bookkeeping for scatter reads
+        DefaultTransactionDefinition readOnlyDefinition =
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRED);
+        readOnlyDefinition.setReadOnly(true);
+        this.readOnlyOperator = TransactionalOperator.create(transactionManager, readOnlyDefinition);
+    }
+
+    @Override
+    public <T> Mono<T> inTransaction(Mono<T> work) {
+        return readWriteOperator.transactional(work);
+    }
+
+    @Override
+    public <T> Flux<T> inTransaction(Flux<T> work) {
+        return readWriteOperator.transactional(work);
+    }
+
+    @Override
+    public <T> Mono<T> readOnly(Mono<T> work) {
+        return readOnlyOperator.transactional(work);
+    }
+
+    @Override
+    public <T> Flux<T> readOnly(Flux<T> work) {
+        return readOnlyOperator.transactional(work);
+    }
+}
@@ -0,0 +1,13 @@
+package co.com.crediya.r2dbc;
+
+import co.com.crediya.r2dbc.entity.UserActivityEntity;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import java.util.UUID;
+
+/**
+ * Read side of the user activity table. Writes go through
+ * {@link co.com.crediya.r2dbc.activity.UserActivityAccumulator} as batched upserts.
+ */
+public interface UserActivityReactiveRepository extends ReactiveCrudRepository<UserActivityEntity, UUID> {
+}
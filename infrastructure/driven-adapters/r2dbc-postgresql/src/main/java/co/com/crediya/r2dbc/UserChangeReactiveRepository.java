@@ -0,0 +1,34 @@
+package co.com.crediya.r2dbc;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import co.com.crediya.r2dbc.entity.UserChangeEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface UserChangeReactiveRepository extends ReactiveCrudRepository<UserChangeEntity, Long> {
+
+    /**
+     * Find the changes after a position in commit order, limited to transactions older than the
+     * snapshot xmin. Those transactions have all finished, so a change can never be committed
+     * later behind a position already handed out.
+     * @param transactionId Transaction ID of the last change already seen
+     * @param changeId ID of the last change already seen
+     * @param limit Maximum number of changes
+     * @return Flux containing the changes
+     */
+    @Query("SELECT id, user_id, change_type, changed_at, CAST(CAST(txid AS text) AS bigint) AS txid "
+            + "FROM user_changes "
+            + "WHERE (txid, id) > (CAST(CAST(:transactionId AS text) AS xid8), :changeId) "
+            + "AND txid < pg_snapshot_xmin(pg_current_snapshot()) "
+            + "ORDER BY txid, id LIMIT :limit")
+    Flux<UserChangeEntity> findCommittedChangesAfter(long transactionId, long changeId, int limit);
+
+    /**
+     * Find the oldest transaction ID still running; every transaction before it has finished
+     * @return Mono containing the visibility horizon
+     */
+    @Query("SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)")
+    Mono<Long> findVisibilityHorizon();
+}
@@ -0,0 +1,91 @@
+package co.com.crediya.r2dbc;
+
+import co.com.crediya.model.user.User;
+import co.com.crediya.model.user.UserChange;
+import co.com.crediya.model.user.UserChangePosition;
+import co.com.crediya.model.user.UserChangeType;
+import co.com.crediya.model.user.gateways.UserChangeRepository;
+import co.com.crediya.r2dbc.entity.UserChangeEntity;
+import co.com.crediya.r2dbc.entity.UserEntity;
+import co.com.crediya.r2dbc.helper.UserDomainMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class UserChangeRepositoryAdapter implements UserChangeRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserChangeRepositoryAdapter.class);
+
+    private final UserChangeReactiveRepository changeRepository;
+    private final UserReactiveRepository userRepository;
+    private final UserDomainMapper domainMapper;
+
+    @Override
+    public Flux<UserChange> findChangesAfter(UserChangePosition position, int limit) {
+        logger.debug("Finding user changes after position: {}", position);
+
+        return changeRepository.findCommittedChangesAfter(position.getTransactionId(), position.getChangeId(), limit)
+                .collectList()
+                .flatMapMany(this::withCurrentUsers)
+                .doOnError(error -> logger.error("Error finding user changes after position: {}", position, error))
+                .onErrorMap(Exception.class, ex ->
+                    new RuntimeException("Failed to find user changes after position: " + position, ex));
+    }
+
+    @Override
+    public Mono<UserChangePosition> findVisibilityHorizon() {
+        return changeRepository.findVisibilityHorizon()
+                .map(UserChangePosition::horizon)
+                .doOnError(error -> logger.error("Error finding user change visibility horizon", error))
+                .onErrorMap(Exception.class, ex ->
+                    new RuntimeException("Failed to find user change visibility horizon", ex));
+    }
+
+    /**
+     * Loads the current state of every user touched by the batch with a single query.
+     * A user that no longer exists is reported as deleted; its DELETE change follows later in the feed.
+     */
+    private Flux<UserChange> withCurrentUsers(List<UserChangeEntity> changes) {
+        if (changes.isEmpty()) {
+            return Flux.empty();
+        }
+
+        List<UUID> upsertedIds = changes.stream()
+                .filter(change -> !UserChangeType.DELETE.name().equals(change.getChangeType()))
+                .map(UserChangeEntity::getUserId)
+                .distinct()
+                .toList();
+
+        Mono<Map<UUID, UserEntity>> currentUsers = upsertedIds.isEmpty()
+                ? Mono.just(Map.of())
+                : userRepository.findAllById(upsertedIds)
+                        .collect(Collectors.toMap(UserEntity::getId, Function.identity()));
+
+        return currentUsers.flatMapMany(users -> Flux.fromIterable(changes)
+                .map(change -> toDomain(change, users.get(change.getUserId()))));
+    }
+
+    private UserChange toDomain(UserChangeEntity change, UserEntity currentUser) {
+        User user = currentUser != null ? domainMapper.entityToDomain(currentUser) : null;
+        UserChangeType type = user != null ? UserChangeType.valueOf(change.getChangeType()) : UserChangeType.DELETE;
+
+        return UserChange.builder()
+                .position(UserChangePosition.of(change.getTransactionId(), change.getId()))
+                .userId(change.getUserId().toString())
+                .type(type)
+                .occurredAt(change.getChangedAt())
+                .user(user)
+                .build();
+    }
+}
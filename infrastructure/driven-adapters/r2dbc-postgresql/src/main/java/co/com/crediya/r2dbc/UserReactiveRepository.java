@@ -2,6 +2,7 @@ package co.com.crediya.r2dbc;
 
 import java.util.UUID;
 
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.ReactiveQueryByExampleExecutor;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -62,6 +63,21 @@ public interface UserReactiveRepository extends ReactiveCrudRepository<UserEntit
     @Query("SELECT * FROM users WHERE email = :email")
     Mono<UserEntity> findUserByEmailCustom(String email);
     
+    /**
+     * Find every user in ID order, for snapshots that must be resumable
+     * @return Flux containing the users
+     */
+    @Query("SELECT * FROM users ORDER BY id")
+    Flux<UserEntity> findAllOrderedById();
+    
+    /**
+     * Find the users after an ID, in ID order
+     * @param afterId Last user ID already read
+     * @return Flux containing the users
+     */
+    @Query("SELECT * FROM users WHERE id > :afterId ORDER BY id")
+    Flux<UserEntity> findAllOrderedByIdAfter(UUID afterId);
+    
     /**
      * Find user by document type and document ID
      * @param documentType Document type
@@ -72,12 +88,12 @@ public interface UserReactiveRepository extends ReactiveCrudRepository<UserEntit
     Mono<UserEntity> findByDocumentTypeAndDocumentId(String documentType, String documentId);
     
     /**
-     * Count users with salary in range (example of custom query)
-     * @param minSalary Minimum salary
-     * @param maxSalary Maximum salary
+     * Count users with salary in range, for ranges the statistics histogram cannot answer
+     * @param minSalary Minimum salary, included
+     * @param maxSalary Maximum salary, excluded
      * @return Mono containing count
      */
-    @Query("SELECT COUNT(*) FROM users WHERE base_salary BETWEEN :minSalary AND :maxSalary")
+    @Query("SELECT COUNT(*) FROM users WHERE base_salary >= :minSalary AND base_salary < :maxSalary")
     Mono<Long> countUsersBySalaryRange(java.math.BigDecimal minSalary, java.math.BigDecimal maxSalary);
     
     /**
@@ -112,4 +128,15 @@ public interface UserReactiveRepository extends ReactiveCrudRepository<UserEntit
      */
     @Query("SELECT COUNT(*) > 0 FROM users WHERE document_id = :documentId AND id != :userId")
     Mono<Boolean> existsByDocumentIdAndIdNot(String documentId, UUID userId);
+
+    /**
+     * Replace the password hash of a user if it still has the expected one
+     * @param userId User ID
+     * @param expectedHash Current hash
+     * @param newHash Replacement hash
+     * @return Mono containing the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE users SET password_hash = :newHash WHERE id = :userId AND password_hash = :expectedHash")
+    Mono<Long> updatePasswordHash(UUID userId, String expectedHash, String newHash);
 }
@@ -1,28 +1,45 @@
 package co.com.crediya.r2dbc;
 
+import co.com.crediya.model.common.gateways.UnitOfWork;
 import co.com.crediya.model.user.DocumentType;
 import co.com.crediya.model.user.Role;
 import co.com.crediya.model.user.User;
+import co.com.crediya.model.user.UserChangeType;
+import co.com.crediya.model.user.UserStatistics;
 import co.com.crediya.model.user.gateways.UserRepository;
+import co.com.crediya.model.user.gateways.UserStatisticsRepository;
 import co.com.crediya.model.valueobject.DocumentId;
 import co.com.crediya.model.valueobject.Email;
+import co.com.crediya.r2dbc.entity.UserChangeEntity;
 import co.com.crediya.r2dbc.entity.UserEntity;
 import co.com.crediya.r2dbc.helper.ReactiveAdapterOperations;
 import co.com.crediya.r2dbc.helper.UserDomainMapper;
+import co.com.crediya.r2dbc.jfr.RepositoryQueryEvent;
+import co.com.crediya.r2dbc.notification.UserChangeNotifier;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.slf4j.Logger;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 import org.reactivecommons.utils.ObjectMapper;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Reads are single statements and run without a transaction so they cost one
+ * round trip. Multi-statement writes are wrapped explicitly through {@link UnitOfWork}.
+ * Every mutation records a row in the user_changes outbox within the same transaction
+ * and notifies the other nodes through pg_notify once it commits.
+ * Counts are answered from {@link UserStatisticsRepository}, kept by a trigger, instead of scanning users;
+ * users are counted directly until the statistics are reconciled, or while they cannot be read.
+ */
 @Repository
-@Transactional
 public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
     User /* domain model */,
     UserEntity /* adapter model */,
@@ -33,12 +50,24 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
     private static final Logger logger = LoggerFactory.getLogger(UserReactiveRepositoryAdapter.class);
     
     private final UserDomainMapper domainMapper;
+    private final UnitOfWork unitOfWork;
+    private final UserChangeReactiveRepository changeRepository;
+    private final UserChangeNotifier changeNotifier;
+    private final UserStatisticsRepository statisticsRepository;
     
     public UserReactiveRepositoryAdapter(UserReactiveRepository repository, 
                                         ObjectMapper mapper,
-                                        UserDomainMapper domainMapper) {
+                                        UserDomainMapper domainMapper,
+                                        UnitOfWork unitOfWork,
+                                        UserChangeReactiveRepository changeRepository,
+                                        UserChangeNotifier changeNotifier,
+                                        UserStatisticsRepository statisticsRepository) {
         super(repository, mapper, entity -> domainMapper.entityToDomain((UserEntity) entity));
         this.domainMapper = domainMapper;
+        this.unitOfWork = unitOfWork;
+        this.changeRepository = changeRepository;
+        this.changeNotifier = changeNotifier;
+        this.statisticsRepository = statisticsRepository;
     }
 
     @Override
@@ -47,11 +76,12 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
     }
 
     @Override
-    @Transactional
     public Mono<User> save(User user) {
         logger.debug("Saving user with id: {}", user.getId());
         
-        return super.save(user)
+        return unitOfWork.inTransaction(super.save(user)
+                        .flatMap(savedUser -> recordChange(savedUser.getId(), UserChangeType.UPSERT).thenReturn(savedUser)))
+                .transform(RepositoryQueryEvent.mono("save"))
                 .doOnSuccess(savedUser -> logger.info("User saved successfully with id: {}", savedUser.getId()))
                 .doOnError(error -> logger.error("Error saving user with id: {}", user.getId(), error))
                 .onErrorMap(Exception.class, ex -> 
@@ -63,15 +93,50 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
         logger.debug("Finding all users");
         
         return super.findAll()
+                .transform(RepositoryQueryEvent.flux("findAll"))
                 .doOnComplete(() -> logger.debug("Completed finding all users"))
                 .doOnError(error -> logger.error("Error finding all users", error))
                 .onErrorMap(Exception.class, ex -> 
                     new RuntimeException("Failed to find all users", ex));
     }
 
+    @Override
+    public Flux<User> findAllOrderedById(String afterId) {
+        logger.debug("Finding all users after id: {}", afterId);
+
+        return (afterId == null ? repository.findAllOrderedById() : repository.findAllOrderedByIdAfter(UUID.fromString(afterId)))
+                .transform(RepositoryQueryEvent.flux("findAllOrderedById"))
+                .map(domainMapper::entityToDomain)
+                .doOnError(error -> logger.error("Error finding all users after id: {}", afterId, error))
+                .onErrorMap(Exception.class, ex ->
+                    new RuntimeException("Failed to find all users after id: " + afterId, ex));
+    }
+
     @Override
     public Mono<User> findById(String id){
-        return super.findById(UUID.fromString(id));
+        return super.findById(UUID.fromString(id))
+                .transform(RepositoryQueryEvent.mono("findById"));
+    }
+
+    @Override
+    public Flux<User> findAllByIds(List<String> ids) {
+        logger.debug("Finding {} users by ID", ids.size());
+
+        List<UUID> uuids = ids.stream()
+                .map(UserReactiveRepositoryAdapter::toUuid)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (uuids.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return repository.findAllById(uuids)
+                .transform(RepositoryQueryEvent.flux("findAllByIds"))
+                .map(domainMapper::entityToDomain)
+                .doOnError(error -> logger.error("Error finding {} users by ID", uuids.size(), error))
+                .onErrorMap(Exception.class, ex ->
+                    new RuntimeException("Failed to find users by ID", ex));
     }
 
     @Override
@@ -79,6 +144,7 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
         logger.debug("Finding user by email: {}", email.getValue());
         
         return repository.findByEmail(email.getValue())
+        .transform(RepositoryQueryEvent.mono("findByEmail"))
         .map(domainMapper::entityToDomain)
         .doOnSuccess(user -> logger.debug("User found with email: {}", email.getValue()))
         .switchIfEmpty(Mono.fromRunnable(() ->
@@ -93,6 +159,7 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
         logger.debug("Checking if user exists by email: {}", email.getValue());
         
         return repository.existsByEmail(email.getValue())
+                .transform(RepositoryQueryEvent.mono("existsByEmail"))
                 .doOnSuccess(exists -> logger.debug("User exists check for email {}: {}", email.getValue(), exists))
                 .doOnError(error -> logger.error("Error checking user existence by email: {}", email.getValue(), error))
                 .onErrorMap(Exception.class, ex -> 
@@ -104,6 +171,7 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
         logger.debug("Finding user by document ID: {}", documentId.getMaskedValue());
         
         return repository.findByDocumentId(documentId.getValue())
+                .transform(RepositoryQueryEvent.mono("findByDocumentId"))
                 .map(domainMapper::entityToDomain)
                 .doOnSuccess(user -> logger.debug("User found with document ID: {}", documentId.getMaskedValue()))
                 .switchIfEmpty(Mono.fromRunnable(() ->
@@ -117,6 +185,7 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
         logger.debug("Checking if user exists by document ID: {}", documentId.getMaskedValue());
         
         return repository.existsByDocumentId(documentId.getValue())
+                .transform(RepositoryQueryEvent.mono("existsByDocumentId"))
                 .doOnSuccess(exists -> logger.debug("User exists check for document ID {}: {}", documentId.getMaskedValue(), exists))
                 .doOnError(error -> logger.error("Error checking user existence by document ID: {}", documentId.getMaskedValue(), error))
                 .onErrorMap(Exception.class, ex -> 
@@ -127,6 +196,7 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
         logger.debug("Finding users by role: {}", role.getCode());
         
         return repository.findByRole(role.getCode())
+                .transform(RepositoryQueryEvent.flux("findByRole"))
                 .map(domainMapper::entityToDomain)
                 .doOnComplete(() -> logger.debug("Completed finding users by role: {}", role.getCode()))
                 .doOnError(error -> logger.error("Error finding users by role: {}", role.getCode(), error))
@@ -138,6 +208,7 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
         logger.debug("Finding users by document type: {}", documentType.getCode());
         
         return repository.findByDocumentType(documentType.getCode())
+                .transform(RepositoryQueryEvent.flux("findByDocumentType"))
                 .map(domainMapper::entityToDomain)
                 .doOnComplete(() -> logger.debug("Completed finding users by document type: {}", documentType.getCode()))
                 .doOnError(error -> logger.error("Error finding users by document type: {}", documentType.getCode(), error))
@@ -150,6 +221,7 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
                 documentType.getCode(), documentId.getMaskedValue());
         
         return repository.findByDocumentTypeAndDocumentId(documentType.getCode(), documentId.getValue())
+                .transform(RepositoryQueryEvent.mono("findByDocumentTypeAndDocumentId"))
                 .map(domainMapper::entityToDomain)
                 .doOnSuccess(user -> logger.debug("User found with document type: {} and document ID: {}", 
                         documentType.getCode(), documentId.getMaskedValue()))
@@ -166,6 +238,7 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
         logger.debug("Finding users with elevated privileges");
         
         return repository.findUsersWithElevatedPrivileges()
+                .transform(RepositoryQueryEvent.flux("findUsersWithElevatedPrivileges"))
                 .map(domainMapper::entityToDomain)
                 .doOnComplete(() -> logger.debug("Completed finding users with elevated privileges"))
                 .doOnError(error -> logger.error("Error finding users with elevated privileges", error))
@@ -176,18 +249,66 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
     public Mono<Long> countUsersByRole(Role role) {
         logger.debug("Counting users by role: {}", role.getCode());
         
-        return repository.countUsersByRole(role.getCode())
+        return reconciledStatistics()
+                .map(statistics -> statistics.countByRole(role))
+                .switchIfEmpty(Mono.defer(() -> repository.countUsersByRole(role.getCode())
+                        .transform(RepositoryQueryEvent.mono("countUsersByRole"))))
                 .doOnSuccess(count -> logger.debug("Total users count for role {}: {}", role.getCode(), count))
                 .doOnError(error -> logger.error("Error counting users by role: {}", role.getCode(), error))
                 .onErrorMap(Exception.class, ex -> 
                     new RuntimeException("Failed to count users by role: " + role.getCode(), ex));
     }
 
+    @Override
+    public Mono<Long> countUsersBySalaryRange(BigDecimal minSalary, BigDecimal maxSalary) {
+        logger.debug("Counting users with salary from {} to {}", minSalary, maxSalary);
+
+        return reconciledStatistics()
+                .flatMap(statistics -> Mono.justOrEmpty(statistics.countBySalaryRange(minSalary, maxSalary)))
+                .switchIfEmpty(Mono.defer(() -> repository.countUsersBySalaryRange(minSalary, maxSalary)
+                        .transform(RepositoryQueryEvent.mono("countUsersBySalaryRange"))))
+                .doOnError(error -> logger.error("Error counting users with salary from {} to {}", minSalary, maxSalary, error))
+                .onErrorMap(Exception.class, ex ->
+                    new RuntimeException("Failed to count users by salary range", ex));
+    }
+
+    /**
+     * Statistics that can answer counts, or empty when counting users is the only exact answer:
+     * before the first recount, or while the statistics tables are missing or failing
+     */
+    private Mono<UserStatistics> reconciledStatistics() {
+        return statisticsRepository.getStatistics()
+                .filter(UserStatistics::isReconciled)
+                .onErrorResume(error -> {
+                    logger.warn("User statistics unavailable, counting users instead: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Boolean> updatePasswordHash(String userId, String expectedHash, String newHash) {
+        UUID id = toUuid(userId);
+        if (id == null) {
+            return Mono.just(false);
+        }
+
+        // Recorded as a change so other nodes drop cached copies holding the old hash
+        return unitOfWork.inTransaction(repository.updatePasswordHash(id, expectedHash, newHash)
+                        .flatMap(updated -> updated > 0
+                                ? recordChange(userId, UserChangeType.UPSERT).thenReturn(true)
+                                : Mono.just(false)))
+                .transform(RepositoryQueryEvent.mono("updatePasswordHash"))
+                .doOnError(error -> logger.error("Error updating password hash of user: {}", userId, error))
+                .onErrorMap(Exception.class, ex ->
+                    new RuntimeException("Failed to update password hash of user: " + userId, ex));
+    }
+
     // Validation methods for updates
     public Mono<Boolean> existsByEmailAndIdNot(Email email, String userId) {
         logger.debug("Checking if email exists excluding user ID: {}", userId);
         
         return repository.existsByEmailAndIdNot(email.getValue(), UUID.fromString(userId))
+                .transform(RepositoryQueryEvent.mono("existsByEmailAndIdNot"))
                 .doOnSuccess(exists -> logger.debug("Email exists check (excluding user {}): {}", userId, exists))
                 .doOnError(error -> logger.error("Error checking email existence excluding user: {}", userId, error))
                 .onErrorMap(Exception.class, ex -> 
@@ -198,17 +319,20 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
         logger.debug("Checking if document ID exists excluding user ID: {}", userId);
         
         return repository.existsByDocumentIdAndIdNot(documentId.getValue(), UUID.fromString(userId))
+                .transform(RepositoryQueryEvent.mono("existsByDocumentIdAndIdNot"))
                 .doOnSuccess(exists -> logger.debug("Document ID exists check (excluding user {}): {}", userId, exists))
                 .doOnError(error -> logger.error("Error checking document ID existence excluding user: {}", userId, error))
                 .onErrorMap(Exception.class, ex -> 
                     new RuntimeException("Failed to check document ID existence excluding user: " + userId, ex));
     }
 
-    @Transactional
     public Mono<Void> deleteById(UUID id) {
         logger.debug("Deleting user with id: {}", id);
         
-        return repository.deleteById(id)
+        return unitOfWork.inTransaction(repository.deleteById(id)
+                        .then(recordChange(id.toString(), UserChangeType.DELETE))
+                        .then())
+                .transform(RepositoryQueryEvent.mono("deleteById"))
                 .doOnSuccess(result -> logger.info("User deleted successfully with id: {}", id))
                 .doOnError(error -> logger.error("Error deleting user with id: {}", id, error))
                 .onErrorMap(Exception.class, ex -> 
@@ -219,6 +343,7 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
         logger.debug("Counting total users");
         
         return repository.count()
+                .transform(RepositoryQueryEvent.mono("count"))
                 .doOnSuccess(count -> logger.debug("Total users count: {}", count))
                 .doOnError(error -> logger.error("Error counting users", error))
                 .onErrorMap(Exception.class, ex -> 
@@ -228,4 +353,21 @@ public class UserReactiveRepositoryAdapter extends ReactiveAdapterOperations<
     public Mono<User> findByDocumentId(String id) {
         return findByDocumentId(new DocumentId(id));
     }
+
+    private Mono<UserChangeEntity> recordChange(String userId, UserChangeType type) {
+        return changeRepository.save(UserChangeEntity.builder()
+                .userId(UUID.fromString(userId))
+                .changeType(type.name())
+                .changedAt(Instant.now())
+                .build())
+                .flatMap(change -> changeNotifier.publish(change).thenReturn(change));
+    }
+
+    private static UUID toUuid(String id) {
+        try {
+            return id != null ? UUID.fromString(id) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,144 @@
+package co.com.crediya.r2dbc;
+
+import co.com.crediya.model.user.UserSearchCriteria;
+import co.com.crediya.model.user.UserSearchHit;
+import co.com.crediya.model.user.gateways.UserSearchRepository;
+import co.com.crediya.r2dbc.entity.UserEntity;
+import co.com.crediya.r2dbc.helper.UserDomainMapper;
+import co.com.crediya.r2dbc.jfr.RepositoryQueryEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds one statement per search with only the criteria given, each backed by an index of
+ * {@code db/user_search.sql}: trigram GIN for names, {@code text_pattern_ops} B-trees for the prefixes
+ * and (role, id) for the role. Every named parameter appears once in the statement, so values used
+ * twice, such as the name for filtering and for ranking, are bound twice.
+ * <p>
+ * With ranked criteria the score is the word similarity of the name plus, for each prefix, the share of
+ * the value it covers, so exact and near-exact matches come first. Pages follow the keyset
+ * (-score, id), which stays stable while users are added. Without ranked criteria users come by ID.
+ */
+@Repository
+public class UserSearchRepositoryAdapter implements UserSearchRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchRepositoryAdapter.class);
+    private static final String FULL_NAME = "(u.first_name || ' ' || u.last_name)";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+    private final UserDomainMapper domainMapper;
+
+    public UserSearchRepositoryAdapter(DatabaseClient databaseClient,
+                                       R2dbcConverter converter,
+                                       UserDomainMapper domainMapper) {
+        this.databaseClient = databaseClient;
+        this.converter = converter;
+        this.domainMapper = domainMapper;
+    }
+
+    @Override
+    public Flux<UserSearchHit> search(UserSearchCriteria criteria) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = criteria.hasRankedCriteria()
+                ? rankedQuery(criteria, parameters)
+                : unrankedQuery(criteria, parameters);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+
+        return spec.map((row, metadata) -> UserSearchHit.builder()
+                        .user(domainMapper.entityToDomain(converter.read(UserEntity.class, row, metadata)))
+                        .score(row.get("score", Double.class))
+                        .build())
+                .all()
+                .transform(RepositoryQueryEvent.flux("search"))
+                .doOnError(error -> logger.error("Error searching users", error))
+                .onErrorMap(Exception.class, ex ->
+                    new RuntimeException("Failed to search users", ex));
+    }
+
+    static String rankedQuery(UserSearchCriteria criteria, Map<String, Object> parameters) {
+        List<String> scores = new ArrayList<>();
+        if (criteria.getName() != null) {
+            scores.add("word_similarity(:nameRank, " + FULL_NAME + ")");
+            parameters.put("nameRank", criteria.getName().strip());
+        }
+        if (criteria.getEmailPrefix() != null) {
+            scores.add(":emailPrefixLength / length(u.email)::float8");
+            parameters.put("emailPrefixLength", criteria.getEmailPrefix().strip().length());
+        }
+        if (criteria.getDocumentIdPrefix() != null) {
+            scores.add(":documentIdPrefixLength / length(u.document_id)::float8");
+            parameters.put("documentIdPrefixLength", criteria.getDocumentIdPrefix().strip().length());
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM (SELECT u.*, (")
+                .append(String.join(" + ", scores))
+                .append(")::float8 AS score FROM users u WHERE ")
+                .append(filters(criteria, parameters))
+                .append(") hits");
+        if (!criteria.isFirstPage()) {
+            sql.append(" WHERE (-hits.score, hits.id) > (:afterNegatedScore, :afterId)");
+            parameters.put("afterNegatedScore", -criteria.getAfterScore());
+            parameters.put("afterId", UUID.fromString(criteria.getAfterId()));
+        }
+        sql.append(" ORDER BY -hits.score, hits.id LIMIT :limit");
+        parameters.put("limit", criteria.getLimit());
+        return sql.toString();
+    }
+
+    static String unrankedQuery(UserSearchCriteria criteria, Map<String, Object> parameters) {
+        StringBuilder sql = new StringBuilder("SELECT u.*, 0::float8 AS score FROM users u WHERE ")
+                .append(filters(criteria, parameters));
+        if (!criteria.isFirstPage()) {
+            sql.append(" AND u.id > :afterId");
+            parameters.put("afterId", UUID.fromString(criteria.getAfterId()));
+        }
+        sql.append(" ORDER BY u.id LIMIT :limit");
+        parameters.put("limit", criteria.getLimit());
+        return sql.toString();
+    }
+
+    private static String filters(UserSearchCriteria criteria, Map<String, Object> parameters) {
+        List<String> filters = new ArrayList<>();
+        if (criteria.getName() != null) {
+            // <% is word similarity above pg_trgm.word_similarity_threshold, served by the trigram index
+            filters.add(":name <% " + FULL_NAME);
+            parameters.put("name", criteria.getName().strip());
+        }
+        if (criteria.getEmailPrefix() != null) {
+            filters.add("lower(u.email) LIKE :emailPattern");
+            parameters.put("emailPattern", likePrefix(criteria.getEmailPrefix().strip().toLowerCase(Locale.ROOT)));
+        }
+        if (criteria.getDocumentIdPrefix() != null) {
+            filters.add("u.document_id LIKE :documentIdPattern");
+            parameters.put("documentIdPattern", likePrefix(criteria.getDocumentIdPrefix().strip()));
+        }
+        if (criteria.getRole() != null) {
+            filters.add("u.role = :role");
+            parameters.put("role", criteria.getRole().getCode());
+        }
+        return String.join(" AND ", filters);
+    }
+
+    /**
+     * Escapes LIKE wildcards so the prefix is matched literally
+     */
+    static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
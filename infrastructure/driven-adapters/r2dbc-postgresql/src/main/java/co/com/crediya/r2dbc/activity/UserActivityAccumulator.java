@@ -0,0 +1,274 @@
+package co.com.crediya.r2dbc.activity;
+
+import co.com.crediya.model.common.RequestPriority;
+import co.com.crediya.model.user.UserActivity;
+import co.com.crediya.model.user.gateways.UserActivityRepository;
+import co.com.crediya.r2dbc.UserActivityReactiveRepository;
+import co.com.crediya.r2dbc.entity.UserActivityEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind store for login activity.
+ * Logins are merged in memory per user (count added, latest login wins) and every
+ * {@code flush-interval} the pending users are upserted into {@code user_activity} with one
+ * statement per {@code batch-size} users, so a login never writes to or locks the {@code users} row.
+ * At most {@code max-pending-users} users are held; logins of further users are dropped and counted.
+ * Failed batches are merged back and retried, so only a crash loses activity, at most one flush interval.
+ */
+@Component
+public class UserActivityAccumulator implements UserActivityRepository, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserActivityAccumulator.class);
+    private static final String UPSERT_PREFIX = """
+            INSERT INTO user_activity AS a (user_id, last_login_at, login_count, last_login_ip)
+            SELECT v.user_id, v.last_login_at, v.login_count, v.last_login_ip
+            FROM (VALUES\s""";
+    // Joining users skips activity of users deleted before the flush instead of failing the batch
+    private static final String UPSERT_SUFFIX = """
+            ) AS v (user_id, last_login_at, login_count, last_login_ip)
+            JOIN users u ON u.id = v.user_id
+            ORDER BY v.user_id
+            ON CONFLICT (user_id) DO UPDATE SET
+                login_count = a.login_count + EXCLUDED.login_count,
+                last_login_ip = CASE WHEN EXCLUDED.last_login_at >= a.last_login_at
+                                     THEN EXCLUDED.last_login_ip ELSE a.last_login_ip END,
+                last_login_at = GREATEST(a.last_login_at, EXCLUDED.last_login_at)""";
+    /** Stops after the web server (DEFAULT_PHASE - 2048) so in-flight logins are still tracked */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final DatabaseClient databaseClient;
+    private final UserActivityReactiveRepository activityRepository;
+    private final UserActivityProperties properties;
+    private final Map<String, UserActivity> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final Counter droppedCounter;
+    private final Counter flushedCounter;
+    private final Counter failedCounter;
+
+    private volatile Scheduler scheduler;
+    private volatile Disposable periodicFlush;
+    private volatile boolean running;
+
+    public UserActivityAccumulator(DatabaseClient databaseClient,
+                                   UserActivityReactiveRepository activityRepository,
+                                   UserActivityProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.activityRepository = activityRepository;
+        this.properties = properties;
+
+        Gauge.builder("user.activity.pending", pending, Map::size)
+                .description("Users with login activity waiting to be written")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("user.activity.dropped")
+                .description("Logins not tracked because too many users were pending")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("user.activity.flushed")
+                .description("Pending user activity rows written")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("user.activity.flush.failures")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordLogin(String userId, String clientIp, Instant loginAt) {
+        if (toUuid(userId) == null) {
+            return;
+        }
+        merge(UserActivity.builder()
+                .userId(userId)
+                .lastLoginAt(loginAt)
+                .loginCount(1)
+                .lastLoginIp(clientIp)
+                .build());
+    }
+
+    @Override
+    public Mono<UserActivity> findByUserId(String userId) {
+        UUID id = toUuid(userId);
+        if (id == null) {
+            return Mono.empty();
+        }
+
+        return activityRepository.findById(id)
+                .map(this::toDomain)
+                .map(persisted -> {
+                    UserActivity unflushed = pending.get(userId);
+                    return unflushed != null ? persisted.merge(unflushed) : persisted;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> pending.get(userId)))
+                .doOnError(error -> logger.error("Error finding activity for user: {}", userId, error))
+                .onErrorMap(Exception.class, ex ->
+                    new RuntimeException("Failed to find activity for user: " + userId, ex));
+    }
+
+    @Override
+    public void start() {
+        scheduler = Schedulers.newSingle("user-activity-writer");
+        running = true;
+        long intervalMs = properties.flushInterval().toMillis();
+        periodicFlush = scheduler.schedulePeriodically(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (periodicFlush != null) {
+            periodicFlush.dispose();
+        }
+
+        long deadline = System.nanoTime() + properties.shutdownTimeout().toNanos();
+        List<UserActivity> batch = drain(properties.batchSize());
+        while (!batch.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                writeBatch(batch).block(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                logger.error("Error flushing activity of {} users on shutdown", batch.size(), e);
+            }
+            batch = drain(properties.batchSize());
+        }
+        int remaining = batch.size() + pending.size();
+        if (remaining > 0) {
+            logger.warn("Shutdown timeout reached, activity of {} users was not written", remaining);
+        }
+
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void merge(UserActivity activity) {
+        if (pending.size() >= properties.maxPendingUsers() && !pending.containsKey(activity.getUserId())) {
+            droppedCounter.increment(activity.getLoginCount());
+            return;
+        }
+        pending.merge(activity.getUserId(), activity, UserActivity::merge);
+    }
+
+    void flush() {
+        // A single write in flight at a time; a slow database delays flushes instead of piling them up
+        if (!writing.compareAndSet(false, true)) {
+            return;
+        }
+        writeAll().doFinally(signal -> writing.set(false)).subscribe();
+    }
+
+    private Mono<Void> writeAll() {
+        List<UserActivity> batch = drain(properties.batchSize());
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return writeBatch(batch)
+                .onErrorResume(error -> {
+                    failedCounter.increment();
+                    logger.error("Error writing activity of {} users, retrying on next flush", batch.size(), error);
+                    batch.forEach(this::merge);
+                    return Mono.error(error);
+                })
+                .then(Mono.defer(this::writeAll))
+                .onErrorResume(error -> Mono.empty());
+    }
+
+    /**
+     * Removes up to {@code max} users from the pending map. Logins arriving meanwhile start a new entry
+     * that is added to the written one by the upsert, so no update is lost.
+     */
+    private List<UserActivity> drain(int max) {
+        List<UserActivity> batch = new ArrayList<>(Math.min(max, pending.size()));
+        Iterator<String> userIds = pending.keySet().iterator();
+        while (batch.size() < max && userIds.hasNext()) {
+            UserActivity activity = pending.remove(userIds.next());
+            if (activity != null) {
+                batch.add(activity);
+            }
+        }
+        return batch;
+    }
+
+    private Mono<Void> writeBatch(List<UserActivity> batch) {
+        // Consistent row order keeps concurrent flushes from several nodes from deadlocking
+        batch.sort(Comparator.comparing(UserActivity::getUserId));
+
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(CAST(:user").append(i).append(" AS UUID)")
+                    .append(", CAST(:at").append(i).append(" AS TIMESTAMPTZ)")
+                    .append(", CAST(:count").append(i).append(" AS BIGINT)")
+                    .append(", CAST(:ip").append(i).append(" AS VARCHAR))");
+        }
+        sql.append(UPSERT_SUFFIX);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < batch.size(); i++) {
+            UserActivity activity = batch.get(i);
+            spec = spec.bind("user" + i, UUID.fromString(activity.getUserId()))
+                    .bind("at" + i, activity.getLastLoginAt())
+                    .bind("count" + i, activity.getLoginCount());
+            spec = activity.getLastLoginIp() != null
+                    ? spec.bind("ip" + i, activity.getLastLoginIp())
+                    : spec.bindNull("ip" + i, String.class);
+        }
+
+        return spec.then()
+                .doOnSuccess(result -> flushedCounter.increment(batch.size()))
+                .contextWrite(context -> context.put(RequestPriority.CONTEXT_KEY, RequestPriority.BULK));
+    }
+
+    private UserActivity toDomain(UserActivityEntity entity) {
+        return UserActivity.builder()
+                .userId(entity.getUserId().toString())
+                .lastLoginAt(entity.getLastLoginAt())
+                .loginCount(entity.getLoginCount() != null ? entity.getLoginCount() : 0)
+                .lastLoginIp(entity.getLastLoginIp())
+                .build();
+    }
+
+    private static UUID toUuid(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
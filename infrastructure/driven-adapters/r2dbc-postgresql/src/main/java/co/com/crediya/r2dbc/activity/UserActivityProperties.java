@@ -0,0 +1,20 @@
+package co.com.crediya.r2dbc.activity;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.r2dbc.activity")
+public record UserActivityProperties(
+        Integer maxPendingUsers,
+        Integer batchSize,
+        Duration flushInterval,
+        Duration shutdownTimeout) {
+
+    public UserActivityProperties {
+        maxPendingUsers = maxPendingUsers != null ? maxPendingUsers : 50_000;
+        batchSize = batchSize != null ? batchSize : 500;
+        flushInterval = flushInterval != null ? flushInterval : Duration.ofSeconds(5);
+        shutdownTimeout = shutdownTimeout != null ? shutdownTimeout : Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,229 @@
+package co.com.crediya.r2dbc.audit;
+
+import co.com.crediya.model.audit.AuthAuditEvent;
+import co.com.crediya.model.audit.gateways.AuthAuditGateway;
+import co.com.crediya.model.common.RequestPriority;
+import co.com.crediya.r2dbc.helper.MpmcRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persists authentication audit events off the request path.
+ * Events are buffered in a lock-free ring buffer and written by a single background writer
+ * as one multi-row INSERT every {@code batch-size} events or every {@code flush-interval},
+ * whichever comes first. Remaining events are flushed on graceful shutdown.
+ */
+@Component
+public class AuthAuditLogWriter implements AuthAuditGateway, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthAuditLogWriter.class);
+    private static final String INSERT_PREFIX =
+            "INSERT INTO auth_audit_log (event_type, user_id, principal, detail, occurred_at) VALUES ";
+    /** Stops after the web server (DEFAULT_PHASE - 2048) so in-flight logins are still audited */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final DatabaseClient databaseClient;
+    private final AuthAuditProperties properties;
+    private final MpmcRingBuffer<AuthAuditEvent> buffer;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    private volatile Scheduler scheduler;
+    private volatile Disposable periodicFlush;
+    private volatile boolean running;
+
+    public AuthAuditLogWriter(DatabaseClient databaseClient,
+                              AuthAuditProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+        this.buffer = new MpmcRingBuffer<>(properties.capacity());
+
+        Gauge.builder("auth.audit.queue.depth", buffer, MpmcRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("auth.audit.dropped")
+                .description("Audit events discarded because the buffer was full")
+                .tag("policy", properties.overflowPolicy().name())
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("auth.audit.written")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("auth.audit.write.failures")
+                .description("Audit events lost because their batch could not be written")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void record(AuthAuditEvent event) {
+        if (!buffer.offer(event) && !makeRoomFor(event)) {
+            droppedCounter.increment();
+        }
+        if (buffer.size() >= properties.batchSize()) {
+            requestFlush();
+        }
+    }
+
+    @Override
+    public void start() {
+        scheduler = Schedulers.newSingle("auth-audit-writer");
+        running = true;
+        long intervalMs = properties.flushInterval().toMillis();
+        periodicFlush = scheduler.schedulePeriodically(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (periodicFlush != null) {
+            periodicFlush.dispose();
+        }
+
+        long deadline = System.nanoTime() + properties.shutdownTimeout().toNanos();
+        List<AuthAuditEvent> batch = drain(properties.batchSize());
+        while (!batch.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                writeBatch(batch).block(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+            } catch (RuntimeException e) {
+                failedCounter.increment(batch.size());
+                logger.error("Error flushing {} audit events on shutdown", batch.size(), e);
+            }
+            batch = drain(properties.batchSize());
+        }
+        int remaining = batch.size() + buffer.size();
+        if (remaining > 0) {
+            failedCounter.increment(remaining);
+            logger.warn("Shutdown timeout reached, {} audit events were not written", remaining);
+        }
+
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private boolean makeRoomFor(AuthAuditEvent event) {
+        if (properties.overflowPolicy() == AuthAuditProperties.OverflowPolicy.DROP_OLDEST && buffer.poll() != null) {
+            droppedCounter.increment();
+            return buffer.offer(event);
+        }
+        return false;
+    }
+
+    private void requestFlush() {
+        Scheduler current = scheduler;
+        if (running && current != null && flushScheduled.compareAndSet(false, true)) {
+            current.schedule(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        // A single write in flight at a time; its completion schedules the next one if needed
+        if (!writing.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<AuthAuditEvent> batch = drain(properties.batchSize());
+        if (batch.isEmpty()) {
+            writing.set(false);
+            return;
+        }
+
+        writeBatch(batch)
+                .onErrorResume(error -> {
+                    failedCounter.increment(batch.size());
+                    logger.error("Error writing {} audit events", batch.size(), error);
+                    return Mono.empty();
+                })
+                .doFinally(signal -> {
+                    writing.set(false);
+                    if (buffer.size() >= properties.batchSize()) {
+                        requestFlush();
+                    }
+                })
+                .subscribe();
+    }
+
+    private List<AuthAuditEvent> drain(int max) {
+        List<AuthAuditEvent> batch = new ArrayList<>(Math.min(max, buffer.size()));
+        AuthAuditEvent event;
+        while (batch.size() < max && (event = buffer.poll()) != null) {
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    private Mono<Void> writeBatch(List<AuthAuditEvent> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:type").append(i)
+                    .append(", :user").append(i)
+                    .append(", :principal").append(i)
+                    .append(", :detail").append(i)
+                    .append(", :at").append(i)
+                    .append(')');
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < batch.size(); i++) {
+            AuthAuditEvent event = batch.get(i);
+            spec = spec.bind("type" + i, event.getType().name());
+            spec = bindNullable(spec, "user" + i, toUuid(event.getUserId()), UUID.class);
+            spec = bindNullable(spec, "principal" + i, event.getPrincipal(), String.class);
+            spec = bindNullable(spec, "detail" + i, event.getDetail(), String.class);
+            spec = spec.bind("at" + i, event.getOccurredAt());
+        }
+
+        return spec.then()
+                .doOnSuccess(result -> writtenCounter.increment(batch.size()))
+                .contextWrite(context -> context.put(RequestPriority.CONTEXT_KEY, RequestPriority.BULK));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                   String name, Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    private static UUID toUuid(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package co.com.crediya.r2dbc.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.r2dbc.audit")
+public record AuthAuditProperties(
+        Integer capacity,
+        Integer batchSize,
+        Duration flushInterval,
+        OverflowPolicy overflowPolicy,
+        Duration shutdownTimeout) {
+
+    public enum OverflowPolicy {
+        /** Keep what is buffered and discard the incoming event */
+        DROP_NEWEST,
+        /** Evict the oldest buffered event to make room for the incoming one */
+        DROP_OLDEST
+    }
+
+    public AuthAuditProperties {
+        capacity = capacity != null ? capacity : 8192;
+        batchSize = batchSize != null ? batchSize : 256;
+        flushInterval = flushInterval != null ? flushInterval : Duration.ofMillis(200);
+        overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.DROP_NEWEST;
+        shutdownTimeout = shutdownTimeout != null ? shutdownTimeout : Duration.ofSeconds(5);
+    }
+}
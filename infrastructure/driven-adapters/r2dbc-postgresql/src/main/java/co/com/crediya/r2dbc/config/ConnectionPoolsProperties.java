@@ -0,0 +1,51 @@
+package co.com.crediya.r2dbc.config;
+
+import co.com.crediya.model.common.RequestPriority;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sizes of the connection sub-pool of each request priority class.
+ * Their sum is the number of connections the service may open.
+ * @param warmupTimeout How long startup may spend opening and validating the initial connections, zero to skip it
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.pools")
+public record ConnectionPoolsProperties(
+        Map<RequestPriority, Pool> classes,
+        Duration warmupTimeout) {
+
+    /**
+     * @param maxAcquireTime How long a request may wait for a connection of its class before failing
+     * @param statementTimeout Server-side {@code statement_timeout} of the connections of the class,
+     *                         so a query keeps no backend busy long after its caller gave up
+     */
+    public record Pool(Integer initialSize, Integer maxSize, Duration maxAcquireTime, Duration statementTimeout) {
+    }
+
+    private static final Map<RequestPriority, Pool> DEFAULTS = Map.of(
+            RequestPriority.AUTH_CRITICAL, new Pool(4, 8, Duration.ofSeconds(1), Duration.ofSeconds(2)),
+            RequestPriority.LOOKUP, new Pool(3, 5, Duration.ofSeconds(2), Duration.ofSeconds(3)),
+            RequestPriority.BULK, new Pool(1, 2, Duration.ofSeconds(5), Duration.ofSeconds(30)));
+
+    public ConnectionPoolsProperties {
+        Map<RequestPriority, Pool> resolved = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : RequestPriority.values()) {
+            Pool fallback = DEFAULTS.get(priority);
+            Pool configured = classes != null ? classes.get(priority) : null;
+            resolved.put(priority, configured == null ? fallback : new Pool(
+                    configured.initialSize() != null ? configured.initialSize() : fallback.initialSize(),
+                    configured.maxSize() != null ? configured.maxSize() : fallback.maxSize(),
+                    configured.maxAcquireTime() != null ? configured.maxAcquireTime() : fallback.maxAcquireTime(),
+                    configured.statementTimeout() != null ? configured.statementTimeout() : fallback.statementTimeout()));
+        }
+        classes = Map.copyOf(resolved);
+        warmupTimeout = warmupTimeout != null ? warmupTimeout : Duration.ofSeconds(10);
+    }
+
+    public Pool pool(RequestPriority priority) {
+        return classes.get(priority);
+    }
+}
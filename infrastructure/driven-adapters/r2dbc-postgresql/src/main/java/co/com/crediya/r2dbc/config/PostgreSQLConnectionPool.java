@@ -1,42 +1,76 @@
 package co.com.crediya.r2dbc.config;
 
-import io.r2dbc.pool.ConnectionPool;
+import co.com.crediya.model.common.RequestPriority;
+import co.com.crediya.r2dbc.query.QueryMonitor;
 import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
 import io.r2dbc.postgresql.PostgresqlConnectionFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Configuration
 public class PostgreSQLConnectionPool {
     /* Change these values for your project */
-    public static final int INITIAL_SIZE = 12;
-    public static final int MAX_SIZE = 15;
     public static final int MAX_IDLE_TIME = 30;
     public static final int DEFAULT_PORT = 5432;
+    private static final String STATEMENT_TIMEOUT = "statement_timeout";
 
+    /**
+     * One pool per request priority class behind a router, see {@link PriorityRoutingConnectionFactory}.
+     * Requests without a priority use the LOOKUP pool. Each class sets its own statement timeout.
+     * Statements of every pool are timed by the {@link QueryMonitor}.
+     */
 	@Bean
-	public ConnectionPool getConnectionConfig(PostgresqlConnectionProperties properties) {
-		PostgresqlConnectionConfiguration dbConfiguration = PostgresqlConnectionConfiguration.builder()
+	@Primary
+	public PriorityRoutingConnectionFactory getConnectionConfig(PostgresqlConnectionProperties properties,
+	                                                            ConnectionPoolsProperties poolsProperties,
+	                                                            QueryMonitor queryMonitor) {
+        Map<RequestPriority, ConnectionPoolConfiguration> pools = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : RequestPriority.values()) {
+            ConnectionPoolsProperties.Pool pool = poolsProperties.pool(priority);
+            PostgresqlConnectionFactory connectionFactory = new PostgresqlConnectionFactory(connectionConfiguration(
+                    properties, Map.of(STATEMENT_TIMEOUT, String.valueOf(pool.statementTimeout().toMillis()))));
+            pools.put(priority, ConnectionPoolConfiguration.builder()
+                    .connectionFactory(queryMonitor.intercept(connectionFactory))
+                    .name("api-postgres-connection-pool-" + priority.name().toLowerCase())
+                    .initialSize(pool.initialSize())
+                    .maxSize(pool.maxSize())
+                    .maxAcquireTime(pool.maxAcquireTime())
+                    .maxIdleTime(Duration.ofMinutes(MAX_IDLE_TIME))
+                    .validationQuery("SELECT 1")
+                    .build());
+        }
+
+		return new PriorityRoutingConnectionFactory(pools, RequestPriority.LOOKUP,
+				poolsProperties.warmupTimeout());
+	}
+
+    /**
+     * Builds the driver configuration shared by the pool and by dedicated connections
+     * such as the LISTEN connection, which must not be borrowed from the pool.
+     */
+    public static PostgresqlConnectionConfiguration connectionConfiguration(PostgresqlConnectionProperties properties) {
+        return connectionConfiguration(properties, Map.of());
+    }
+
+    /**
+     * @param options Session parameters set when each connection starts, such as {@code statement_timeout}
+     */
+    public static PostgresqlConnectionConfiguration connectionConfiguration(PostgresqlConnectionProperties properties,
+                                                                            Map<String, String> options) {
+        return PostgresqlConnectionConfiguration.builder()
                 .host(properties.host())
                 .port(properties.port())
                 .database(properties.database())
                 .schema(properties.schema())
                 .username(properties.username())
                 .password(properties.password())
+                .options(options)
                 .build();
-
-        ConnectionPoolConfiguration poolConfiguration = ConnectionPoolConfiguration.builder()
-                .connectionFactory(new PostgresqlConnectionFactory(dbConfiguration))
-                .name("api-postgres-connection-pool")
-                .initialSize(INITIAL_SIZE)
-                .maxSize(MAX_SIZE)
-                .maxIdleTime(Duration.ofMinutes(MAX_IDLE_TIME))
-                .validationQuery("SELECT 1")
-                .build();
-
-		return new ConnectionPool(poolConfiguration);
-	}
+    }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package co.com.crediya.r2dbc.config;
+
+import co.com.crediya.model.common.Deadline;
+import co.com.crediya.model.common.DeadlineStage;
+import co.com.crediya.model.common.RequestPriority;
+import co.com.crediya.model.common.exception.DeadlineExceededException;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ValidationDepth;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the sub-pool of the {@link RequestPriority} found in the
+ * subscriber context, so bulk and admin work cannot exhaust the connections logins need.
+ * Work without a priority, such as background writers that do not set one, uses the default pool.
+ * When the context carries a {@link Deadline}, a connection is not waited for past it.
+ * <p>
+ * Starting opens and validates the initial connections of every pool, so the first requests do not
+ * pay for connection setup. Stopping closes every pool and starting opens them again, so the
+ * connections do not end up in a CRaC checkpoint and a restored JVM connects afresh.
+ */
+public class PriorityRoutingConnectionFactory extends AbstractRoutingConnectionFactory
+        implements SmartLifecycle, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriorityRoutingConnectionFactory.class);
+    /** Starts before and stops after every component that queries the database */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 8192;
+
+    private final Map<RequestPriority, ConnectionPoolConfiguration> configurations;
+    private final RequestPriority defaultPriority;
+    private final Duration warmupTimeout;
+
+    private volatile Map<RequestPriority, ConnectionPool> pools;
+    private volatile boolean running;
+
+    public PriorityRoutingConnectionFactory(Map<RequestPriority, ConnectionPoolConfiguration> configurations,
+                                            RequestPriority defaultPriority,
+                                            Duration warmupTimeout) {
+        this.configurations = Map.copyOf(configurations);
+        this.defaultPriority = defaultPriority;
+        this.warmupTimeout = warmupTimeout;
+        openPools();
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.deferContextual(context -> context.<Deadline>getOrEmpty(Deadline.CONTEXT_KEY)
+                .map(deadline -> deadline.isExpired()
+                        ? this.<Connection>deadlineExceeded()
+                        : super.create().timeout(deadline.remaining(), Mono.defer(this::deadlineExceeded)))
+                .orElseGet(super::create));
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(context.getOrEmpty(RequestPriority.CONTEXT_KEY)));
+    }
+
+    public Map<RequestPriority, ConnectionPool> getPools() {
+        return pools;
+    }
+
+    @Override
+    public void start() {
+        if (pools.values().stream().anyMatch(ConnectionPool::isDisposed)) {
+            openPools();
+            afterPropertiesSet();
+            logger.info("Connection pools reopened");
+        }
+        warmUp();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        pools.values().forEach(ConnectionPool::dispose);
+        logger.info("Connection pools closed");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(ConnectionPool::dispose);
+    }
+
+    private void openPools() {
+        Map<RequestPriority, ConnectionPool> opened = new EnumMap<>(RequestPriority.class);
+        configurations.forEach((priority, configuration) -> opened.put(priority, new ConnectionPool(configuration)));
+        setTargetConnectionFactories(new HashMap<>(opened));
+        setDefaultTargetConnectionFactory(opened.get(defaultPriority));
+        pools = Map.copyOf(opened);
+    }
+
+    /**
+     * Opens the initial connections of every pool and checks one of each against the server.
+     * A database that is not reachable yet does not fail startup; the pools then connect on demand.
+     */
+    private void warmUp() {
+        if (warmupTimeout.isZero()) {
+            return;
+        }
+        try {
+            Flux.fromIterable(pools.entrySet())
+                    .flatMap(entry -> entry.getValue().warmup()
+                            .then(Mono.usingWhen(entry.getValue().create(),
+                                    connection -> Mono.from(connection.validate(ValidationDepth.REMOTE)),
+                                    Connection::close))
+                            .doOnNext(valid -> {
+                                if (!valid) {
+                                    logger.warn("Connection of the {} pool failed validation", entry.getKey());
+                                }
+                            }))
+                    .then()
+                    .block(warmupTimeout);
+            logger.info("Connection pools warmed up");
+        } catch (RuntimeException e) {
+            logger.warn("Connection pool warm-up did not complete, connecting on demand: {}", e.getMessage());
+        }
+    }
+
+    /** Counted where the request ends, see deadline.exceeded in the web layer */
+    private <T> Mono<T> deadlineExceeded() {
+        return Mono.error(new DeadlineExceededException(DeadlineStage.CONNECTION));
+    }
+}
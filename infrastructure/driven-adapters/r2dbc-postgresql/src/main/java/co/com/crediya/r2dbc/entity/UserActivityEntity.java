@@ -0,0 +1,36 @@
+package co.com.crediya.r2dbc.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Table("user_activity")
+public class UserActivityEntity {
+
+    @Id
+    @Column("user_id")
+    private UUID userId;
+
+    @Column("last_login_at")
+    private Instant lastLoginAt;
+
+    @Column("login_count")
+    private Long loginCount;
+
+    @Column("last_login_ip")
+    private String lastLoginIp;
+}
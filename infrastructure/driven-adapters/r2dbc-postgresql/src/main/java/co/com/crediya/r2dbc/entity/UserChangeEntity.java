@@ -0,0 +1,41 @@
+package co.com.crediya.r2dbc.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Table("user_changes")
+public class UserChangeEntity {
+
+    @Id
+    private Long id;
+
+    @Column("user_id")
+    private UUID userId;
+
+    @Column("change_type")
+    private String changeType;
+
+    @Column("changed_at")
+    private Instant changedAt;
+
+    /** ID of the writing transaction, assigned by the database */
+    @ReadOnlyProperty
+    @Column("txid")
+    private Long transactionId;
+}
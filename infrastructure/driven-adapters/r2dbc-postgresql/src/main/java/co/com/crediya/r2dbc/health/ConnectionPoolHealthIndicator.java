@@ -0,0 +1,92 @@
+package co.com.crediya.r2dbc.health;
+
+import co.com.crediya.health.CachedHealthIndicator;
+import co.com.crediya.health.CachedHealthProperties;
+import co.com.crediya.model.common.RequestPriority;
+import co.com.crediya.r2dbc.config.PriorityRoutingConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ValidationDepth;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Health of the connection sub-pools, refreshed in the background and served from memory like every
+ * {@link CachedHealthIndicator}, so a probe never waits for a connection or adds a query to a busy pool.
+ * A pool whose connections are nearly all in use while callers queue for one is DEGRADED and is not
+ * validated, since the validation query would take a connection those callers need. Otherwise one
+ * connection of each pool is validated against the server and a failure is DOWN.
+ */
+@Component
+public class ConnectionPoolHealthIndicator extends CachedHealthIndicator {
+
+    private final PriorityRoutingConnectionFactory connectionFactory;
+    private final ConnectionPoolHealthProperties properties;
+
+    public ConnectionPoolHealthIndicator(PriorityRoutingConnectionFactory connectionFactory,
+                                         CachedHealthProperties cachedProperties,
+                                         ConnectionPoolHealthProperties properties) {
+        super(cachedProperties);
+        this.connectionFactory = connectionFactory;
+        this.properties = properties;
+    }
+
+    @Override
+    protected Health check() {
+        // Pools are validated concurrently, each bounded by the validation timeout
+        return Flux.fromIterable(connectionFactory.getPools().entrySet())
+                .flatMap(entry -> check(entry.getValue()).map(health -> Map.entry(entry.getKey(), health)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, () -> new EnumMap<>(RequestPriority.class))
+                .map(ConnectionPoolHealthIndicator::aggregate)
+                .block(properties.validationTimeout().plus(Duration.ofSeconds(1)));
+    }
+
+    private Mono<Health> check(ConnectionPool pool) {
+        Health.Builder builder = new Health.Builder();
+        PoolMetrics metrics = pool.getMetrics().orElse(null);
+        if (metrics != null) {
+            double saturation = metrics.getMaxAllocatedSize() > 0
+                    ? (double) metrics.getAcquiredSize() / metrics.getMaxAllocatedSize()
+                    : 0;
+            builder.withDetail("acquired", metrics.getAcquiredSize())
+                    .withDetail("idle", metrics.getIdleSize())
+                    .withDetail("max", metrics.getMaxAllocatedSize())
+                    .withDetail("pending", metrics.getPendingAcquireSize());
+            if (saturation >= properties.saturationDegraded() && metrics.getPendingAcquireSize() > 0) {
+                return Mono.just(builder.status(DEGRADED)
+                        .withDetail("validation", "Skipped, pool saturated")
+                        .build());
+            }
+        }
+
+        return Mono.usingWhen(pool.create(),
+                        connection -> Mono.from(connection.validate(ValidationDepth.REMOTE)),
+                        Connection::close)
+                .timeout(properties.validationTimeout())
+                .map(valid -> valid ? builder.up() : builder.down().withDetail("validation", "Failed"))
+                .onErrorResume(error -> Mono.just(builder.down().withException(error)))
+                .map(Health.Builder::build);
+    }
+
+    static Health aggregate(Map<RequestPriority, Health> pools) {
+        Status status = Status.UP;
+        for (Health pool : pools.values()) {
+            if (Status.DOWN.equals(pool.getStatus())) {
+                status = Status.DOWN;
+            } else if (DEGRADED.equals(pool.getStatus()) && !Status.DOWN.equals(status)) {
+                status = DEGRADED;
+            }
+        }
+        Health.Builder builder = Health.status(status);
+        pools.forEach((priority, health) -> builder.withDetail(priority.name().toLowerCase(), health));
+        return builder.build();
+    }
+}
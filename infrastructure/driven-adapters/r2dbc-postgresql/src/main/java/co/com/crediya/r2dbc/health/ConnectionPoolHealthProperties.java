@@ -0,0 +1,22 @@
+package co.com.crediya.r2dbc.health;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Thresholds of {@link ConnectionPoolHealthIndicator}; its refresh cadence and staleness are the ones
+ * shared by every cached indicator under {@code health-indicators}
+ * @param saturationDegraded Share of a pool's connections in use, with callers waiting, from which it is DEGRADED
+ * @param validationTimeout Longest a validation query may take before the pool is reported DOWN
+ */
+@ConfigurationProperties(prefix = "health-indicators.connection-pool")
+public record ConnectionPoolHealthProperties(
+        Double saturationDegraded,
+        Duration validationTimeout) {
+
+    public ConnectionPoolHealthProperties {
+        saturationDegraded = saturationDegraded != null ? saturationDegraded : 0.9;
+        validationTimeout = validationTimeout != null ? validationTimeout : Duration.ofSeconds(2);
+    }
+}
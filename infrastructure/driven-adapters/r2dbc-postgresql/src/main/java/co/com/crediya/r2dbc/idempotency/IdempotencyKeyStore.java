@@ -0,0 +1,176 @@
+package co.com.crediya.r2dbc.idempotency;
+
+import co.com.crediya.model.common.RequestPriority;
+import co.com.crediya.model.idempotency.IdempotencyRecord;
+import co.com.crediya.model.idempotency.gateways.IdempotencyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stores idempotency keys in {@code idempotency_keys} and deletes expired ones every
+ * {@code purge-interval}, in batches of {@code purge-batch-size}.
+ * A key is reserved with an insert that only replaces an expired row, so two nodes
+ * never run the same request at once.
+ */
+@Component
+public class IdempotencyKeyStore implements IdempotencyRepository, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyStore.class);
+    private static final String CLAIM = """
+            INSERT INTO idempotency_keys AS k (idempotency_key, request_hash, expires_at)
+            VALUES (:key, :hash, :lockedUntil)
+            ON CONFLICT (idempotency_key) DO UPDATE SET
+                request_hash = EXCLUDED.request_hash,
+                response_status = NULL,
+                content_type = NULL,
+                response_body = NULL,
+                expires_at = EXCLUDED.expires_at
+            WHERE k.expires_at < now()""";
+    private static final String FIND = """
+            SELECT idempotency_key, request_hash, response_status, content_type, response_body, expires_at
+            FROM idempotency_keys
+            WHERE idempotency_key = :key AND expires_at >= now()""";
+    private static final String COMPLETE = """
+            UPDATE idempotency_keys
+            SET response_status = :status, content_type = :contentType, response_body = :body, expires_at = :expiresAt
+            WHERE idempotency_key = :key AND request_hash = :hash""";
+    private static final String RELEASE =
+            "DELETE FROM idempotency_keys WHERE idempotency_key = :key AND response_status IS NULL";
+    private static final String PURGE = """
+            DELETE FROM idempotency_keys WHERE ctid = ANY(ARRAY(
+                SELECT ctid FROM idempotency_keys WHERE expires_at < now() LIMIT :limit))""";
+
+    private final DatabaseClient databaseClient;
+    private final IdempotencyStoreProperties properties;
+    private final AtomicBoolean purging = new AtomicBoolean();
+    private final Counter purgedCounter;
+
+    private volatile Scheduler scheduler;
+    private volatile Disposable periodicPurge;
+
+    public IdempotencyKeyStore(DatabaseClient databaseClient,
+                               IdempotencyStoreProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+        this.purgedCounter = Counter.builder("idempotency.keys.purged")
+                .description("Expired idempotency keys deleted")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Boolean> tryClaim(String key, String requestHash, Instant lockedUntil) {
+        return databaseClient.sql(CLAIM)
+                .bind("key", key)
+                .bind("hash", requestHash)
+                .bind("lockedUntil", lockedUntil)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0)
+                .doOnError(error -> logger.error("Error claiming idempotency key", error))
+                .onErrorMap(Exception.class, ex -> new RuntimeException("Failed to claim idempotency key", ex));
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> findByKey(String key) {
+        return databaseClient.sql(FIND)
+                .bind("key", key)
+                .map((row, metadata) -> toDomain(row))
+                .one()
+                .doOnError(error -> logger.error("Error finding idempotency key", error))
+                .onErrorMap(Exception.class, ex -> new RuntimeException("Failed to find idempotency key", ex));
+    }
+
+    @Override
+    public Mono<Void> complete(IdempotencyRecord completed) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(COMPLETE)
+                .bind("key", completed.getKey())
+                .bind("hash", completed.getRequestHash())
+                .bind("status", completed.getResponseStatus().shortValue())
+                .bind("body", completed.getResponseBody())
+                .bind("expiresAt", completed.getExpiresAt());
+        spec = completed.getContentType() != null
+                ? spec.bind("contentType", completed.getContentType())
+                : spec.bindNull("contentType", String.class);
+
+        return spec.then()
+                .doOnError(error -> logger.error("Error storing idempotent response", error))
+                .onErrorMap(Exception.class, ex -> new RuntimeException("Failed to store idempotent response", ex));
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return databaseClient.sql(RELEASE)
+                .bind("key", key)
+                .then()
+                .doOnError(error -> logger.error("Error releasing idempotency key", error))
+                .onErrorMap(Exception.class, ex -> new RuntimeException("Failed to release idempotency key", ex));
+    }
+
+    @Override
+    public void start() {
+        scheduler = Schedulers.newSingle("idempotency-key-purge");
+        long intervalMs = properties.purgeInterval().toMillis();
+        periodicPurge = scheduler.schedulePeriodically(this::purge, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (periodicPurge != null) {
+            periodicPurge.dispose();
+        }
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        Disposable current = periodicPurge;
+        return current != null && !current.isDisposed();
+    }
+
+    private void purge() {
+        if (!purging.compareAndSet(false, true)) {
+            return;
+        }
+
+        int batchSize = properties.purgeBatchSize();
+        Mono.defer(() -> databaseClient.sql(PURGE).bind("limit", batchSize).fetch().rowsUpdated())
+                .doOnNext(deleted -> purgedCounter.increment(deleted))
+                // Keep going while full batches come back, the table may hold a backlog
+                .repeat()
+                .takeUntil(deleted -> deleted < batchSize)
+                .contextWrite(context -> context.put(RequestPriority.CONTEXT_KEY, RequestPriority.BULK))
+                .doOnError(error -> logger.error("Error purging expired idempotency keys", error))
+                .onErrorComplete()
+                .doFinally(signal -> purging.set(false))
+                .subscribe();
+    }
+
+    private static IdempotencyRecord toDomain(Row row) {
+        Short status = row.get("response_status", Short.class);
+        return IdempotencyRecord.builder()
+                .key(row.get("idempotency_key", String.class))
+                .requestHash(row.get("request_hash", String.class))
+                .responseStatus(status != null ? status.intValue() : null)
+                .contentType(row.get("content_type", String.class))
+                .responseBody(row.get("response_body", byte[].class))
+                .expiresAt(row.get("expires_at", Instant.class))
+                .build();
+    }
+}
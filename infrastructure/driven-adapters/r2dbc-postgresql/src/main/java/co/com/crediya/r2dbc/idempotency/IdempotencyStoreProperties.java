@@ -0,0 +1,20 @@
+package co.com.crediya.r2dbc.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param purgeInterval Time between runs deleting expired keys
+ * @param purgeBatchSize Keys deleted per statement, so a backlog never becomes one long transaction
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.idempotency")
+public record IdempotencyStoreProperties(
+        Duration purgeInterval,
+        Integer purgeBatchSize) {
+
+    public IdempotencyStoreProperties {
+        purgeInterval = purgeInterval != null ? purgeInterval : Duration.ofMinutes(1);
+        purgeBatchSize = purgeBatchSize != null ? purgeBatchSize : 1000;
+    }
+}
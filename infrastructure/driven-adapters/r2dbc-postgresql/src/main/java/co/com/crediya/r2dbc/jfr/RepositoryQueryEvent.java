@@ -0,0 +1,76 @@
+package co.com.crediya.r2dbc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * One repository call, from subscription until it completes, fails or is cancelled.
+ * Includes waiting for a connection, so a slow call under load can be told apart from a slow query
+ * by comparing with the pool metrics.
+ */
+@Name(RepositoryQueryEvent.NAME)
+@Label("Repository Query")
+@Category({"Crediya", "Database"})
+@Description("A repository call and the rows it returned")
+@StackTrace(false)
+@Threshold("5 ms")
+public class RepositoryQueryEvent extends Event {
+
+    public static final String NAME = "co.com.crediya.RepositoryQuery";
+
+    @Label("Query")
+    private final String query;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Failed")
+    private boolean failed;
+
+    private RepositoryQueryEvent(String query) {
+        this.query = query;
+    }
+
+    /**
+     * For {@code Flux.transform}; costs nothing while the event is disabled
+     * @param query Name of the repository method
+     */
+    public static <T> Function<Flux<T>, Flux<T>> flux(String query) {
+        return source -> Flux.defer(() -> {
+            RepositoryQueryEvent event = new RepositoryQueryEvent(query);
+            if (!event.isEnabled()) {
+                return source;
+            }
+            event.begin();
+            return source.doOnNext(row -> event.rows++)
+                    .doOnError(error -> event.failed = true)
+                    .doFinally(signal -> event.commit());
+        });
+    }
+
+    /**
+     * For {@code Mono.transform}; costs nothing while the event is disabled
+     * @param query Name of the repository method
+     */
+    public static <T> Function<Mono<T>, Mono<T>> mono(String query) {
+        return source -> Mono.defer(() -> {
+            RepositoryQueryEvent event = new RepositoryQueryEvent(query);
+            if (!event.isEnabled()) {
+                return source;
+            }
+            event.begin();
+            return source.doOnNext(row -> event.rows = 1)
+                    .doOnError(error -> event.failed = true)
+                    .doFinally(signal -> event.commit());
+        });
+    }
+}
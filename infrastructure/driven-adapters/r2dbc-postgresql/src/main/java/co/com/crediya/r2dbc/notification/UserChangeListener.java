@@ -0,0 +1,227 @@
+package co.com.crediya.r2dbc.notification;
+
+import co.com.crediya.model.user.UserChangePosition;
+import co.com.crediya.model.user.gateways.UserInvalidationHandler;
+import co.com.crediya.r2dbc.UserChangeReactiveRepository;
+import co.com.crediya.r2dbc.config.PostgreSQLConnectionPool;
+import co.com.crediya.r2dbc.entity.UserChangeEntity;
+import co.com.crediya.r2dbc.config.PostgresqlConnectionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Listens for user change notifications on a dedicated connection (never borrowed from the pool)
+ * and dispatches them to the local {@link UserInvalidationHandler}s.
+ * On every (re)connect the outbox is replayed from the visibility horizon reached so far, so changes
+ * committed while the connection was down still invalidate local caches. The horizon only moves past
+ * transactions known to have finished while this node was listening, never to the highest outbox ID
+ * seen: IDs are assigned at insert, and a transaction holding a lower ID can still commit later.
+ * When more changes than the replay limit were missed, every handler is told to drop everything instead.
+ * Replayed changes may repeat live notifications; invalidations are idempotent, so duplicates are harmless.
+ * Does not connect when {@code adapters.r2dbc.notifications.enabled} is false.
+ */
+@Component
+public class UserChangeListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserChangeListener.class);
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("^[a-z_][a-z0-9_]*$");
+
+    private final PostgresqlConnectionFactory connectionFactory;
+    private final UserChangeReactiveRepository changeRepository;
+    private final ObjectProvider<UserInvalidationHandler> handlers;
+    private final UserChangeNotificationProperties properties;
+
+    /** Position to replay from on reconnect, null until the first connection */
+    private final AtomicReference<UserChangePosition> replayFrom = new AtomicReference<>();
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final Timer lagTimer;
+    private final Counter notificationCounter;
+    private final Counter reconnectCounter;
+    private final Counter invalidateAllCounter;
+    private volatile Disposable subscription;
+
+    public UserChangeListener(PostgresqlConnectionProperties connectionProperties,
+                              UserChangeReactiveRepository changeRepository,
+                              ObjectProvider<UserInvalidationHandler> handlers,
+                              UserChangeNotificationProperties properties,
+                              MeterRegistry meterRegistry) {
+        if (!CHANNEL_PATTERN.matcher(properties.channel()).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + properties.channel());
+        }
+        this.connectionFactory = new PostgresqlConnectionFactory(
+                PostgreSQLConnectionPool.connectionConfiguration(connectionProperties));
+        this.changeRepository = changeRepository;
+        this.handlers = handlers;
+        this.properties = properties;
+
+        this.lagTimer = Timer.builder("user.changes.notification.lag")
+                .description("Time from publishing a user change to dispatching it on this node")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.notificationCounter = Counter.builder("user.changes.notifications")
+                .description("User change notifications dispatched to local handlers")
+                .register(meterRegistry);
+        this.reconnectCounter = Counter.builder("user.changes.listener.reconnects")
+                .register(meterRegistry);
+        this.invalidateAllCounter = Counter.builder("user.changes.listener.invalidate.all")
+                .description("Times local caches were fully invalidated because too many changes were missed")
+                .register(meterRegistry);
+        Gauge.builder("user.changes.listener.connected", connected, value -> value.get() ? 1 : 0)
+                .register(meterRegistry);
+        Gauge.builder("user.changes.listener.horizon", replayFrom,
+                        position -> position.get() != null ? position.get().getTransactionId() : 0)
+                .description("Transaction ID before which every user change has been dispatched on this node")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            logger.info("User change notifications disabled, not listening on channel {}", properties.channel());
+            return;
+        }
+        subscription = Flux.defer(this::listen)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.minReconnectBackoff())
+                        .maxBackoff(properties.maxReconnectBackoff())
+                        .doBeforeRetry(signal -> {
+                            reconnectCounter.increment();
+                            logger.warn("User change listener disconnected, reconnecting: {}", signal.failure().getMessage());
+                        }))
+                .subscribe(this::dispatch, error -> logger.error("User change listener stopped", error));
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        connected.set(false);
+    }
+
+    @Override
+    public boolean isRunning() {
+        Disposable current = subscription;
+        return current != null && !current.isDisposed();
+    }
+
+    private Flux<UserChangeNotification> listen() {
+        return Flux.usingWhen(connectionFactory.create(),
+                connection -> connection.createStatement("LISTEN " + properties.channel())
+                        .execute()
+                        .flatMap(PostgresqlResult::getRowsUpdated)
+                        .then(Mono.fromRunnable(() -> {
+                            connected.set(true);
+                            logger.info("Listening for user changes on channel {}", properties.channel());
+                        }))
+                        .thenMany(Flux.merge(notifications(connection), replayMissedChanges()))
+                        .concatWith(Mono.error(() -> new IllegalStateException("Listener connection closed"))),
+                connection -> connection.close().doFinally(signal -> connected.set(false)));
+    }
+
+    private Flux<UserChangeNotification> notifications(PostgresqlConnection connection) {
+        return connection.getNotifications()
+                .flatMap(notification -> {
+                    try {
+                        return Mono.just(UserChangeNotification.decode(notification.getParameter()));
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Ignoring malformed user change notification: {}", notification.getParameter());
+                        return Mono.empty();
+                    }
+                });
+    }
+
+    /**
+     * Runs once LISTEN is in place, so every transaction before the horizon read here either
+     * committed before LISTEN and is found by the replay, or was notified on this connection.
+     */
+    private Flux<UserChangeNotification> replayMissedChanges() {
+        UserChangePosition from = replayFrom.get();
+        return changeRepository.findVisibilityHorizon()
+                .map(UserChangePosition::horizon)
+                .flatMapMany(horizon -> {
+                    if (from == null) {
+                        // First connection: nothing is cached yet, start from the current horizon
+                        advance(horizon);
+                        return Flux.<UserChangeNotification>empty();
+                    }
+                    return replay(from, horizon);
+                });
+    }
+
+    private Flux<UserChangeNotification> replay(UserChangePosition from, UserChangePosition horizon) {
+        int limit = properties.replayLimit();
+        return changeRepository.findCommittedChangesAfter(from.getTransactionId(), from.getChangeId(), limit)
+                .collectList()
+                .flatMapMany(changes -> {
+                    advance(horizon);
+                    if (changes.size() >= limit) {
+                        logger.warn("Missed at least {} user changes, invalidating all local caches", limit);
+                        invalidateAll();
+                        return Flux.<UserChangeNotification>empty();
+                    }
+                    if (!changes.isEmpty()) {
+                        UserChangeEntity last = changes.get(changes.size() - 1);
+                        advance(UserChangePosition.of(last.getTransactionId(), last.getId()));
+                    }
+                    logger.info("Replaying {} user changes missed since position {}", changes.size(), from);
+                    return Flux.fromIterable(changes)
+                            .map(change -> new UserChangeNotification(
+                                    0L, change.getUserId().toString(), change.getChangeType(), 0L));
+                });
+    }
+
+    private void dispatch(UserChangeNotification notification) {
+        if (notification.horizon() > 0) {
+            advance(UserChangePosition.horizon(notification.horizon()));
+        }
+        notificationCounter.increment();
+        if (notification.publishedAtMillis() > 0) {
+            lagTimer.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - notification.publishedAtMillis())));
+        }
+
+        handlers.orderedStream().forEach(handler -> {
+            try {
+                handler.onUserChanged(notification.userId());
+            } catch (RuntimeException e) {
+                logger.error("Invalidation handler {} failed for user {}", handler.getClass().getSimpleName(),
+                        notification.userId(), e);
+            }
+        });
+    }
+
+    private void invalidateAll() {
+        invalidateAllCounter.increment();
+        handlers.orderedStream().forEach(handler -> {
+            try {
+                handler.onInvalidateAll();
+            } catch (RuntimeException e) {
+                logger.error("Invalidation handler {} failed to invalidate all users", handler.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    private void advance(UserChangePosition position) {
+        replayFrom.accumulateAndGet(position,
+                (current, candidate) -> current == null || candidate.compareTo(current) > 0 ? candidate : current);
+    }
+}
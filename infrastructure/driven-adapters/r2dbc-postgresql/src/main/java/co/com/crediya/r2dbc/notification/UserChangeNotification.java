@@ -0,0 +1,42 @@
+package co.com.crediya.r2dbc.notification;
+
+/**
+ * Compact pg_notify payload: {@code horizon|userId|type|publishedAtMillis}.
+ * The horizon is the snapshot xmin of the writing transaction: every transaction before it had finished,
+ * so once this notification arrives a listener has seen all of them and can replay from there after a disconnect.
+ */
+public record UserChangeNotification(
+        long horizon,
+        String userId,
+        String changeType,
+        long publishedAtMillis) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        return horizon + encodeAfterHorizon();
+    }
+
+    /**
+     * Payload without the horizon, for the database to prepend it from the writing transaction
+     */
+    public String encodeAfterHorizon() {
+        return SEPARATOR + userId + SEPARATOR + changeType + SEPARATOR + publishedAtMillis;
+    }
+
+    public static UserChangeNotification decode(String payload) {
+        String[] parts = payload != null ? payload.split("\\|") : new String[0];
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid user change notification payload: " + payload);
+        }
+        try {
+            return new UserChangeNotification(
+                    Long.parseLong(parts[0]),
+                    parts[1],
+                    parts[2],
+                    Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid user change notification payload: " + payload, e);
+        }
+    }
+}
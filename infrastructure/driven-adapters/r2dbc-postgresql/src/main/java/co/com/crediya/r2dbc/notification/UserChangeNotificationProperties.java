@@ -0,0 +1,22 @@
+package co.com.crediya.r2dbc.notification;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.r2dbc.notifications")
+public record UserChangeNotificationProperties(
+        Boolean enabled,
+        String channel,
+        Integer replayLimit,
+        Duration minReconnectBackoff,
+        Duration maxReconnectBackoff) {
+
+    public UserChangeNotificationProperties {
+        enabled = enabled == null || enabled;
+        channel = channel != null ? channel : "user_changes";
+        replayLimit = replayLimit != null ? replayLimit : 1000;
+        minReconnectBackoff = minReconnectBackoff != null ? minReconnectBackoff : Duration.ofMillis(100);
+        maxReconnectBackoff = maxReconnectBackoff != null ? maxReconnectBackoff : Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,38 @@
+package co.com.crediya.r2dbc.notification;
+
+import co.com.crediya.r2dbc.entity.UserChangeEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Publishes user changes through pg_notify. The call joins the caller's transaction,
+ * so Postgres only delivers the notification once the change is committed, and the
+ * visibility horizon is read from that same transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserChangeNotifier {
+
+    private final DatabaseClient databaseClient;
+    private final UserChangeNotificationProperties properties;
+
+    public Mono<Void> publish(UserChangeEntity change) {
+        if (!properties.enabled()) {
+            return Mono.empty();
+        }
+
+        UserChangeNotification notification = new UserChangeNotification(
+                0L,
+                change.getUserId().toString(),
+                change.getChangeType(),
+                System.currentTimeMillis());
+
+        return databaseClient.sql("SELECT pg_notify(:channel, "
+                        + "CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) || :payload)")
+                .bind("channel", properties.channel())
+                .bind("payload", notification.encodeAfterHorizon())
+                .then();
+    }
+}
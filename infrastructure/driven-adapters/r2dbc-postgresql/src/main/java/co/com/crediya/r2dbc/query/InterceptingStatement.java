@@ -0,0 +1,113 @@
+package co.com.crediya.r2dbc.query;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the bindings of the statement, keyed by index or name, and times each execution.
+ * Values are kept only to capture the plan with the same parameters; they are never logged.
+ */
+class InterceptingStatement implements Statement {
+
+    private final Statement delegate;
+    private final String sql;
+    private final QueryMonitor monitor;
+    private final List<Map<Object, Object>> bindings = new ArrayList<>();
+    private Map<Object, Object> current = new LinkedHashMap<>();
+
+    InterceptingStatement(Statement delegate, String sql, QueryMonitor monitor) {
+        this.delegate = delegate;
+        this.sql = sql;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Statement add() {
+        delegate.add();
+        bindings.add(current);
+        current = new LinkedHashMap<>();
+        return this;
+    }
+
+    @Override
+    public Statement bind(int index, Object value) {
+        delegate.bind(index, value);
+        current.put(index, value);
+        return this;
+    }
+
+    @Override
+    public Statement bind(String name, Object value) {
+        delegate.bind(name, value);
+        current.put(name, value);
+        return this;
+    }
+
+    @Override
+    public Statement bindNull(int index, Class<?> type) {
+        delegate.bindNull(index, type);
+        current.put(index, new NullValue(type));
+        return this;
+    }
+
+    @Override
+    public Statement bindNull(String name, Class<?> type) {
+        delegate.bindNull(name, type);
+        current.put(name, new NullValue(type));
+        return this;
+    }
+
+    @Override
+    public Statement returnGeneratedValues(String... columns) {
+        delegate.returnGeneratedValues(columns);
+        return this;
+    }
+
+    @Override
+    public Statement fetchSize(int rows) {
+        delegate.fetchSize(rows);
+        return this;
+    }
+
+    @Override
+    public Publisher<? extends Result> execute() {
+        List<Map<Object, Object>> executed = new ArrayList<>(bindings);
+        if (!current.isEmpty()) {
+            executed.add(current);
+        }
+        return Flux.defer(() -> {
+            StatementExecution execution = new StatementExecution(sql, executed, monitor);
+            return Flux.from(delegate.execute())
+                    .map(execution::track)
+                    .doOnError(execution::failed)
+                    .doFinally(signal -> execution.release());
+        });
+    }
+
+    /**
+     * Binds a value recorded by this class to another statement
+     */
+    static void bind(Statement statement, Object key, Object value) {
+        if (value instanceof NullValue nullValue) {
+            if (key instanceof Integer index) {
+                statement.bindNull(index, nullValue.type());
+            } else {
+                statement.bindNull((String) key, nullValue.type());
+            }
+        } else if (key instanceof Integer index) {
+            statement.bind(index, value);
+        } else {
+            statement.bind((String) key, value);
+        }
+    }
+
+    record NullValue(Class<?> type) {
+    }
+}
@@ -0,0 +1,170 @@
+package co.com.crediya.r2dbc.query;
+
+import co.com.crediya.r2dbc.config.PostgreSQLConnectionPool;
+import co.com.crediya.r2dbc.config.PostgresqlConnectionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import io.r2dbc.spi.ConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Times every statement run through the pools, see {@link #intercept}, into {@code r2dbc.query.duration}
+ * histograms tagged by query fingerprint, and logs the statements slower than {@code threshold} with their
+ * normalized SQL, the types of their parameters and the rows they returned or changed.
+ * <p>
+ * For a sample of slow read-only statements the plan is captured afterwards with
+ * {@code EXPLAIN (ANALYZE, BUFFERS)} and the same parameters, at most one at a time and once per
+ * {@code explain-min-interval} for each fingerprint. The capture runs the query again, on its own connection
+ * outside the pools, in a read-only session bounded by {@code explain-timeout}.
+ */
+@Component
+public class QueryMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMonitor.class);
+    private static final String METRIC = "r2dbc.query.duration";
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final SlowQueryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final PostgresqlConnectionFactory explainConnections;
+    private final long thresholdNanos;
+    private final Map<String, QueryStats> byFingerprint = new ConcurrentHashMap<>();
+    /** Saves normalizing the same SQL text on every execution */
+    private final Map<String, QueryStats> bySql = new ConcurrentHashMap<>();
+    private final AtomicBoolean explaining = new AtomicBoolean();
+
+    public QueryMonitor(PostgresqlConnectionProperties connectionProperties,
+                        SlowQueryProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.thresholdNanos = properties.threshold().toNanos();
+        this.explainConnections = new PostgresqlConnectionFactory(PostgreSQLConnectionPool.connectionConfiguration(
+                connectionProperties, Map.of(
+                        "statement_timeout", String.valueOf(properties.explainTimeout().toMillis()),
+                        "default_transaction_read_only", "on")));
+    }
+
+    /**
+     * @param driver Factory of the physical connections of a pool
+     * @return The factory the pool should use instead, or the driver itself when monitoring is disabled
+     */
+    public ConnectionFactory intercept(ConnectionFactory driver) {
+        return properties.enabled() ? new InterceptingConnectionFactory(driver, this) : driver;
+    }
+
+    void completed(StatementExecution execution, long durationNanos) {
+        QueryStats stats = statsOf(execution.sql());
+        (execution.isFailed() ? stats.failed() : stats.succeeded()).record(durationNanos, TimeUnit.NANOSECONDS);
+        if (durationNanos >= thresholdNanos) {
+            slow(stats, execution, durationNanos);
+        }
+    }
+
+    private void slow(QueryStats stats, StatementExecution execution, long durationNanos) {
+        SqlFingerprint fingerprint = stats.fingerprint() == SqlFingerprint.OTHER
+                ? SqlFingerprint.of(execution.sql())
+                : stats.fingerprint();
+        logger.warn("Slow query {} took {} ms{}, {} rows, parameters {}: {}", fingerprint.id(),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos), execution.isFailed() ? " and failed" : "",
+                execution.rows(), execution.bindShapes(), fingerprint.sql());
+
+        if (shouldExplain(stats, fingerprint, execution)) {
+            explain(fingerprint, execution);
+        }
+    }
+
+    private boolean shouldExplain(QueryStats stats, SqlFingerprint fingerprint, StatementExecution execution) {
+        if (execution.isFailed() || execution.bindings().size() > 1 || !fingerprint.isReadOnly()
+                || ThreadLocalRandom.current().nextDouble() >= properties.explainSampleRate()) {
+            return false;
+        }
+        long now = System.nanoTime();
+        long last = stats.lastExplained().get();
+        if (last != NEVER && now - last < properties.explainMinInterval().toNanos()) {
+            return false;
+        }
+        if (!explaining.compareAndSet(false, true)) {
+            return false;
+        }
+        if (!stats.lastExplained().compareAndSet(last, now)) {
+            explaining.set(false);
+            return false;
+        }
+        return true;
+    }
+
+    private void explain(SqlFingerprint fingerprint, StatementExecution execution) {
+        Map<Object, Object> parameters = execution.bindings().isEmpty() ? Map.of() : execution.bindings().get(0);
+        Flux.usingWhen(explainConnections.create(),
+                        connection -> {
+                            PostgresqlStatement statement =
+                                    connection.createStatement("EXPLAIN (ANALYZE, BUFFERS) " + execution.sql());
+                            parameters.forEach((key, value) -> InterceptingStatement.bind(statement, key, value));
+                            return statement.execute()
+                                    .concatMap(result -> result.map((row, metadata) -> row.get(0, String.class)));
+                        },
+                        PostgresqlConnection::close)
+                .collect(Collectors.joining("\n"))
+                .timeout(properties.explainTimeout().plus(Duration.ofSeconds(5)))
+                .doFinally(signal -> explaining.set(false))
+                .subscribe(plan -> logger.warn("Plan of slow query {}:\n{}", fingerprint.id(), plan),
+                        error -> logger.warn("Could not capture the plan of slow query {}: {}",
+                                fingerprint.id(), error.getMessage()));
+    }
+
+    private QueryStats statsOf(String sql) {
+        QueryStats stats = bySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        SqlFingerprint fingerprint = SqlFingerprint.of(sql);
+        stats = byFingerprint.get(fingerprint.id());
+        if (stats == null) {
+            SqlFingerprint tracked = byFingerprint.size() < properties.maxFingerprints()
+                    ? fingerprint
+                    : SqlFingerprint.OTHER;
+            stats = byFingerprint.computeIfAbsent(tracked.id(), id -> register(tracked));
+        }
+        if (bySql.size() < properties.maxFingerprints() * 4) {
+            bySql.putIfAbsent(sql, stats);
+        }
+        return stats;
+    }
+
+    private QueryStats register(SqlFingerprint fingerprint) {
+        logger.debug("Query fingerprint {}: {}", fingerprint.id(), fingerprint.sql());
+        return new QueryStats(fingerprint, timer(fingerprint, "success"), timer(fingerprint, "error"),
+                new AtomicLong(NEVER));
+    }
+
+    private Timer timer(SqlFingerprint fingerprint, String outcome) {
+        return Timer.builder(METRIC)
+                .description("Time from executing a statement until all its results were read")
+                .tag("fingerprint", fingerprint.id())
+                .tag("operation", fingerprint.operation())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    private record QueryStats(SqlFingerprint fingerprint, Timer succeeded, Timer failed, AtomicLong lastExplained) {
+    }
+}
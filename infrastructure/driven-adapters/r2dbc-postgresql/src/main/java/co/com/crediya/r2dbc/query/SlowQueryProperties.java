@@ -0,0 +1,35 @@
+package co.com.crediya.r2dbc.query;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param enabled Time every statement; when false the driver is used as is
+ * @param threshold Statements at least this slow are logged
+ * @param explainSampleRate Share of slow statements, between 0 and 1, whose plan is captured
+ * @param explainMinInterval Shortest time between two plans of the same query fingerprint
+ * @param explainTimeout Server-side {@code statement_timeout} of the plan capture, which runs the query again
+ * @param maxFingerprints Distinct queries with their own histogram; later ones share the {@code other} one
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.slow-queries")
+public record SlowQueryProperties(
+        Boolean enabled,
+        Duration threshold,
+        Double explainSampleRate,
+        Duration explainMinInterval,
+        Duration explainTimeout,
+        Integer maxFingerprints) {
+
+    public SlowQueryProperties {
+        enabled = enabled != null ? enabled : Boolean.TRUE;
+        threshold = threshold != null ? threshold : Duration.ofMillis(200);
+        explainSampleRate = explainSampleRate != null ? explainSampleRate : 0.1;
+        explainMinInterval = explainMinInterval != null ? explainMinInterval : Duration.ofMinutes(10);
+        explainTimeout = explainTimeout != null ? explainTimeout : Duration.ofSeconds(10);
+        maxFingerprints = maxFingerprints != null ? maxFingerprints : 500;
+        if (explainSampleRate < 0 || explainSampleRate > 1) {
+            throw new IllegalArgumentException("adapters.r2dbc.slow-queries.explain-sample-rate must be between 0 and 1");
+        }
+    }
+}
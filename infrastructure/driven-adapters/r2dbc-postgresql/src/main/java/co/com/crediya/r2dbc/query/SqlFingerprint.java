@@ -0,0 +1,45 @@
+package co.com.crediya.r2dbc.query;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized form of a statement, identical for every execution of the same query whatever its values.
+ * Literals and placeholders become {@code ?}, placeholder lists become {@code (...)} and the rows of a
+ * multi-row INSERT collapse into one, so batches of different sizes share a fingerprint.
+ * @param id Short stable hash of the normalized SQL, used as metric tag
+ * @param operation First keyword of the statement, such as SELECT or INSERT
+ */
+record SqlFingerprint(String id, String sql, String operation) {
+
+    static final SqlFingerprint OTHER = new SqlFingerprint("other", "", "OTHER");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern POSITIONAL_PARAMETER = Pattern.compile("\\$\\d+");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern REPEATED_ROWS = Pattern.compile("\\(\\.\\.\\.\\)(?:\\s*,\\s*\\(\\.\\.\\.\\))+");
+
+    static SqlFingerprint of(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = POSITIONAL_PARAMETER.matcher(normalized).replaceAll("?");
+        normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("(...)");
+        normalized = REPEATED_ROWS.matcher(normalized).replaceAll("(...), ...");
+
+        int keywordEnd = normalized.indexOf(' ');
+        String operation = (keywordEnd > 0 ? normalized.substring(0, keywordEnd) : normalized).toUpperCase(Locale.ROOT);
+        return new SqlFingerprint(String.format("%08x", normalized.hashCode()), normalized, operation);
+    }
+
+    /**
+     * @return Whether capturing the plan, which executes the statement again, cannot change any data
+     */
+    boolean isReadOnly() {
+        String upper = sql.toUpperCase(Locale.ROOT);
+        return operation.equals("SELECT") && !upper.contains(" FOR UPDATE") && !upper.contains(" FOR SHARE")
+                || operation.equals("WITH") && !upper.matches(".*\\b(INSERT|UPDATE|DELETE)\\b.*");
+    }
+}
@@ -0,0 +1,123 @@
+package co.com.crediya.r2dbc.query;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * One execution of a statement, from subscribing to it until every result it produced has been consumed,
+ * which is when the rows have actually been read from the server.
+ */
+final class StatementExecution {
+
+    private final String sql;
+    private final List<Map<Object, Object>> bindings;
+    private final QueryMonitor monitor;
+    private final long startNanos = System.nanoTime();
+    /** The statement itself plus each result not consumed yet */
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final LongAdder rows = new LongAdder();
+    private volatile boolean failed;
+
+    StatementExecution(String sql, List<Map<Object, Object>> bindings, QueryMonitor monitor) {
+        this.sql = sql;
+        this.bindings = bindings;
+        this.monitor = monitor;
+    }
+
+    String sql() {
+        return sql;
+    }
+
+    List<Map<Object, Object>> bindings() {
+        return bindings;
+    }
+
+    long rows() {
+        return rows.sum();
+    }
+
+    boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * @return Types of the bound values in binding order, such as {@code [UUID, String, null(Integer)] x 3}
+     */
+    String bindShapes() {
+        if (bindings.isEmpty()) {
+            return "[]";
+        }
+        StringJoiner shapes = new StringJoiner(", ", "[", "]");
+        bindings.get(0).values().forEach(value -> shapes.add(value instanceof InterceptingStatement.NullValue nullValue
+                ? "null(" + nullValue.type().getSimpleName() + ")"
+                : value.getClass().getSimpleName()));
+        return bindings.size() > 1 ? shapes + " x " + bindings.size() : shapes.toString();
+    }
+
+    Result track(Result result) {
+        pending.incrementAndGet();
+        return new TimedResult(result, this);
+    }
+
+    void failed(Throwable error) {
+        failed = true;
+    }
+
+    void release() {
+        if (pending.decrementAndGet() == 0) {
+            monitor.completed(this, System.nanoTime() - startNanos);
+        }
+    }
+
+    private record TimedResult(Result delegate, StatementExecution execution) implements Result {
+
+        @Override
+        public Publisher<Long> getRowsUpdated() {
+            return Flux.from(delegate.getRowsUpdated())
+                    .doOnNext(execution.rows::add)
+                    .doOnError(execution::failed)
+                    .doFinally(signal -> execution.release());
+        }
+
+        @Override
+        public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> mappingFunction) {
+            return Flux.<T>from(delegate.map(mappingFunction))
+                    .doOnNext(row -> execution.rows.increment())
+                    .doOnError(execution::failed)
+                    .doFinally(signal -> execution.release());
+        }
+
+        @Override
+        public <T> Publisher<T> map(Function<? super Readable, ? extends T> mappingFunction) {
+            return Flux.<T>from(delegate.map(mappingFunction))
+                    .doOnNext(row -> execution.rows.increment())
+                    .doOnError(execution::failed)
+                    .doFinally(signal -> execution.release());
+        }
+
+        @Override
+        public Result filter(Predicate<Result.Segment> filter) {
+            return new TimedResult(delegate.filter(filter), execution);
+        }
+
+        @Override
+        public <T> Publisher<T> flatMap(Function<Result.Segment, ? extends Publisher<? extends T>> mappingFunction) {
+            return Flux.<T>from(delegate.flatMap(mappingFunction))
+                    .doOnError(execution::failed)
+                    .doFinally(signal -> execution.release());
+        }
+    }
+}
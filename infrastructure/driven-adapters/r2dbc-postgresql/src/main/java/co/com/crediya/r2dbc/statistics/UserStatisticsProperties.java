@@ -0,0 +1,27 @@
+package co.com.crediya.r2dbc.statistics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param refreshInterval Time between refreshes when no change notification arrives; each one also
+ *                        folds the pending deltas into the counters
+ * @param changeRefreshDelay Wait after a change notification, so a burst of writes costs one refresh
+ * @param reconcileInterval Time between recounts of users, which correct counters that drifted
+ * @param reconcileInitialDelay Wait before the first recount, which also counts users that existed before the trigger
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.statistics")
+public record UserStatisticsProperties(
+        Duration refreshInterval,
+        Duration changeRefreshDelay,
+        Duration reconcileInterval,
+        Duration reconcileInitialDelay) {
+
+    public UserStatisticsProperties {
+        refreshInterval = refreshInterval != null ? refreshInterval : Duration.ofSeconds(30);
+        changeRefreshDelay = changeRefreshDelay != null ? changeRefreshDelay : Duration.ofMillis(500);
+        reconcileInterval = reconcileInterval != null ? reconcileInterval : Duration.ofHours(1);
+        reconcileInitialDelay = reconcileInitialDelay != null ? reconcileInitialDelay : Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,374 @@
+package co.com.crediya.r2dbc.statistics;
+
+import co.com.crediya.model.common.RequestPriority;
+import co.com.crediya.model.common.gateways.UnitOfWork;
+import co.com.crediya.model.user.DocumentType;
+import co.com.crediya.model.user.Role;
+import co.com.crediya.model.user.SalaryBucket;
+import co.com.crediya.model.user.UserStatistics;
+import co.com.crediya.model.user.gateways.UserInvalidationHandler;
+import co.com.crediya.model.user.gateways.UserStatisticsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves user counts from memory instead of scanning users.
+ * The {@code users_stats} trigger of {@code db/user_stats.sql} appends a delta row per dimension on every
+ * write, in the writing transaction. This store reads the counters plus the pending deltas into memory
+ * shortly after each user change notification and every {@code refresh-interval}, when it also folds the
+ * deltas into the counters. Every {@code reconcile-interval} users are recounted and any difference is
+ * added as a correcting delta, which fixes drift from writes that bypassed the trigger such as a TRUNCATE.
+ * Folding and recounting take an advisory lock, so only one node runs them at a time.
+ */
+@Component
+public class UserStatisticsStore implements UserStatisticsRepository, UserInvalidationHandler, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatisticsStore.class);
+    /** "userstat" in ASCII, shared by every node */
+    private static final long MAINTENANCE_LOCK = 0x7573657273746174L;
+    private static final String DIMENSION_ROLE = "role";
+    private static final String DIMENSION_DOCUMENT_TYPE = "document_type";
+    private static final String DIMENSION_SALARY = "salary";
+    private static final String DIMENSION_SALARY_BOUND = "salary_bound";
+    /** Zero-valued marker left by the first reconciliation; until it exists, users older than the trigger are missing */
+    private static final String DIMENSION_RECONCILED = "reconciled";
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(:key) AS locked";
+    private static final String READ = """
+            SELECT dimension, bucket, SUM(users)::BIGINT AS users FROM (
+                SELECT dimension, bucket, users FROM user_stats
+                UNION ALL
+                SELECT dimension, bucket, delta FROM user_stats_deltas
+                UNION ALL
+                SELECT 'salary_bound', bound::VARCHAR, 0 FROM unnest(user_salary_bucket_bounds()) AS bound
+            ) AS s
+            GROUP BY dimension, bucket""";
+    private static final String FOLD = """
+            WITH moved AS (DELETE FROM user_stats_deltas RETURNING dimension, bucket, delta)
+            INSERT INTO user_stats AS s (dimension, bucket, users)
+            SELECT dimension, bucket, SUM(delta) FROM moved
+            GROUP BY dimension, bucket
+            ORDER BY dimension, bucket
+            ON CONFLICT (dimension, bucket) DO UPDATE SET users = s.users + EXCLUDED.users""";
+    // One statement, so the recount and the recorded counters come from the same snapshot
+    private static final String RECONCILE = """
+            WITH actual AS (
+                SELECT CASE WHEN GROUPING(role) = 0 THEN 'role'
+                            WHEN GROUPING(document_type) = 0 THEN 'document_type'
+                            ELSE 'salary' END AS dimension,
+                       CASE WHEN GROUPING(role) = 0 THEN COALESCE(role, '')
+                            WHEN GROUPING(document_type) = 0 THEN COALESCE(document_type, '')
+                            ELSE user_salary_bucket(base_salary) END AS bucket,
+                       COUNT(*) AS users
+                FROM users
+                GROUP BY GROUPING SETS ((role), (document_type), (user_salary_bucket(base_salary)))
+            ), recorded AS (
+                SELECT dimension, bucket, SUM(users) AS users FROM (
+                    SELECT dimension, bucket, users FROM user_stats
+                    UNION ALL
+                    SELECT dimension, bucket, delta FROM user_stats_deltas
+                ) AS s
+                GROUP BY dimension, bucket
+            ), marked AS (
+                INSERT INTO user_stats (dimension, bucket, users) VALUES ('reconciled', '', 0)
+                ON CONFLICT (dimension, bucket) DO NOTHING
+            )
+            INSERT INTO user_stats_deltas (dimension, bucket, delta)
+            SELECT COALESCE(a.dimension, r.dimension), COALESCE(a.bucket, r.bucket),
+                   COALESCE(a.users, 0) - COALESCE(r.users, 0)
+            FROM actual a FULL JOIN recorded r ON r.dimension = a.dimension AND r.bucket = a.bucket
+            WHERE COALESCE(a.users, 0) <> COALESCE(r.users, 0)
+            RETURNING dimension, bucket, delta""";
+
+    private final DatabaseClient databaseClient;
+    private final UnitOfWork unitOfWork;
+    private final UserStatisticsProperties properties;
+    private final AtomicReference<UserStatistics> snapshot = new AtomicReference<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicBoolean maintaining = new AtomicBoolean();
+    private final Counter correctionsCounter;
+    private final Counter refreshFailuresCounter;
+
+    private volatile Scheduler scheduler;
+    private volatile Disposable periodicTasks;
+    private volatile boolean running;
+
+    public UserStatisticsStore(DatabaseClient databaseClient,
+                               UnitOfWork unitOfWork,
+                               UserStatisticsProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.unitOfWork = unitOfWork;
+        this.properties = properties;
+
+        Gauge.builder("user.statistics.age", snapshot, UserStatisticsStore::ageSeconds)
+                .description("Seconds since the in-memory user statistics were read")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.correctionsCounter = Counter.builder("user.statistics.reconcile.corrections")
+                .description("Users the incremental counters had wrong, found by the recount")
+                .register(meterRegistry);
+        this.refreshFailuresCounter = Counter.builder("user.statistics.refresh.failures")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<UserStatistics> getStatistics() {
+        return Mono.defer(() -> {
+            UserStatistics current = snapshot.get();
+            return current != null ? Mono.just(current) : refresh();
+        });
+    }
+
+    @Override
+    public void onUserChanged(String userId) {
+        requestRefresh();
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        requestRefresh();
+    }
+
+    @Override
+    public void start() {
+        scheduler = Schedulers.newSingle("user-statistics");
+        running = true;
+        long refreshMs = properties.refreshInterval().toMillis();
+        long reconcileMs = properties.reconcileInterval().toMillis();
+        periodicTasks = Disposables.composite(
+                scheduler.schedulePeriodically(() -> maintain(fold()), refreshMs, refreshMs, TimeUnit.MILLISECONDS),
+                scheduler.schedulePeriodically(() -> maintain(reconcile()),
+                        properties.reconcileInitialDelay().toMillis(), reconcileMs, TimeUnit.MILLISECONDS));
+        requestRefresh();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (periodicTasks != null) {
+            periodicTasks.dispose();
+        }
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void requestRefresh() {
+        dirty.set(true);
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        Scheduler current = scheduler;
+        if (running && current != null && refreshScheduled.compareAndSet(false, true)) {
+            current.schedule(this::refreshInBackground, properties.changeRefreshDelay().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refreshInBackground() {
+        refreshScheduled.set(false);
+        // A single read in flight at a time; its completion schedules the next one if changes arrived meanwhile
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        dirty.set(false);
+
+        refresh()
+                .contextWrite(context -> context.put(RequestPriority.CONTEXT_KEY, RequestPriority.LOOKUP))
+                .doOnError(error -> {
+                    refreshFailuresCounter.increment();
+                    logger.error("Error refreshing user statistics", error);
+                })
+                .onErrorComplete()
+                .doFinally(signal -> {
+                    refreshing.set(false);
+                    if (dirty.get()) {
+                        scheduleRefresh();
+                    }
+                })
+                .subscribe();
+    }
+
+    private Mono<UserStatistics> refresh() {
+        Instant readAt = Instant.now();
+        return databaseClient.sql(READ)
+                .map((row, metadata) -> new StatisticsRow(
+                        row.get("dimension", String.class),
+                        row.get("bucket", String.class),
+                        row.get("users", Long.class)))
+                .all()
+                .collectList()
+                .map(rows -> toStatistics(rows, readAt))
+                // Of two overlapping reads, the one started last wins
+                .map(statistics -> snapshot.accumulateAndGet(statistics, (previous, next) ->
+                        previous != null && previous.getRefreshedAt().isAfter(next.getRefreshedAt()) ? previous : next))
+                .onErrorMap(Exception.class, ex -> new RuntimeException("Failed to read user statistics", ex));
+    }
+
+    private void maintain(Mono<Void> task) {
+        if (!maintaining.compareAndSet(false, true)) {
+            return;
+        }
+        task.contextWrite(context -> context.put(RequestPriority.CONTEXT_KEY, RequestPriority.BULK))
+                .doOnError(error -> logger.error("Error maintaining user statistics", error))
+                .onErrorComplete()
+                .doFinally(signal -> {
+                    maintaining.set(false);
+                    requestRefresh();
+                })
+                .subscribe();
+    }
+
+    private Mono<Void> fold() {
+        return withMaintenanceLock(databaseClient.sql(FOLD).fetch().rowsUpdated()
+                .doOnNext(buckets -> logger.debug("Folded user statistics deltas into {} counters", buckets))
+                .then());
+    }
+
+    private Mono<Void> reconcile() {
+        return withMaintenanceLock(databaseClient.sql(RECONCILE)
+                .map((row, metadata) -> new StatisticsRow(
+                        row.get("dimension", String.class),
+                        row.get("bucket", String.class),
+                        row.get("delta", Long.class)))
+                .all()
+                .collectList()
+                .doOnNext(corrections -> {
+                    if (corrections.isEmpty()) {
+                        logger.debug("User statistics match the recount");
+                        return;
+                    }
+                    long users = corrections.stream().mapToLong(correction -> Math.abs(correction.users())).sum();
+                    correctionsCounter.increment(users);
+                    logger.warn("User statistics were off by {} users in {} buckets, corrected", users, corrections.size());
+                })
+                .then());
+    }
+
+    /**
+     * Runs the work in a transaction holding the maintenance lock, or skips it while another node holds it.
+     * The work must be a single statement taken after the lock, so its snapshot sees what the previous holder committed.
+     */
+    private Mono<Void> withMaintenanceLock(Mono<Void> work) {
+        return unitOfWork.inTransaction(databaseClient.sql(TRY_LOCK)
+                        .bind("key", MAINTENANCE_LOCK)
+                        .map((row, metadata) -> row.get("locked", Boolean.class))
+                        .one()
+                        .flatMap(locked -> Boolean.TRUE.equals(locked) ? work.thenReturn(true) : Mono.just(false)))
+                .then();
+    }
+
+    static UserStatistics toStatistics(List<StatisticsRow> rows, Instant refreshedAt) {
+        Map<Role, Long> byRole = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            byRole.put(role, 0L);
+        }
+        Map<DocumentType, Long> byDocumentType = new EnumMap<>(DocumentType.class);
+        for (DocumentType documentType : DocumentType.values()) {
+            byDocumentType.put(documentType, 0L);
+        }
+        List<BigDecimal> bounds = new ArrayList<>();
+        List<StatisticsRow> salaryRows = new ArrayList<>();
+        long total = 0;
+        boolean reconciled = false;
+
+        for (StatisticsRow row : rows) {
+            switch (row.dimension()) {
+                case DIMENSION_ROLE -> {
+                    total += row.users();
+                    try {
+                        byRole.merge(Role.fromCode(row.bucket()), row.users(), Long::sum);
+                    } catch (IllegalArgumentException e) {
+                        logger.debug("Ignoring {} users with unknown role {}", row.users(), row.bucket());
+                    }
+                }
+                case DIMENSION_DOCUMENT_TYPE -> {
+                    try {
+                        byDocumentType.merge(DocumentType.fromCode(row.bucket()), row.users(), Long::sum);
+                    } catch (IllegalArgumentException e) {
+                        logger.debug("Ignoring {} users with unknown document type {}", row.users(), row.bucket());
+                    }
+                }
+                case DIMENSION_SALARY -> salaryRows.add(row);
+                case DIMENSION_SALARY_BOUND -> bounds.add(new BigDecimal(row.bucket()));
+                case DIMENSION_RECONCILED -> reconciled = true;
+                default -> logger.debug("Ignoring unknown user statistics dimension {}", row.dimension());
+            }
+        }
+
+        bounds.sort(Comparator.naturalOrder());
+        long[] usersPerBucket = new long[bounds.size()];
+        for (StatisticsRow row : salaryRows) {
+            int index = row.bucket().isEmpty() ? -1 : bucketIndex(bounds, new BigDecimal(row.bucket()));
+            if (index >= 0) {
+                usersPerBucket[index] += row.users();
+            }
+        }
+        List<SalaryBucket> histogram = new ArrayList<>(bounds.size());
+        for (int i = 0; i < bounds.size(); i++) {
+            histogram.add(SalaryBucket.builder()
+                    .lowerBound(bounds.get(i))
+                    .upperBound(i + 1 < bounds.size() ? bounds.get(i + 1) : null)
+                    .users(usersPerBucket[i])
+                    .build());
+        }
+
+        return UserStatistics.builder()
+                .totalUsers(total)
+                .usersByRole(byRole)
+                .usersByDocumentType(byDocumentType)
+                .salaryHistogram(histogram)
+                .refreshedAt(refreshedAt)
+                .reconciled(reconciled)
+                .build();
+    }
+
+    /** Counters of bounds no longer defined, left until the next recount, fall into the bucket containing them */
+    private static int bucketIndex(List<BigDecimal> bounds, BigDecimal lowerBound) {
+        int index = -1;
+        for (int i = 0; i < bounds.size() && bounds.get(i).compareTo(lowerBound) <= 0; i++) {
+            index = i;
+        }
+        return index;
+    }
+
+    private static double ageSeconds(AtomicReference<UserStatistics> snapshot) {
+        UserStatistics current = snapshot.get();
+        return current != null
+                ? Duration.between(current.getRefreshedAt(), Instant.now()).toMillis() / 1000.0
+                : Double.NaN;
+    }
+
+    record StatisticsRow(String dimension, String bucket, long users) {
+    }
+}
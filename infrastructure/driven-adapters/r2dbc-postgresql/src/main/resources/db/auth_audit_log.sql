@@ -0,0 +1,12 @@
+-- Authentication audit trail, written in batches by AuthAuditLogWriter.
+CREATE TABLE IF NOT EXISTS auth_audit_log (
+    id          BIGSERIAL    PRIMARY KEY,
+    event_type  VARCHAR(32)  NOT NULL,
+    user_id     UUID,
+    principal   VARCHAR(255),
+    detail      TEXT,
+    occurred_at TIMESTAMPTZ  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_auth_audit_log_user ON auth_audit_log (user_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_auth_audit_log_occurred_at ON auth_audit_log (occurred_at);
@@ -0,0 +1,13 @@
+-- Responses of requests sent with an Idempotency-Key header, replayed when the request is retried.
+-- Rows without a response_status are reservations of requests still running; expires_at bounds them
+-- too, so a node dying mid-request does not lock its key forever. Purged by IdempotencyKeyStore.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(320) PRIMARY KEY,
+    request_hash    CHAR(64)     NOT NULL,
+    response_status SMALLINT,
+    content_type    VARCHAR(255),
+    response_body   BYTEA,
+    expires_at      TIMESTAMPTZ  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
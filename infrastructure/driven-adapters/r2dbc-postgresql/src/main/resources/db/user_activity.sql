@@ -0,0 +1,8 @@
+-- Per-user login activity, kept apart from users so logins never lock the row they read.
+-- Written in batches by UserActivityAccumulator.
+CREATE TABLE IF NOT EXISTS user_activity (
+    user_id       UUID         PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    last_login_at TIMESTAMPTZ  NOT NULL,
+    login_count   BIGINT       NOT NULL DEFAULT 0,
+    last_login_ip VARCHAR(45)
+);
@@ -0,0 +1,21 @@
+-- Transactional outbox for the user change feed.
+-- Rows are written in the same transaction as the users mutation they describe.
+-- The feed is ordered by (txid, id) and only reads rows of transactions older than the
+-- snapshot xmin, so a transaction that commits after a later one is never skipped.
+-- Requires PostgreSQL 13+ for xid8.
+CREATE TABLE IF NOT EXISTS user_changes (
+    id          BIGSERIAL    PRIMARY KEY,
+    user_id     UUID         NOT NULL,
+    change_type VARCHAR(16)  NOT NULL,
+    changed_at  TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    txid        XID8         NOT NULL DEFAULT pg_current_xact_id()
+);
+
+-- Existing outboxes: earlier rows all take the ID of this transaction and keep their id order
+ALTER TABLE user_changes ADD COLUMN IF NOT EXISTS txid XID8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX IF NOT EXISTS idx_user_changes_txid ON user_changes (txid, id);
+
+-- Retention is left to operations, e.g.:
+-- DELETE FROM user_changes WHERE changed_at < now() - INTERVAL '7 days';
+CREATE INDEX IF NOT EXISTS idx_user_changes_changed_at ON user_changes (changed_at);
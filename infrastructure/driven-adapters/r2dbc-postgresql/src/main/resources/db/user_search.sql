@@ -0,0 +1,15 @@
+-- Indexes behind GET /api/users/search, see UserSearchRepositoryAdapter. The expressions must stay
+-- identical to the ones in its statements or the planner will not use them.
+-- CONCURRENTLY keeps users writable while they build; run each statement outside a transaction.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Fuzzy name search, word similarity (<%) against the full name
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_full_name_trgm
+    ON users USING gin ((first_name || ' ' || last_name) gin_trgm_ops);
+
+-- Prefix searches with LIKE 'prefix%', whatever the database collation
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_document_id_prefix ON users (document_id text_pattern_ops);
+
+-- Role filter paginated by ID
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_role_id ON users (role, id);
@@ -0,0 +1,58 @@
+-- User counts per role, document type and salary bucket, kept up to date by a trigger on users.
+-- The trigger only appends to user_stats_deltas, so concurrent writes never wait on a shared counter row.
+-- UserStatisticsStore folds the deltas into user_stats and reconciles both against users; users that
+-- existed before the trigger are counted by the first reconciliation, which runs shortly after startup
+-- and leaves a ('reconciled', '') row; until it exists, counts are answered by scanning users instead.
+CREATE TABLE IF NOT EXISTS user_stats (
+    dimension VARCHAR(16) NOT NULL,
+    bucket    VARCHAR(32) NOT NULL,
+    users     BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (dimension, bucket)
+);
+
+CREATE TABLE IF NOT EXISTS user_stats_deltas (
+    dimension VARCHAR(16) NOT NULL,
+    bucket    VARCHAR(32) NOT NULL,
+    delta     BIGINT      NOT NULL
+);
+
+-- Lower bounds of the salary histogram buckets; the last bucket has no upper bound.
+-- After changing them, run the reconciliation so existing users move to their new bucket.
+CREATE OR REPLACE FUNCTION user_salary_bucket_bounds() RETURNS NUMERIC[]
+    LANGUAGE sql IMMUTABLE AS
+$$ SELECT ARRAY[0, 1000000, 2000000, 3000000, 5000000, 8000000, 13000000, 20000000, 50000000]::NUMERIC[] $$;
+
+CREATE OR REPLACE FUNCTION user_salary_bucket(salary NUMERIC) RETURNS VARCHAR
+    LANGUAGE sql IMMUTABLE AS
+$$ SELECT COALESCE((user_salary_bucket_bounds())[GREATEST(width_bucket(salary, user_salary_bucket_bounds()), 1)]::VARCHAR, '') $$;
+
+CREATE OR REPLACE FUNCTION users_stats_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE'
+            AND OLD.role IS NOT DISTINCT FROM NEW.role
+            AND OLD.document_type IS NOT DISTINCT FROM NEW.document_type
+            AND user_salary_bucket(OLD.base_salary) = user_salary_bucket(NEW.base_salary) THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO user_stats_deltas (dimension, bucket, delta) VALUES
+            ('role', COALESCE(OLD.role, ''), -1),
+            ('document_type', COALESCE(OLD.document_type, ''), -1),
+            ('salary', user_salary_bucket(OLD.base_salary), -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO user_stats_deltas (dimension, bucket, delta) VALUES
+            ('role', COALESCE(NEW.role, ''), 1),
+            ('document_type', COALESCE(NEW.document_type, ''), 1),
+            ('salary', user_salary_bucket(NEW.base_salary), 1);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS users_stats ON users;
+CREATE TRIGGER users_stats AFTER INSERT OR UPDATE OR DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION users_stats_trigger();
+
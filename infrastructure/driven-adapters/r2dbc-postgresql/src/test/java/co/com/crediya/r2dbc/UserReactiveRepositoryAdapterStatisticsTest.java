@@ -0,0 +1,135 @@
+package co.com.crediya.r2dbc;
+
+import co.com.crediya.model.user.Role;
+import co.com.crediya.model.user.SalaryBucket;
+import co.com.crediya.model.user.UserStatistics;
+import co.com.crediya.model.user.gateways.UserStatisticsRepository;
+import co.com.crediya.r2dbc.helper.UserDomainMapper;
+import co.com.crediya.r2dbc.notification.UserChangeNotifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivecommons.utils.ObjectMapper;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts come from the statistics only once they are reconciled; otherwise users are counted directly
+ */
+class UserReactiveRepositoryAdapterStatisticsTest {
+
+    private static final BigDecimal MILLION = new BigDecimal("1000000");
+
+    private UserReactiveRepository repository;
+    private UserStatisticsRepository statisticsRepository;
+    private UserReactiveRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserReactiveRepository.class);
+        statisticsRepository = mock(UserStatisticsRepository.class);
+        adapter = new UserReactiveRepositoryAdapter(repository, mock(ObjectMapper.class), new UserDomainMapper(),
+                mock(R2dbcUnitOfWork.class), mock(UserChangeReactiveRepository.class), mock(UserChangeNotifier.class),
+                statisticsRepository);
+        when(repository.countUsersByRole(anyString())).thenReturn(Mono.just(42L));
+        when(repository.countUsersBySalaryRange(any(), any())).thenReturn(Mono.just(42L));
+    }
+
+    @Test
+    void reconciledStatisticsAnswerWithoutCountingUsers() {
+        when(statisticsRepository.getStatistics()).thenReturn(Mono.just(statistics(true)));
+
+        StepVerifier.create(adapter.countUsersByRole(Role.USER))
+                .expectNext(5L)
+                .verifyComplete();
+        StepVerifier.create(adapter.countUsersBySalaryRange(BigDecimal.ZERO, MILLION))
+                .expectNext(3L)
+                .verifyComplete();
+
+        verify(repository, never()).countUsersByRole(anyString());
+        verify(repository, never()).countUsersBySalaryRange(any(), any());
+    }
+
+    @Test
+    void statisticsBeforeTheFirstReconciliationAreNotTrusted() {
+        when(statisticsRepository.getStatistics()).thenReturn(Mono.just(statistics(false)));
+
+        StepVerifier.create(adapter.countUsersByRole(Role.USER))
+                .expectNext(42L)
+                .verifyComplete();
+        StepVerifier.create(adapter.countUsersBySalaryRange(BigDecimal.ZERO, MILLION))
+                .expectNext(42L)
+                .verifyComplete();
+
+        verify(repository).countUsersByRole(Role.USER.getCode());
+    }
+
+    @Test
+    void unreadableStatisticsFallBackToCountingUsers() {
+        when(statisticsRepository.getStatistics())
+                .thenReturn(Mono.error(new RuntimeException("relation \"user_stats\" does not exist")));
+
+        StepVerifier.create(adapter.countUsersByRole(Role.ADMIN))
+                .expectNext(42L)
+                .verifyComplete();
+        StepVerifier.create(adapter.countUsersBySalaryRange(BigDecimal.ZERO, MILLION))
+                .expectNext(42L)
+                .verifyComplete();
+
+        verify(repository).countUsersByRole(Role.ADMIN.getCode());
+    }
+
+    @Test
+    void missingStatisticsFallBackToCountingUsers() {
+        when(statisticsRepository.getStatistics()).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.countUsersByRole(Role.USER))
+                .expectNext(42L)
+                .verifyComplete();
+    }
+
+    @Test
+    void rangesOffTheBucketBoundsAreCountedFromUsers() {
+        when(statisticsRepository.getStatistics()).thenReturn(Mono.just(statistics(true)));
+
+        StepVerifier.create(adapter.countUsersBySalaryRange(BigDecimal.ZERO, new BigDecimal("1500000")))
+                .expectNext(42L)
+                .verifyComplete();
+
+        verify(repository).countUsersBySalaryRange(BigDecimal.ZERO, new BigDecimal("1500000"));
+    }
+
+    @Test
+    void failedFallbackCountIsReported() {
+        when(statisticsRepository.getStatistics()).thenReturn(Mono.empty());
+        when(repository.countUsersByRole(anyString())).thenReturn(Mono.error(new IllegalStateException("connection lost")));
+
+        StepVerifier.create(adapter.countUsersByRole(Role.USER))
+                .expectErrorMessage("Failed to count users by role: " + Role.USER.getCode())
+                .verify();
+    }
+
+    private static UserStatistics statistics(boolean reconciled) {
+        return UserStatistics.builder()
+                .totalUsers(5)
+                .usersByRole(Map.of(Role.USER, 5L, Role.ADMIN, 0L))
+                .usersByDocumentType(Map.of())
+                .salaryHistogram(List.of(
+                        SalaryBucket.builder().lowerBound(BigDecimal.ZERO).upperBound(MILLION).users(3).build(),
+                        SalaryBucket.builder().lowerBound(MILLION).users(2).build()))
+                .refreshedAt(Instant.EPOCH)
+                .reconciled(reconciled)
+                .build();
+    }
+}
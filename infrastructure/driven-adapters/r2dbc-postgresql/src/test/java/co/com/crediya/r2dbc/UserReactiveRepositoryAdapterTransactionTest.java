@@ -0,0 +1,183 @@
+package co.com.crediya.r2dbc;
+
+import co.com.crediya.model.user.gateways.UserStatisticsRepository;
+import co.com.crediya.model.valueobject.Email;
+import co.com.crediya.r2dbc.entity.UserChangeEntity;
+import co.com.crediya.r2dbc.helper.UserDomainMapper;
+import co.com.crediya.r2dbc.notification.UserChangeNotifier;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.invocation.InvocationOnMock;
+import org.reactivecommons.utils.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Guards the transaction model at the connection: the adapter runs over a recording ConnectionFactory,
+ * behind the same transaction proxy Spring creates for {@code @Transactional}, so a transaction put back
+ * on the adapter shows up as BEGIN/COMMIT on reads.
+ */
+class UserReactiveRepositoryAdapterTransactionTest {
+
+    private Connection connection;
+    private UserReactiveRepositoryAdapter adapter;
+    private R2dbcUnitOfWork unitOfWork;
+
+    @BeforeEach
+    void setUp() {
+        Result result = mock(Result.class, invocation -> "getRowsUpdated".equals(invocation.getMethod().getName())
+                ? Mono.just(1L)
+                : reactiveDefault(invocation));
+        Statement statement = mock(Statement.class, invocation -> "execute".equals(invocation.getMethod().getName())
+                ? Flux.just(result)
+                : reactiveDefault(invocation));
+        connection = mock(Connection.class, invocation -> "createStatement".equals(invocation.getMethod().getName())
+                ? statement
+                : reactiveDefault(invocation));
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class,
+                invocation -> "create".equals(invocation.getMethod().getName())
+                        ? Mono.just(connection)
+                        : reactiveDefault(invocation));
+
+        DatabaseClient databaseClient = DatabaseClient.builder()
+                .connectionFactory(connectionFactory)
+                .bindMarkers(PostgresDialect.INSTANCE.getBindMarkersFactory())
+                .build();
+        UserReactiveRepository repository = new R2dbcRepositoryFactory(
+                new R2dbcEntityTemplate(databaseClient, PostgresDialect.INSTANCE))
+                .getRepository(UserReactiveRepository.class);
+        R2dbcTransactionManager transactionManager = new R2dbcTransactionManager(connectionFactory);
+
+        UserChangeReactiveRepository changeRepository = mock(UserChangeReactiveRepository.class);
+        when(changeRepository.save(any(UserChangeEntity.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        UserChangeNotifier changeNotifier = mock(UserChangeNotifier.class);
+        when(changeNotifier.publish(any(UserChangeEntity.class))).thenReturn(Mono.empty());
+
+        unitOfWork = new R2dbcUnitOfWork(transactionManager);
+        UserReactiveRepositoryAdapter target = new UserReactiveRepositoryAdapter(repository, mock(ObjectMapper.class),
+                new UserDomainMapper(), unitOfWork, changeRepository, changeNotifier,
+                mock(UserStatisticsRepository.class));
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        adapter = (UserReactiveRepositoryAdapter) proxyFactory.getProxy();
+    }
+
+    @Test
+    void findByIdIssuesOneStatementWithoutTransaction() {
+        StepVerifier.create(adapter.findById(UUID.randomUUID().toString()))
+                .verifyComplete();
+
+        assertConnectionCalls(1, 0);
+    }
+
+    @Test
+    void findByEmailIssuesOneStatementWithoutTransaction() {
+        StepVerifier.create(adapter.findByEmail(new Email("ana@example.com")))
+                .verifyComplete();
+
+        assertConnectionCalls(1, 0);
+    }
+
+    @Test
+    void existsByEmailIssuesOneStatementWithoutTransaction() {
+        StepVerifier.create(adapter.existsByEmail(new Email("ana@example.com")))
+                .expectNext(false)
+                .verifyComplete();
+
+        assertConnectionCalls(1, 0);
+    }
+
+    @Test
+    void findAllByIdsIssuesOneStatementWithoutTransaction() {
+        StepVerifier.create(adapter.findAllByIds(List.of(UUID.randomUUID().toString())))
+                .verifyComplete();
+
+        assertConnectionCalls(1, 0);
+    }
+
+    @Test
+    void scatterReadRunsInOneReadOnlyTransaction() {
+        // Same pipeline as UserUseCase.findUsersByIds: one statement per chunk, all in one snapshot
+        List<List<String>> chunks = List.of(
+                List.of(UUID.randomUUID().toString(), UUID.randomUUID().toString()),
+                List.of(UUID.randomUUID().toString()));
+
+        StepVerifier.create(unitOfWork.readOnly(Flux.fromIterable(chunks).concatMap(adapter::findAllByIds)))
+                .verifyComplete();
+
+        assertConnectionCalls(2, 1);
+        verify(connection).beginTransaction(argThat((TransactionDefinition definition) ->
+                Boolean.TRUE.equals(definition.getAttribute(TransactionDefinition.READ_ONLY))));
+    }
+
+    @Test
+    void updatePasswordHashRunsInOneTransaction() {
+        StepVerifier.create(adapter.updatePasswordHash(UUID.randomUUID().toString(), "$2a$10$old", "$2a$10$new"))
+                .expectNext(true)
+                .verifyComplete();
+
+        // The outbox row goes through the mocked change repository, so only the UPDATE reaches the connection
+        assertConnectionCalls(1, 1);
+    }
+
+    @Test
+    void deleteByIdRunsInOneTransaction() {
+        StepVerifier.create(adapter.deleteById(UUID.randomUUID()))
+                .verifyComplete();
+
+        assertConnectionCalls(1, 1);
+    }
+
+    private void assertConnectionCalls(int statements, int transactions) {
+        assertEquals(statements, calls("createStatement"), "statements");
+        assertEquals(transactions, calls("beginTransaction"), "BEGIN");
+        assertEquals(transactions, calls("commitTransaction"), "COMMIT");
+    }
+
+    private long calls(String method) {
+        return mockingDetails(connection).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals(method))
+                .count();
+    }
+
+    /** Builder methods return the mock itself and every other publisher completes empty */
+    private static Object reactiveDefault(InvocationOnMock invocation) throws Throwable {
+        Class<?> type = invocation.getMethod().getReturnType();
+        if (type != Object.class && type.isInstance(invocation.getMock())) {
+            return invocation.getMock();
+        }
+        if (Publisher.class.isAssignableFrom(type)) {
+            return Flux.empty();
+        }
+        return Answers.RETURNS_DEFAULTS.answer(invocation);
+    }
+}
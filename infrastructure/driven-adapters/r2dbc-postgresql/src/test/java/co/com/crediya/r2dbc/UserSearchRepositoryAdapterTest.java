@@ -0,0 +1,105 @@
+package co.com.crediya.r2dbc;
+
+import co.com.crediya.model.user.Role;
+import co.com.crediya.model.user.UserSearchCriteria;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserSearchRepositoryAdapterTest {
+
+    private static final String AFTER_ID = "3f1c2a64-7d2e-4b7a-9a51-6f0f3c1d2e4b";
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<!:):([a-zA-Z]+)");
+
+    @Test
+    void firstRankedPageScoresEachCriterionWithoutAKeyset() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = UserSearchRepositoryAdapter.rankedQuery(UserSearchCriteria.builder()
+                .name(" mari ")
+                .emailPrefix(" Ana.B ")
+                .limit(20)
+                .build(), parameters);
+
+        assertTrue(sql.contains("(word_similarity(:nameRank, (u.first_name || ' ' || u.last_name))"
+                + " + :emailPrefixLength / length(u.email)::float8)::float8 AS score"), sql);
+        assertTrue(sql.contains("WHERE :name <% (u.first_name || ' ' || u.last_name)"
+                + " AND lower(u.email) LIKE :emailPattern"), sql);
+        assertFalse(sql.contains("afterNegatedScore"), sql);
+        assertTrue(sql.endsWith(") hits ORDER BY -hits.score, hits.id LIMIT :limit"), sql);
+        assertEquals("mari", parameters.get("nameRank"));
+        assertEquals("mari", parameters.get("name"));
+        assertEquals(5, parameters.get("emailPrefixLength"));
+        assertEquals("ana.b%", parameters.get("emailPattern"));
+        assertEquals(20, parameters.get("limit"));
+        assertEveryParameterBoundOnce(sql, parameters);
+    }
+
+    @Test
+    void nextRankedPageStartsAfterTheKeysetOfTheLastHit() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = UserSearchRepositoryAdapter.rankedQuery(UserSearchCriteria.builder()
+                .documentIdPrefix("1032")
+                .role(Role.ADVISOR)
+                .limit(50)
+                .afterScore(0.75)
+                .afterId(AFTER_ID)
+                .build(), parameters);
+
+        assertTrue(sql.contains("AND u.role = :role) hits"
+                + " WHERE (-hits.score, hits.id) > (:afterNegatedScore, :afterId)"
+                + " ORDER BY -hits.score, hits.id"), sql);
+        assertEquals(-0.75, parameters.get("afterNegatedScore"));
+        assertEquals(UUID.fromString(AFTER_ID), parameters.get("afterId"));
+        assertEquals("1032%", parameters.get("documentIdPattern"));
+        assertEquals(Role.ADVISOR.getCode(), parameters.get("role"));
+        assertEveryParameterBoundOnce(sql, parameters);
+    }
+
+    @Test
+    void unrankedSearchPagesByIdWithAZeroScore() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String sql = UserSearchRepositoryAdapter.unrankedQuery(UserSearchCriteria.builder()
+                .role(Role.USER)
+                .limit(10)
+                .afterId(AFTER_ID)
+                .build(), parameters);
+
+        assertEquals("SELECT u.*, 0::float8 AS score FROM users u WHERE u.role = :role"
+                + " AND u.id > :afterId ORDER BY u.id LIMIT :limit", sql);
+        assertEquals(UUID.fromString(AFTER_ID), parameters.get("afterId"));
+        assertEveryParameterBoundOnce(sql, parameters);
+    }
+
+    @Test
+    void likeWildcardsInPrefixesAreMatchedLiterally() {
+        assertEquals("50\\%\\_off\\\\%", UserSearchRepositoryAdapter.likePrefix("50%_off\\"));
+        assertEquals("ana%", UserSearchRepositoryAdapter.likePrefix("ana"));
+
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        UserSearchRepositoryAdapter.unrankedQuery(UserSearchCriteria.builder()
+                .emailPrefix("a_b%")
+                .limit(10)
+                .build(), parameters);
+
+        assertEquals("a\\_b\\%%", parameters.get("emailPattern"));
+    }
+
+    /** Named parameters may appear only once per statement; casts such as ::float8 are not parameters */
+    private static void assertEveryParameterBoundOnce(String sql, Map<String, Object> parameters) {
+        Map<String, Integer> occurrences = new LinkedHashMap<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        while (matcher.find()) {
+            occurrences.merge(matcher.group(1), 1, Integer::sum);
+        }
+        assertEquals(parameters.keySet(), occurrences.keySet(), sql);
+        occurrences.forEach((name, count) -> assertEquals(1, count, name));
+    }
+}
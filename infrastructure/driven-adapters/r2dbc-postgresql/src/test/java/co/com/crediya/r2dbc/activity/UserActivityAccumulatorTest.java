@@ -0,0 +1,145 @@
+package co.com.crediya.r2dbc.activity;
+
+import co.com.crediya.model.user.UserActivity;
+import co.com.crediya.r2dbc.UserActivityReactiveRepository;
+import co.com.crediya.r2dbc.entity.UserActivityEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserActivityAccumulatorTest {
+
+    private static final String USER = "5f0c7a8e-1b2c-4d3e-8f90-123456789abc";
+    private static final Instant FIRST_LOGIN = Instant.parse("2026-01-01T10:00:00Z");
+    private static final Instant SECOND_LOGIN = FIRST_LOGIN.plusSeconds(60);
+
+    private DatabaseClient databaseClient;
+    private GenericExecuteSpec spec;
+    private UserActivityReactiveRepository activityRepository;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = mock(DatabaseClient.class);
+        spec = mock(GenericExecuteSpec.class, RETURNS_SELF);
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.then()).thenReturn(Mono.empty());
+        activityRepository = mock(UserActivityReactiveRepository.class);
+        when(activityRepository.findById(any(UUID.class))).thenReturn(Mono.empty());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void loginsOfTheSameUserAreMergedWithTheLatestWinning() {
+        UserActivityAccumulator accumulator = accumulator(10, 10);
+        accumulator.recordLogin(USER, "10.0.0.2", SECOND_LOGIN);
+        accumulator.recordLogin(USER, "10.0.0.1", FIRST_LOGIN);
+
+        StepVerifier.create(accumulator.findByUserId(USER))
+                .assertNext(activity -> {
+                    assertEquals(2, activity.getLoginCount());
+                    assertEquals(SECOND_LOGIN, activity.getLastLoginAt());
+                    assertEquals("10.0.0.2", activity.getLastLoginIp());
+                })
+                .verifyComplete();
+        assertEquals(1, pending());
+    }
+
+    @Test
+    void unflushedLoginsAreAddedToThePersistedActivity() {
+        UserActivityAccumulator accumulator = accumulator(10, 10);
+        when(activityRepository.findById(UUID.fromString(USER))).thenReturn(Mono.just(
+                new UserActivityEntity(UUID.fromString(USER), FIRST_LOGIN, 5L, "10.0.0.1")));
+        accumulator.recordLogin(USER, "10.0.0.2", SECOND_LOGIN);
+
+        StepVerifier.create(accumulator.findByUserId(USER).map(UserActivity::getLoginCount))
+                .expectNext(6L)
+                .verifyComplete();
+    }
+
+    @Test
+    void flushDrainsEveryPendingUserInBatches() {
+        UserActivityAccumulator accumulator = accumulator(10, 2);
+        for (int i = 0; i < 3; i++) {
+            accumulator.recordLogin(UUID.randomUUID().toString(), null, FIRST_LOGIN);
+        }
+
+        accumulator.flush();
+
+        verify(databaseClient, times(2)).sql(anyString());
+        assertEquals(0, pending());
+        assertEquals(3.0, meterRegistry.counter("user.activity.flushed").count());
+    }
+
+    @Test
+    void failedBatchesAreMergedBackAndRetriedOnTheNextFlush() {
+        UserActivityAccumulator accumulator = accumulator(10, 10);
+        when(spec.then()).thenReturn(Mono.error(new IllegalStateException("connection reset")), Mono.empty());
+        accumulator.recordLogin(USER, "10.0.0.1", FIRST_LOGIN);
+
+        accumulator.flush();
+
+        assertEquals(1, pending());
+        assertEquals(1.0, meterRegistry.counter("user.activity.flush.failures").count());
+
+        accumulator.recordLogin(USER, "10.0.0.2", SECOND_LOGIN);
+        accumulator.flush();
+
+        assertEquals(0, pending());
+        verify(spec).bind("count0", 2L);
+        verify(spec).bind("ip0", "10.0.0.2");
+    }
+
+    @Test
+    void loginsOfNewUsersAreDroppedOncePendingIsFull() {
+        UserActivityAccumulator accumulator = accumulator(2, 10);
+        accumulator.recordLogin(USER, null, FIRST_LOGIN);
+        accumulator.recordLogin(UUID.randomUUID().toString(), null, FIRST_LOGIN);
+
+        accumulator.recordLogin(UUID.randomUUID().toString(), null, FIRST_LOGIN);
+        accumulator.recordLogin(USER, null, SECOND_LOGIN);
+
+        assertEquals(2, pending());
+        assertEquals(1.0, meterRegistry.counter("user.activity.dropped").count());
+    }
+
+    @Test
+    void malformedUserIdsAreIgnored() {
+        UserActivityAccumulator accumulator = accumulator(10, 10);
+        accumulator.recordLogin("not-a-uuid", null, FIRST_LOGIN);
+
+        accumulator.flush();
+
+        assertEquals(0, pending());
+        verify(databaseClient, never()).sql(anyString());
+    }
+
+    private UserActivityAccumulator accumulator(int maxPendingUsers, int batchSize) {
+        return new UserActivityAccumulator(databaseClient, activityRepository,
+                new UserActivityProperties(maxPendingUsers, batchSize, Duration.ofHours(1), Duration.ofSeconds(1)),
+                meterRegistry);
+    }
+
+    private double pending() {
+        return meterRegistry.get("user.activity.pending").gauge().value();
+    }
+}
@@ -1,5 +1,8 @@
 package co.com.crediya.r2dbc.config;
 
+import co.com.crediya.r2dbc.query.QueryMonitor;
+import co.com.crediya.r2dbc.query.SlowQueryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -32,6 +35,11 @@ class PostgreSQLConnectionPoolTest {
 
     @Test
     void getConnectionConfigSuccess() {
-        assertNotNull(connectionPool.getConnectionConfig(properties));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        QueryMonitor queryMonitor = new QueryMonitor(properties,
+                new SlowQueryProperties(null, null, null, null, null, null), meterRegistry);
+
+        assertNotNull(connectionPool.getConnectionConfig(properties, new ConnectionPoolsProperties(null, null),
+                queryMonitor, meterRegistry));
     }
 }
@@ -0,0 +1,58 @@
+package co.com.crediya.r2dbc.config;
+
+import co.com.crediya.model.common.RequestPriority;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class PriorityRoutingConnectionFactoryTest {
+
+    private PriorityRoutingConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void setUp() {
+        Map<RequestPriority, ConnectionPoolConfiguration> configurations = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : RequestPriority.values()) {
+            configurations.put(priority, ConnectionPoolConfiguration.builder()
+                    .connectionFactory(mock(ConnectionFactory.class))
+                    .initialSize(0)
+                    .build());
+        }
+        connectionFactory = new PriorityRoutingConnectionFactory(configurations, RequestPriority.LOOKUP,
+                Duration.ZERO);
+        connectionFactory.afterPropertiesSet();
+    }
+
+    @Test
+    void stopClosesEveryPool() {
+        connectionFactory.start();
+        connectionFactory.stop();
+
+        assertFalse(connectionFactory.isRunning());
+        assertTrue(connectionFactory.getPools().values().stream().allMatch(ConnectionPool::isDisposed));
+    }
+
+    @Test
+    void startAfterStopOpensNewPools() {
+        connectionFactory.start();
+        Map<RequestPriority, ConnectionPool> closed = connectionFactory.getPools();
+        connectionFactory.stop();
+
+        connectionFactory.start();
+
+        assertTrue(connectionFactory.isRunning());
+        assertNotSame(closed.get(RequestPriority.LOOKUP), connectionFactory.getPools().get(RequestPriority.LOOKUP));
+        assertTrue(connectionFactory.getPools().values().stream().noneMatch(ConnectionPool::isDisposed));
+    }
+}
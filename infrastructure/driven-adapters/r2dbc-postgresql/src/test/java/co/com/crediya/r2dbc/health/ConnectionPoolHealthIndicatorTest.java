@@ -0,0 +1,79 @@
+package co.com.crediya.r2dbc.health;
+
+import co.com.crediya.health.CachedHealthIndicator;
+import co.com.crediya.health.CachedHealthProperties;
+import co.com.crediya.model.common.RequestPriority;
+import co.com.crediya.r2dbc.config.PriorityRoutingConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionPoolHealthIndicatorTest {
+
+    @Test
+    void saturatedPoolIsDegradedWithoutTakingAConnection() {
+        ConnectionPool pool = pool(10, 10, 3);
+
+        ConnectionPoolHealthIndicator indicator = indicator(Map.of(RequestPriority.LOOKUP, pool));
+        indicator.refresh();
+
+        assertEquals(CachedHealthIndicator.DEGRADED, indicator.health().getStatus());
+        verify(pool, never()).create();
+    }
+
+    @Test
+    void poolThatCannotHandOutAConnectionIsDown() {
+        ConnectionPool pool = pool(1, 10, 0);
+        when(pool.create()).thenReturn(Mono.error(new IllegalStateException("connection refused")));
+
+        ConnectionPoolHealthIndicator indicator = indicator(Map.of(RequestPriority.LOOKUP, pool));
+        indicator.refresh();
+
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    void downOutranksDegradedAcrossPools() {
+        Map<RequestPriority, Health> pools = new EnumMap<>(RequestPriority.class);
+        pools.put(RequestPriority.LOOKUP, Health.up().build());
+        pools.put(RequestPriority.BULK, Health.status(CachedHealthIndicator.DEGRADED).build());
+
+        assertEquals(CachedHealthIndicator.DEGRADED, ConnectionPoolHealthIndicator.aggregate(pools).getStatus());
+
+        pools.put(RequestPriority.LOOKUP, Health.down().build());
+
+        assertEquals(Status.DOWN, ConnectionPoolHealthIndicator.aggregate(pools).getStatus());
+    }
+
+    private static ConnectionPoolHealthIndicator indicator(Map<RequestPriority, ConnectionPool> pools) {
+        PriorityRoutingConnectionFactory connectionFactory = mock(PriorityRoutingConnectionFactory.class);
+        when(connectionFactory.getPools()).thenReturn(pools);
+        return new ConnectionPoolHealthIndicator(connectionFactory,
+                new CachedHealthProperties(null, Duration.ofMinutes(1)),
+                new ConnectionPoolHealthProperties(0.9, Duration.ofMillis(200)));
+    }
+
+    private static ConnectionPool pool(int acquired, int max, int pending) {
+        PoolMetrics metrics = mock(PoolMetrics.class);
+        when(metrics.getAcquiredSize()).thenReturn(acquired);
+        when(metrics.getMaxAllocatedSize()).thenReturn(max);
+        when(metrics.getPendingAcquireSize()).thenReturn(pending);
+        ConnectionPool pool = mock(ConnectionPool.class);
+        when(pool.getMetrics()).thenReturn(Optional.of(metrics));
+        return pool;
+    }
+}
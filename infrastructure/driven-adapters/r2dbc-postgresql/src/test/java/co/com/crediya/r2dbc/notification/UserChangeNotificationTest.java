@@ -0,0 +1,36 @@
+package co.com.crediya.r2dbc.notification;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserChangeNotificationTest {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        UserChangeNotification notification = new UserChangeNotification(
+                42L, "5f0c7a8e-1b2c-4d3e-8f90-123456789abc", "UPSERT", 1700000000000L);
+
+        assertEquals(notification, UserChangeNotification.decode(notification.encode()));
+    }
+
+    @Test
+    void horizonPrependedByTheDatabaseDecodes() {
+        UserChangeNotification notification = new UserChangeNotification(
+                0L, "5f0c7a8e-1b2c-4d3e-8f90-123456789abc", "DELETE", 1700000000000L);
+
+        UserChangeNotification received = UserChangeNotification.decode("90214" + notification.encodeAfterHorizon());
+
+        assertEquals(90214L, received.horizon());
+        assertEquals(notification.userId(), received.userId());
+        assertEquals(notification.changeType(), received.changeType());
+    }
+
+    @Test
+    void decodeRejectsMalformedPayload() {
+        assertThrows(IllegalArgumentException.class, () -> UserChangeNotification.decode("42|user"));
+        assertThrows(IllegalArgumentException.class, () -> UserChangeNotification.decode("x|user|UPSERT|1"));
+        assertThrows(IllegalArgumentException.class, () -> UserChangeNotification.decode(null));
+    }
+}
@@ -0,0 +1,51 @@
+package co.com.crediya.r2dbc.query;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlFingerprintTest {
+
+    @Test
+    void literalsAndParametersAreNormalized() {
+        SqlFingerprint fingerprint = SqlFingerprint.of(
+                "SELECT id FROM users\n  WHERE email = 'a@b.co' AND salary > 1500.50 AND role = $1 LIMIT 10");
+
+        assertEquals("SELECT id FROM users WHERE email = ? AND salary > ? AND role = ? LIMIT ?", fingerprint.sql());
+        assertEquals("SELECT", fingerprint.operation());
+    }
+
+    @Test
+    void inListsOfAnySizeShareAFingerprint() {
+        assertEquals(SqlFingerprint.of("SELECT * FROM users WHERE id IN ($1, $2)").id(),
+                SqlFingerprint.of("SELECT * FROM users WHERE id IN ($1,$2,$3,$4)").id());
+    }
+
+    @Test
+    void multiRowInsertsOfAnySizeShareAFingerprint() {
+        SqlFingerprint twoRows = SqlFingerprint.of(
+                "INSERT INTO auth_audit_log (event_type, user_id) VALUES ($1, $2), ($3, $4)");
+        SqlFingerprint threeRows = SqlFingerprint.of(
+                "INSERT INTO auth_audit_log (event_type, user_id) VALUES ($1, $2), ($3, $4), ($5, $6)");
+
+        assertEquals("INSERT INTO auth_audit_log (event_type, user_id) VALUES (...), ...", threeRows.sql());
+        assertEquals("INSERT", threeRows.operation());
+        assertEquals(twoRows.id(), threeRows.id());
+    }
+
+    @Test
+    void identifiersWithDigitsAreKept() {
+        assertEquals("SELECT col1 FROM t2 WHERE x = ?", SqlFingerprint.of("SELECT col1 FROM t2 WHERE x = 5").sql());
+    }
+
+    @Test
+    void onlyPlainReadsAreReadOnly() {
+        assertTrue(SqlFingerprint.of("SELECT * FROM users WHERE id = $1").isReadOnly());
+        assertTrue(SqlFingerprint.of("WITH r AS (SELECT 1) SELECT * FROM r").isReadOnly());
+        assertFalse(SqlFingerprint.of("SELECT * FROM users WHERE id = $1 FOR UPDATE").isReadOnly());
+        assertFalse(SqlFingerprint.of("WITH d AS (DELETE FROM users RETURNING id) SELECT * FROM d").isReadOnly());
+        assertFalse(SqlFingerprint.of("UPDATE users SET password = $1").isReadOnly());
+    }
+}
@@ -0,0 +1,104 @@
+package co.com.crediya.r2dbc.statistics;
+
+import co.com.crediya.model.user.DocumentType;
+import co.com.crediya.model.user.Role;
+import co.com.crediya.model.user.SalaryBucket;
+import co.com.crediya.model.user.UserStatistics;
+import co.com.crediya.r2dbc.statistics.UserStatisticsStore.StatisticsRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserStatisticsStoreTest {
+
+    private static final List<StatisticsRow> BOUNDS = List.of(
+            new StatisticsRow("salary_bound", "1000000", 0),
+            new StatisticsRow("salary_bound", "0", 0),
+            new StatisticsRow("salary_bound", "5000000", 0));
+
+    @Test
+    void everyRoleAndDocumentTypeIsPresent() {
+        UserStatistics statistics = UserStatisticsStore.toStatistics(List.of(
+                new StatisticsRow("role", "USER", 7),
+                new StatisticsRow("document_type", "CC", 7)), Instant.EPOCH);
+
+        assertEquals(Role.values().length, statistics.getUsersByRole().size());
+        assertEquals(7L, statistics.countByRole(Role.USER));
+        assertEquals(0L, statistics.countByRole(Role.ADMIN));
+        assertEquals(DocumentType.values().length, statistics.getUsersByDocumentType().size());
+        assertEquals(7L, statistics.getUsersByDocumentType().get(DocumentType.CC));
+    }
+
+    @Test
+    void usersWithUnknownRolesCountInTheTotalOnly() {
+        UserStatistics statistics = UserStatisticsStore.toStatistics(List.of(
+                new StatisticsRow("role", "USER", 5),
+                new StatisticsRow("role", "MANAGER", 2),
+                new StatisticsRow("role", "", 1)), Instant.EPOCH);
+
+        assertEquals(8L, statistics.getTotalUsers());
+        assertEquals(5L, statistics.countByRole(Role.USER));
+    }
+
+    @Test
+    void histogramFollowsTheBoundsWithEmptyBucketsIncluded() {
+        List<StatisticsRow> rows = new ArrayList<>(BOUNDS);
+        rows.add(new StatisticsRow("salary", "0", 3));
+        rows.add(new StatisticsRow("salary", "5000000", 2));
+
+        List<SalaryBucket> histogram = UserStatisticsStore.toStatistics(rows, Instant.EPOCH).getSalaryHistogram();
+
+        assertEquals(3, histogram.size());
+        assertEquals(0, new BigDecimal("1000000").compareTo(histogram.get(0).getUpperBound()));
+        assertEquals(3L, histogram.get(0).getUsers());
+        assertEquals(0L, histogram.get(1).getUsers());
+        assertEquals(2L, histogram.get(2).getUsers());
+        assertNull(histogram.get(2).getUpperBound());
+    }
+
+    @Test
+    void countersOfRemovedBoundsFallIntoTheEnclosingBucket() {
+        List<StatisticsRow> rows = new ArrayList<>(BOUNDS);
+        rows.add(new StatisticsRow("salary", "2000000", 4));
+
+        List<SalaryBucket> histogram = UserStatisticsStore.toStatistics(rows, Instant.EPOCH).getSalaryHistogram();
+
+        assertEquals(4L, histogram.get(1).getUsers());
+    }
+
+    @Test
+    void salaryRangesOnBucketBoundsAreAnsweredFromTheHistogram() {
+        List<StatisticsRow> rows = new ArrayList<>(BOUNDS);
+        rows.add(new StatisticsRow("salary", "0", 3));
+        rows.add(new StatisticsRow("salary", "1000000", 6));
+        UserStatistics statistics = UserStatisticsStore.toStatistics(rows, Instant.EPOCH);
+
+        assertEquals(Optional.of(9L), statistics.countBySalaryRange(BigDecimal.ZERO, new BigDecimal("5000000.00")));
+        assertEquals(Optional.of(6L), statistics.countBySalaryRange(new BigDecimal("1000000"), new BigDecimal("5000000")));
+        assertEquals(Optional.empty(), statistics.countBySalaryRange(BigDecimal.ZERO, new BigDecimal("1500000")));
+        assertEquals(Optional.empty(), statistics.countBySalaryRange(new BigDecimal("5000000"), new BigDecimal("9000000")));
+    }
+
+    @Test
+    void statisticsAreReconciledOnlyOnceTheMarkerIsRecorded() {
+        List<StatisticsRow> rows = new ArrayList<>(BOUNDS);
+        rows.add(new StatisticsRow("role", "USER", 2));
+
+        assertFalse(UserStatisticsStore.toStatistics(rows, Instant.EPOCH).isReconciled());
+
+        rows.add(new StatisticsRow("reconciled", "", 0));
+        UserStatistics statistics = UserStatisticsStore.toStatistics(rows, Instant.EPOCH);
+
+        assertTrue(statistics.isReconciled());
+        assertEquals(2L, statistics.getTotalUsers());
+    }
+}
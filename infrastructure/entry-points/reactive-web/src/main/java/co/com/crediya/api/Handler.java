@@ -5,17 +5,35 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import co.com.crediya.usecase.user.UserChangeFeedUseCase;
+import co.com.crediya.usecase.user.UserSearchUseCase;
+import co.com.crediya.usecase.user.UserStatisticsUseCase;
 import co.com.crediya.usecase.user.UserUseCase;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import co.com.crediya.api.Exception.JwtValidationException;
+import co.com.crediya.api.bulkhead.DeadlineWebFilter;
+import co.com.crediya.api.config.BinaryCodecsConfig;
+import co.com.crediya.api.config.ClientAddressProperties;
+import co.com.crediya.api.config.UserChangeStreamProperties;
 import co.com.crediya.api.dto.ApiResponse;
 import co.com.crediya.api.dto.ErrorResponse;
 import co.com.crediya.api.dto.LoginRequestDTO;
 import co.com.crediya.api.dto.LoginResponseDTO;
 import co.com.crediya.api.dto.TokenValidationRequestDTO;
 import co.com.crediya.api.dto.TokenValidationResponseDTO;
+import co.com.crediya.api.dto.UserChangeDTO;
 import co.com.crediya.api.dto.UserRequestDTO;
+import co.com.crediya.api.dto.UserSearchHitDTO;
+import co.com.crediya.api.dto.UserSearchPageDTO;
+import co.com.crediya.api.mapper.ChangeCursor;
+import co.com.crediya.api.mapper.SearchCursor;
 import co.com.crediya.api.mapper.UserMapper;
+import co.com.crediya.model.common.exception.DeadlineExceededException;
+import co.com.crediya.model.user.Role;
+import co.com.crediya.model.user.UserChangePosition;
+import co.com.crediya.model.user.UserSearchCriteria;
 import co.com.crediya.model.user.exception.InvalidUserDataException;
 import co.com.crediya.model.user.exception.UserAlreadyExistsException;
 import co.com.crediya.model.user.exception.UserNotFoundException;
@@ -23,11 +41,19 @@ import co.com.crediya.model.valueobject.DocumentId;
 import co.com.crediya.model.valueobject.Email;
 import co.com.crediya.model.valueobject.exception.ValueObjectException;
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.BodyInserters;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 
 @Slf4j
 @Component
@@ -35,8 +61,18 @@ import java.time.LocalDateTime;
 @Tag(name = "User Management", description = "Operations for managing users")
 public class Handler {
     
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
     private final UserUseCase userUseCase;
+    private final UserChangeFeedUseCase userChangeFeedUseCase;
+    private final UserSearchUseCase userSearchUseCase;
+    private final UserStatisticsUseCase userStatisticsUseCase;
     private final JwtService jwtService;
+    private final UserChangeStreamProperties userChangeStreamProperties;
+    private final ClientAddressProperties clientAddressProperties;
+    private final MeterRegistry meterRegistry;
 
     public Mono<ServerResponse> createUser(ServerRequest request) {
         return request.bodyToMono(UserRequestDTO.class)
@@ -60,6 +96,49 @@ public class Handler {
                 .onErrorResume(throwable -> handleError(throwable, request.path()));
     }
 
+    /**
+     * Streams user changes as NDJSON, or as SSE when the client accepts text/event-stream.
+     * Consumers resume with the position of the last applied change through the {@code after}
+     * parameter or the Last-Event-ID header, including in the middle of a snapshot;
+     * {@code snapshot=true} without a position streams every user before tailing.
+     */
+    public Mono<ServerResponse> streamUserChanges(ServerRequest request) {
+        boolean snapshot = request.queryParam("snapshot").map(Boolean::parseBoolean).orElse(false);
+        String after = request.queryParam("after")
+                .orElse(request.headers().firstHeader(LAST_EVENT_ID));
+
+        UserChangePosition position;
+        try {
+            position = after != null ? ChangeCursor.decode(after) : null;
+        } catch (InvalidUserDataException e) {
+            log.warn("Invalid change position: {}", after);
+            return handleError(e, request.path());
+        }
+        log.debug("Streaming user changes after position {} (snapshot: {})", position, snapshot);
+
+        int batchSize = userChangeStreamProperties.batchSize();
+        Flux<UserChangeDTO> changes = (snapshot && position == null
+                ? userChangeFeedUseCase.snapshotAndStreamChanges(batchSize, userChangeStreamProperties.pollInterval())
+                : userChangeFeedUseCase.streamChanges(position != null ? position : UserChangePosition.START,
+                        batchSize, userChangeStreamProperties.pollInterval()))
+                .map(UserMapper::toChangeDTO);
+
+        if (request.headers().accept().contains(MediaType.TEXT_EVENT_STREAM)) {
+            Flux<ServerSentEvent<UserChangeDTO>> events = changes
+                    .map(change -> ServerSentEvent.builder(change)
+                            .id(change.position())
+                            .event(change.type())
+                            .build());
+            return ServerResponse.ok()
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(BodyInserters.fromServerSentEvents(events));
+        }
+
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(changes, UserChangeDTO.class);
+    }
+
     public Mono<ServerResponse> getUserById(ServerRequest request) {
         String userId = request.pathVariable("id");
         log.debug("Getting user by ID: {}", userId);
@@ -67,6 +146,27 @@ public class Handler {
         return userUseCase.findUserById(userId)
                 .map(UserMapper::toDTO)
                 .map(userDto -> ApiResponse.success(userDto, "User found successfully"))
+                .flatMap(response -> negotiatedOk(request, response))
+                .onErrorResume(throwable -> handleError(throwable, request.path()));
+    }
+
+    public Mono<ServerResponse> getUserActivity(ServerRequest request) {
+        String userId = request.pathVariable("id");
+        log.debug("Getting activity of user: {}", userId);
+
+        return userUseCase.findUserActivity(userId)
+                .map(UserMapper::toActivityDTO)
+                .map(activity -> ApiResponse.success(activity, "User activity found successfully"))
+                .flatMap(response -> ServerResponse.ok().bodyValue(response))
+                .onErrorResume(throwable -> handleError(throwable, request.path()));
+    }
+
+    public Mono<ServerResponse> getUserStatistics(ServerRequest request) {
+        log.debug("Getting user statistics");
+
+        return userStatisticsUseCase.getStatistics()
+                .map(UserMapper::toStatisticsDTO)
+                .map(statistics -> ApiResponse.success(statistics, "User statistics found successfully"))
                 .flatMap(response -> ServerResponse.ok().bodyValue(response))
                 .onErrorResume(throwable -> handleError(throwable, request.path()));
     }
@@ -80,7 +180,7 @@ public class Handler {
                         return userUseCase.findUserByEmail(email)
                                 .map(UserMapper::toDTO)
                                 .map(userDto -> ApiResponse.success(userDto, "User found successfully"))
-                                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+                                .flatMap(response -> negotiatedOk(request, response));
                     } catch (ValueObjectException e) {
                         log.warn("Invalid email format: {}", emailValue);
                         return ServerResponse.badRequest()
@@ -92,6 +192,39 @@ public class Handler {
                 .onErrorResume(throwable -> handleError(throwable, request.path()));
     }
 
+    /**
+     * Searches users by {@code name}, {@code emailPrefix}, {@code documentIdPrefix} and {@code role}.
+     * Clients accepting NDJSON get the hits streamed as they are read, each with the cursor to resume
+     * after it; everyone else gets one page and the cursor of the next. Pass a cursor as {@code after}.
+     */
+    public Mono<ServerResponse> searchUsers(ServerRequest request) {
+        UserSearchCriteria criteria;
+        try {
+            criteria = searchCriteria(request);
+            userSearchUseCase.validate(criteria);
+        } catch (InvalidUserDataException e) {
+            return handleError(e, request.path());
+        }
+        log.debug("Searching users, limit {}, first page: {}", criteria.getLimit(), criteria.isFirstPage());
+
+        Flux<UserSearchHitDTO> hits = userSearchUseCase.searchUsers(criteria)
+                .map(UserMapper::toSearchHitDTO);
+
+        if (request.headers().accept().contains(MediaType.APPLICATION_NDJSON)) {
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(hits, UserSearchHitDTO.class);
+        }
+
+        return hits.collectList()
+                .map(page -> new UserSearchPageDTO(page, page.size() < criteria.getLimit()
+                        ? null
+                        : page.get(page.size() - 1).cursor()))
+                .map(page -> ApiResponse.success(page, "Users found successfully"))
+                .flatMap(response -> negotiatedOk(request, response))
+                .onErrorResume(throwable -> handleError(throwable, request.path()));
+    }
+
     public Mono<ServerResponse> getUserByDocumentId(ServerRequest request) {
         return request.queryParam("documentId")
                 .<Mono<ServerResponse>>map(documentIdValue -> {
@@ -101,7 +234,7 @@ public class Handler {
                         return userUseCase.findUserByDocumentId(documentId)
                                 .map(UserMapper::toDTO)
                                 .map(userDto -> ApiResponse.success(userDto, "User found successfully"))
-                                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+                                .flatMap(response -> negotiatedOk(request, response));
                     } catch (ValueObjectException e) {
                         log.warn("Invalid document ID format: {}", documentIdValue);
                         return ServerResponse.badRequest()
@@ -137,7 +270,7 @@ public class Handler {
                         return userUseCase.userExistsByEmail(email)
                                 .map(exists -> ApiResponse.success(exists, 
                                     exists ? "User exists" : "User does not exist"))
-                                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+                                .flatMap(response -> negotiatedOk(request, response));
                     } catch (ValueObjectException e) {
                         log.warn("Invalid email format: {}", emailValue);
                         return ServerResponse.badRequest()
@@ -158,7 +291,7 @@ public class Handler {
                         return userUseCase.userExistsByDocumentId(documentId)
                                 .map(exists -> ApiResponse.success(exists, 
                                     exists ? "User exists" : "User does not exist"))
-                                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+                                .flatMap(response -> negotiatedOk(request, response));
                     } catch (ValueObjectException e) {
                         log.warn("Invalid document ID format: {}", documentIdValue);
                         return ServerResponse.badRequest()
@@ -183,7 +316,7 @@ public class Handler {
                     return userUseCase.userExistsById(userId)
                             .map(exists -> ApiResponse.success(exists, 
                                 exists ? "User exists" : "User does not exist"))
-                            .flatMap(response -> ServerResponse.ok().bodyValue(response));
+                            .flatMap(response -> negotiatedOk(request, response));
                 })
                 .onErrorResume(throwable -> handleError(throwable, request.path()));
     }
@@ -201,7 +334,7 @@ public class Handler {
                     return userUseCase.userExistsById(userId)
                             .map(exists -> ApiResponse.success(exists, 
                                 exists ? "User exists" : "User does not exist"))
-                            .flatMap(response -> ServerResponse.ok().bodyValue(response));
+                            .flatMap(response -> negotiatedOk(request, response));
                 })
                 .orElse(ServerResponse.badRequest()
                         .bodyValue(ApiResponse.error("ID parameter is required")))
@@ -213,7 +346,7 @@ public class Handler {
                 .flatMap(dto -> {
                     log.debug("Authenticating user: {}", dto.email());
                     Email email = new Email(dto.email());
-                    return userUseCase.authenticateUser(email, dto.password())
+                    return userUseCase.authenticateUser(email, dto.password(), clientIp(request))
                             .map(user -> {
                                 String accessToken = jwtService.generateAccessToken(user.getId(), user.getRole());
                                 String refreshToken = jwtService.generateRefreshToken(user.getId());
@@ -235,15 +368,106 @@ public class Handler {
                     Claims claims = jwtService.getTokenClaims(dto.token());
                     long remainingTime = jwtService.getRemainingExpirationTime(claims);
                     
-                    return userUseCase.findUserById(claims.getSubject())
+                    return userUseCase.validateTokenSubject(claims.getSubject())
                             .map(UserMapper::toDTOWithFullDocumentId)
                             .map(userDTO -> TokenValidationResponseDTO.valid(userDTO, remainingTime));
                 })
+                .doOnError(JwtValidationException.class,
+                        error -> userUseCase.recordTokenValidationFailure(error.getMessage()))
                 .map(response -> ApiResponse.success(response, "Token validation completed"))
-                .flatMap(response -> ServerResponse.ok().bodyValue(response))
+                .flatMap(response -> negotiatedOk(request, response))
                 .onErrorResume(throwable -> handleError(throwable, request.path()));
     }
 
+    /**
+     * Writes a successful response in the first format of the Accept header the service can produce.
+     * Functional endpoints do not negotiate by themselves, so without this every body would be JSON
+     */
+    private Mono<ServerResponse> negotiatedOk(ServerRequest request, Object body) {
+        return ServerResponse.ok()
+                .contentType(negotiateContentType(request.headers().accept()))
+                .bodyValue(body);
+    }
+
+    private static MediaType negotiateContentType(List<MediaType> accepted) {
+        List<MediaType> byQuality = accepted.stream()
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .toList();
+        for (MediaType acceptedType : byQuality) {
+            for (MediaType candidate : BinaryCodecsConfig.NEGOTIABLE_TYPES) {
+                if (acceptedType.includes(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static UserSearchCriteria searchCriteria(ServerRequest request) {
+        Role role = request.queryParam("role")
+                .map(code -> {
+                    try {
+                        return Role.fromCode(code.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw new InvalidUserDataException("role", "unknown role code " + code);
+                    }
+                })
+                .orElse(null);
+        int limit;
+        try {
+            limit = request.queryParam("limit").map(Integer::parseInt).orElse(DEFAULT_SEARCH_LIMIT);
+        } catch (NumberFormatException e) {
+            throw new InvalidUserDataException("limit", "must be a number");
+        }
+        SearchCursor after = request.queryParam("after").map(SearchCursor::decode).orElse(null);
+
+        return UserSearchCriteria.builder()
+                .name(nonBlankQueryParam(request, "name"))
+                .emailPrefix(nonBlankQueryParam(request, "emailPrefix"))
+                .documentIdPrefix(nonBlankQueryParam(request, "documentIdPrefix"))
+                .role(role)
+                .limit(limit)
+                .afterScore(after != null ? after.score() : null)
+                .afterId(after != null ? after.userId() : null)
+                .build();
+    }
+
+    private static String nonBlankQueryParam(ServerRequest request, String name) {
+        return request.queryParam(name).filter(value -> !value.isBlank()).orElse(null);
+    }
+
+    private String clientIp(ServerRequest request) {
+        return clientIp(request.headers().header(FORWARDED_FOR), clientAddressProperties.trustedProxies(),
+                request.remoteAddress()
+                        .map(address -> address.getAddress() != null
+                                ? address.getAddress().getHostAddress()
+                                : address.getHostString())
+                        .orElse(null));
+    }
+
+    /**
+     * Resolves the client address from the X-Forwarded-For hop appended by the outermost trusted proxy.
+     * Hops further left are supplied by the client and can be forged, so they are never used.
+     * @param forwardedFor X-Forwarded-For header values, in the order received
+     * @param trustedProxies Proxies in front of the service that append to the header
+     * @param remoteAddress Peer address, used when no proxy is trusted or the header is missing
+     */
+    static String clientIp(List<String> forwardedFor, int trustedProxies, String remoteAddress) {
+        if (trustedProxies == 0 || forwardedFor.isEmpty()) {
+            return remoteAddress;
+        }
+        List<String> hops = forwardedFor.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(hop -> !hop.isEmpty())
+                .toList();
+        if (hops.isEmpty()) {
+            return remoteAddress;
+        }
+        // With fewer hops than proxies, every hop was still appended by a trusted proxy
+        return hops.get(Math.max(0, hops.size() - trustedProxies));
+    }
+
     private Mono<UserRequestDTO> validateCreateRequest(UserRequestDTO dto) {
         if (dto.firstName() == null || dto.firstName().trim().isEmpty()) {
             return Mono.error(new InvalidUserDataException("First name is required"));
@@ -267,6 +491,15 @@ public class Handler {
     }
 
     private Mono<ServerResponse> handleError(Throwable throwable, String path) {
+        DeadlineExceededException deadlineExceeded = findDeadlineExceeded(throwable);
+        if (deadlineExceeded != null) {
+            log.warn("Request at path {} gave up: {}", path, deadlineExceeded.getMessage());
+            // The only place a deadline hit on the request path is counted, once per request
+            meterRegistry.counter(DeadlineWebFilter.EXCEEDED_METRIC, "stage", deadlineExceeded.getStage().tag()).increment();
+            return ServerResponse.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .bodyValue(createErrorResponse(deadlineExceeded.getMessage(), "DEADLINE_EXCEEDED", path));
+        }
+
         log.error("Error processing request at path {}: {}", path, throwable.getMessage(), throwable);
         
         if (throwable instanceof UserNotFoundException) {
@@ -288,6 +521,18 @@ public class Handler {
                 .bodyValue(createErrorResponse("Internal server error", "INTERNAL_ERROR", path));
     }
 
+    /**
+     * Adapters wrap the errors they get, so the deadline may be the cause of what reaches the handler
+     */
+    private static DeadlineExceededException findDeadlineExceeded(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof DeadlineExceededException deadlineExceeded) {
+                return deadlineExceeded;
+            }
+        }
+        return null;
+    }
+
     private ErrorResponse createErrorResponse(String message, String errorCode, String path) {
         return new ErrorResponse(message, errorCode, LocalDateTime.now(), path);
     }
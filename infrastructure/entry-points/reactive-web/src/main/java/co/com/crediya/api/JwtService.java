@@ -4,13 +4,18 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
 import org.springframework.beans.factory.annotation.Value;
 import co.com.crediya.api.Exception.JwtValidationException;
 import co.com.crediya.api.Exception.TokenExpiredException;
 
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
 import java.security.Key;
+import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.Date;
 import java.util.UUID;
@@ -18,16 +23,26 @@ import java.util.UUID;
 import co.com.crediya.api.dto.TokenValidationRequestDTO;
 import co.com.crediya.api.dto.UserAuthDTO;
 import co.com.crediya.api.dto.UserDTO;
+import co.com.crediya.api.jfr.TokenEvent;
 import co.com.crediya.model.user.Role;
 
+/**
+ * Issues and validates the service's own tokens.
+ * Token ids come from a generator that is replaced after a CRaC restore, so every JVM restored
+ * from the same checkpoint draws different ids instead of replaying the checkpointed random state.
+ */
 @Slf4j
 @Service
-public class JwtService {
+public class JwtService implements Resource {
+
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
 
     private final Key key;
     private final long expirationMs;
     private final long refreshExpirationMs;
     private final String issuer;
+    private volatile SecureRandom tokenIdRandom = new SecureRandom();
 
     public JwtService(
             @Value("${jwt.secret}") String secret,
@@ -39,39 +54,49 @@ public class JwtService {
         this.expirationMs = expirationMs;
         this.refreshExpirationMs = refreshExpirationMs;
         this.issuer = issuer;
+        Core.getGlobalContext().register(this);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        // Nothing to release; the generator is replaced on restore
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        tokenIdRandom = new SecureRandom();
+        log.info("Token id generator re-seeded after restore");
     }
 
     public String generateAccessToken(String userId){
         Instant now = Instant.now();
-        return Jwts.builder()
-                .setId(UUID.randomUUID().toString())
+        return issue(ACCESS, Jwts.builder()
+                .setId(newTokenId())
                 .setSubject(userId)
                 .setIssuer(issuer)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusMillis(expirationMs)))
                 .claim("userId", userId)
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(key, SignatureAlgorithm.HS256));
     }
 
     public String generateAccessToken(String userId, Role role){
         Instant now = Instant.now();
-        return Jwts.builder()
-                .setId(UUID.randomUUID().toString())
+        return issue(ACCESS, Jwts.builder()
+                .setId(newTokenId())
                 .setSubject(userId)
                 .setIssuer(issuer)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusMillis(expirationMs)))
                 .claim("userId", userId)
                 .claim("role", role.getCode())
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(key, SignatureAlgorithm.HS256));
     }
 
     public String generateAccessToken(UserDTO userDTO) {
         Instant now = Instant.now();
-        return Jwts.builder()
-                .setId(UUID.randomUUID().toString())
+        return issue(ACCESS, Jwts.builder()
+                .setId(newTokenId())
                 .setSubject(userDTO.id())
                 .setIssuer(issuer)
                 .setIssuedAt(Date.from(now))
@@ -82,15 +107,14 @@ public class JwtService {
                 .claim("lastName", userDTO.lastName())
                 .claim("documendType", userDTO.documentType())
                 .claim("documendId", userDTO.documentId())
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(key, SignatureAlgorithm.HS256));
     }
 
 
     public String generateAccessToken(UserAuthDTO user) {
         Instant now = Instant.now();
-        return Jwts.builder()
-                .setId(UUID.randomUUID().toString())
+        return issue(ACCESS, Jwts.builder()
+                .setId(newTokenId())
                 .setSubject(user.id())
                 .setIssuer(issuer)
                 .setIssuedAt(Date.from(now))
@@ -99,20 +123,40 @@ public class JwtService {
                 .claim("role", user.role())
                 .claim("firstName", user.firstName())
                 .claim("lastName", user.lastName())
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(key, SignatureAlgorithm.HS256));
     }
 
     public String generateRefreshToken(String userId) {
         Instant now = Instant.now();
-        return Jwts.builder()
-                .setId(UUID.randomUUID().toString())
+        return issue(REFRESH, Jwts.builder()
+                .setId(newTokenId())
                 .setSubject(userId)
                 .setIssuer(issuer)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusMillis(refreshExpirationMs)))
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(key, SignatureAlgorithm.HS256));
+    }
+
+    private String issue(String tokenType, JwtBuilder builder) {
+        TokenEvent event = new TokenEvent(TokenEvent.ISSUE, tokenType);
+        event.begin();
+        try {
+            return builder.compact();
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * @return A random (version 4) UUID drawn from {@link #tokenIdRandom}
+     */
+    private String newTokenId() {
+        byte[] bytes = new byte[16];
+        tokenIdRandom.nextBytes(bytes);
+        bytes[6] = (byte) ((bytes[6] & 0x0f) | 0x40);
+        bytes[8] = (byte) ((bytes[8] & 0x3f) | 0x80);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
     }
 
     public Jws<Claims> parseToken(String token) {
@@ -136,6 +180,18 @@ public class JwtService {
     }
 
     public Claims getTokenClaims(String token) {
+        TokenEvent event = new TokenEvent(TokenEvent.VERIFY, null);
+        event.begin();
+        try {
+            Claims claims = verify(token);
+            event.setValid(true);
+            return claims;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private Claims verify(String token) {
         if (token == null || token.trim().isEmpty()) {
             throw new JwtValidationException("Token cannot be null or empty");
         }
@@ -1,5 +1,6 @@
 package co.com.crediya.api;
 
+import co.com.crediya.api.jfr.RequestHandlingEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.server.RouterFunction;
@@ -7,6 +8,7 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 
 import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
 import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
 @Configuration
@@ -17,10 +19,16 @@ public class RouterRest {
                 .andRoute(POST("/api/auth/login"), handler::authenticateUser)
                 .andRoute(POST("/api/auth/validate-token"), handler::validateToken)
                 .andRoute(GET("/api/users"), handler::getAllUsers)
-                .andRoute(GET("/api/users/{id}"), handler::getUserById)
-                .andRoute(GET("/api/users/search"), handler::getUserByEmail)
+                .andRoute(GET("/api/users/changes"), handler::streamUserChanges)
+                // Fixed paths first, {id} would match them too
+                .andRoute(GET("/api/users/search").and(queryParam("email", email -> true)), handler::getUserByEmail)
+                .andRoute(GET("/api/users/search"), handler::searchUsers)
                 .andRoute(GET("/api/users/exists"), handler::checkUserExists)
+                .andRoute(GET("/api/users/exists/by-id"), handler::checkUserExistsByIdQuery)
+                .andRoute(GET("/api/users/stats"), handler::getUserStatistics)
+                .andRoute(GET("/api/users/{id}"), handler::getUserById)
+                .andRoute(GET("/api/users/{id}/activity"), handler::getUserActivity)
                 .andRoute(GET("/api/users/{id}/exists"), handler::checkUserExistsById)
-                .andRoute(GET("/api/users/exists/by-id"), handler::checkUserExistsByIdQuery);
+                .filter(RequestHandlingEvent.filter());
         }
 }
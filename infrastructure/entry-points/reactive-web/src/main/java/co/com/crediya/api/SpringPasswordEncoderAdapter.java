@@ -1,6 +1,8 @@
 package co.com.crediya.api;
 
 
+import co.com.crediya.api.health.PasswordHashingLoad;
+import co.com.crediya.api.jfr.PasswordHashingEvent;
 import co.com.crediya.model.user.gateways.PasswordEncoderService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import lombok.RequiredArgsConstructor;
@@ -11,14 +13,34 @@ import org.springframework.stereotype.Component;
 public class SpringPasswordEncoderAdapter implements PasswordEncoderService {
 
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingLoad hashingLoad;
 
     @Override
     public String encode(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        PasswordHashingEvent event = new PasswordHashingEvent(PasswordHashingEvent.ENCODE);
+        event.begin();
+        try {
+            return hashingLoad.measure(() -> passwordEncoder.encode(rawPassword));
+        } finally {
+            event.commit();
+        }
     }
 
     @Override
     public boolean matches(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        PasswordHashingEvent event = new PasswordHashingEvent(PasswordHashingEvent.VERIFY);
+        event.begin();
+        try {
+            boolean matched = hashingLoad.measure(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+            event.setMatched(matched);
+            return matched;
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
     }
 }
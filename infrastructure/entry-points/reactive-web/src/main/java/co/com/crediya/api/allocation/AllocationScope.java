@@ -0,0 +1,19 @@
+package co.com.crediya.api.allocation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bytes allocated on behalf of one sampled request, summed over every thread it ran on
+ */
+final class AllocationScope {
+
+    private final LongAdder bytes = new LongAdder();
+
+    void add(long allocated) {
+        bytes.add(allocated);
+    }
+
+    long bytes() {
+        return bytes.sum();
+    }
+}
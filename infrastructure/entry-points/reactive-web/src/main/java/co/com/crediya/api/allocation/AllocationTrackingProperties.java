@@ -0,0 +1,24 @@
+package co.com.crediya.api.allocation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param sampleRate Fraction of requests, between 0 and 1, whose allocations are measured
+ * @param headerSampling Also measure any request that sends {@code X-Allocation-Sample: true}; lets any caller
+ *                       add the tracking overhead, so only for test environments
+ */
+@ConfigurationProperties(prefix = "allocation-tracking")
+public record AllocationTrackingProperties(
+        Boolean enabled,
+        Double sampleRate,
+        Boolean headerSampling) {
+
+    public AllocationTrackingProperties {
+        enabled = enabled != null ? enabled : Boolean.FALSE;
+        sampleRate = sampleRate != null ? sampleRate : 0.01;
+        headerSampling = headerSampling != null ? headerSampling : Boolean.FALSE;
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("allocation-tracking.sample-rate must be between 0 and 1");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package co.com.crediya.api.allocation;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records the bytes allocated by a sample of requests as {@code http.server.requests.allocated}, tagged by
+ * method and route, from the first filter to the last byte written. Runs before every other filter so
+ * security, (de)serialization and {@code ApiResponse} wrapping are included.
+ * See {@link ThreadAllocationTracker} for how work on other threads is attributed.
+ * Passes every request through untouched unless {@code allocation-tracking.enabled} is set at startup.
+ */
+@Slf4j
+@Component
+@Order(-300)
+public class AllocationTrackingWebFilter implements WebFilter, SmartLifecycle {
+
+    static final String SAMPLE_HEADER = "X-Allocation-Sample";
+    private static final String METRIC = "http.server.requests.allocated";
+
+    private final AllocationTrackingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean running;
+
+    public AllocationTrackingWebFilter(AllocationTrackingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!running || !sampled(exchange)) {
+            return chain.filter(exchange);
+        }
+        AllocationScope scope = new AllocationScope();
+        return ThreadAllocationTracker.track(scope, () -> chain.filter(exchange))
+                .doFinally(signal -> record(exchange, ThreadAllocationTracker.allocatedBy(scope)));
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (!ThreadAllocationTracker.isSupported()) {
+            log.warn("Per-thread allocation counters are not available in this JVM, allocation tracking is off");
+            return;
+        }
+        ThreadAllocationTracker.install();
+        running = true;
+        log.info("Tracking allocations of {}% of requests", properties.sampleRate() * 100);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ThreadAllocationTracker.uninstall();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private boolean sampled(ServerWebExchange exchange) {
+        if (properties.headerSampling() && "true".equals(exchange.getRequest().getHeaders().getFirst(SAMPLE_HEADER))) {
+            return true;
+        }
+        double rate = properties.sampleRate();
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void record(ServerWebExchange exchange, long bytes) {
+        Object route = exchange.getAttribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC)
+                .description("Bytes allocated while handling a sampled request, on every thread it ran on")
+                .baseUnit("bytes")
+                .tag("method", exchange.getRequest().getMethod().name())
+                .tag("uri", route != null ? route.toString() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(64.0 * 1024 * 1024)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+}
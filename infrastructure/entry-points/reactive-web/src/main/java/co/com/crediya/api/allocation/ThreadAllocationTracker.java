@@ -0,0 +1,209 @@
+package co.com.crediya.api.allocation;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Attributes the bytes each thread allocates to the request it is working for, across every reactive hop.
+ * <p>
+ * A request runs as short segments on whatever thread delivers its next signal: the event loop that read the
+ * body, the connection's event loop that decoded the rows, a scheduler worker. Every operator assembled while a
+ * tracked request is running on the current thread is wrapped, and each signal through a wrapper (subscribe,
+ * request, next, error, complete, cancel) is bracketed with the thread's allocation counter, so the request is
+ * charged exactly for the time its code held the thread. Nested brackets on the same thread count once.
+ * <p>
+ * Operators assembled outside a tracked request, including every operator of unsampled requests, are left
+ * alone; while installed, the only cost for them is one thread-local read per assembled operator.
+ * The brackets themselves allocate nothing; the wrapper for each subscription is charged to the request.
+ */
+final class ThreadAllocationTracker {
+
+    static final String HOOK_KEY = "allocation-tracking";
+    private static final Class<AllocationScope> CONTEXT_KEY = AllocationScope.class;
+    private static final ThreadLocal<Segment> SEGMENT = ThreadLocal.withInitial(Segment::new);
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private static final Function<? super Publisher<Object>, ? extends Publisher<Object>> LIFT =
+            Operators.<Object, Object>liftPublisher((publisher, subscriber) -> {
+                AllocationScope scope = subscriber.currentContext().getOrDefault(CONTEXT_KEY, null);
+                if (scope == null) {
+                    return subscriber;
+                }
+                return new TrackingSubscriber<>(subscriber, scope);
+            });
+
+    private ThreadAllocationTracker() {
+    }
+
+    /**
+     * @return false when this JVM cannot count allocations per thread, e.g. a native image
+     */
+    static boolean isSupported() {
+        if (THREADS == null || !THREADS.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        if (!THREADS.isThreadAllocatedMemoryEnabled()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        return true;
+    }
+
+    static void install() {
+        Hooks.onEachOperator(HOOK_KEY, ThreadAllocationTracker::liftInScope);
+    }
+
+    static void uninstall() {
+        Hooks.resetOnEachOperator(HOOK_KEY);
+    }
+
+    /**
+     * Charges to the scope everything allocated while assembling and subscribing to the work, and in every
+     * operator assembled on its behalf afterwards
+     */
+    static <T> Mono<T> track(AllocationScope scope, Supplier<Mono<T>> work) {
+        Publisher<T> bracketed = subscriber -> {
+            Segment segment = enter(scope);
+            try {
+                work.get().subscribe(subscriber);
+            } finally {
+                exit(segment);
+            }
+        };
+        return Mono.fromDirect(bracketed).contextWrite(Context.of(CONTEXT_KEY, scope));
+    }
+
+    /**
+     * @return Bytes charged to the scope, including the segment still open on this thread, if it is the scope's
+     */
+    static long allocatedBy(AllocationScope scope) {
+        Segment segment = SEGMENT.get();
+        long open = segment.owner == scope ? allocatedBytes() - segment.start : 0;
+        return scope.bytes() + open;
+    }
+
+    private static Publisher<Object> liftInScope(Publisher<Object> publisher) {
+        return SEGMENT.get().depth > 0 ? LIFT.apply(publisher) : publisher;
+    }
+
+    private static Segment enter(AllocationScope scope) {
+        Segment segment = SEGMENT.get();
+        if (segment.depth++ == 0) {
+            segment.owner = scope;
+            segment.start = allocatedBytes();
+        }
+        return segment;
+    }
+
+    private static void exit(Segment segment) {
+        if (--segment.depth == 0) {
+            segment.owner.add(allocatedBytes() - segment.start);
+            segment.owner = null;
+        }
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads instanceof com.sun.management.ThreadMXBean allocating ? allocating : null;
+    }
+
+    /**
+     * The request running on a thread right now; only touched by that thread
+     */
+    private static final class Segment {
+        private AllocationScope owner;
+        private int depth;
+        private long start;
+    }
+
+    private static final class TrackingSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+        private final CoreSubscriber<? super T> actual;
+        private final AllocationScope scope;
+        private Subscription upstream;
+
+        private TrackingSubscriber(CoreSubscriber<? super T> actual, AllocationScope scope) {
+            this.actual = actual;
+            this.scope = scope;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            upstream = subscription;
+            Segment segment = enter(scope);
+            try {
+                actual.onSubscribe(this);
+            } finally {
+                exit(segment);
+            }
+        }
+
+        @Override
+        public void onNext(T value) {
+            Segment segment = enter(scope);
+            try {
+                actual.onNext(value);
+            } finally {
+                exit(segment);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            Segment segment = enter(scope);
+            try {
+                actual.onError(error);
+            } finally {
+                exit(segment);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            Segment segment = enter(scope);
+            try {
+                actual.onComplete();
+            } finally {
+                exit(segment);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            Segment segment = enter(scope);
+            try {
+                upstream.request(n);
+            } finally {
+                exit(segment);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            Segment segment = enter(scope);
+            try {
+                upstream.cancel();
+            } finally {
+                exit(segment);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package co.com.crediya.api.bulkhead;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Gradient concurrency limit: compares the average RTT of each window against the no-load RTT
+ * (the lowest window average seen) and scales the limit by their ratio.
+ * <pre>
+ *   gradient = clamp(tolerance * noLoadRtt / rtt, 0.5, 1.0)
+ *   estimate = limit * gradient + sqrt(limit)
+ *   limit    = limit * (1 - smoothing) + estimate * smoothing
+ * </pre>
+ * The {@code sqrt(limit)} term leaves room to probe for more capacity while latency is flat. The limit
+ * does not grow in windows where fewer than half the permits were used, so an idle route does not
+ * inflate its limit. Every {@code baseline-reset-windows} windows the no-load RTT is replaced by the
+ * lowest window average of that period, so it follows slow drift without adopting a loaded RTT.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final AdaptiveConcurrencyProperties properties;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicLong windowEnd;
+    private final long windowNanos;
+
+    private volatile double limit;
+    private volatile long noLoadRttNanos;
+    private int windowsSinceBaseline;
+    private long periodMinRttNanos = Long.MAX_VALUE;
+
+    public AdaptiveConcurrencyLimiter(AdaptiveConcurrencyProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(AdaptiveConcurrencyProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.limit = properties.initialLimit();
+        this.windowNanos = properties.window().toNanos();
+        this.windowEnd = new AtomicLong(nanoClock.getAsLong() + windowNanos);
+    }
+
+    /**
+     * @return Permit to release once the request completes, {@link Permit#REJECTED} if the request must be rejected
+     */
+    public Permit tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return Permit.REJECTED;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+        return new Permit(this, nanoClock.getAsLong());
+    }
+
+    private void release(long startNanos, boolean sample) {
+        inFlight.decrementAndGet();
+        long now = nanoClock.getAsLong();
+        if (sample) {
+            windowRttSum.add(now - startNanos);
+            windowSamples.increment();
+        }
+        long end = windowEnd.get();
+        if (now >= end && windowEnd.compareAndSet(end, now + windowNanos)) {
+            closeWindow();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getNoLoadRttNanos() {
+        return noLoadRttNanos;
+    }
+
+    /** Only ever runs on the thread that won the window CAS */
+    private void closeWindow() {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        if (samples < properties.minWindowSamples()) {
+            // Too few samples to judge; keep them for the next window
+            windowSamples.add(samples);
+            windowRttSum.add(rttSum);
+            return;
+        }
+
+        long rtt = Math.max(1, rttSum / samples);
+        periodMinRttNanos = Math.min(periodMinRttNanos, rtt);
+        if (++windowsSinceBaseline >= properties.baselineResetWindows()) {
+            windowsSinceBaseline = 0;
+            noLoadRttNanos = periodMinRttNanos;
+            periodMinRttNanos = Long.MAX_VALUE;
+        } else if (noLoadRttNanos == 0 || rtt < noLoadRttNanos) {
+            noLoadRttNanos = rtt;
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, properties.tolerance() * noLoadRttNanos / rtt));
+        double estimate = current * gradient + Math.sqrt(current);
+        if (estimate > current && maxInFlight < current / 2) {
+            return;
+        }
+        double smoothed = current * (1 - properties.smoothing()) + estimate * properties.smoothing();
+        limit = Math.max(properties.minLimit(), Math.min(properties.maxLimit(), smoothed));
+    }
+
+    /**
+     * Admission of one request. Holds the start time in a field of its own, since any
+     * {@code nanoTime} value, negative ones included, is a valid start time.
+     */
+    public static final class Permit {
+
+        public static final Permit REJECTED = new Permit(null, 0);
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long startNanos;
+
+        private Permit(AdaptiveConcurrencyLimiter limiter, long startNanos) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+        }
+
+        public boolean isAdmitted() {
+            return limiter != null;
+        }
+
+        /**
+         * @param sample false when the RTT must not be used, e.g. the client cancelled
+         */
+        public void release(boolean sample) {
+            if (limiter != null) {
+                limiter.release(startNanos, sample);
+            }
+        }
+
+        long startNanos() {
+            return startNanos;
+        }
+    }
+}
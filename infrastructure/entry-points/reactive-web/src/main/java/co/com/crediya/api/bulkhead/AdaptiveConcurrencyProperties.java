@@ -0,0 +1,36 @@
+package co.com.crediya.api.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param tolerance How many times the no-load RTT is accepted before the limit shrinks
+ * @param smoothing Weight of each new estimate in the limit, from 0 to 1
+ * @param window Interval over which RTT samples are averaged before the limit is recomputed
+ * @param baselineResetWindows Windows after which the no-load RTT is re-measured, so it follows slow drift
+ */
+@ConfigurationProperties(prefix = "adaptive-concurrency")
+public record AdaptiveConcurrencyProperties(
+        Boolean enabled,
+        Integer initialLimit,
+        Integer minLimit,
+        Integer maxLimit,
+        Double tolerance,
+        Double smoothing,
+        Duration window,
+        Integer minWindowSamples,
+        Integer baselineResetWindows) {
+
+    public AdaptiveConcurrencyProperties {
+        enabled = enabled != null ? enabled : Boolean.TRUE;
+        initialLimit = initialLimit != null ? initialLimit : 50;
+        minLimit = minLimit != null ? minLimit : 10;
+        maxLimit = maxLimit != null ? maxLimit : 2000;
+        tolerance = tolerance != null ? tolerance : 2.0;
+        smoothing = smoothing != null ? smoothing : 0.2;
+        window = window != null ? window : Duration.ofMillis(100);
+        minWindowSamples = minWindowSamples != null ? minWindowSamples : 10;
+        baselineResetWindows = baselineResetWindows != null ? baselineResetWindows : 600;
+    }
+}
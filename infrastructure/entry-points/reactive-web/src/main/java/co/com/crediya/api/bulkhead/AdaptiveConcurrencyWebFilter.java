@@ -0,0 +1,81 @@
+package co.com.crediya.api.bulkhead;
+
+import co.com.crediya.model.common.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sheds load before any other work: each route group (priority class) has an
+ * {@link AdaptiveConcurrencyLimiter} and requests over its current limit get the pre-encoded 503.
+ * The fixed bulkheads behind it still isolate the classes from each other.
+ */
+@Component
+@Order(-250)
+public class AdaptiveConcurrencyWebFilter implements WebFilter {
+
+    private final RequestPriorityClassifier classifier;
+    private final boolean enabled;
+    private final Map<RequestPriority, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> droppedCounters = new EnumMap<>(RequestPriority.class);
+
+    public AdaptiveConcurrencyWebFilter(RequestPriorityClassifier classifier,
+                                        AdaptiveConcurrencyProperties properties,
+                                        MeterRegistry meterRegistry) {
+        this.classifier = classifier;
+        this.enabled = properties.enabled();
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+            limiters.put(priority, limiter);
+
+            String group = priority.name().toLowerCase();
+            Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive in-flight request limit")
+                    .tag("group", group)
+                    .register(meterRegistry);
+            Gauge.builder("concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("group", group)
+                    .register(meterRegistry);
+            Gauge.builder("concurrency.rtt.noload", limiter, l -> l.getNoLoadRttNanos() / 1e9)
+                    .baseUnit("seconds")
+                    .tag("group", group)
+                    .register(meterRegistry);
+            droppedCounters.put(priority, Counter.builder("concurrency.dropped")
+                    .description("Requests rejected because the adaptive limit was reached")
+                    .tag("group", group)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!enabled || classifier.isUnlimited(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        RequestPriority priority = classifier.classify(exchange);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(priority);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        if (!permit.isAdmitted()) {
+            droppedCounters.get(priority).increment();
+            return OverloadedResponse.write(exchange.getResponse());
+        }
+
+        // Cancelled requests and requests shed further down say nothing about service latency
+        return chain.filter(exchange)
+                .doFinally(signal -> permit.release(signal != SignalType.CANCEL
+                        && exchange.getResponse().getStatusCode() != HttpStatus.SERVICE_UNAVAILABLE));
+    }
+}
@@ -0,0 +1,45 @@
+package co.com.crediya.api.bulkhead;
+
+import co.com.crediya.model.common.RequestPriority;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "bulkheads")
+public record BulkheadProperties(
+        Boolean enabled,
+        Map<RequestPriority, Limits> classes) {
+
+    /**
+     * @param maxConcurrent Requests of the class processed at the same time
+     * @param maxQueued Requests of the class allowed to wait for a slot
+     * @param queueTimeout How long a request may wait for a slot before being rejected
+     */
+    public record Limits(Integer maxConcurrent, Integer maxQueued, Duration queueTimeout) {
+    }
+
+    private static final Map<RequestPriority, Limits> DEFAULTS = Map.of(
+            RequestPriority.AUTH_CRITICAL, new Limits(512, 1024, Duration.ofSeconds(2)),
+            RequestPriority.LOOKUP, new Limits(256, 512, Duration.ofSeconds(1)),
+            RequestPriority.BULK, new Limits(16, 16, Duration.ofMillis(500)));
+
+    public BulkheadProperties {
+        enabled = enabled != null ? enabled : Boolean.TRUE;
+        Map<RequestPriority, Limits> resolved = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : RequestPriority.values()) {
+            Limits fallback = DEFAULTS.get(priority);
+            Limits configured = classes != null ? classes.get(priority) : null;
+            resolved.put(priority, configured == null ? fallback : new Limits(
+                    configured.maxConcurrent() != null ? configured.maxConcurrent() : fallback.maxConcurrent(),
+                    configured.maxQueued() != null ? configured.maxQueued() : fallback.maxQueued(),
+                    configured.queueTimeout() != null ? configured.queueTimeout() : fallback.queueTimeout()));
+        }
+        classes = Map.copyOf(resolved);
+    }
+
+    public Limits limits(RequestPriority priority) {
+        return classes.get(priority);
+    }
+}
@@ -0,0 +1,78 @@
+package co.com.crediya.api.bulkhead;
+
+import co.com.crediya.model.common.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admits each request through the bulkhead of its priority class and stores the class in the
+ * Reactor context, where the R2DBC layer picks the matching connection sub-pool.
+ * Runs before the security chain so rejected requests cost no token verification.
+ */
+@Slf4j
+@Component
+@Order(-200)
+public class BulkheadWebFilter implements WebFilter {
+
+    private final RequestPriorityClassifier classifier;
+    private final boolean enabled;
+    private final Map<RequestPriority, ReactiveBulkhead> bulkheads = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> queueFullCounters = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> timeoutCounters = new EnumMap<>(RequestPriority.class);
+
+    public BulkheadWebFilter(RequestPriorityClassifier classifier,
+                             BulkheadProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.classifier = classifier;
+        this.enabled = properties.enabled();
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            BulkheadProperties.Limits limits = properties.limits(priority);
+            ReactiveBulkhead bulkhead = new ReactiveBulkhead(
+                    limits.maxConcurrent(), limits.maxQueued(), limits.queueTimeout());
+            bulkheads.put(priority, bulkhead);
+
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("bulkhead.active", bulkhead, ReactiveBulkhead::activeCount)
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.queued", bulkhead, ReactiveBulkhead::queuedCount)
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            queueFullCounters.put(priority, Counter.builder("bulkhead.rejected")
+                    .tag("class", tag).tag("reason", "queue_full")
+                    .register(meterRegistry));
+            timeoutCounters.put(priority, Counter.builder("bulkhead.rejected")
+                    .tag("class", tag).tag("reason", "timeout")
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RequestPriority priority = classifier.classify(exchange);
+        Mono<Void> work = chain.filter(exchange)
+                .contextWrite(context -> context.put(RequestPriority.CONTEXT_KEY, priority));
+        if (!enabled || classifier.isUnlimited(exchange)) {
+            return work;
+        }
+
+        return bulkheads.get(priority).execute(work)
+                .onErrorResume(ReactiveBulkhead.RejectedException.class, error -> {
+                    (error.queueFull() ? queueFullCounters : timeoutCounters).get(priority).increment();
+                    log.debug("Rejected {} request {}: {}", priority, exchange.getRequest().getPath(), error.getMessage());
+                    return OverloadedResponse.write(exchange.getResponse());
+                });
+    }
+}
@@ -0,0 +1,41 @@
+package co.com.crediya.api.bulkhead;
+
+import co.com.crediya.model.common.RequestPriority;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * @param header Request header in which callers send their remaining budget, in milliseconds
+ * @param maxTimeout Upper bound for budgets sent by callers
+ * @param defaults Budget of each priority class when the caller sends none
+ */
+@ConfigurationProperties(prefix = "deadlines")
+public record DeadlineProperties(
+        Boolean enabled,
+        String header,
+        Duration maxTimeout,
+        Map<RequestPriority, Duration> defaults) {
+
+    private static final Map<RequestPriority, Duration> DEFAULTS = Map.of(
+            RequestPriority.AUTH_CRITICAL, Duration.ofSeconds(2),
+            RequestPriority.LOOKUP, Duration.ofSeconds(1),
+            RequestPriority.BULK, Duration.ofSeconds(30));
+
+    public DeadlineProperties {
+        enabled = enabled != null ? enabled : Boolean.TRUE;
+        header = header != null ? header : "X-Request-Timeout";
+        maxTimeout = maxTimeout != null ? maxTimeout : Duration.ofSeconds(30);
+        Map<RequestPriority, Duration> resolved = new EnumMap<>(DEFAULTS);
+        if (defaults != null) {
+            resolved.putAll(defaults);
+        }
+        defaults = Map.copyOf(resolved);
+    }
+
+    public Duration defaultTimeout(RequestPriority priority) {
+        return defaults.get(priority);
+    }
+}
@@ -0,0 +1,121 @@
+package co.com.crediya.api.bulkhead;
+
+import co.com.crediya.model.common.Deadline;
+import co.com.crediya.model.common.DeadlineStage;
+import co.com.crediya.model.common.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Gives every request a deadline, taken from the caller's budget header or from the default of its
+ * priority class, and stores it in the Reactor context so later steps can skip work nobody waits for.
+ * When the deadline passes the chain is cancelled, which releases the bulkhead slot and abandons any
+ * pending query, and the client gets a 504. Runs before the bulkheads so queueing time counts.
+ * Deadlines hit by a step inside the request are counted by the handler that maps them to a 504,
+ * with the same metric and a {@link DeadlineStage} tag; this filter counts the {@code response} stage.
+ */
+@Slf4j
+@Component
+@Order(-230)
+public class DeadlineWebFilter implements WebFilter {
+
+    public static final String EXCEEDED_METRIC = "deadline.exceeded";
+
+    private static final byte[] TIMEOUT_BODY =
+            "{\"success\":false,\"message\":\"Request deadline exceeded\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RequestPriorityClassifier classifier;
+    private final DeadlineProperties properties;
+    private final Counter exceededCounter;
+    private final Counter abandonedCounter;
+    private final Timer timedOutWork;
+    private final Timer abandonedWork;
+
+    public DeadlineWebFilter(RequestPriorityClassifier classifier,
+                             DeadlineProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.classifier = classifier;
+        this.properties = properties;
+        this.exceededCounter = Counter.builder(EXCEEDED_METRIC)
+                .description("Requests that gave up because their deadline had passed, by stage")
+                .tag("stage", DeadlineStage.RESPONSE.tag())
+                .register(meterRegistry);
+        this.abandonedCounter = Counter.builder("deadline.abandoned")
+                .description("Requests cancelled because the client went away")
+                .register(meterRegistry);
+        this.timedOutWork = Timer.builder("deadline.work.wasted")
+                .description("Time spent on requests whose result was thrown away")
+                .tag("reason", "deadline")
+                .register(meterRegistry);
+        this.abandonedWork = Timer.builder("deadline.work.wasted")
+                .description("Time spent on requests whose result was thrown away")
+                .tag("reason", "client_cancelled")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.enabled() || classifier.isUnlimited(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        Duration timeout = timeoutOf(exchange);
+        Deadline deadline = Deadline.after(timeout);
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, deadline))
+                .timeout(timeout, Mono.defer(() -> {
+                    exceededCounter.increment();
+                    timedOutWork.record(Duration.ofNanos(System.nanoTime() - start));
+                    log.debug("Deadline of {} exceeded for {}", timeout, exchange.getRequest().getPath());
+                    return writeTimeout(exchange.getResponse());
+                }))
+                .doOnCancel(() -> {
+                    abandonedCounter.increment();
+                    abandonedWork.record(Duration.ofNanos(System.nanoTime() - start));
+                });
+    }
+
+    /**
+     * @return Budget sent by the caller, capped at the maximum, or the default of the request class
+     */
+    private Duration timeoutOf(ServerWebExchange exchange) {
+        String budget = exchange.getRequest().getHeaders().getFirst(properties.header());
+        if (budget != null) {
+            try {
+                long millis = Long.parseLong(budget.trim());
+                if (millis > 0) {
+                    Duration requested = Duration.ofMillis(millis);
+                    return requested.compareTo(properties.maxTimeout()) < 0 ? requested : properties.maxTimeout();
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring invalid {} header: {}", properties.header(), budget);
+            }
+        }
+        return properties.defaultTimeout(classifier.classify(exchange));
+    }
+
+    private static Mono<Void> writeTimeout(ServerHttpResponse response) {
+        if (response.isCommitted()) {
+            // Part of the body is already out, all that can be done is to stop
+            return Mono.empty();
+        }
+        response.setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(TIMEOUT_BODY)));
+    }
+}
@@ -0,0 +1,28 @@
+package co.com.crediya.api.bulkhead;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 503 written by the overload filters. The body is encoded once, so shedding a request
+ * costs no serialization.
+ */
+final class OverloadedResponse {
+
+    private static final byte[] BODY =
+            "{\"success\":false,\"message\":\"Service is overloaded, retry later\"}".getBytes(StandardCharsets.UTF_8);
+
+    private OverloadedResponse() {
+    }
+
+    static Mono<Void> write(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set("Retry-After", "1");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY)));
+    }
+}
@@ -0,0 +1,125 @@
+package co.com.crediya.api.bulkhead;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking semaphore with a bounded FIFO wait queue and a wait timeout.
+ * A released slot is handed directly to the oldest waiter still interested in it.
+ */
+public class ReactiveBulkhead {
+
+    /** Signals that the request was not admitted; {@link #queueFull()} tells why */
+    public static final class RejectedException extends RuntimeException {
+        private final boolean queueFull;
+
+        RejectedException(boolean queueFull) {
+            super(queueFull ? "Bulkhead queue is full" : "Timed out waiting for a bulkhead slot", null, false, false);
+            this.queueFull = queueFull;
+        }
+
+        public boolean queueFull() {
+            return queueFull;
+        }
+    }
+
+    private enum State { WAITING, GRANTED, CANCELLED }
+
+    private record Waiter(MonoSink<Void> sink, AtomicReference<State> state) {
+    }
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    public ReactiveBulkhead(int maxConcurrent, int maxQueued, Duration queueTimeout) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueTimeout = queueTimeout;
+    }
+
+    /**
+     * Runs the given work once a slot is free, releasing it when the work terminates or is cancelled.
+     * The slot is requested on each subscription, so an unsubscribed or retried Mono never holds one
+     * @param work Work to protect
+     * @return Mono failing with {@link RejectedException} if the request is not admitted
+     */
+    public Mono<Void> execute(Mono<Void> work) {
+        return Mono.usingWhen(Mono.defer(this::acquire), ignored -> work,
+                ignored -> release(), (ignored, error) -> release(), ignored -> release());
+    }
+
+    public int activeCount() {
+        return active.get();
+    }
+
+    public int queuedCount() {
+        return queued.get();
+    }
+
+    private Mono<Boolean> acquire() {
+        if (waiters.isEmpty() && tryTakeSlot()) {
+            return Mono.just(Boolean.TRUE);
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return Mono.error(new RejectedException(true));
+        }
+
+        return Mono.<Void>create(sink -> {
+                    Waiter waiter = new Waiter(sink, new AtomicReference<>(State.WAITING));
+                    sink.onCancel(() -> {
+                        if (waiter.state().compareAndSet(State.WAITING, State.CANCELLED)) {
+                            queued.decrementAndGet();
+                            waiters.remove(waiter);
+                        } else if (waiter.state().get() == State.GRANTED) {
+                            // Granted concurrently with the timeout; the slot was never used
+                            release().subscribe();
+                        }
+                    });
+                    waiters.offer(waiter);
+                    drain();
+                })
+                .timeout(queueTimeout, Mono.error(() -> new RejectedException(false)))
+                .thenReturn(Boolean.TRUE);
+    }
+
+    private Mono<Void> release() {
+        return Mono.fromRunnable(() -> {
+            active.decrementAndGet();
+            drain();
+        });
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty() && tryTakeSlot()) {
+            Waiter waiter = waiters.poll();
+            if (waiter != null && waiter.state().compareAndSet(State.WAITING, State.GRANTED)) {
+                queued.decrementAndGet();
+                waiter.sink().success();
+            } else {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean tryTakeSlot() {
+        int current;
+        do {
+            current = active.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+        } while (!active.compareAndSet(current, current + 1));
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+package co.com.crediya.api.bulkhead;
+
+import co.com.crediya.model.common.RequestPriority;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+
+/**
+ * Maps the routes declared in {@code RouterRest} to priority classes. Keep both in sync when adding routes;
+ * anything not listed is treated as a lookup.
+ */
+@Component
+public class RequestPriorityClassifier {
+
+    private static final PathPatternParser PARSER = PathPatternParser.defaultInstance;
+
+    private record Rule(HttpMethod method, PathPattern pattern, RequestPriority priority) {
+        boolean matches(HttpMethod requestMethod, PathContainer path) {
+            return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+        }
+    }
+
+    private static final List<Rule> RULES = List.of(
+            rule(HttpMethod.POST, "/api/auth/**", RequestPriority.AUTH_CRITICAL),
+            rule(HttpMethod.POST, "/api/users", RequestPriority.BULK),
+            rule(HttpMethod.GET, "/api/users", RequestPriority.BULK),
+            rule(HttpMethod.GET, "/api/users/changes", RequestPriority.BULK),
+            rule(null, "/api/**", RequestPriority.LOOKUP));
+
+    /** Long-lived streams are tagged for connection routing but do not hold a concurrency slot */
+    private static final List<PathPattern> UNLIMITED = List.of(
+            PARSER.parse("/api/users/changes"),
+            PARSER.parse("/actuator/**"),
+            PARSER.parse("/rsocket"));
+
+    /**
+     * @return Priority class of the request, LOOKUP when no rule matches
+     */
+    public RequestPriority classify(ServerWebExchange exchange) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        HttpMethod method = exchange.getRequest().getMethod();
+        return RULES.stream()
+                .filter(rule -> rule.matches(method, path))
+                .map(Rule::priority)
+                .findFirst()
+                .orElse(RequestPriority.LOOKUP);
+    }
+
+    /**
+     * @return true if the request must not take a concurrency slot of its class
+     */
+    public boolean isUnlimited(ServerWebExchange exchange) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        return UNLIMITED.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    private static Rule rule(HttpMethod method, String pattern, RequestPriority priority) {
+        return new Rule(method, PARSER.parse(pattern), priority);
+    }
+}
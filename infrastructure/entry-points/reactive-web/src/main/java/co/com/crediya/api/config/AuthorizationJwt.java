@@ -1,6 +1,7 @@
 package co.com.crediya.api.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,6 +10,7 @@ import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
@@ -20,9 +22,10 @@ import org.springframework.web.reactive.config.WebFluxConfigurer;
 import reactor.core.publisher.Mono;
 import org.springframework.http.HttpMethod;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.crypto.spec.SecretKeySpec;
 
@@ -41,6 +44,10 @@ public class AuthorizationJwt implements WebFluxConfigurer {
     private final boolean localAuthEnabled;
     private final String jwtSecret;
     private final ObjectMapper mapper;
+    private final JwtDecoderCacheProperties decoderCacheProperties;
+    private final MeterRegistry meterRegistry;
+    /** Authorities are immutable and depend only on the role, so every token with the same role shares them */
+    private final Map<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
     
     private static final String ROLE = "ROLE_";
     private static final String AZP = "azp";
@@ -50,13 +57,17 @@ public class AuthorizationJwt implements WebFluxConfigurer {
                          @Value("${jwt.json-exp-roles}") String jsonExpRoles,
                          @Value("${jwt.local-auth.enabled:false}") boolean localAuthEnabled,
                          @Value("${spring.security.oauth2.resourceserver.jwt.secret}") String jwtSecret,
-                         ObjectMapper mapper) {
+                         ObjectMapper mapper,
+                         JwtDecoderCacheProperties decoderCacheProperties,
+                         MeterRegistry meterRegistry) {
         this.issuerUri = issuerUri;
         this.clientId = clientId;
         this.jsonExpRoles = jsonExpRoles;
         this.localAuthEnabled = localAuthEnabled;
         this.jwtSecret = jwtSecret;
         this.mapper = mapper;
+        this.decoderCacheProperties = decoderCacheProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -72,9 +83,15 @@ public class AuthorizationJwt implements WebFluxConfigurer {
                 .pathMatchers(HttpMethod.GET, "/api/users/{id}/exists").permitAll()
                 .pathMatchers(HttpMethod.GET, "/api/users/exists/by-id").permitAll()
                 .pathMatchers("/h2/**").permitAll()
+                .pathMatchers("/actuator/startup").hasRole("ADMIN")
+                .pathMatchers("/actuator/jfr/**").hasRole("ADMIN")
                 .pathMatchers("/actuator/**").permitAll()
+                // RSocket over WebSocket authenticates each payload, see RSocketSecurityConfig
+                .pathMatchers(HttpMethod.GET, "/rsocket").permitAll()
 
                 .pathMatchers(HttpMethod.DELETE, "/api/users/**").hasRole("ADMIN")
+                .pathMatchers(HttpMethod.GET, "/api/users/{id}/activity").hasRole("ADMIN")
+                .pathMatchers(HttpMethod.GET, "/api/users/stats").hasRole("ADMIN")
 
                 .pathMatchers(HttpMethod.GET, "/api/users/**").hasAnyRole("USER", "ADMIN")
 
@@ -92,22 +109,34 @@ public class AuthorizationJwt implements WebFluxConfigurer {
 
     @Bean
     public ReactiveJwtDecoder jwtDecoder() {
-        return NimbusReactiveJwtDecoder.withSecretKey(
+        ReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withSecretKey(
             new SecretKeySpec(jwtSecret.getBytes(), "HmacSHA256")
         ).build();
+        if (!decoderCacheProperties.enabled()) {
+            return decoder;
+        }
+        return new CachingReactiveJwtDecoder(decoder, decoderCacheProperties, meterRegistry);
     }
 
     public Converter<Jwt, Mono<AbstractAuthenticationToken>> grantedAuthoritiesExtractor() {
         var jwtConverter = new JwtAuthenticationConverter();
-        jwtConverter.setJwtGrantedAuthoritiesConverter(jwt ->
-                getRoles(jwt.getClaims(), jsonExpRoles)
-                .stream()
-                .map(ROLE::concat)
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList()));
+        jwtConverter.setJwtGrantedAuthoritiesConverter(jwt -> authoritiesOf(getRoles(jwt.getClaims(), jsonExpRoles)));
         return new ReactiveJwtAuthenticationConverterAdapter(jwtConverter);
     }
 
+    private Collection<GrantedAuthority> authoritiesOf(List<String> roles) {
+        if (roles.isEmpty()) {
+            return List.of();
+        }
+        if (roles.size() == 1) {
+            return authoritiesByRole.computeIfAbsent(roles.get(0),
+                    role -> List.of(new SimpleGrantedAuthority(ROLE.concat(role))));
+        }
+        return roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(ROLE.concat(role)))
+                .toList();
+    }
+
     private List<String> getRoles(Map<String, Object> claims, String jsonExpClaim) {
         Object role = claims.get("role");
         if (role == null) {
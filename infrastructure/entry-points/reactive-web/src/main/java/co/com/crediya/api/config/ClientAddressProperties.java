@@ -0,0 +1,20 @@
+package co.com.crediya.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param trustedProxies Proxies in front of the service that append to X-Forwarded-For.
+ *                       The client address is the hop appended by the outermost of them;
+ *                       0 ignores the header and uses the peer address.
+ */
+@ConfigurationProperties(prefix = "client-address")
+public record ClientAddressProperties(
+        Integer trustedProxies) {
+
+    public ClientAddressProperties {
+        trustedProxies = trustedProxies != null ? trustedProxies : 1;
+        if (trustedProxies < 0) {
+            throw new IllegalArgumentException("client-address.trusted-proxies cannot be negative");
+        }
+    }
+}
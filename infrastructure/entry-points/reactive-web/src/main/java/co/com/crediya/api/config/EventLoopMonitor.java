@@ -0,0 +1,239 @@
+package co.com.crediya.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.concurrent.EventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NativeDetector;
+import org.springframework.stereotype.Component;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Detects work that blocks the HTTP event loops without failing any request.
+ * <p>
+ * Every {@code probe-interval} a no-op task is submitted to each event loop and the delay until it runs
+ * is recorded as {@code eventloop.lag}, tagged by loop; delays over {@code lag-warn-threshold} are logged.
+ * A loop that has not run its previous probe yet is not probed again, so a stuck loop reports one long lag.
+ * <p>
+ * With {@code block-hound-enabled}, BlockHound is installed (requires {@code -XX:+AllowRedefinitionToAddDeleteMethods})
+ * and blocking calls on non-blocking threads are counted in {@code eventloop.blocking.calls} by method and
+ * call site. Only a {@code block-hound-sample-rate} fraction of calls is counted, and only the innermost
+ * 32 frames are walked to find the site, so it can stay on in production.
+ * Offending sites are logged at most once per {@code log-interval} from the monitor thread, never from
+ * the event loop itself.
+ * <p>
+ * Off unless {@code enabled}, read at startup rather than through a bean condition, so it can still be
+ * switched through the environment on an AOT-processed image.
+ */
+@Slf4j
+@Component
+public class EventLoopMonitor implements SmartLifecycle {
+
+    private static final String OTHER_SITE = "other";
+    private static final int MAX_STACK_DEPTH = 32;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    /** BlockHound can only be installed once per JVM */
+    private static final AtomicBoolean BLOCK_HOUND_INSTALLED = new AtomicBoolean();
+
+    private final EventLoopMonitorProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<LoopProbe> probes = new ArrayList<>();
+    private final Map<String, CallSite> callSites = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService executor;
+    private volatile boolean reporting;
+
+    public EventLoopMonitor(LoopResources httpServerLoopResources,
+                            NettyServerProperties serverProperties,
+                            EventLoopMonitorProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        if (!properties.enabled()) {
+            return;
+        }
+
+        int index = 0;
+        for (EventExecutor loop : httpServerLoopResources.onServer(NettyServerConfig.useNativeTransport(serverProperties))) {
+            String name = "http-" + index++;
+            probes.add(new LoopProbe(name, loop, Timer.builder("eventloop.lag")
+                    .description("Delay between submitting a task to an event loop and running it")
+                    .tag("loop", name)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry)));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-loop-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long probeMs = properties.probeInterval().toMillis();
+        executor.scheduleAtFixedRate(this::probe, probeMs, probeMs, TimeUnit.MILLISECONDS);
+
+        if (properties.blockHoundEnabled()) {
+            installBlockHound();
+            long logMs = properties.logInterval().toMillis();
+            executor.scheduleAtFixedRate(this::logBlockingCalls, logMs, logMs, TimeUnit.MILLISECONDS);
+        }
+        log.info("Event loop monitor started for {} loops, BlockHound {}", probes.size(),
+                properties.blockHoundEnabled() ? "enabled" : "disabled");
+    }
+
+    @Override
+    public void stop() {
+        reporting = false;
+        ScheduledExecutorService current = executor;
+        if (current != null) {
+            current.shutdownNow();
+        }
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    private void probe() {
+        for (LoopProbe probe : probes) {
+            if (probe.pending.compareAndSet(false, true)) {
+                long submittedAt = System.nanoTime();
+                probe.loop.execute(() -> {
+                    long lag = System.nanoTime() - submittedAt;
+                    probe.pending.set(false);
+                    probe.timer.record(lag, TimeUnit.NANOSECONDS);
+                    if (lag > properties.lagWarnThreshold().toNanos()) {
+                        probe.lastWarnLagNanos.accumulateAndGet(lag, Math::max);
+                    }
+                });
+            }
+            long warnLag = probe.lastWarnLagNanos.getAndSet(0);
+            if (warnLag > 0) {
+                log.warn("Event loop {} lagged {} ms", probe.name, Duration.ofNanos(warnLag).toMillis());
+            }
+        }
+    }
+
+    private void installBlockHound() {
+        reporting = true;
+        if (!BLOCK_HOUND_INSTALLED.compareAndSet(false, true)) {
+            return;
+        }
+        if (NativeDetector.inNativeImage()) {
+            log.warn("BlockHound needs bytecode instrumentation and is not available in a native image");
+            return;
+        }
+        try {
+            BlockHound.install(builder -> builder.blockingMethodCallback(this::onBlockingCall));
+        } catch (RuntimeException | LinkageError e) {
+            log.error("BlockHound could not be installed, is -XX:+AllowRedefinitionToAddDeleteMethods set?", e);
+        }
+    }
+
+    /** Runs on the offending thread: only counts, logging happens on the monitor thread */
+    private void onBlockingCall(BlockingMethod method) {
+        if (!reporting) {
+            return;
+        }
+        double sampleRate = properties.blockHoundSampleRate();
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        String site = STACK_WALKER.walk(frames -> callSite(frames.limit(MAX_STACK_DEPTH)
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName())));
+        String key = method + "@" + site;
+        CallSite callSite = callSites.get(key);
+        if (callSite == null) {
+            if (callSites.size() >= properties.maxCallSites()) {
+                key = method + "@" + OTHER_SITE;
+                site = OTHER_SITE;
+            }
+            String finalSite = site;
+            callSite = callSites.computeIfAbsent(key, k -> new CallSite(method.toString(), finalSite, Counter
+                    .builder("eventloop.blocking.calls")
+                    .description("Blocking calls detected on non-blocking threads")
+                    .tag("method", method.toString())
+                    .tag("site", finalSite)
+                    .register(meterRegistry)));
+        }
+        callSite.counter.increment();
+        callSite.sinceLastLog.incrementAndGet();
+    }
+
+    private void logBlockingCalls() {
+        callSites.values().forEach(site -> {
+            long calls = site.sinceLastLog.getAndSet(0);
+            if (calls > 0) {
+                log.warn("{} sampled blocking calls to {} on event loops from {} in the last {}",
+                        calls, site.method, site.site, properties.logInterval());
+            }
+        });
+    }
+
+    /**
+     * First application frame of the stack, or the first frame outside the JDK, Netty, Reactor
+     * and BlockHound when the call did not come from application code
+     * @param frames Frames as {@code class.method}, innermost first
+     */
+    static String callSite(Stream<String> frames) {
+        String fallback = null;
+        for (Iterator<String> iterator = frames.iterator(); iterator.hasNext(); ) {
+            String frame = iterator.next();
+            if (frame.startsWith("co.com.crediya.api.config.EventLoopMonitor")) {
+                continue;
+            }
+            if (frame.startsWith("co.com.crediya.")) {
+                return frame;
+            }
+            if (fallback == null && !isInfrastructure(frame)) {
+                fallback = frame;
+            }
+        }
+        return fallback != null ? fallback : OTHER_SITE;
+    }
+
+    private static boolean isInfrastructure(String className) {
+        return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.")
+                || className.startsWith("io.netty.") || className.startsWith("reactor.");
+    }
+
+    private record LoopProbe(String name, EventExecutor loop, Timer timer,
+                             AtomicBoolean pending, AtomicLong lastWarnLagNanos) {
+
+        LoopProbe(String name, EventExecutor loop, Timer timer) {
+            this(name, loop, timer, new AtomicBoolean(), new AtomicLong());
+        }
+    }
+
+    private record CallSite(String method, String site, Counter counter, AtomicLong sinceLastLog) {
+
+        CallSite(String method, String site, Counter counter) {
+            this(method, site, counter, new AtomicLong());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package co.com.crediya.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param blockHoundSampleRate Fraction of blocking calls, between 0 and 1, that are attributed to a call site
+ *                             and counted; the others return before walking the stack
+ */
+@ConfigurationProperties(prefix = "event-loop-monitor")
+public record EventLoopMonitorProperties(
+        Boolean enabled,
+        Duration probeInterval,
+        Duration lagWarnThreshold,
+        Boolean blockHoundEnabled,
+        Double blockHoundSampleRate,
+        Duration logInterval,
+        Integer maxCallSites) {
+
+    public EventLoopMonitorProperties {
+        enabled = enabled != null ? enabled : Boolean.FALSE;
+        probeInterval = probeInterval != null ? probeInterval : Duration.ofSeconds(1);
+        lagWarnThreshold = lagWarnThreshold != null ? lagWarnThreshold : Duration.ofMillis(100);
+        blockHoundEnabled = blockHoundEnabled != null ? blockHoundEnabled : Boolean.FALSE;
+        blockHoundSampleRate = blockHoundSampleRate != null ? blockHoundSampleRate : 1.0;
+        logInterval = logInterval != null ? logInterval : Duration.ofMinutes(1);
+        maxCallSites = maxCallSites != null ? maxCallSites : 100;
+        if (blockHoundSampleRate < 0 || blockHoundSampleRate > 1) {
+            throw new IllegalArgumentException("event-loop-monitor.block-hound-sample-rate must be between 0 and 1");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package co.com.crediya.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "jwt.decoder-cache")
+public record JwtDecoderCacheProperties(
+        Boolean enabled,
+        Long maximumSize,
+        Duration maxTtl) {
+
+    public JwtDecoderCacheProperties {
+        enabled = enabled != null ? enabled : Boolean.TRUE;
+        maximumSize = maximumSize != null ? maximumSize : 10_000L;
+        maxTtl = maxTtl != null ? maxTtl : Duration.ofMinutes(5);
+    }
+}
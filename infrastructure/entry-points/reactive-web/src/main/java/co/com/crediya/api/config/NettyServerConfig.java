@@ -0,0 +1,77 @@
+package co.com.crediya.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.LoopResources;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Tunes the embedded Reactor Netty server: dedicated event loops (native epoll, or io_uring when the
+ * incubator transport is on the classpath), accept backlog, TCP keep-alive, a cap on open connections,
+ * and Reactor Netty metrics (event-loop pending tasks, active and total connections, request timings)
+ * exported through Micrometer.
+ */
+@Slf4j
+@Configuration
+public class NettyServerConfig {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|\\d+)(?=/|$)");
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources httpServerLoopResources(NettyServerProperties properties) {
+        return LoopResources.create("http", properties.selectorThreads(), properties.workerThreads(), true);
+    }
+
+    @Bean
+    public NettyServerCustomizer tunedNettyServerCustomizer(LoopResources httpServerLoopResources,
+                                                           NettyServerProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        boolean useNative = useNativeTransport(properties);
+        log.info("HTTP server uses {} transport with {} worker threads",
+                useNative ? "native" : "NIO", properties.workerThreads());
+
+        AtomicInteger openConnections = new AtomicInteger();
+        Gauge.builder("http.server.connections.open", openConnections, AtomicInteger::get)
+                .description("Open HTTP server connections")
+                .register(meterRegistry);
+        Counter rejectedConnections = Counter.builder("http.server.connections.rejected")
+                .description("Connections closed because netty-server.max-connections was reached")
+                .register(meterRegistry);
+
+        return server -> {
+            var tuned = server
+                    .runOn(httpServerLoopResources, useNative)
+                    .option(ChannelOption.SO_BACKLOG, properties.backlog())
+                    .childOption(ChannelOption.SO_KEEPALIVE, properties.tcpKeepAlive())
+                    .doOnConnection(connection -> {
+                        connection.onDispose(openConnections::decrementAndGet);
+                        if (openConnections.incrementAndGet() > properties.maxConnections()) {
+                            rejectedConnections.increment();
+                            connection.dispose();
+                        }
+                    });
+            return properties.metricsEnabled() ? tuned.metrics(true, NettyServerConfig::uriTag) : tuned;
+        };
+    }
+
+    public static boolean useNativeTransport(NettyServerProperties properties) {
+        return properties.nativeTransport() && Epoll.isAvailable();
+    }
+
+    /** Collapses IDs in the path so route metrics keep a bounded number of tags */
+    static String uriTag(String uri) {
+        int query = uri.indexOf('?');
+        String path = query >= 0 ? uri.substring(0, query) : uri;
+        return ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+}
@@ -0,0 +1,29 @@
+package co.com.crediya.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Reactor Netty settings Spring Boot does not expose. Idle timeout, keep-alive requests,
+ * HTTP/2 cleartext and compression keep using {@code server.netty.*}, {@code server.http2.*}
+ * and {@code server.compression.*}.
+ */
+@ConfigurationProperties(prefix = "netty-server")
+public record NettyServerProperties(
+        Boolean nativeTransport,
+        Integer selectorThreads,
+        Integer workerThreads,
+        Integer maxConnections,
+        Integer backlog,
+        Boolean tcpKeepAlive,
+        Boolean metricsEnabled) {
+
+    public NettyServerProperties {
+        nativeTransport = nativeTransport != null ? nativeTransport : Boolean.TRUE;
+        selectorThreads = selectorThreads != null ? selectorThreads : 1;
+        workerThreads = workerThreads != null ? workerThreads : Math.max(4, Runtime.getRuntime().availableProcessors());
+        maxConnections = maxConnections != null ? maxConnections : 10_000;
+        backlog = backlog != null ? backlog : 1024;
+        tcpKeepAlive = tcpKeepAlive != null ? tcpKeepAlive : Boolean.TRUE;
+        metricsEnabled = metricsEnabled != null ? metricsEnabled : Boolean.TRUE;
+    }
+}
@@ -1,15 +1,114 @@
 package co.com.crediya.api.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Builds a delegating encoder ({@code {bcrypt}} / {@code {argon2}} prefixes) whose work factor is
+ * calibrated at startup against {@code password-hashing.target-duration} on this node's hardware.
+ * Hashes stored before prefixes were used are verified as BCrypt.
+ * Nodes on different hardware may pick different factors; rehashing only ever raises them,
+ * so stored hashes converge on the strongest node's parameters instead of flapping.
+ */
+@Slf4j
 @Configuration
 public class PasswordEncoderConfig {
 
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+    private static final String CALIBRATION_PASSWORD = "Calibration-Password-1!";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        boolean argon2ForNewHashes = properties.algorithm() == PasswordHashingProperties.Algorithm.ARGON2ID;
+        PasswordHashingProperties.Bcrypt bcrypt = properties.bcrypt();
+        PasswordHashingProperties.Argon2 argon2 = properties.argon2();
+
+        // Only the algorithm of new hashes is calibrated; the other one just verifies and flags old hashes
+        int bcryptCost = bcrypt.cost() != null ? bcrypt.cost()
+                : argon2ForNewHashes ? bcrypt.minCost() : calibrateBcrypt(properties);
+        int argon2Iterations = argon2.iterations() != null ? argon2.iterations()
+                : argon2ForNewHashes ? calibrateArgon2(properties) : argon2.minIterations();
+
+        PasswordEncoder bcryptEncoder = new BCryptPasswordEncoder(bcryptCost);
+        PasswordEncoder argon2Encoder = argon2Encoder(argon2, argon2Iterations);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(argon2ForNewHashes ? ARGON2 : BCRYPT,
+                Map.of(BCRYPT, bcryptEncoder, ARGON2, argon2Encoder));
+        encoder.setDefaultPasswordEncoderForMatches(bcryptEncoder);
+
+        log.info("New password hashes use {} (bcrypt cost {}, argon2id {} iterations of {} KiB)",
+                properties.algorithm(), bcryptCost, argon2Iterations, argon2.memoryKib());
+        Gauge.builder("password.hashing.work.factor", () -> bcryptCost)
+                .tag("algorithm", BCRYPT)
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.work.factor", () -> argon2Iterations)
+                .tag("algorithm", ARGON2)
+                .register(meterRegistry);
+        return encoder;
+    }
+
+    private static int calibrateBcrypt(PasswordHashingProperties properties) {
+        PasswordHashingProperties.Bcrypt bcrypt = properties.bcrypt();
+        long baseline = medianHashNanos(new BCryptPasswordEncoder(bcrypt.minCost()), properties.calibrationRounds());
+        return chooseBcryptCost(baseline, bcrypt.minCost(), bcrypt.maxCost(), properties.targetDuration().toNanos());
+    }
+
+    private static int calibrateArgon2(PasswordHashingProperties properties) {
+        PasswordHashingProperties.Argon2 argon2 = properties.argon2();
+        long baseline = medianHashNanos(argon2Encoder(argon2, argon2.minIterations()), properties.calibrationRounds());
+        return chooseArgon2Iterations(baseline, argon2.minIterations(), argon2.maxIterations(),
+                properties.targetDuration().toNanos());
+    }
+
+    private static PasswordEncoder argon2Encoder(PasswordHashingProperties.Argon2 argon2, int iterations) {
+        return new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, argon2.parallelism(), argon2.memoryKib(), iterations);
+    }
+
+    /**
+     * Each BCrypt cost step doubles the work, so the cost is extrapolated from one measurement at the minimum
+     * @return Highest cost within the target, never below the minimum
+     */
+    static int chooseBcryptCost(long nanosAtMinCost, int minCost, int maxCost, long targetNanos) {
+        int cost = minCost;
+        long estimate = nanosAtMinCost;
+        while (cost < maxCost && estimate * 2 <= targetNanos) {
+            estimate *= 2;
+            cost++;
+        }
+        return cost;
+    }
+
+    /**
+     * Argon2 time grows linearly with iterations at a fixed memory size
+     * @return Highest iteration count within the target, never below the minimum
+     */
+    static int chooseArgon2Iterations(long nanosAtMinIterations, int minIterations, int maxIterations, long targetNanos) {
+        long nanosPerIteration = Math.max(1, nanosAtMinIterations / minIterations);
+        long fitting = targetNanos / nanosPerIteration;
+        return (int) Math.max(minIterations, Math.min(maxIterations, fitting));
+    }
+
+    private static long medianHashNanos(PasswordEncoder encoder, int rounds) {
+        encoder.encode(CALIBRATION_PASSWORD);
+        long[] samples = new long[Math.max(1, rounds)];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
     }
 }
@@ -0,0 +1,52 @@
+package co.com.crediya.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param algorithm Algorithm of new hashes; hashes of the other one are still verified and rehashed on login
+ * @param targetDuration Time one hash should take on this hardware, the calibration picks the strongest
+ *                       parameters within it
+ * @param calibrationRounds Hashes timed per calibration, the median is used
+ * @param bcrypt Bounds of the BCrypt cost, or a fixed cost to skip calibration
+ * @param argon2 Argon2id parameters; iterations are calibrated within their bounds unless fixed
+ */
+@ConfigurationProperties(prefix = "password-hashing")
+public record PasswordHashingProperties(
+        Algorithm algorithm,
+        Duration targetDuration,
+        Integer calibrationRounds,
+        Bcrypt bcrypt,
+        Argon2 argon2) {
+
+    public enum Algorithm {
+        BCRYPT,
+        ARGON2ID
+    }
+
+    public record Bcrypt(Integer cost, Integer minCost, Integer maxCost) {
+        public Bcrypt {
+            minCost = minCost != null ? minCost : 10;
+            maxCost = maxCost != null ? maxCost : 14;
+        }
+    }
+
+    public record Argon2(Integer iterations, Integer minIterations, Integer maxIterations,
+                         Integer memoryKib, Integer parallelism) {
+        public Argon2 {
+            minIterations = minIterations != null ? minIterations : 2;
+            maxIterations = maxIterations != null ? maxIterations : 10;
+            memoryKib = memoryKib != null ? memoryKib : 19_456;
+            parallelism = parallelism != null ? parallelism : 1;
+        }
+    }
+
+    public PasswordHashingProperties {
+        algorithm = algorithm != null ? algorithm : Algorithm.BCRYPT;
+        targetDuration = targetDuration != null ? targetDuration : Duration.ofMillis(250);
+        calibrationRounds = calibrationRounds != null ? calibrationRounds : 5;
+        bcrypt = bcrypt != null ? bcrypt : new Bcrypt(null, null, null);
+        argon2 = argon2 != null ? argon2 : new Argon2(null, null, null, null, null);
+    }
+}
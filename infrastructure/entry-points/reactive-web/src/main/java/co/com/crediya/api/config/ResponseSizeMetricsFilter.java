@@ -0,0 +1,69 @@
+package co.com.crediya.api.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the encoded size of every response body as {@code http.server.response.size},
+ * tagged by content type and route, to compare JSON against the binary formats on the wire.
+ */
+@Component
+public class ResponseSizeMetricsFilter implements WebFilter {
+
+    private static final String METRIC = "http.server.response.size";
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseSizeMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        AtomicLong bytes = new AtomicLong();
+        ServerHttpResponse response = exchange.getResponse();
+        ServerHttpResponseDecorator counting = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return super.writeWith(Flux.from(body).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount())));
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return super.writeAndFlushWith(Flux.from(body).map(part ->
+                        Flux.from(part).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))));
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(counting).build())
+                .doFinally(signal -> record(exchange, bytes.get()));
+    }
+
+    private void record(ServerWebExchange exchange, long bytes) {
+        if (bytes == 0) {
+            return;
+        }
+        MediaType contentType = exchange.getResponse().getHeaders().getContentType();
+        Object route = exchange.getAttribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC)
+                .baseUnit("bytes")
+                .tag("content_type", contentType != null ? contentType.getType() + "/" + contentType.getSubtype() : "none")
+                .tag("uri", route != null ? route.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(bytes);
+    }
+}
@@ -0,0 +1,16 @@
+package co.com.crediya.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "user-changes")
+public record UserChangeStreamProperties(
+        Integer batchSize,
+        Duration pollInterval) {
+
+    public UserChangeStreamProperties {
+        batchSize = batchSize != null ? batchSize : 500;
+        pollInterval = pollInterval != null ? pollInterval : Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,18 @@
+package co.com.crediya.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Users whose base salary is at least the lower bound and below the upper bound")
+public record SalaryBucketDTO(
+
+    @Schema(description = "Lower bound, included", example = "1000000")
+    BigDecimal from,
+
+    @Schema(description = "Upper bound, excluded; absent for the last bucket", example = "2000000")
+    BigDecimal to,
+
+    @Schema(description = "Number of users in the bucket", example = "1250")
+    long users
+) {}
@@ -0,0 +1,20 @@
+package co.com.crediya.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Login activity of a user")
+public record UserActivityDTO(
+
+    String userId,
+
+    @Schema(description = "Time of the last successful login, absent if the user never logged in")
+    Instant lastLoginAt,
+
+    @Schema(description = "Number of successful logins", example = "42")
+    long loginCount,
+
+    @Schema(description = "Address of the last successful login", example = "203.0.113.7")
+    String lastLoginIp
+) {}
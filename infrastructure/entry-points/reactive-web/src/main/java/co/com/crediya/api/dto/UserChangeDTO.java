@@ -0,0 +1,21 @@
+package co.com.crediya.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Entry of the user change feed")
+public record UserChangeDTO(
+
+    @Schema(description = "Opaque position to resume after this change", example = "OTAyMTQ6MTAyNA")
+    String position,
+
+    @Schema(description = "Change type", example = "UPSERT")
+    String type,
+
+    String userId,
+    Instant occurredAt,
+
+    @Schema(description = "Current state of the user, absent for DELETE changes")
+    UserDTO user
+) {}
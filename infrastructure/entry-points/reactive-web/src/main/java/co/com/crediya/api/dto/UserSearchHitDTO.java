@@ -0,0 +1,15 @@
+package co.com.crediya.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A user matching a search")
+public record UserSearchHitDTO(
+
+    UserDTO user,
+
+    @Schema(description = "Relevance, higher first; 0 when searching by role only", example = "1.25")
+    double score,
+
+    @Schema(description = "Pass as 'after' to continue the search after this hit")
+    String cursor
+) {}
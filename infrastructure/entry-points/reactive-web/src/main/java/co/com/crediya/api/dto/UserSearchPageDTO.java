@@ -0,0 +1,14 @@
+package co.com.crediya.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of a user search")
+public record UserSearchPageDTO(
+
+    List<UserSearchHitDTO> hits,
+
+    @Schema(description = "Pass as 'after' to get the next page, absent on the last page")
+    String nextCursor
+) {}
@@ -0,0 +1,29 @@
+package co.com.crediya.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "User counts for dashboards, kept incrementally and possibly a few seconds behind the latest writes")
+public record UserStatisticsDTO(
+
+    @Schema(description = "Number of users", example = "104233")
+    long totalUsers,
+
+    @Schema(description = "Users per role code, every role included", example = "{\"ADMIN\": 12, \"USER\": 103900, \"ADVISOR\": 321}")
+    Map<String, Long> usersByRole,
+
+    @Schema(description = "Users per document type code, every type included", example = "{\"CC\": 98000, \"CE\": 5000, \"PP\": 1233}")
+    Map<String, Long> usersByDocumentType,
+
+    @Schema(description = "Users per base salary bucket, ordered by lower bound")
+    List<SalaryBucketDTO> salaryHistogram,
+
+    @Schema(description = "Time the counts were read from the database")
+    Instant refreshedAt,
+
+    @Schema(description = "False until users created before the counters existed have been counted, so counts may be low")
+    boolean reconciled
+) {}
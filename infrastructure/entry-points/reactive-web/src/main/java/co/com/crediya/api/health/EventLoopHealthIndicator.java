@@ -0,0 +1,92 @@
+package co.com.crediya.api.health;
+
+import co.com.crediya.api.config.NettyServerConfig;
+import co.com.crediya.api.config.NettyServerProperties;
+import co.com.crediya.health.CachedHealthIndicator;
+import co.com.crediya.health.CachedHealthProperties;
+import io.netty.util.concurrent.EventExecutor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lag of the HTTP event loops: each check submits a no-op task to every loop and the next check
+ * reads how long it waited to run. A task still waiting counts with its age, so a stuck loop keeps
+ * reporting a growing lag. DEGRADED past {@code event-loop-lag-degraded}, DOWN past {@code event-loop-lag-down}.
+ */
+@Component
+public class EventLoopHealthIndicator extends CachedHealthIndicator {
+
+    private final List<LoopProbe> probes = new ArrayList<>();
+    private final Duration lagDegraded;
+    private final Duration lagDown;
+
+    public EventLoopHealthIndicator(LoopResources httpServerLoopResources,
+                                    NettyServerProperties serverProperties,
+                                    CachedHealthProperties cachedProperties,
+                                    HealthIndicatorsProperties properties) {
+        super(cachedProperties);
+        this.lagDegraded = properties.eventLoopLagDegraded();
+        this.lagDown = properties.eventLoopLagDown();
+        int index = 0;
+        for (EventExecutor loop : httpServerLoopResources.onServer(NettyServerConfig.useNativeTransport(serverProperties))) {
+            probes.add(new LoopProbe("http-" + index++, loop));
+        }
+    }
+
+    @Override
+    protected Health check() {
+        long maxLagNanos = 0;
+        Health.Builder builder = new Health.Builder();
+        for (LoopProbe probe : probes) {
+            long lagNanos = probe.lagAndResubmit();
+            maxLagNanos = Math.max(maxLagNanos, lagNanos);
+            builder.withDetail(probe.name + "LagMs", TimeUnit.NANOSECONDS.toMillis(lagNanos));
+        }
+
+        Status status = Status.UP;
+        if (maxLagNanos >= lagDown.toNanos()) {
+            status = Status.DOWN;
+        } else if (maxLagNanos >= lagDegraded.toNanos()) {
+            status = DEGRADED;
+        }
+        return builder.status(status).build();
+    }
+
+    private static final class LoopProbe {
+
+        private final String name;
+        private final EventExecutor loop;
+        private final AtomicLong submittedAt = new AtomicLong();
+        private volatile long lastLagNanos;
+
+        private LoopProbe(String name, EventExecutor loop) {
+            this.name = name;
+            this.loop = loop;
+        }
+
+        /**
+         * @return Lag of the last completed probe, or the age of the pending one
+         */
+        long lagAndResubmit() {
+            long pending = submittedAt.get();
+            if (pending != 0) {
+                return System.nanoTime() - pending;
+            }
+            long submitted = System.nanoTime();
+            submittedAt.set(submitted);
+            loop.execute(() -> {
+                lastLagNanos = System.nanoTime() - submitted;
+                submittedAt.set(0);
+            });
+            return lastLagNanos;
+        }
+    }
+}
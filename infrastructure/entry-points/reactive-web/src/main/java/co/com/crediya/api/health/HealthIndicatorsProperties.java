@@ -0,0 +1,25 @@
+package co.com.crediya.api.health;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Thresholds of the indicators of this module; the refresh cadence and staleness shared by every
+ * indicator are in {@link co.com.crediya.health.CachedHealthProperties}
+ * @param hashingSlowdownDegraded Mean hash time, as a multiple of the calibrated target, from which hashing is DEGRADED
+ * @param eventLoopLagDegraded Event loop lag from which the loops are DEGRADED
+ * @param eventLoopLagDown Event loop lag from which a loop is considered stuck and reported DOWN
+ */
+@ConfigurationProperties(prefix = "health-indicators")
+public record HealthIndicatorsProperties(
+        Double hashingSlowdownDegraded,
+        Duration eventLoopLagDegraded,
+        Duration eventLoopLagDown) {
+
+    public HealthIndicatorsProperties {
+        hashingSlowdownDegraded = hashingSlowdownDegraded != null ? hashingSlowdownDegraded : 3.0;
+        eventLoopLagDegraded = eventLoopLagDegraded != null ? eventLoopLagDegraded : Duration.ofMillis(200);
+        eventLoopLagDown = eventLoopLagDown != null ? eventLoopLagDown : Duration.ofSeconds(10);
+    }
+}
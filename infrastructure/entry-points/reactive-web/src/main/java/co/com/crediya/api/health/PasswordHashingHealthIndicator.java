@@ -0,0 +1,49 @@
+package co.com.crediya.api.health;
+
+import co.com.crediya.api.config.PasswordHashingProperties;
+import co.com.crediya.health.CachedHealthIndicator;
+import co.com.crediya.health.CachedHealthProperties;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * DEGRADED when password hashing occupies every CPU or takes several times its calibrated target,
+ * both signs that logins are queueing for CPU. Hashing has no failure mode of its own, so it is never DOWN.
+ */
+@Component
+public class PasswordHashingHealthIndicator extends CachedHealthIndicator {
+
+    private final PasswordHashingLoad load;
+    private final Duration targetDuration;
+    private final double slowdownDegraded;
+    private final int processors = Runtime.getRuntime().availableProcessors();
+
+    public PasswordHashingHealthIndicator(PasswordHashingLoad load,
+                                          PasswordHashingProperties hashingProperties,
+                                          CachedHealthProperties cachedProperties,
+                                          HealthIndicatorsProperties properties) {
+        super(cachedProperties);
+        this.load = load;
+        this.targetDuration = hashingProperties.targetDuration();
+        this.slowdownDegraded = properties.hashingSlowdownDegraded();
+    }
+
+    @Override
+    protected Health check() {
+        int inFlight = load.inFlight();
+        Duration mean = load.drainMeanDuration();
+        Health.Builder builder = new Health.Builder()
+                .withDetail("inFlight", inFlight)
+                .withDetail("processors", processors)
+                .withDetail("targetMs", targetDuration.toMillis());
+        if (mean != null) {
+            builder.withDetail("meanMs", mean.toMillis());
+        }
+
+        boolean saturated = inFlight >= processors;
+        boolean slow = mean != null && mean.toNanos() > targetDuration.toNanos() * slowdownDegraded;
+        return (saturated || slow ? builder.status(DEGRADED) : builder.up()).build();
+    }
+}
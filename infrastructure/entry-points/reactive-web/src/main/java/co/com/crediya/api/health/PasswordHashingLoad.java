@@ -0,0 +1,46 @@
+package co.com.crediya.api.health;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Tracks the password hashes running right now and how long recent ones took.
+ * Hashing runs on the calling thread, so the number in flight is the number of threads it keeps busy;
+ * beyond the number of CPUs they wait for a core and every login slows down.
+ */
+@Component
+public class PasswordHashingLoad {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public <T> T measure(Supplier<T> hashing) {
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            return hashing.get();
+        } finally {
+            totalNanos.add(System.nanoTime() - start);
+            completed.increment();
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return Approximate mean duration of the hashes completed since the previous call, null when there were none
+     */
+    public Duration drainMeanDuration() {
+        long count = completed.sumThenReset();
+        long nanos = totalNanos.sumThenReset();
+        return count > 0 ? Duration.ofNanos(nanos / count) : null;
+    }
+}
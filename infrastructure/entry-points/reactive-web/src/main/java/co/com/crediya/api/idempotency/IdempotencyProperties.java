@@ -0,0 +1,38 @@
+package co.com.crediya.api.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param paths POST routes that honour the idempotency header
+ * @param retention How long a completed response is replayed
+ * @param lockTimeout How long a key stays reserved when the node running its request dies
+ * @param maxRequestSize Largest request body hashed; larger requests are rejected
+ * @param hotCacheMaxSize Memory held by the node-local tier of completed responses
+ * @param hotCacheTtl How long a completed response stays in the node-local tier
+ */
+@ConfigurationProperties(prefix = "idempotency")
+public record IdempotencyProperties(
+        Boolean enabled,
+        String header,
+        List<String> paths,
+        Duration retention,
+        Duration lockTimeout,
+        DataSize maxRequestSize,
+        DataSize hotCacheMaxSize,
+        Duration hotCacheTtl) {
+
+    public IdempotencyProperties {
+        enabled = enabled != null ? enabled : Boolean.TRUE;
+        header = header != null ? header : "Idempotency-Key";
+        paths = paths != null ? List.copyOf(paths) : List.of("/api/users");
+        retention = retention != null ? retention : Duration.ofHours(24);
+        lockTimeout = lockTimeout != null ? lockTimeout : Duration.ofMinutes(1);
+        maxRequestSize = maxRequestSize != null ? maxRequestSize : DataSize.ofKilobytes(256);
+        hotCacheMaxSize = hotCacheMaxSize != null ? hotCacheMaxSize : DataSize.ofMegabytes(16);
+        hotCacheTtl = hotCacheTtl != null ? hotCacheTtl : Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,306 @@
+package co.com.crediya.api.idempotency;
+
+import co.com.crediya.api.dto.ErrorResponse;
+import co.com.crediya.model.idempotency.IdempotencyRecord;
+import co.com.crediya.model.idempotency.exception.IdempotencyKeyReusedException;
+import co.com.crediya.model.idempotency.exception.IdempotentRequestInProgressException;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import co.com.crediya.usecase.idempotency.IdempotencyUseCase;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Makes the configured POST routes safe to retry with an {@code Idempotency-Key} header.
+ * Keys are scoped by the authenticated principal, so it runs after the security chain.
+ * <ul>
+ *     <li>A completed request is answered from the node-local tier or the shared store, replaying the
+ *     original status and body with {@code Idempotent-Replayed: true}.</li>
+ *     <li>Duplicates arriving on this node while the original runs wait for it and share its response.</li>
+ *     <li>A duplicate running on another node gets a 409 with {@code Retry-After}.</li>
+ *     <li>5xx responses are not stored, so the key is released and a retry runs the request again.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@Order(-50)
+public class IdempotencyWebFilter implements WebFilter {
+
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String ANONYMOUS = "anonymous";
+
+    private final IdempotencyUseCase idempotencyUseCase;
+    private final IdempotencyProperties properties;
+    private final List<PathPattern> paths;
+    private final Cache<String, IdempotencyRecord> hotTier;
+    private final Map<String, Sinks.One<Optional<IdempotencyRecord>>> inFlight = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyWebFilter(IdempotencyUseCase idempotencyUseCase,
+                                IdempotencyProperties properties,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.idempotencyUseCase = idempotencyUseCase;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.paths = properties.paths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.hotTier = Caffeine.newBuilder()
+                .maximumWeight(properties.hotCacheMaxSize().toBytes())
+                .weigher((String key, IdempotencyRecord stored) -> key.length() + stored.getResponseBody().length)
+                .expireAfterWrite(properties.hotCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, hotTier, "idempotency.hot");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String key = request.getHeaders().getFirst(properties.header());
+        if (!properties.enabled() || key == null || !applies(request)) {
+            return chain.filter(exchange);
+        }
+
+        // The client's header is validated on its own, before the principal is prepended
+        Mono<String> scopedKey = exchange.getPrincipal().map(Principal::getName).defaultIfEmpty(ANONYMOUS)
+                .flatMap(scope -> idempotencyUseCase.scopedKey(scope, key));
+        Mono<byte[]> body = DataBufferUtils.join(request.getBody(), (int) properties.maxRequestSize().toBytes())
+                .map(IdempotencyWebFilter::toBytes)
+                .defaultIfEmpty(new byte[0]);
+
+        return Mono.zip(scopedKey, body)
+                .flatMap(keyAndBody -> {
+                    byte[] requestBody = keyAndBody.getT2();
+                    String requestHash = hash(request, requestBody);
+                    return handle(withBody(exchange, requestBody), chain, keyAndBody.getT1(), requestHash);
+                })
+                .onErrorResume(error -> reject(exchange, error));
+    }
+
+    private Mono<Void> handle(ServerWebExchange exchange, WebFilterChain chain, String scopedKey, String requestHash) {
+        IdempotencyRecord hot = hotTier.getIfPresent(scopedKey);
+        if (hot != null) {
+            return idempotencyUseCase.replayable(hot, requestHash)
+                    .flatMap(stored -> replay(exchange.getResponse(), stored, "hot"));
+        }
+
+        Sinks.One<Optional<IdempotencyRecord>> outcome = Sinks.one();
+        Sinks.One<Optional<IdempotencyRecord>> running = inFlight.putIfAbsent(scopedKey, outcome);
+        if (running != null) {
+            count("coalesced");
+            return running.asMono().flatMap(original -> original.isPresent()
+                    ? idempotencyUseCase.replayable(original.get(), requestHash)
+                            .flatMap(stored -> replay(exchange.getResponse(), stored, "coalesced"))
+                    // The original failed and released the key, compete for it again
+                    : handle(exchange, chain, scopedKey, requestHash));
+        }
+
+        AtomicReference<IdempotencyRecord> completed = new AtomicReference<>();
+        return idempotencyUseCase.begin(scopedKey, requestHash, properties.lockTimeout())
+                .doOnNext(completed::set)
+                .flatMap(stored -> {
+                    hotTier.put(scopedKey, stored);
+                    return replay(exchange.getResponse(), stored, "store");
+                })
+                .switchIfEmpty(Mono.defer(() -> execute(exchange, chain, scopedKey, requestHash, completed)))
+                .doFinally(signal -> {
+                    inFlight.remove(scopedKey, outcome);
+                    outcome.tryEmitValue(Optional.ofNullable(completed.get()));
+                });
+    }
+
+    private Mono<Void> execute(ServerWebExchange exchange, WebFilterChain chain, String scopedKey,
+                               String requestHash, AtomicReference<IdempotencyRecord> completed) {
+        count("executed");
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .then(Mono.defer(() -> {
+                    HttpStatusCode status = capturing.getStatusCode() != null ? capturing.getStatusCode() : HttpStatus.OK;
+                    if (status.is5xxServerError()) {
+                        return idempotencyUseCase.abandon(scopedKey);
+                    }
+                    MediaType contentType = capturing.getHeaders().getContentType();
+                    return idempotencyUseCase.complete(scopedKey, requestHash, status.value(),
+                                    contentType != null ? contentType.toString() : null,
+                                    capturing.body(), properties.retention())
+                            .doOnNext(stored -> {
+                                hotTier.put(scopedKey, stored);
+                                completed.set(stored);
+                            })
+                            .then();
+                }).onErrorResume(error -> {
+                    // The client already has its response; the reservation lapses after the lock timeout
+                    log.warn("Could not store the response of idempotency key {}: {}", scopedKey, error.getMessage());
+                    return Mono.empty();
+                }))
+                .doOnError(error -> release(scopedKey))
+                .doOnCancel(() -> release(scopedKey));
+    }
+
+    private void release(String scopedKey) {
+        idempotencyUseCase.abandon(scopedKey)
+                .subscribe(null, error -> log.warn("Could not release idempotency key {}: {}", scopedKey, error.getMessage()));
+    }
+
+    private Mono<Void> replay(ServerHttpResponse response, IdempotencyRecord stored, String source) {
+        count("replayed_" + source);
+        response.setStatusCode(HttpStatusCode.valueOf(stored.getResponseStatus()));
+        if (stored.getContentType() != null) {
+            response.getHeaders().setContentType(MediaType.parseMediaType(stored.getContentType()));
+        }
+        response.getHeaders().set(REPLAYED_HEADER, "true");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(stored.getResponseBody())));
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, Throwable error) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpStatus status;
+        String errorCode;
+        if (error instanceof IdempotentRequestInProgressException) {
+            status = HttpStatus.CONFLICT;
+            errorCode = "IDEMPOTENT_REQUEST_IN_PROGRESS";
+        } else if (error instanceof IdempotencyKeyReusedException) {
+            status = HttpStatus.UNPROCESSABLE_ENTITY;
+            errorCode = "IDEMPOTENCY_KEY_REUSED";
+        } else if (error instanceof InvalidUserDataException) {
+            status = HttpStatus.BAD_REQUEST;
+            errorCode = "INVALID_DATA";
+        } else if (error instanceof DataBufferLimitException) {
+            status = HttpStatus.PAYLOAD_TOO_LARGE;
+            errorCode = "PAYLOAD_TOO_LARGE";
+        } else {
+            return Mono.error(error);
+        }
+        if (response.isCommitted()) {
+            return Mono.error(error);
+        }
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new ErrorResponse(error.getMessage(), errorCode,
+                    LocalDateTime.now(), exchange.getRequest().getPath().value()));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+
+        count(status == HttpStatus.CONFLICT ? "in_progress" : "rejected");
+        response.setStatusCode(status);
+        if (status == HttpStatus.CONFLICT) {
+            response.getHeaders().set("Retry-After", "1");
+        }
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private boolean applies(ServerHttpRequest request) {
+        if (!HttpMethod.POST.equals(request.getMethod())) {
+            return false;
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        return paths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private static ServerWebExchange withBody(ServerWebExchange exchange, byte[] body) {
+        ServerHttpRequest request = new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }
+        };
+        return exchange.mutate().request(request).build();
+    }
+
+    private static String hash(ServerHttpRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getPath().value().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * Keeps a copy of the body written by the handler so it can be stored for replays
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private volatile byte[] body = new byte[0];
+
+        CapturingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body)
+                    .flatMap(joined -> {
+                        this.body = toBytes(joined);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(this.body)));
+                    });
+        }
+
+        byte[] body() {
+            return body;
+        }
+    }
+}
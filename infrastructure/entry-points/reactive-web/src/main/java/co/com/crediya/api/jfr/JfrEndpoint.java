@@ -0,0 +1,105 @@
+package co.com.crediya.api.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin-only JFR recordings, see {@link JfrRecordings}.
+ * <ul>
+ *   <li>{@code GET /actuator/jfr} lists the recordings</li>
+ *   <li>{@code POST /actuator/jfr} starts one, body {@code {"settings": "profile", "duration": "2m"}}</li>
+ *   <li>{@code POST /actuator/jfr/{id}} stops it early</li>
+ *   <li>{@code GET /actuator/jfr/{id}} downloads what it holds so far, also for the continuous one</li>
+ *   <li>{@code DELETE /actuator/jfr/{id}} discards it</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final String DEFAULT_SETTINGS = "profile";
+
+    private final JfrRecordings recordings;
+
+    public JfrEndpoint(JfrRecordings recordings) {
+        this.recordings = recordings;
+    }
+
+    public record RecordingDescriptor(long id, String name, String state, Instant startTime,
+                                      Duration duration, long sizeBytes) {
+
+        static RecordingDescriptor of(Recording recording) {
+            return new RecordingDescriptor(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+
+    @ReadOperation
+    public List<RecordingDescriptor> recordings() {
+        return recordings.list().stream().map(RecordingDescriptor::of).toList();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(@Nullable String settings, @Nullable Duration duration) {
+        try {
+            Recording recording = recordings.start(settings != null ? settings : DEFAULT_SETTINGS, duration);
+            return new WebEndpointResponse<>(RecordingDescriptor.of(recording), WebEndpointResponse.STATUS_OK);
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        } catch (IOException | ParseException e) {
+            return error("Recording could not be started: " + e.getMessage(),
+                    WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> stop(@Selector long id) {
+        return recordings.find(id)
+                .filter(recording -> !JfrRecordings.CONTINUOUS.equals(recording.getName()))
+                .map(recording -> {
+                    if (recording.getState() == RecordingState.RUNNING) {
+                        recording.stop();
+                    }
+                    return new WebEndpointResponse<Object>(RecordingDescriptor.of(recording));
+                })
+                .orElseGet(() -> error("No on-demand recording " + id, WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+        Recording recording = recordings.find(id).orElse(null);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(recordings.dump(recording)));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> delete(@Selector long id) {
+        return new WebEndpointResponse<>(recordings.delete(id)
+                ? WebEndpointResponse.STATUS_NO_CONTENT
+                : WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    private static WebEndpointResponse<Object> error(String message, int status) {
+        return new WebEndpointResponse<>(Map.of("error", message), status);
+    }
+}
@@ -0,0 +1,33 @@
+package co.com.crediya.api.jfr;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param continuous Keep a low-overhead recording ({@code default} settings) running at all times
+ * @param continuousMaxAge Oldest data the continuous recording keeps
+ * @param continuousMaxSize Disk the continuous recording may use
+ * @param maxDuration Longest an on-demand recording may run; longer requests are cut to it
+ * @param maxSize Disk each on-demand recording may use
+ * @param maxRecordings On-demand recordings kept at once, running or not; delete one to start another
+ */
+@ConfigurationProperties(prefix = "jfr")
+public record JfrProperties(
+        Boolean continuous,
+        Duration continuousMaxAge,
+        DataSize continuousMaxSize,
+        Duration maxDuration,
+        DataSize maxSize,
+        Integer maxRecordings) {
+
+    public JfrProperties {
+        continuous = continuous != null ? continuous : Boolean.TRUE;
+        continuousMaxAge = continuousMaxAge != null ? continuousMaxAge : Duration.ofHours(1);
+        continuousMaxSize = continuousMaxSize != null ? continuousMaxSize : DataSize.ofMegabytes(100);
+        maxDuration = maxDuration != null ? maxDuration : Duration.ofMinutes(10);
+        maxSize = maxSize != null ? maxSize : DataSize.ofMegabytes(200);
+        maxRecordings = maxRecordings != null ? maxRecordings : 2;
+    }
+}
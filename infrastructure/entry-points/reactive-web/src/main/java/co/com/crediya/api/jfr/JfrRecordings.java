@@ -0,0 +1,150 @@
+package co.com.crediya.api.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the continuous recording and the bounded on-demand ones started through {@link JfrEndpoint}.
+ * The continuous recording uses the JDK's {@code default} settings (about 1% overhead) and keeps
+ * only application events slower than their threshold. On-demand recordings may use {@code profile}
+ * and record every application event. Everything is closed on stop, including before a CRaC checkpoint.
+ */
+@Slf4j
+@Component
+public class JfrRecordings implements SmartLifecycle {
+
+    public static final String CONTINUOUS = "continuous";
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final List<String> APPLICATION_EVENTS = List.of(PasswordHashingEvent.NAME, TokenEvent.NAME,
+            RequestHandlingEvent.NAME, "co.com.crediya.RepositoryQuery");
+
+    private final JfrProperties properties;
+    private final Map<Long, Recording> onDemand = new ConcurrentHashMap<>();
+
+    private volatile Recording continuous;
+
+    public JfrRecordings(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.continuous()) {
+            return;
+        }
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName(CONTINUOUS);
+            recording.setToDisk(true);
+            recording.setMaxAge(properties.continuousMaxAge());
+            recording.setMaxSize(properties.continuousMaxSize().toBytes());
+            recording.start();
+            continuous = recording;
+            log.info("Continuous JFR recording {} started", recording.getId());
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            log.warn("Continuous JFR recording could not be started: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        Recording current = continuous;
+        continuous = null;
+        if (current != null) {
+            current.close();
+        }
+        onDemand.values().forEach(Recording::close);
+        onDemand.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return continuous != null;
+    }
+
+    /**
+     * @param settings {@code default} or {@code profile}
+     * @param duration Requested length, cut to {@code max-duration}
+     * @throws IllegalArgumentException for unknown settings
+     * @throws IllegalStateException when {@code max-recordings} are already kept
+     */
+    public Recording start(String settings, Duration duration) throws IOException, ParseException {
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("Settings must be one of " + SETTINGS);
+        }
+        synchronized (onDemand) {
+            if (onDemand.size() >= properties.maxRecordings()) {
+                throw new IllegalStateException("At most " + properties.maxRecordings()
+                        + " recordings are kept, delete one first");
+            }
+            Recording recording = new Recording(Configuration.getConfiguration(settings));
+            recording.setName("on-demand-" + settings);
+            recording.setToDisk(true);
+            recording.setMaxSize(properties.maxSize().toBytes());
+            recording.setDuration(duration == null || duration.compareTo(properties.maxDuration()) > 0
+                    ? properties.maxDuration()
+                    : duration);
+            APPLICATION_EVENTS.forEach(event -> recording.enable(event).withThreshold(Duration.ZERO));
+            recording.start();
+            onDemand.put(recording.getId(), recording);
+            log.info("JFR recording {} started with {} settings for {}", recording.getId(), settings,
+                    recording.getDuration());
+            return recording;
+        }
+    }
+
+    public List<Recording> list() {
+        List<Recording> recordings = new ArrayList<>(onDemand.values());
+        Optional.ofNullable(continuous).ifPresent(recording -> recordings.add(0, recording));
+        return recordings;
+    }
+
+    public Optional<Recording> find(long id) {
+        Recording current = continuous;
+        if (current != null && current.getId() == id) {
+            return Optional.of(current);
+        }
+        return Optional.ofNullable(onDemand.get(id));
+    }
+
+    /**
+     * Copies what the recording holds so far to a new temporary file; the recording keeps running
+     */
+    public Path dump(Recording recording) throws IOException {
+        Path file = Files.createTempFile("recording-" + recording.getId() + "-", ".jfr");
+        try {
+            recording.dump(file);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Closes and forgets an on-demand recording; the continuous one cannot be deleted
+     */
+    public boolean delete(long id) {
+        Recording recording = onDemand.remove(id);
+        if (recording == null) {
+            return false;
+        }
+        recording.close();
+        return true;
+    }
+}
@@ -0,0 +1,34 @@
+package co.com.crediya.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(PasswordHashingEvent.NAME)
+@Label("Password Hashing")
+@Category({"Crediya", "Security"})
+@Description("A password hashed or verified against its stored hash")
+@StackTrace(false)
+public class PasswordHashingEvent extends Event {
+
+    public static final String NAME = "co.com.crediya.PasswordHashing";
+    public static final String ENCODE = "encode";
+    public static final String VERIFY = "verify";
+
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Matched")
+    private boolean matched;
+
+    public PasswordHashingEvent(String operation) {
+        this.operation = operation;
+    }
+
+    public void setMatched(boolean matched) {
+        this.matched = matched;
+    }
+}
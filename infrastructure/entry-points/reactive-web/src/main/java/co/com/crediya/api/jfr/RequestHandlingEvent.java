@@ -0,0 +1,56 @@
+package co.com.crediya.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Time a {@code Handler} method takes to produce its response, from the route match until the
+ * response is ready; writing a streamed body is not included.
+ */
+@Name(RequestHandlingEvent.NAME)
+@Label("Request Handling")
+@Category({"Crediya", "Web"})
+@Description("A request handled by a functional route")
+@StackTrace(false)
+@Threshold("10 ms")
+public class RequestHandlingEvent extends Event {
+
+    public static final String NAME = "co.com.crediya.RequestHandling";
+
+    @Label("Method")
+    private String method;
+
+    @Label("Route")
+    private String route;
+
+    @Label("Status")
+    private int status;
+
+    /**
+     * @return Filter recording one event per handled request while the event is enabled
+     */
+    public static HandlerFilterFunction<ServerResponse, ServerResponse> filter() {
+        return (request, next) -> {
+            RequestHandlingEvent event = new RequestHandlingEvent();
+            if (!event.isEnabled()) {
+                return next.handle(request);
+            }
+            event.method = request.method().name();
+            event.route = request.attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE)
+                    .map(Object::toString)
+                    .orElse("UNKNOWN");
+            event.begin();
+            return next.handle(request)
+                    .doOnNext(response -> event.status = response.statusCode().value())
+                    .doFinally(signal -> event.commit());
+        };
+    }
+}
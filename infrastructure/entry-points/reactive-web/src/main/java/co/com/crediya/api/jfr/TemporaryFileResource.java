@@ -0,0 +1,46 @@
+package co.com.crediya.api.jfr;
+
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * File resource deleted once it has been read. Not reported as a file, so WebFlux reads it through
+ * {@link #readableChannel()} instead of a zero-copy transfer that would bypass the delete.
+ */
+class TemporaryFileResource extends FileSystemResource {
+
+    TemporaryFileResource(Path path) {
+        super(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new FilterInputStream(super.getInputStream()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    Files.deleteIfExists(getFile().toPath());
+                }
+            }
+        };
+    }
+
+    @Override
+    public ReadableByteChannel readableChannel() throws IOException {
+        return Channels.newChannel(getInputStream());
+    }
+
+    @Override
+    public boolean isFile() {
+        return false;
+    }
+}
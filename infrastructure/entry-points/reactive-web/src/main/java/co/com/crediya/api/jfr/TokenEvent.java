@@ -0,0 +1,46 @@
+package co.com.crediya.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Only tokens slower than the threshold are kept by the continuous recording; on-demand profiling
+ * recordings keep every one, see {@link JfrRecordings}.
+ */
+@Name(TokenEvent.NAME)
+@Label("Token")
+@Category({"Crediya", "Security"})
+@Description("A JWT issued or verified by this service")
+@StackTrace(false)
+@Threshold("1 ms")
+public class TokenEvent extends Event {
+
+    public static final String NAME = "co.com.crediya.Token";
+    public static final String ISSUE = "issue";
+    public static final String VERIFY = "verify";
+
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Token Type")
+    @Description("Access or refresh for issued tokens, not known when verifying")
+    private final String tokenType;
+
+    @Label("Valid")
+    @Description("Whether a verified token was accepted")
+    private boolean valid;
+
+    public TokenEvent(String operation, String tokenType) {
+        this.operation = operation;
+        this.tokenType = tokenType;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+}
@@ -0,0 +1,39 @@
+package co.com.crediya.api.mapper;
+
+import co.com.crediya.model.user.UserChangePosition;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Change feed position as an opaque token, used as SSE event ID and {@code after} parameter
+ */
+public final class ChangeCursor {
+
+    private ChangeCursor() {
+    }
+
+    public static String encode(UserChangePosition position) {
+        String value = position.getTransactionId() + ":" + position.getChangeId()
+                + (position.isSnapshot() ? ":" + position.getSnapshotUserId() : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidUserDataException if the value was not produced by {@link #encode}
+     */
+    public static UserChangePosition decode(String value) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":", -1);
+            if (parts.length != 2 && parts.length != 3) {
+                throw new IllegalArgumentException("Unexpected number of parts");
+            }
+            UserChangePosition position = UserChangePosition.of(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return parts.length == 3 ? position.inSnapshot(UUID.fromString(parts[2]).toString()) : position;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidUserDataException("after", "is not a position returned by the change feed");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package co.com.crediya.api.mapper;
+
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position of a search hit, opaque to clients
+ * @param score Score of the hit, written so it parses back to the same double
+ * @param userId ID of the hit
+ */
+public record SearchCursor(double score, String userId) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((score + ":" + userId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidUserDataException if the value was not produced by {@link #encode}
+     */
+    public static SearchCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            double score = Double.parseDouble(decoded.substring(0, separator));
+            return new SearchCursor(score, UUID.fromString(decoded.substring(separator + 1)).toString());
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidUserDataException("cursor", "is not a cursor returned by the search");
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package co.com.crediya.api.mapper;
 
+import co.com.crediya.api.dto.SalaryBucketDTO;
+import co.com.crediya.api.dto.UserActivityDTO;
 import co.com.crediya.api.dto.UserAuthDTO;
+import co.com.crediya.api.dto.UserChangeDTO;
 import co.com.crediya.api.dto.UserDTO;
 import co.com.crediya.api.dto.UserRequestDTO;
+import co.com.crediya.api.dto.UserSearchHitDTO;
+import co.com.crediya.api.dto.UserStatisticsDTO;
 import co.com.crediya.model.user.DocumentType;
 import co.com.crediya.model.user.Role;
 import co.com.crediya.model.user.User;
+import co.com.crediya.model.user.UserActivity;
+import co.com.crediya.model.user.UserChange;
+import co.com.crediya.model.user.UserSearchHit;
+import co.com.crediya.model.user.UserStatistics;
 import co.com.crediya.model.valueobject.BaseSalary;
 import co.com.crediya.model.valueobject.DocumentId;
 import co.com.crediya.model.valueobject.Email;
 import co.com.crediya.model.valueobject.Password;
 import co.com.crediya.model.valueobject.ProperName;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class UserMapper {
 
     public static User toUser(UserRequestDTO dto) {
@@ -90,4 +102,49 @@ public class UserMapper {
             user.getDocumentId() != null ? user.getDocumentId().getValue() : null
         );
     }
-}
\ No newline at end of file
+
+    public static UserChangeDTO toChangeDTO(UserChange change) {
+        return new UserChangeDTO(
+            ChangeCursor.encode(change.getPosition()),
+            change.getType().name(),
+            change.getUserId(),
+            change.getOccurredAt(),
+            change.getUser() != null ? toDTO(change.getUser()) : null
+        );
+    }
+
+    public static UserActivityDTO toActivityDTO(UserActivity activity) {
+        return new UserActivityDTO(
+            activity.getUserId(),
+            activity.getLastLoginAt(),
+            activity.getLoginCount(),
+            activity.getLastLoginIp()
+        );
+    }
+
+    public static UserSearchHitDTO toSearchHitDTO(UserSearchHit hit) {
+        return new UserSearchHitDTO(
+            toDTO(hit.getUser()),
+            hit.getScore(),
+            new SearchCursor(hit.getScore(), hit.getUser().getId()).encode()
+        );
+    }
+
+    public static UserStatisticsDTO toStatisticsDTO(UserStatistics statistics) {
+        Map<String, Long> usersByRole = new LinkedHashMap<>();
+        statistics.getUsersByRole().forEach((role, users) -> usersByRole.put(role.getCode(), users));
+        Map<String, Long> usersByDocumentType = new LinkedHashMap<>();
+        statistics.getUsersByDocumentType().forEach((type, users) -> usersByDocumentType.put(type.getCode(), users));
+
+        return new UserStatisticsDTO(
+            statistics.getTotalUsers(),
+            usersByRole,
+            usersByDocumentType,
+            statistics.getSalaryHistogram().stream()
+                .map(bucket -> new SalaryBucketDTO(bucket.getLowerBound(), bucket.getUpperBound(), bucket.getUsers()))
+                .toList(),
+            statistics.getRefreshedAt(),
+            statistics.isReconciled()
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package co.com.crediya.api.rsocket;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "rsocket")
+public record RSocketProperties(
+        Tcp tcp,
+        Integer lookupChunkSize,
+        Integer maxLookupIds,
+        Integer validationConcurrency) {
+
+    public record Tcp(Boolean enabled, String host, Integer port) {
+
+        public Tcp {
+            enabled = enabled != null ? enabled : Boolean.TRUE;
+            host = host != null ? host : "0.0.0.0";
+            port = port != null ? port : 7000;
+        }
+    }
+
+    public RSocketProperties {
+        tcp = tcp != null ? tcp : new Tcp(null, null, null);
+        lookupChunkSize = lookupChunkSize != null ? lookupChunkSize : 100;
+        maxLookupIds = maxLookupIds != null ? maxLookupIds : 10_000;
+        validationConcurrency = validationConcurrency != null ? validationConcurrency : 32;
+    }
+}
@@ -0,0 +1,40 @@
+package co.com.crediya.api.rsocket;
+
+import co.com.crediya.api.config.AuthorizationJwt;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.rsocket.EnableRSocketSecurity;
+import org.springframework.security.config.annotation.rsocket.RSocketSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtReactiveAuthenticationManager;
+import org.springframework.security.rsocket.core.PayloadSocketAcceptorInterceptor;
+
+/**
+ * Mirrors the HTTP rules: token validation is open, user lookups need a bearer token
+ * with the USER or ADMIN role, sent in the authentication metadata of each request.
+ * Tokens are decoded by the same cached decoder as the HTTP chain.
+ */
+@Configuration
+@EnableRSocketSecurity
+public class RSocketSecurityConfig {
+
+    @Bean
+    public PayloadSocketAcceptorInterceptor rsocketSecurityInterceptor(RSocketSecurity rsocket,
+                                                                       ReactiveJwtDecoder jwtDecoder,
+                                                                       AuthorizationJwt authorizationJwt) {
+        JwtReactiveAuthenticationManager authenticationManager = new JwtReactiveAuthenticationManager(jwtDecoder);
+        authenticationManager.setJwtAuthenticationConverter(authorizationJwt.grantedAuthoritiesExtractor());
+
+        return rsocket
+                .authorizePayload(authorize -> authorize
+                        .setup().permitAll()
+                        .route("auth.validate-token").permitAll()
+                        .route("auth.validate-token.batch").permitAll()
+                        .route("users.get-by-id").hasAnyRole("USER", "ADMIN")
+                        .route("users.get-by-ids").hasAnyRole("USER", "ADMIN")
+                        .anyRequest().authenticated()
+                        .anyExchange().permitAll())
+                .jwt(jwt -> jwt.authenticationManager(authenticationManager))
+                .build();
+    }
+}
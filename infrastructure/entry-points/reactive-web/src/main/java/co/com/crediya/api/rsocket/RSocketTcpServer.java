@@ -0,0 +1,67 @@
+package co.com.crediya.api.rsocket;
+
+import io.rsocket.RSocketServer;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import org.springframework.security.rsocket.core.PayloadSocketAcceptorInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Serves the RSocket routes over plain TCP. Spring Boot serves them over WebSocket on the HTTP
+ * port ({@code spring.rsocket.server.mapping-path}) but supports a single transport, so the TCP
+ * server is started here with the same message handler and security interceptor, unless
+ * {@code rsocket.tcp.enabled} is false.
+ */
+@Slf4j
+@Component
+public class RSocketTcpServer implements SmartLifecycle {
+
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(10);
+
+    private final RSocketMessageHandler messageHandler;
+    private final PayloadSocketAcceptorInterceptor securityInterceptor;
+    private final RSocketProperties properties;
+    private volatile CloseableChannel channel;
+
+    public RSocketTcpServer(RSocketMessageHandler messageHandler,
+                            PayloadSocketAcceptorInterceptor securityInterceptor,
+                            RSocketProperties properties) {
+        this.messageHandler = messageHandler;
+        this.securityInterceptor = securityInterceptor;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        RSocketProperties.Tcp tcp = properties.tcp();
+        if (!tcp.enabled()) {
+            log.info("RSocket TCP server disabled");
+            return;
+        }
+        channel = RSocketServer.create(messageHandler.responder())
+                .interceptors(registry -> registry.forSocketAcceptor(securityInterceptor))
+                .bind(TcpServerTransport.create(tcp.host(), tcp.port()))
+                .block(START_TIMEOUT);
+        log.info("RSocket TCP server started on {}", channel.address());
+    }
+
+    @Override
+    public void stop() {
+        CloseableChannel current = channel;
+        if (current != null) {
+            current.dispose();
+            current.onClose().block(START_TIMEOUT);
+            channel = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return channel != null;
+    }
+}
@@ -0,0 +1,83 @@
+package co.com.crediya.api.rsocket;
+
+import co.com.crediya.api.Exception.JwtValidationException;
+import co.com.crediya.api.JwtService;
+import co.com.crediya.api.dto.TokenValidationRequestDTO;
+import co.com.crediya.api.dto.TokenValidationResponseDTO;
+import co.com.crediya.api.dto.UserDTO;
+import co.com.crediya.api.mapper.UserMapper;
+import co.com.crediya.model.common.RequestPriority;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import co.com.crediya.model.user.exception.UserNotFoundException;
+import co.com.crediya.usecase.user.UserUseCase;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * RSocket counterpart of the token validation and user lookup HTTP routes, for callers that keep
+ * a persistent multiplexed connection. Routes:
+ * <ul>
+ *     <li>{@code auth.validate-token}: request-response</li>
+ *     <li>{@code auth.validate-token.batch}: request-channel, one response per token, in order</li>
+ *     <li>{@code users.get-by-id}: request-response</li>
+ *     <li>{@code users.get-by-ids}: request-stream, users are loaded as the caller requests them</li>
+ * </ul>
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class UserRSocketController {
+
+    private final UserUseCase userUseCase;
+    private final JwtService jwtService;
+    private final RSocketProperties properties;
+
+    @MessageMapping("auth.validate-token")
+    public Mono<TokenValidationResponseDTO> validateToken(TokenValidationRequestDTO request) {
+        return Mono.fromCallable(() -> jwtService.getTokenClaims(request.token()))
+                .flatMap(this::validateSubject)
+                .onErrorResume(JwtValidationException.class, error -> {
+                    userUseCase.recordTokenValidationFailure(error.getMessage());
+                    return Mono.just(TokenValidationResponseDTO.invalid(error.getMessage()));
+                })
+                .onErrorResume(UserNotFoundException.class,
+                        error -> Mono.just(TokenValidationResponseDTO.invalid(error.getMessage())))
+                .contextWrite(context -> context.put(RequestPriority.CONTEXT_KEY, RequestPriority.AUTH_CRITICAL));
+    }
+
+    @MessageMapping("auth.validate-token.batch")
+    public Flux<TokenValidationResponseDTO> validateTokens(Flux<TokenValidationRequestDTO> requests) {
+        return requests.flatMapSequential(this::validateToken, properties.validationConcurrency());
+    }
+
+    @MessageMapping("users.get-by-id")
+    public Mono<UserDTO> getUserById(String id) {
+        log.debug("Getting user by ID over RSocket: {}", id);
+        return userUseCase.findUserById(id)
+                .map(UserMapper::toDTO);
+    }
+
+    @MessageMapping("users.get-by-ids")
+    public Flux<UserDTO> getUsersByIds(List<String> ids) {
+        if (ids.size() > properties.maxLookupIds()) {
+            return Flux.error(new InvalidUserDataException(
+                    "At most " + properties.maxLookupIds() + " IDs can be looked up at once"));
+        }
+        return userUseCase.findUsersByIds(Flux.fromIterable(ids), properties.lookupChunkSize())
+                .map(UserMapper::toDTO);
+    }
+
+    private Mono<TokenValidationResponseDTO> validateSubject(Claims claims) {
+        long remainingTime = jwtService.getRemainingExpirationTime(claims);
+        return userUseCase.validateTokenSubject(claims.getSubject())
+                .map(UserMapper::toDTOWithFullDocumentId)
+                .map(user -> TokenValidationResponseDTO.valid(user, remainingTime));
+    }
+}
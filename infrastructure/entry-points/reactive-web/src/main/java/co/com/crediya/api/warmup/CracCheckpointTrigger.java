@@ -0,0 +1,50 @@
+package co.com.crediya.api.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.crac.CheckpointException;
+import org.crac.Core;
+import org.crac.RestoreException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Once the application is ready, waits for the warm-up stage (see {@link WarmupRunner}) and then
+ * takes a CRaC checkpoint. Spring stops every lifecycle bean before the checkpoint, which closes the HTTP
+ * and RSocket servers and the connection pools, and starts them again in the restored JVM.
+ * Without {@code -XX:CRaCCheckpointTo} the checkpoint fails and the application keeps running.
+ * Does nothing unless {@code crac.checkpoint-on-ready} is set.
+ */
+@Slf4j
+@Component
+public class CracCheckpointTrigger implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final WarmupRunner warmupRunner;
+    private final CracProperties properties;
+
+    public CracCheckpointTrigger(WarmupRunner warmupRunner, CracProperties properties) {
+        this.warmupRunner = warmupRunner;
+        this.properties = properties;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!properties.checkpointOnReady()) {
+            return;
+        }
+        if (!(event.getApplicationContext() instanceof ReactiveWebServerApplicationContext context)) {
+            return;
+        }
+
+        warmupRunner.warmUp(context.getWebServer().getPort()).block();
+
+        try {
+            log.info("Taking checkpoint");
+            Core.checkpointRestore();
+            log.info("Restored from checkpoint");
+        } catch (CheckpointException | RestoreException | UnsupportedOperationException e) {
+            log.error("Checkpoint failed, continuing without it", e);
+        }
+    }
+}
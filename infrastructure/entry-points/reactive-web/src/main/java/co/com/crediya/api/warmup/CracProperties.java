@@ -0,0 +1,17 @@
+package co.com.crediya.api.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Checkpoint/restore (CRaC) settings. The JVM must be started with {@code -XX:CRaCCheckpointTo}
+ * for {@code checkpoint-on-ready} to have any effect. The warm-up that runs before the checkpoint
+ * is configured under {@code warmup}.
+ */
+@ConfigurationProperties(prefix = "crac")
+public record CracProperties(
+        Boolean checkpointOnReady) {
+
+    public CracProperties {
+        checkpointOnReady = checkpointOnReady != null ? checkpointOnReady : Boolean.FALSE;
+    }
+}
@@ -0,0 +1,69 @@
+package co.com.crediya.api.warmup;
+
+import co.com.crediya.api.JwtService;
+import co.com.crediya.model.user.Role;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Sends requests to this instance over loopback so the JIT compiles the hot paths: Netty, the
+ * web filters, security, JWT signing and parsing, the JSON codecs and the database driver.
+ * Only read-only existence checks are sent, so warming up leaves no audit rows, error logs or
+ * data behind: they alternate between a user ID and an email that do not exist, each going
+ * through the connection pool and answering 200 with {@code false}. They carry a bearer token,
+ * which the security chain verifies even though the routes are public.
+ */
+@Slf4j
+@Component
+public class SyntheticTrafficWarmup {
+
+    /** Reserved domain, so the emails checked can never belong to a real user */
+    private static final String EMAIL_DOMAIN = "@warmup.invalid";
+
+    private final JwtService jwtService;
+    private final WebClient.Builder webClientBuilder;
+
+    public SyntheticTrafficWarmup(JwtService jwtService, WebClient.Builder webClientBuilder) {
+        this.jwtService = jwtService;
+        this.webClientBuilder = webClientBuilder;
+    }
+
+    /**
+     * @return Number of requests answered without a server error
+     */
+    public Mono<Long> run(int port, int requests, int concurrency) {
+        WebClient client = webClientBuilder.clone()
+                .baseUrl("http://localhost:" + port)
+                .build();
+        String token = jwtService.generateAccessToken(UUID.randomUUID().toString(), Role.USER);
+
+        return Flux.range(0, requests)
+                .flatMap(i -> send(client, token, i), concurrency)
+                .filter(Boolean::booleanValue)
+                .count()
+                .doOnNext(answered -> log.info("Warm-up sent {} requests, {} answered without a server error",
+                        requests, answered));
+    }
+
+    private Mono<Boolean> send(WebClient client, String token, int i) {
+        WebClient.RequestHeadersSpec<?> request = i % 2 == 0
+                ? client.get().uri("/api/users/{id}/exists", UUID.randomUUID())
+                : client.get().uri(builder -> builder.path("/api/users/exists")
+                        .queryParam("email", "user" + i + EMAIL_DOMAIN)
+                        .build());
+
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchangeToMono(response -> response.releaseBody()
+                        .thenReturn(!response.statusCode().is5xxServerError()))
+                .onErrorResume(error -> {
+                    log.debug("Warm-up request failed: {}", error.getMessage());
+                    return Mono.just(false);
+                });
+    }
+}
@@ -0,0 +1,29 @@
+package co.com.crediya.api.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service while the warm-up stage runs. Part of the readiness group, see
+ * {@code management.endpoint.health.group.readiness}; liveness does not depend on it.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupRunner warmupRunner;
+
+    public WarmupHealthIndicator(WarmupRunner warmupRunner) {
+        this.warmupRunner = warmupRunner;
+    }
+
+    @Override
+    public Health health() {
+        WarmupRunner.State state = warmupRunner.getState();
+        Health.Builder builder = switch (state) {
+            case PENDING, RUNNING -> Health.outOfService();
+            case COMPLETED, BUDGET_EXHAUSTED, DISABLED -> Health.up();
+        };
+        return builder.withDetail("state", state).build();
+    }
+}
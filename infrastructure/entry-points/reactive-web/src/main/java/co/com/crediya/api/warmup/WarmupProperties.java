@@ -0,0 +1,27 @@
+package co.com.crediya.api.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param timeBudget Longest the warm-up may hold readiness down; the node reports ready when it runs out
+ * @param iterations Rounds of the in-process token, mapping and serialization loops
+ * @param syntheticRequests Loopback HTTP requests sent after the loops, zero to skip them
+ */
+@ConfigurationProperties(prefix = "warmup")
+public record WarmupProperties(
+        Boolean enabled,
+        Duration timeBudget,
+        Integer iterations,
+        Integer syntheticRequests,
+        Integer syntheticConcurrency) {
+
+    public WarmupProperties {
+        enabled = enabled != null ? enabled : Boolean.TRUE;
+        timeBudget = timeBudget != null ? timeBudget : Duration.ofSeconds(30);
+        iterations = iterations != null ? iterations : 2000;
+        syntheticRequests = syntheticRequests != null ? syntheticRequests : 1000;
+        syntheticConcurrency = syntheticConcurrency != null ? syntheticConcurrency : 16;
+    }
+}
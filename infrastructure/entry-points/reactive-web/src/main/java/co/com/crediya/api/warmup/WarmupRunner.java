@@ -0,0 +1,144 @@
+package co.com.crediya.api.warmup;
+
+import co.com.crediya.api.JwtService;
+import co.com.crediya.api.dto.UserDTO;
+import co.com.crediya.api.mapper.UserMapper;
+import co.com.crediya.model.user.DocumentType;
+import co.com.crediya.model.user.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the warm-up stage once the application is ready. Until it ends, {@link WarmupHealthIndicator}
+ * keeps the readiness group down, so a new node gets traffic only after the JIT has compiled the hot paths.
+ * The stage loops in process over token issue and verification, value-object mapping and JSON
+ * serialization, then sends synthetic requests through the whole stack (see {@link SyntheticTrafficWarmup}).
+ * Those requests are the same read-only set the CRaC checkpoint uses, so every deploy warms up without
+ * leaving audit rows or error logs behind.
+ * When the time budget runs out the stage stops where it is and the node reports ready anyway.
+ * Connection pools are opened and validated earlier, while the context starts.
+ */
+@Slf4j
+@Component
+public class WarmupRunner implements ApplicationListener<ApplicationReadyEvent> {
+
+    public enum State { PENDING, RUNNING, COMPLETED, BUDGET_EXHAUSTED, DISABLED }
+
+    private static final UserDTO SAMPLE_USER = new UserDTO(null, "Warm", "Up", LocalDate.of(1990, 1, 1),
+            "Calle 1 # 2-3", "3000000000", "warmup@example.com", new BigDecimal("1000000"),
+            Role.USER.getCode(), DocumentType.CC.getCode(), "1234567890");
+
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final SyntheticTrafficWarmup syntheticTraffic;
+    private final WarmupProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<Mono<Void>> run = new AtomicReference<>();
+    private volatile State state;
+
+    public WarmupRunner(JwtService jwtService,
+                        ObjectMapper objectMapper,
+                        SyntheticTrafficWarmup syntheticTraffic,
+                        WarmupProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.syntheticTraffic = syntheticTraffic;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.state = properties.enabled() ? State.PENDING : State.DISABLED;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        int port = event.getApplicationContext() instanceof ReactiveWebServerApplicationContext context
+                ? context.getWebServer().getPort()
+                : -1;
+        warmUp(port).subscribe();
+    }
+
+    /**
+     * Starts the warm-up on the first call; later calls share its outcome
+     * @param port Local HTTP port for the synthetic requests, zero or less to skip them
+     * @return Completes when the warm-up has ended, never with an error
+     */
+    public Mono<Void> warmUp(int port) {
+        if (!properties.enabled()) {
+            return Mono.empty();
+        }
+        Mono<Void> created = Mono.defer(() -> execute(port)).cache();
+        return run.compareAndSet(null, created) ? created : run.get();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private Mono<Void> execute(int port) {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        long deadline = start + properties.timeBudget().toNanos();
+
+        return Mono.fromCallable(() -> runLoops(deadline))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(rounds -> log.info("Warm-up ran {} in-process rounds", rounds))
+                .then(Mono.defer(() -> sendSyntheticRequests(port, deadline)))
+                .onErrorResume(TimeoutException.class, error -> Mono.empty())
+                .onErrorResume(error -> {
+                    log.warn("Warm-up failed, reporting ready anyway: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .doFinally(signal -> finish(start, deadline));
+    }
+
+    private int runLoops(long deadline) throws IOException {
+        String userId = UUID.randomUUID().toString();
+        int rounds = 0;
+        while (rounds < properties.iterations() && System.nanoTime() < deadline) {
+            jwtService.getTokenClaims(jwtService.generateAccessToken(userId, Role.USER));
+            jwtService.generateRefreshToken(userId);
+            UserDTO user = UserMapper.toDTO(UserMapper.toUser(SAMPLE_USER));
+            objectMapper.readValue(objectMapper.writeValueAsBytes(user), UserDTO.class);
+            rounds++;
+        }
+        return rounds;
+    }
+
+    private Mono<Void> sendSyntheticRequests(int port, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (port <= 0 || properties.syntheticRequests() <= 0 || remaining <= 0) {
+            return Mono.empty();
+        }
+        return syntheticTraffic.run(port, properties.syntheticRequests(), properties.syntheticConcurrency())
+                .timeout(Duration.ofNanos(remaining))
+                .then();
+    }
+
+    private void finish(long start, long deadline) {
+        long end = System.nanoTime();
+        state = end >= deadline ? State.BUDGET_EXHAUSTED : State.COMPLETED;
+        Timer.builder("warmup.duration")
+                .description("Time the warm-up stage held readiness down")
+                .tag("outcome", state.name().toLowerCase())
+                .register(meterRegistry)
+                .record(Duration.ofNanos(end - start));
+        log.info("Warm-up {} after {} ms, reporting ready", state == State.COMPLETED ? "completed" : "ran out of time",
+                (end - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,119 @@
+package co.com.crediya.api;
+
+import co.com.crediya.api.config.ClientAddressProperties;
+import co.com.crediya.api.config.UserChangeStreamProperties;
+import co.com.crediya.api.dto.ApiResponse;
+import co.com.crediya.api.dto.UserStatisticsDTO;
+import co.com.crediya.model.user.Role;
+import co.com.crediya.model.user.UserStatistics;
+import co.com.crediya.usecase.user.UserChangeFeedUseCase;
+import co.com.crediya.usecase.user.UserSearchUseCase;
+import co.com.crediya.usecase.user.UserStatisticsUseCase;
+import co.com.crediya.usecase.user.UserUseCase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.EntityResponse;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class HandlerTest {
+
+    private static final String PEER = "10.0.0.9";
+
+    private final UserSearchUseCase userSearchUseCase = mock(UserSearchUseCase.class);
+    private final UserStatisticsUseCase userStatisticsUseCase = mock(UserStatisticsUseCase.class);
+    private final Handler handler = new Handler(mock(UserUseCase.class), mock(UserChangeFeedUseCase.class),
+            userSearchUseCase, userStatisticsUseCase, mock(JwtService.class),
+            new UserChangeStreamProperties(null, null), new ClientAddressProperties(null), new SimpleMeterRegistry());
+
+    @Test
+    void clientIsTheHopAppendedByTheTrustedProxy() {
+        assertThat(Handler.clientIp(List.of("203.0.113.7"), 1, PEER)).isEqualTo("203.0.113.7");
+        assertThat(Handler.clientIp(List.of("198.51.100.1, 203.0.113.7"), 1, PEER)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void hopsSuppliedByTheClientAreIgnored() {
+        // The client sent "1.2.3.4" itself; the CDN appended 203.0.113.7 and the load balancer the CDN address
+        List<String> forwardedFor = List.of("1.2.3.4, 203.0.113.7", "192.0.2.10");
+
+        assertThat(Handler.clientIp(forwardedFor, 2, PEER)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void fewerHopsThanProxiesUseTheFirstHop() {
+        assertThat(Handler.clientIp(List.of("203.0.113.7"), 3, PEER)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void peerAddressIsUsedWithoutTrustedProxiesOrHops() {
+        assertThat(Handler.clientIp(List.of("1.2.3.4"), 0, PEER)).isEqualTo(PEER);
+        assertThat(Handler.clientIp(List.of(), 1, PEER)).isEqualTo(PEER);
+        assertThat(Handler.clientIp(List.of(" , "), 1, PEER)).isEqualTo(PEER);
+    }
+
+    @Test
+    void malformedSearchCursorIsABadRequest() {
+        MockServerRequest request = MockServerRequest.builder()
+                .uri(URI.create("/api/users/search"))
+                .queryParam("name", "mari")
+                .queryParam("after", "not a cursor")
+                .build();
+
+        StepVerifier.create(handler.searchUsers(request))
+                .assertNext(response -> assertThat(response.statusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .verifyComplete();
+        verifyNoInteractions(userSearchUseCase);
+    }
+
+    @Test
+    void statisticsAreReturnedWithTheirReconciliationState() {
+        when(userStatisticsUseCase.getStatistics()).thenReturn(Mono.just(UserStatistics.builder()
+                .totalUsers(7)
+                .usersByRole(Map.of(Role.USER, 7L))
+                .usersByDocumentType(Map.of())
+                .salaryHistogram(List.of())
+                .refreshedAt(Instant.EPOCH)
+                .reconciled(false)
+                .build()));
+
+        StepVerifier.create(handler.getUserStatistics(statsRequest()))
+                .assertNext(response -> {
+                    assertThat(response.statusCode()).isEqualTo(HttpStatus.OK);
+                    ApiResponse<?> body = (ApiResponse<?>) ((EntityResponse<?>) response).entity();
+                    UserStatisticsDTO statistics = (UserStatisticsDTO) body.getData();
+                    assertThat(statistics.totalUsers()).isEqualTo(7L);
+                    assertThat(statistics.usersByRole()).containsEntry(Role.USER.getCode(), 7L);
+                    assertThat(statistics.reconciled()).isFalse();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void unreadableStatisticsAreAServerError() {
+        when(userStatisticsUseCase.getStatistics())
+                .thenReturn(Mono.error(new RuntimeException("Failed to read user statistics")));
+
+        StepVerifier.create(handler.getUserStatistics(statsRequest()))
+                .assertNext(response -> assertThat(response.statusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR))
+                .verifyComplete();
+    }
+
+    private static MockServerRequest statsRequest() {
+        return MockServerRequest.builder()
+                .uri(URI.create("/api/users/stats"))
+                .build();
+    }
+}
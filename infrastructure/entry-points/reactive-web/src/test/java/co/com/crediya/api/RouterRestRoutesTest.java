@@ -0,0 +1,55 @@
+package co.com.crediya.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks which handler each path resolves to; fixed paths under /api/users must win over {id}
+ */
+class RouterRestRoutesTest {
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        Handler handler = mock(Handler.class);
+        when(handler.getUserByEmail(any())).thenAnswer(invocation -> ServerResponse.ok().bodyValue("getUserByEmail"));
+        when(handler.searchUsers(any())).thenAnswer(invocation -> ServerResponse.ok().bodyValue("searchUsers"));
+        when(handler.getUserStatistics(any())).thenAnswer(invocation -> ServerResponse.ok().bodyValue("getUserStatistics"));
+        when(handler.getUserById(any())).thenAnswer(invocation -> ServerResponse.ok().bodyValue("getUserById"));
+        webTestClient = WebTestClient.bindToRouterFunction(new RouterRest().routerFunction(handler)).build();
+    }
+
+    @Test
+    void searchWithAnEmailIsTheExactLookup() {
+        assertRoutedTo("/api/users/search?email=ana@example.com", "getUserByEmail");
+        assertRoutedTo("/api/users/search?email=ana@example.com&name=mari", "getUserByEmail");
+    }
+
+    @Test
+    void searchWithCriteriaIsTheSearch() {
+        assertRoutedTo("/api/users/search?name=mari", "searchUsers");
+        assertRoutedTo("/api/users/search?emailPrefix=ana&role=USER", "searchUsers");
+        assertRoutedTo("/api/users/search", "searchUsers");
+    }
+
+    @Test
+    void fixedPathsAreNotTakenForAnId() {
+        assertRoutedTo("/api/users/stats", "getUserStatistics");
+        assertRoutedTo("/api/users/3f1c2a64-7d2e-4b7a-9a51-6f0f3c1d2e4b", "getUserById");
+    }
+
+    private void assertRoutedTo(String uri, String handlerMethod) {
+        webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(handlerMethod);
+    }
+}
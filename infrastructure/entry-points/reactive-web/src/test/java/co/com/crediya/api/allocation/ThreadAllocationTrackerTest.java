@@ -0,0 +1,53 @@
+package co.com.crediya.api.allocation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ThreadAllocationTrackerTest {
+
+    private static final int MEGABYTE = 1024 * 1024;
+
+    @BeforeEach
+    void install() {
+        assumeTrue(ThreadAllocationTracker.isSupported());
+        ThreadAllocationTracker.install();
+    }
+
+    @AfterEach
+    void uninstall() {
+        ThreadAllocationTracker.uninstall();
+    }
+
+    @Test
+    void allocationsAfterAThreadSwitchAreCharged() {
+        AllocationScope scope = new AllocationScope();
+
+        ThreadAllocationTracker.track(scope, () -> Mono.just(MEGABYTE)
+                        .publishOn(Schedulers.parallel())
+                        .map(byte[]::new)
+                        .map(bytes -> bytes.length)
+                        .then())
+                .block();
+
+        assertThat(scope.bytes()).isGreaterThanOrEqualTo(MEGABYTE);
+    }
+
+    @Test
+    void allocationsOfOtherWorkAreNotCharged() {
+        AllocationScope scope = new AllocationScope();
+        Mono<Integer> other = Mono.just(MEGABYTE)
+                .publishOn(Schedulers.parallel())
+                .map(size -> new byte[size].length);
+
+        ThreadAllocationTracker.track(scope, () -> Mono.just(1).then()).block();
+        other.block();
+
+        assertThat(scope.bytes()).isLessThan(MEGABYTE);
+    }
+}
@@ -0,0 +1,97 @@
+package co.com.crediya.api.bulkhead;
+
+import co.com.crediya.api.bulkhead.AdaptiveConcurrencyLimiter.Permit;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AdaptiveConcurrencyLimiter limiter = limiter(1000);
+
+    @Test
+    void rejectsRequestsOverTheLimit() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire().isAdmitted()).isTrue();
+        }
+        assertThat(limiter.tryAcquire().isAdmitted()).isFalse();
+    }
+
+    @Test
+    void admitsRequestsWhileTheClockIsNegative() {
+        clock.set(Long.MIN_VALUE / 2);
+        AdaptiveConcurrencyLimiter negativeClockLimiter = limiter(1000);
+
+        Permit permit = negativeClockLimiter.tryAcquire();
+
+        assertThat(permit.isAdmitted()).isTrue();
+        assertThat(permit.startNanos()).isNegative();
+        permit.release(true);
+        assertThat(negativeClockLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRisesAboveTolerance() {
+        runWindow(limiter, 20, Duration.ofMillis(10));
+        int baselineLimit = limiter.getLimit();
+
+        runWindow(limiter, 20, Duration.ofMillis(100));
+        runWindow(limiter, 20, Duration.ofMillis(100));
+
+        assertThat(limiter.getLimit()).isLessThan(baselineLimit);
+    }
+
+    @Test
+    void limitGrowsWhileBusyAndLatencyIsFlat() {
+        int initial = limiter.getLimit();
+
+        runWindow(limiter, 20, Duration.ofMillis(10));
+        runWindow(limiter, 20, Duration.ofMillis(10));
+
+        assertThat(limiter.getLimit()).isGreaterThan(initial);
+    }
+
+    @Test
+    void baselineResetTakesTheLowestRttOfThePeriod() {
+        AdaptiveConcurrencyLimiter resetting = limiter(3);
+
+        runWindow(resetting, 1, Duration.ofMillis(20));
+        runWindow(resetting, 1, Duration.ofMillis(10));
+        runWindow(resetting, 1, Duration.ofMillis(40));
+
+        // The reset happens on a loaded window, which must not become the baseline
+        assertThat(resetting.getNoLoadRttNanos()).isEqualTo(Duration.ofMillis(10).toNanos());
+
+        for (int i = 0; i < 3; i++) {
+            runWindow(resetting, 1, Duration.ofMillis(30));
+        }
+
+        assertThat(resetting.getNoLoadRttNanos()).isEqualTo(Duration.ofMillis(30).toNanos());
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int baselineResetWindows) {
+        return new AdaptiveConcurrencyLimiter(
+                new AdaptiveConcurrencyProperties(true, 20, 5, 100, 2.0, 0.5, Duration.ofMillis(10), 1,
+                        baselineResetWindows),
+                clock::get);
+    }
+
+    /** Acquires {@code concurrency} permits at once and releases them after {@code rtt}, closing a window */
+    private void runWindow(AdaptiveConcurrencyLimiter target, int concurrency, Duration rtt) {
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Permit permit = target.tryAcquire();
+            if (permit.isAdmitted()) {
+                permits.add(permit);
+            }
+        }
+        clock.addAndGet(rtt.toNanos());
+        permits.forEach(permit -> permit.release(true));
+    }
+}
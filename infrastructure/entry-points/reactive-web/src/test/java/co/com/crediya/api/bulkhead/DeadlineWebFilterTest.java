@@ -0,0 +1,94 @@
+package co.com.crediya.api.bulkhead;
+
+import co.com.crediya.model.common.Deadline;
+import co.com.crediya.model.common.RequestPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineWebFilterTest {
+
+    private static final String HEADER = "X-Request-Timeout";
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeadlineWebFilter filter;
+    private AtomicReference<Deadline> seen;
+    private WebFilterChain recordingChain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new DeadlineWebFilter(new RequestPriorityClassifier(),
+                new DeadlineProperties(true, HEADER, Duration.ofSeconds(1),
+                        Map.of(RequestPriority.LOOKUP, Duration.ofSeconds(3))),
+                meterRegistry);
+        seen = new AtomicReference<>();
+        recordingChain = exchange -> Mono.deferContextual(context -> {
+            context.<Deadline>getOrEmpty(Deadline.CONTEXT_KEY).ifPresent(seen::set);
+            return Mono.empty();
+        });
+    }
+
+    @Test
+    void callerBudgetBecomesTheDeadlineOfTheRequest() {
+        run(MockServerHttpRequest.get("/api/users/1").header(HEADER, " 200 "));
+
+        assertThat(seen.get().remaining()).isPositive().isLessThanOrEqualTo(Duration.ofMillis(200));
+    }
+
+    @Test
+    void callerBudgetIsCappedAtTheMaximum() {
+        run(MockServerHttpRequest.get("/api/users/1").header(HEADER, "60000"));
+
+        assertThat(seen.get().remaining()).isLessThanOrEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void invalidBudgetsFallBackToTheClassDefault() {
+        for (String budget : new String[] {"soon", "-5", "0"}) {
+            run(MockServerHttpRequest.get("/api/users/1").header(HEADER, budget));
+
+            assertThat(seen.get().remaining()).isGreaterThan(Duration.ofSeconds(2))
+                    .isLessThanOrEqualTo(Duration.ofSeconds(3));
+        }
+    }
+
+    @Test
+    void expiredRequestIsCancelledAndAnswered504() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/users/1").header(HEADER, "20"));
+
+        StepVerifier.create(filter.filter(exchange, ignored -> Mono.never()))
+                .verifyComplete();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(exchange.getResponse().getBodyAsString().block()).contains("Request deadline exceeded");
+        assertThat(meterRegistry.get(DeadlineWebFilter.EXCEEDED_METRIC).tag("stage", "response").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void unlimitedStreamsGetNoDeadline() {
+        run(MockServerHttpRequest.get("/api/users/changes").header(HEADER, "20"));
+
+        assertThat(seen.get()).isNull();
+    }
+
+    private void run(MockServerHttpRequest.BaseBuilder<?> request) {
+        seen.set(null);
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(request), recordingChain))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,83 @@
+package co.com.crediya.api.bulkhead;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveBulkheadTest {
+
+    @Test
+    void queuedRequestRunsWhenSlotIsReleased() {
+        ReactiveBulkhead bulkhead = new ReactiveBulkhead(1, 1, Duration.ofSeconds(5));
+        Sinks.Empty<Void> first = Sinks.empty();
+
+        bulkhead.execute(first.asMono()).subscribe();
+        StepVerifier.create(bulkhead.execute(Mono.empty()))
+                .then(() -> assertThat(bulkhead.queuedCount()).isEqualTo(1))
+                .then(first::tryEmitEmpty)
+                .verifyComplete();
+
+        assertThat(bulkhead.activeCount()).isZero();
+        assertThat(bulkhead.queuedCount()).isZero();
+    }
+
+    @Test
+    void requestIsRejectedWhenQueueIsFull() {
+        ReactiveBulkhead bulkhead = new ReactiveBulkhead(1, 0, Duration.ofSeconds(5));
+        bulkhead.execute(Mono.never()).subscribe();
+
+        StepVerifier.create(bulkhead.execute(Mono.empty()))
+                .expectErrorMatches(error -> error instanceof ReactiveBulkhead.RejectedException rejected
+                        && rejected.queueFull())
+                .verify();
+    }
+
+    @Test
+    void queuedRequestTimesOutAndLeavesNoSlotBehind() {
+        ReactiveBulkhead bulkhead = new ReactiveBulkhead(1, 1, Duration.ofMillis(50));
+        Sinks.Empty<Void> first = Sinks.empty();
+        bulkhead.execute(first.asMono()).subscribe();
+
+        StepVerifier.create(bulkhead.execute(Mono.empty()))
+                .expectErrorMatches(error -> error instanceof ReactiveBulkhead.RejectedException rejected
+                        && !rejected.queueFull())
+                .verify(Duration.ofSeconds(1));
+
+        first.tryEmitEmpty();
+        assertThat(bulkhead.activeCount()).isZero();
+        assertThat(bulkhead.queuedCount()).isZero();
+    }
+
+    @Test
+    void slotIsOnlyRequestedOnSubscription() {
+        ReactiveBulkhead bulkhead = new ReactiveBulkhead(1, 1, Duration.ofSeconds(5));
+
+        Mono<Void> notSubscribed = bulkhead.execute(Mono.never());
+        bulkhead.execute(Mono.never());
+
+        assertThat(bulkhead.activeCount()).isZero();
+        assertThat(bulkhead.queuedCount()).isZero();
+
+        StepVerifier.create(notSubscribed.timeout(Duration.ofMillis(10), Mono.empty()))
+                .verifyComplete();
+        assertThat(bulkhead.activeCount()).isZero();
+    }
+
+    @Test
+    void resubscribingTakesAndReleasesASlotEachTime() {
+        ReactiveBulkhead bulkhead = new ReactiveBulkhead(1, 0, Duration.ofSeconds(5));
+        Mono<Void> failing = bulkhead.execute(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(failing.retry(2))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertThat(bulkhead.activeCount()).isZero();
+        assertThat(bulkhead.queuedCount()).isZero();
+    }
+}
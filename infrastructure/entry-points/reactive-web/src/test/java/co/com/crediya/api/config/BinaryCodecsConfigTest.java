@@ -0,0 +1,87 @@
+package co.com.crediya.api.config;
+
+import co.com.crediya.api.dto.ApiResponse;
+import co.com.crediya.api.dto.TokenValidationResponseDTO;
+import co.com.crediya.api.dto.UserDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryCodecsConfigTest {
+
+    private static final ResolvableType RESPONSE_TYPE =
+            ResolvableType.forClassWithGenerics(ApiResponse.class, TokenValidationResponseDTO.class);
+
+    private ServerCodecConfigurer configurer;
+
+    @BeforeEach
+    void setUp() {
+        configurer = ServerCodecConfigurer.create();
+        new BinaryCodecsConfig(new Jackson2ObjectMapperBuilder()).configureHttpMessageCodecs(configurer);
+    }
+
+    @Test
+    void binaryFormatsRoundTripAndAreSmallerThanJson() {
+        ApiResponse<TokenValidationResponseDTO> response = validationResponse();
+
+        byte[] json = encode(response, MediaType.APPLICATION_JSON);
+        byte[] cbor = encode(response, MediaType.APPLICATION_CBOR);
+        byte[] smile = encode(response, BinaryCodecsConfig.APPLICATION_SMILE);
+
+        assertThat(cbor.length).isLessThan(json.length);
+        assertThat(smile.length).isLessThan(json.length);
+        assertThat(decode(cbor, MediaType.APPLICATION_CBOR)).isEqualTo(response);
+        assertThat(decode(smile, BinaryCodecsConfig.APPLICATION_SMILE)).isEqualTo(response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] encode(Object body, MediaType mediaType) {
+        HttpMessageWriter<Object> writer = (HttpMessageWriter<Object>) configurer.getWriters().stream()
+                .filter(candidate -> candidate.canWrite(RESPONSE_TYPE, mediaType))
+                .findFirst()
+                .orElseThrow();
+        MockServerHttpResponse httpResponse = new MockServerHttpResponse();
+        writer.write(Mono.just(body), RESPONSE_TYPE, mediaType, httpResponse, Map.of()).block();
+
+        DataBuffer joined = DataBufferUtils.join(httpResponse.getBody()).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        return bytes;
+    }
+
+    private Object decode(byte[] bytes, MediaType mediaType) {
+        HttpMessageReader<?> reader = configurer.getReaders().stream()
+                .filter(candidate -> candidate.canRead(RESPONSE_TYPE, mediaType))
+                .findFirst()
+                .orElseThrow();
+        MockServerHttpRequest request = MockServerHttpRequest.post("/")
+                .contentType(mediaType)
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(bytes)));
+        return reader.readMono(RESPONSE_TYPE, request, Map.of()).block();
+    }
+
+    private static ApiResponse<TokenValidationResponseDTO> validationResponse() {
+        UserDTO user = new UserDTO("3f6c1f0e-9a3b-4c55-8d7e-2b1a0c9d8e7f", "Ana", "Gomez",
+                LocalDate.of(1990, 5, 17), "Calle 10 # 20-30", "3001234567", "ana.gomez@crediya.co",
+                new BigDecimal("4500000.00"), "USER", "CC", "1234567890");
+        return ApiResponse.success(TokenValidationResponseDTO.valid(user, 3_540_000L), "Token validation completed");
+    }
+}
@@ -0,0 +1,89 @@
+package co.com.crediya.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingReactiveJwtDecoderTest {
+
+    private ReactiveJwtDecoder delegate;
+    private CachingReactiveJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ReactiveJwtDecoder.class);
+        decoder = new CachingReactiveJwtDecoder(delegate,
+                new JwtDecoderCacheProperties(true, 100L, Duration.ofMinutes(5)),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void reusedTokenIsDecodedOnce() {
+        Jwt jwt = jwt(Instant.now().plusSeconds(60));
+        when(delegate.decode("token")).thenReturn(Mono.just(jwt));
+
+        StepVerifier.create(decoder.decode("token")).expectNext(jwt).verifyComplete();
+        StepVerifier.create(decoder.decode("token")).expectNext(jwt).verifyComplete();
+
+        verify(delegate, times(1)).decode("token");
+    }
+
+    @Test
+    void expiredTokenIsNotServedFromCache() {
+        Jwt jwt = jwt(Instant.now().minusSeconds(1));
+        when(delegate.decode("token")).thenReturn(Mono.just(jwt));
+
+        StepVerifier.create(decoder.decode("token")).expectNext(jwt).verifyComplete();
+        StepVerifier.create(decoder.decode("token")).expectNext(jwt).verifyComplete();
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void cancelledRequestDoesNotAbortTheSharedDecode() {
+        Jwt jwt = jwt(Instant.now().plusSeconds(60));
+        Sinks.One<Jwt> decoded = Sinks.one();
+        when(delegate.decode("token")).thenReturn(decoded.asMono());
+
+        StepVerifier.create(decoder.decode("token")).thenCancel().verify();
+        StepVerifier.create(decoder.decode("token"))
+                .then(() -> decoded.tryEmitValue(jwt))
+                .expectNext(jwt)
+                .verifyComplete();
+
+        verify(delegate, times(1)).decode("token");
+    }
+
+    @Test
+    void invalidTokenIsNotCached() {
+        when(delegate.decode("bad")).thenReturn(Mono.error(new BadJwtException("Invalid signature")));
+
+        StepVerifier.create(decoder.decode("bad")).expectError(BadJwtException.class).verify();
+        StepVerifier.create(decoder.decode("bad")).expectError(BadJwtException.class).verify();
+
+        verify(delegate, times(2)).decode("bad");
+    }
+
+    private static Jwt jwt(Instant expiresAt) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("user-1")
+                .issuedAt(expiresAt.minusSeconds(3600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
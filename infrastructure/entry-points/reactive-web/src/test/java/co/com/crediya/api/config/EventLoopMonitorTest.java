@@ -0,0 +1,64 @@
+package co.com.crediya.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.LoopResources;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class EventLoopMonitorTest {
+
+    @Test
+    void callSiteIsFirstApplicationFrame() {
+        Stream<String> stack = Stream.of(
+                frame("java.lang.Thread", "sleep"),
+                frame("co.com.crediya.api.config.EventLoopMonitor", "onBlockingCall"),
+                frame("org.springframework.security.crypto.bcrypt.BCrypt", "hashpw"),
+                frame("co.com.crediya.api.SpringPasswordEncoderAdapter", "matches"),
+                frame("reactor.core.publisher.FluxMap$MapSubscriber", "onNext"));
+
+        assertThat(EventLoopMonitor.callSite(stack)).isEqualTo("co.com.crediya.api.SpringPasswordEncoderAdapter.matches");
+    }
+
+    @Test
+    void callSiteFallsBackToFirstLibraryFrame() {
+        Stream<String> stack = Stream.of(
+                frame("java.io.FileInputStream", "readBytes"),
+                frame("org.springframework.core.io.ClassPathResource", "getInputStream"),
+                frame("io.netty.channel.nio.NioEventLoop", "run"));
+
+        assertThat(EventLoopMonitor.callSite(stack)).isEqualTo("org.springframework.core.io.ClassPathResource.getInputStream");
+    }
+
+    @Test
+    void disabledMonitorIsRegisteredButNeverProbes() {
+        LoopResources loops = mock(LoopResources.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EventLoopMonitor monitor = new EventLoopMonitor(loops,
+                new NettyServerProperties(null, null, null, null, null, null, null),
+                new EventLoopMonitorProperties(false, null, null, true, null, null, null), meterRegistry);
+
+        monitor.start();
+
+        assertThat(monitor.isRunning()).isFalse();
+        assertThat(meterRegistry.getMeters()).isEmpty();
+        verifyNoInteractions(loops);
+    }
+
+    @Test
+    void sampleRateMustBeAFraction() {
+        assertThat(new EventLoopMonitorProperties(null, null, null, null, null, null, null).blockHoundSampleRate())
+                .isEqualTo(1.0);
+        assertThatThrownBy(() -> new EventLoopMonitorProperties(null, null, null, true, 1.5, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String frame(String className, String method) {
+        return className + "." + method;
+    }
+}
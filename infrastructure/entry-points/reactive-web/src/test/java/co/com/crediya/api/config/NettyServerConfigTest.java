@@ -0,0 +1,16 @@
+package co.com.crediya.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NettyServerConfigTest {
+
+    @Test
+    void uriTagCollapsesIdsAndDropsQuery() {
+        assertThat(NettyServerConfig.uriTag("/api/users/3f6c1f0e-9a3b-4c55-8d7e-2b1a0c9d8e7f/activity"))
+                .isEqualTo("/api/users/{id}/activity");
+        assertThat(NettyServerConfig.uriTag("/api/users/42")).isEqualTo("/api/users/{id}");
+        assertThat(NettyServerConfig.uriTag("/api/users/search?email=a@b.co")).isEqualTo("/api/users/search");
+    }
+}
@@ -0,0 +1,45 @@
+package co.com.crediya.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncoderConfigTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void bcryptCostDoublesUntilTheTarget() {
+        assertThat(PasswordEncoderConfig.chooseBcryptCost(50 * MS, 10, 14, 250 * MS)).isEqualTo(12);
+        assertThat(PasswordEncoderConfig.chooseBcryptCost(400 * MS, 10, 14, 250 * MS)).isEqualTo(10);
+        assertThat(PasswordEncoderConfig.chooseBcryptCost(MS, 10, 14, 250 * MS)).isEqualTo(14);
+    }
+
+    @Test
+    void argon2IterationsScaleLinearly() {
+        assertThat(PasswordEncoderConfig.chooseArgon2Iterations(40 * MS, 2, 10, 250 * MS)).isEqualTo(10);
+        assertThat(PasswordEncoderConfig.chooseArgon2Iterations(100 * MS, 2, 10, 250 * MS)).isEqualTo(5);
+        assertThat(PasswordEncoderConfig.chooseArgon2Iterations(600 * MS, 2, 10, 250 * MS)).isEqualTo(2);
+    }
+
+    @Test
+    void legacyAndWeakerHashesAreVerifiedAndFlaggedForRehash() {
+        PasswordHashingProperties properties = new PasswordHashingProperties(null, Duration.ofMillis(250), 1,
+                new PasswordHashingProperties.Bcrypt(5, 4, 6), null);
+        PasswordEncoder encoder = new PasswordEncoderConfig().passwordEncoder(properties, new SimpleMeterRegistry());
+
+        String legacy = new BCryptPasswordEncoder(4).encode("Secret-1!");
+        assertThat(encoder.matches("Secret-1!", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+
+        String current = encoder.encode("Secret-1!");
+        assertThat(current).startsWith("{bcrypt}");
+        assertThat(encoder.matches("Secret-1!", current)).isTrue();
+        assertThat(encoder.upgradeEncoding(current)).isFalse();
+    }
+}
@@ -0,0 +1,68 @@
+package co.com.crediya.api.health;
+
+import co.com.crediya.api.config.PasswordHashingProperties;
+import co.com.crediya.health.CachedHealthIndicator;
+import co.com.crediya.health.CachedHealthProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashingHealthIndicatorTest {
+
+    private final PasswordHashingLoad load = new PasswordHashingLoad();
+
+    @Test
+    void notCheckedYetIsUnknown() {
+        assertThat(indicator(Duration.ofMinutes(1)).health().getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+
+    @Test
+    void hashesWithinTargetAreUp() {
+        PasswordHashingHealthIndicator indicator = indicator(Duration.ofMinutes(1));
+        load.measure(() -> "hash");
+
+        indicator.refresh();
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void hashesFarSlowerThanTargetAreDegraded() {
+        PasswordHashingHealthIndicator indicator = indicator(Duration.ofMinutes(1));
+        load.measure(() -> {
+            sleep(Duration.ofMillis(20));
+            return "hash";
+        });
+
+        indicator.refresh();
+
+        assertThat(indicator.health().getStatus()).isEqualTo(CachedHealthIndicator.DEGRADED);
+    }
+
+    @Test
+    void staleResultIsDown() {
+        PasswordHashingHealthIndicator indicator = indicator(Duration.ZERO);
+        indicator.refresh();
+        sleep(Duration.ofMillis(1));
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    private PasswordHashingHealthIndicator indicator(Duration staleAfter) {
+        PasswordHashingProperties hashingProperties =
+                new PasswordHashingProperties(null, Duration.ofMillis(1), null, null, null);
+        return new PasswordHashingHealthIndicator(load, hashingProperties, new CachedHealthProperties(null, staleAfter),
+                new HealthIndicatorsProperties(3.0, null, null));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package co.com.crediya.api.idempotency;
+
+import co.com.crediya.model.idempotency.IdempotencyRecord;
+import co.com.crediya.model.idempotency.gateways.IdempotencyRepository;
+import co.com.crediya.usecase.idempotency.IdempotencyUseCase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyWebFilterTest {
+
+    private static final String KEY = "3f1c9a7e-create-user";
+    private static final String BODY = "{\"email\":\"ana@example.com\"}";
+    private static final String CREATED = "{\"id\":\"1\"}";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private InMemoryIdempotencyRepository repository;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryIdempotencyRepository();
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void completedResponseIsReplayedWithoutRunningTheRequestAgain() {
+        run(newFilter(), BODY, respond(HttpStatus.CREATED));
+
+        // A fresh filter has an empty node-local tier, so the replay comes from the shared store
+        MockServerWebExchange replayed = run(newFilter(), BODY, respond(HttpStatus.CREATED));
+
+        assertThat(executions).hasValue(1);
+        assertThat(replayed.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replayed.getResponse().getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(replayed.getResponse().getBodyAsString().block()).isEqualTo(CREATED);
+    }
+
+    @Test
+    void requestRunningOnAnotherNodeGets409() {
+        Disposable running = newFilter().filter(exchange(BODY), ignored -> Mono.never()).subscribe();
+        try {
+            MockServerWebExchange duplicate = run(newFilter(), BODY, respond(HttpStatus.CREATED));
+
+            assertThat(executions).hasValue(0);
+            assertThat(duplicate.getResponse().getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+            assertThat(duplicate.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("1");
+            assertThat(errorCode(duplicate)).isEqualTo("IDEMPOTENT_REQUEST_IN_PROGRESS");
+        } finally {
+            running.dispose();
+        }
+    }
+
+    @Test
+    void keyReusedForADifferentRequestGets422() {
+        IdempotencyWebFilter filter = newFilter();
+        run(filter, BODY, respond(HttpStatus.CREATED));
+
+        MockServerWebExchange reused = run(filter, "{\"email\":\"other@example.com\"}", respond(HttpStatus.CREATED));
+
+        assertThat(executions).hasValue(1);
+        assertThat(reused.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(reused.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(errorCode(reused)).isEqualTo("IDEMPOTENCY_KEY_REUSED");
+    }
+
+    @Test
+    void serverErrorReleasesTheKeySoARetryRunsAgain() {
+        IdempotencyWebFilter filter = newFilter();
+        run(filter, BODY, respond(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertThat(repository.records).isEmpty();
+
+        MockServerWebExchange retried = run(filter, BODY, respond(HttpStatus.CREATED));
+
+        assertThat(executions).hasValue(2);
+        assertThat(retried.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retried.getResponse().getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+    }
+
+    @Test
+    void emptyKeyIsRejectedInsteadOfSharedByEveryRequest() {
+        MockServerWebExchange exchange = exchange(BODY, "");
+        StepVerifier.create(newFilter().filter(exchange, respond(HttpStatus.CREATED)))
+                .verifyComplete();
+
+        assertThat(executions).hasValue(0);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(errorCode(exchange)).isEqualTo("INVALID_DATA");
+        assertThat(repository.records).isEmpty();
+    }
+
+    @Test
+    void longPrincipalLeavesTheWholeKeyLengthToTheClient() {
+        Principal principal = () -> "service-account-" + "p".repeat(300);
+        MockServerWebExchange exchange = exchange(BODY, "k".repeat(255));
+        StepVerifier.create(newFilter().filter(exchange.mutate().principal(Mono.just(principal)).build(),
+                        respond(HttpStatus.CREATED)))
+                .verifyComplete();
+
+        assertThat(executions).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(repository.records.keySet()).allSatisfy(key -> assertThat(key).hasSizeLessThanOrEqualTo(320));
+    }
+
+    private IdempotencyWebFilter newFilter() {
+        return new IdempotencyWebFilter(new IdempotencyUseCase(repository),
+                new IdempotencyProperties(null, null, null, null, null, null, null, null),
+                objectMapper, new SimpleMeterRegistry());
+    }
+
+    private WebFilterChain respond(HttpStatus status) {
+        return exchange -> {
+            executions.incrementAndGet();
+            exchange.getResponse().setStatusCode(status);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Mono.just(
+                    exchange.getResponse().bufferFactory().wrap(CREATED.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange exchange(String body) {
+        return exchange(body, KEY);
+    }
+
+    private static MockServerWebExchange exchange(String body, String key) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/users")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body));
+    }
+
+    private static MockServerWebExchange run(IdempotencyWebFilter filter, String body, WebFilterChain chain) {
+        MockServerWebExchange exchange = exchange(body);
+        StepVerifier.create(filter.filter(exchange, chain))
+                .verifyComplete();
+        return exchange;
+    }
+
+    private String errorCode(MockServerWebExchange exchange) {
+        try {
+            JsonNode body = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+            assertThat(body.get("path").asText()).isEqualTo("/api/users");
+            return body.get("error_code").asText();
+        } catch (Exception e) {
+            throw new AssertionError("Rejection body is not valid JSON", e);
+        }
+    }
+
+    /** Shared store both filters talk to, standing in for the idempotency table */
+    private static final class InMemoryIdempotencyRepository implements IdempotencyRepository {
+
+        private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+
+        @Override
+        public Mono<Boolean> tryClaim(String key, String requestHash, Instant lockedUntil) {
+            IdempotencyRecord claim = IdempotencyRecord.builder()
+                    .key(key)
+                    .requestHash(requestHash)
+                    .expiresAt(lockedUntil)
+                    .build();
+            return Mono.fromSupplier(() -> records.putIfAbsent(key, claim) == null);
+        }
+
+        @Override
+        public Mono<IdempotencyRecord> findByKey(String key) {
+            return Mono.fromSupplier(() -> records.get(key));
+        }
+
+        @Override
+        public Mono<Void> complete(IdempotencyRecord completed) {
+            return Mono.fromRunnable(() -> records.put(completed.getKey(), completed));
+        }
+
+        @Override
+        public Mono<Void> release(String key) {
+            return Mono.fromRunnable(() -> records.remove(key));
+        }
+    }
+}
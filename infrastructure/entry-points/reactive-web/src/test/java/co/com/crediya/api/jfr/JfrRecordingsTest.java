@@ -0,0 +1,65 @@
+package co.com.crediya.api.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrRecordingsTest {
+
+    private final JfrRecordings recordings = new JfrRecordings(new JfrProperties(
+            false, null, null, Duration.ofSeconds(30), DataSize.ofMegabytes(10), 1));
+
+    @AfterEach
+    void closeRecordings() {
+        recordings.stop();
+    }
+
+    @Test
+    void longerRequestsAreCutToMaxDuration() throws Exception {
+        Recording recording = recordings.start("profile", Duration.ofHours(1));
+
+        assertThat(recording.getDuration()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(recording.getState()).isEqualTo(RecordingState.RUNNING);
+        assertThat(recordings.find(recording.getId())).contains(recording);
+    }
+
+    @Test
+    void unknownSettingsAreRejected() {
+        assertThatThrownBy(() -> recordings.start("/etc/custom.jfc", Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void recordingsBeyondTheLimitAreRejectedUntilOneIsDeleted() throws Exception {
+        Recording first = recordings.start("default", Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> recordings.start("default", Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(recordings.delete(first.getId())).isTrue();
+        assertThat(recordings.start("default", Duration.ofSeconds(5))).isNotNull();
+    }
+
+    @Test
+    void dumpCopiesARunningRecording() throws Exception {
+        Recording recording = recordings.start("default", Duration.ofSeconds(5));
+        new TokenEvent(TokenEvent.ISSUE, "access").commit();
+
+        Path file = recordings.dump(recording);
+        try {
+            assertThat(Files.size(file)).isPositive();
+            assertThat(recording.getState()).isEqualTo(RecordingState.RUNNING);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
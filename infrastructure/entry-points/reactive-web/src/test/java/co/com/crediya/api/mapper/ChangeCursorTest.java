@@ -0,0 +1,49 @@
+package co.com.crediya.api.mapper;
+
+import co.com.crediya.model.user.UserChangePosition;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeCursorTest {
+
+    @Test
+    void tailPositionsRoundTrip() {
+        UserChangePosition position = UserChangePosition.of(90214, 1024);
+
+        assertThat(ChangeCursor.decode(ChangeCursor.encode(position))).isEqualTo(position);
+    }
+
+    @Test
+    void snapshotPositionsRoundTripWithTheirUser() {
+        UserChangePosition position = UserChangePosition.horizon(90214).inSnapshot("3f1c2a64-7d2e-4b7a-9a51-6f0f3c1d2e4b");
+
+        UserChangePosition decoded = ChangeCursor.decode(ChangeCursor.encode(position));
+
+        assertThat(decoded).isEqualTo(position);
+        assertThat(decoded.isSnapshot()).isTrue();
+    }
+
+    @Test
+    void malformedPositionsAreRejected() {
+        assertRejected("not base64!");
+        assertRejected(encoded("1024"));
+        assertRejected(encoded("a:1"));
+        assertRejected(encoded("-1:5"));
+        assertRejected(encoded("1:2:not-a-uuid"));
+        assertRejected(encoded("1:2:3:4"));
+    }
+
+    private static void assertRejected(String value) {
+        assertThatThrownBy(() -> ChangeCursor.decode(value)).isInstanceOf(InvalidUserDataException.class);
+    }
+
+    private static String encoded(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,50 @@
+package co.com.crediya.api.mapper;
+
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCursorTest {
+
+    private static final String USER_ID = "3f1c2a64-7d2e-4b7a-9a51-6f0f3c1d2e4b";
+
+    @Test
+    void cursorsRoundTripWithTheExactScore() {
+        // Not representable in a short decimal; a rounded score would skip or repeat hits at the page edge
+        SearchCursor cursor = new SearchCursor(0.1 + 0.2, USER_ID);
+
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.score()).isEqualTo(0.1 + 0.2);
+    }
+
+    @Test
+    void unrankedCursorsRoundTrip() {
+        SearchCursor cursor = new SearchCursor(0, USER_ID);
+
+        assertThat(SearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertRejected("not base64!");
+        assertRejected(encoded("0.5"));
+        assertRejected(encoded("high:" + USER_ID));
+        assertRejected(encoded("0.5:not-a-uuid"));
+        assertRejected(encoded(":" + USER_ID));
+    }
+
+    private static void assertRejected(String value) {
+        assertThatThrownBy(() -> SearchCursor.decode(value)).isInstanceOf(InvalidUserDataException.class);
+    }
+
+    private static String encoded(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
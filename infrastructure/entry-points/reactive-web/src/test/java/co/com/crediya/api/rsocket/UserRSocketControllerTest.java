@@ -0,0 +1,98 @@
+package co.com.crediya.api.rsocket;
+
+import co.com.crediya.api.Exception.JwtValidationException;
+import co.com.crediya.api.JwtService;
+import co.com.crediya.api.dto.TokenValidationRequestDTO;
+import co.com.crediya.model.user.Role;
+import co.com.crediya.model.user.User;
+import co.com.crediya.model.user.exception.InvalidUserDataException;
+import co.com.crediya.model.valueobject.BaseSalary;
+import co.com.crediya.model.valueobject.Email;
+import co.com.crediya.model.valueobject.Password;
+import co.com.crediya.model.valueobject.ProperName;
+import co.com.crediya.usecase.user.UserUseCase;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserRSocketControllerTest {
+
+    private static final String USER_ID = "1b7e4a4c-0000-4000-8000-000000000001";
+
+    private UserUseCase userUseCase;
+    private JwtService jwtService;
+    private UserRSocketController controller;
+
+    @BeforeEach
+    void setUp() {
+        userUseCase = mock(UserUseCase.class);
+        jwtService = mock(JwtService.class);
+        controller = new UserRSocketController(userUseCase, jwtService,
+                new RSocketProperties(null, 100, 2, 4));
+    }
+
+    @Test
+    void invalidTokenIsAnsweredAndAudited() {
+        when(jwtService.getTokenClaims("bad")).thenThrow(new JwtValidationException("Invalid token signature"));
+
+        StepVerifier.create(controller.validateToken(new TokenValidationRequestDTO("bad", "gateway")))
+                .expectNextMatches(response -> !response.valid() && "Invalid token signature".equals(response.message()))
+                .verifyComplete();
+
+        verify(userUseCase).recordTokenValidationFailure("Invalid token signature");
+    }
+
+    @Test
+    void batchValidationKeepsRequestOrder() {
+        // The valid token answers last, so responses only come back in order if the controller reorders them
+        Claims claims = mock(Claims.class);
+        when(claims.getSubject()).thenReturn(USER_ID);
+        when(jwtService.getTokenClaims("a")).thenReturn(claims);
+        when(jwtService.getRemainingExpirationTime(claims)).thenReturn(60_000L);
+        when(userUseCase.validateTokenSubject(USER_ID)).thenReturn(Mono.just(user()).delayElement(Duration.ofMillis(50)));
+        when(jwtService.getTokenClaims("b")).thenThrow(new JwtValidationException("Invalid token"));
+
+        StepVerifier.create(controller.validateTokens(Flux.just(
+                        new TokenValidationRequestDTO("a", null),
+                        new TokenValidationRequestDTO("b", null))))
+                .assertNext(response -> {
+                    assertThat(response.valid()).isTrue();
+                    assertThat(response.user().id()).isEqualTo(USER_ID);
+                })
+                .assertNext(response -> {
+                    assertThat(response.valid()).isFalse();
+                    assertThat(response.message()).isEqualTo("Invalid token");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void tooManyIdsAreRejected() {
+        StepVerifier.create(controller.getUsersByIds(List.of("1", "2", "3")))
+                .expectError(InvalidUserDataException.class)
+                .verify();
+
+        verify(userUseCase, never()).findUsersByIds(any(), anyInt());
+    }
+
+    private static User user() {
+        return new User(USER_ID, new ProperName("Ana", "first name"), new ProperName("Gomez", "last name"),
+                new Email("ana@example.com"), new BaseSalary(new BigDecimal("1000000")),
+                Password.fromHash("$2a$10$hash"), Role.USER);
+    }
+}
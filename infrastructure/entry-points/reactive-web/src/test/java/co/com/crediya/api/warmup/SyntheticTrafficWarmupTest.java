@@ -0,0 +1,45 @@
+package co.com.crediya.api.warmup;
+
+import co.com.crediya.api.JwtService;
+import co.com.crediya.model.user.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SyntheticTrafficWarmupTest {
+
+    @Test
+    void onlyReadOnlyExistenceChecksAreSent() {
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.generateAccessToken(anyString(), eq(Role.USER))).thenReturn("token");
+        List<ClientRequest> sent = new CopyOnWriteArrayList<>();
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            sent.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        });
+
+        Long answered = new SyntheticTrafficWarmup(jwtService, builder).run(8080, 10, 4).block();
+
+        assertThat(answered).isEqualTo(10L);
+        assertThat(sent).hasSize(10).allSatisfy(request -> {
+            assertThat(request.method()).isEqualTo(HttpMethod.GET);
+            assertThat(request.url().getPath()).matches("/api/users/exists|/api/users/[0-9a-f-]{36}/exists");
+            assertThat(request.headers().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer token");
+        });
+        assertThat(sent).anySatisfy(request -> assertThat(request.url().getQuery()).endsWith("@warmup.invalid"));
+    }
+}
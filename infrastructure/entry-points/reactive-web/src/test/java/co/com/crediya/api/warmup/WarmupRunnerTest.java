@@ -0,0 +1,71 @@
+package co.com.crediya.api.warmup;
+
+import co.com.crediya.api.JwtService;
+import co.com.crediya.model.user.Role;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WarmupRunnerTest {
+
+    private JwtService jwtService;
+    private SyntheticTrafficWarmup syntheticTraffic;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = mock(JwtService.class);
+        syntheticTraffic = mock(SyntheticTrafficWarmup.class);
+        when(jwtService.generateAccessToken(anyString(), any(Role.class))).thenReturn("token");
+    }
+
+    @Test
+    void readinessIsDownUntilWarmupCompletes() {
+        WarmupRunner runner = runner(new WarmupProperties(true, Duration.ofSeconds(30), 10, 0, null));
+        WarmupHealthIndicator indicator = new WarmupHealthIndicator(runner);
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        runner.warmUp(-1).block();
+
+        assertThat(runner.getState()).isEqualTo(WarmupRunner.State.COMPLETED);
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+        verify(jwtService, times(10)).getTokenClaims("token");
+        verifyNoInteractions(syntheticTraffic);
+    }
+
+    @Test
+    void readinessIsUpWhenBudgetRunsOut() {
+        WarmupRunner runner = runner(new WarmupProperties(true, Duration.ZERO, 10, 0, null));
+
+        runner.warmUp(-1).block();
+
+        assertThat(runner.getState()).isEqualTo(WarmupRunner.State.BUDGET_EXHAUSTED);
+        assertThat(new WarmupHealthIndicator(runner).health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void disabledWarmupIsReadyImmediately() {
+        WarmupRunner runner = runner(new WarmupProperties(false, null, null, null, null));
+
+        assertThat(new WarmupHealthIndicator(runner).health().getStatus()).isEqualTo(Status.UP);
+        verifyNoInteractions(jwtService);
+    }
+
+    private WarmupRunner runner(WarmupProperties properties) {
+        return new WarmupRunner(jwtService, JsonMapper.builder().findAndAddModules().build(), syntheticTraffic,
+                properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,60 @@
+package co.com.crediya.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Health computed in the background by {@link CachedHealthRefresher} and served from memory,
+ * so a probe returns at once and never adds work to a resource that is already saturated.
+ * A result older than {@code stale-after} means the refresh itself is stuck and is reported DOWN.
+ * Every indicator of the service extends it, so all of them share one refresh cadence, one staleness
+ * rule and one {@link #DEGRADED} status.
+ */
+public abstract class CachedHealthIndicator implements HealthIndicator {
+
+    /** Serving, but close to its limits; mapped to HTTP 200 so busy nodes are not restarted */
+    public static final Status DEGRADED = new Status("DEGRADED");
+
+    private final Duration staleAfter;
+    private volatile Health cached = Health.unknown().withDetail("reason", "Not checked yet").build();
+    private volatile long checkedAtNanos = System.nanoTime();
+
+    protected CachedHealthIndicator(CachedHealthProperties properties) {
+        this.staleAfter = properties.staleAfter();
+    }
+
+    /**
+     * Computes the current health; runs on a refresher thread, never on a probe, so it may block
+     */
+    protected abstract Health check();
+
+    @Override
+    public final Health health() {
+        long ageNanos = System.nanoTime() - checkedAtNanos;
+        if (ageNanos > staleAfter.toNanos()) {
+            return Health.down()
+                    .withDetail("reason", "Last check is stale")
+                    .withDetail("ageMs", TimeUnit.NANOSECONDS.toMillis(ageNanos))
+                    .build();
+        }
+        return cached;
+    }
+
+    /**
+     * Recomputes the cached health; called by {@link CachedHealthRefresher}
+     */
+    public final void refresh() {
+        Health health;
+        try {
+            health = check();
+        } catch (RuntimeException e) {
+            health = Health.down(e).build();
+        }
+        cached = health;
+        checkedAtNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,22 @@
+package co.com.crediya.health;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings shared by every {@link CachedHealthIndicator}; the thresholds of each indicator
+ * live next to it under the same prefix
+ * @param refreshInterval Time between background checks
+ * @param staleAfter Age past which a cached result is no longer trusted and is reported DOWN
+ */
+@ConfigurationProperties(prefix = "health-indicators")
+public record CachedHealthProperties(
+        Duration refreshInterval,
+        Duration staleAfter) {
+
+    public CachedHealthProperties {
+        refreshInterval = refreshInterval != null ? refreshInterval : Duration.ofSeconds(5);
+        staleAfter = staleAfter != null ? staleAfter : Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,61 @@
+package co.com.crediya.health;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Refreshes every {@link CachedHealthIndicator} in the background every {@code refresh-interval}.
+ * Each indicator gets its own thread, so a check blocked on a slow resource never delays the others.
+ */
+@Slf4j
+@Component
+public class CachedHealthRefresher implements SmartLifecycle {
+
+    private final ObjectProvider<CachedHealthIndicator> indicators;
+    private final CachedHealthProperties properties;
+
+    private volatile ScheduledExecutorService executor;
+
+    public CachedHealthRefresher(ObjectProvider<CachedHealthIndicator> indicators,
+                                 CachedHealthProperties properties) {
+        this.indicators = indicators;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        List<CachedHealthIndicator> refreshed = indicators.orderedStream().toList();
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(Math.max(1, refreshed.size()), runnable -> {
+            Thread thread = new Thread(runnable, "health-refresher-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.refreshInterval().toMillis();
+        refreshed.forEach(indicator ->
+                executor.scheduleWithFixedDelay(indicator::refresh, 0, intervalMs, TimeUnit.MILLISECONDS));
+        log.info("Refreshing {} health indicators every {} ms", refreshed.size(), intervalMs);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = executor;
+        if (current != null) {
+            current.shutdownNow();
+        }
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}